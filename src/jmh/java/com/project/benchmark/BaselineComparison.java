@@ -0,0 +1,87 @@
+package com.project.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Compares a JMH JSON result file against the committed baseline and exits non-zero when a benchmark got
+// slower, or allocates more per operation, by more than the tolerance. Run after a benchmark run with:
+//   mvn -Pbenchmarks compile exec:exec@compare-baseline [-Dbaseline.tolerance=0.10]
+public final class BaselineComparison {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path baselineFile = Path.of(args[0]);
+        Path latestFile = Path.of(args[1]);
+        double tolerance = Double.parseDouble(args[2]);
+
+        if (!Files.exists(baselineFile)) {
+            System.out.println("No baseline at " + baselineFile + "; record one on the reference machine with:");
+            System.out.println("  mvn -Pbenchmarks compile exec:exec -Djmh.result=benchmarks/results/baseline.json");
+            System.exit(2);
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(objectMapper.readTree(baselineFile.toFile()));
+        Map<String, JsonNode> latest = index(objectMapper.readTree(latestFile.toFile()));
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %8s %10s%n", "benchmark", "baseline", "latest", "change", "alloc");
+        for (Map.Entry<String, JsonNode> entry : latest.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s %14s%n", entry.getKey(), "new");
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            double oldScore = before.path("primaryMetric").path("score").asDouble();
+            double newScore = after.path("primaryMetric").path("score").asDouble();
+            // Throughput modes are better when higher, time modes when lower
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            double change = oldScore == 0 ? 0 : (newScore - oldScore) / oldScore;
+            boolean slower = higherIsBetter ? change < -tolerance : change > tolerance;
+
+            double oldAlloc = allocation(before);
+            double newAlloc = allocation(after);
+            boolean allocates = newAlloc > oldAlloc * (1 + tolerance) && newAlloc - oldAlloc >= 1;
+
+            if (slower || allocates) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %+7.1f%% %+9.0fB%s%n", entry.getKey(), oldScore, newScore,
+                    change * 100, newAlloc - oldAlloc, slower || allocates ? "  REGRESSION" : "");
+        }
+
+        System.out.println(regressions == 0
+                ? "PASS: within " + Math.round(tolerance * 100) + "% of the baseline"
+                : "FAIL: " + regressions + " regressions");
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    // Keyed by benchmark method plus its @Param values, so every parameter combination is compared separately
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                    .replace("com.project.benchmark.", ""));
+            result.path("params").fields().forEachRemaining(param ->
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            byKey.put(key.toString(), result);
+        }
+        return byKey;
+    }
+
+    private static double allocation(JsonNode result) {
+        return result.path("secondaryMetrics").path(ALLOCATION).path("score").asDouble();
+    }
+}
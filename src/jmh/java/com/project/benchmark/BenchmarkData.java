@@ -0,0 +1,107 @@
+package com.project.benchmark;
+
+import com.project.entity.Category;
+import com.project.entity.Coupon;
+import com.project.entity.Order;
+import com.project.entity.OrderItem;
+import com.project.entity.Product;
+import com.project.enums.DiscountType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+// Deterministic synthetic entities, shaped like production rows
+final class BenchmarkData {
+
+    private static final long SEED = 42;
+
+    private BenchmarkData() {
+    }
+
+    static List<Product> products(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Category> categories = new ArrayList<>();
+        for (long i = 1; i <= 20; i++) {
+            Category category = new Category();
+            category.setId(i);
+            category.setName("Category " + i);
+            categories.add(category);
+        }
+
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(product(i + 1L, categories.get(i % categories.size()), random));
+        }
+        return products;
+    }
+
+    static Product product(long id, Category category, SplittableRandom random) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id + " wireless noise cancelling headphones");
+        product.setDescription("Over-ear headphones with 30h battery life, USB-C charging and a carrying case. Item " + id);
+        product.setPrice(BigDecimal.valueOf(random.nextInt(1_000, 100_000), 2));
+        product.setCostPrice(BigDecimal.valueOf(random.nextInt(500, 50_000), 2));
+        product.setSku("SKU-" + id);
+        product.setStockQuantity(random.nextInt(0, 500));
+        product.setCategory(category);
+        product.setWeight(BigDecimal.valueOf(random.nextInt(100, 5_000), 2));
+        product.setDimensions(Map.of("width", 18.5, "height", 20.0, "depth", 8.0));
+        product.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(id));
+        product.setUpdatedAt(product.getCreatedAt());
+        return product;
+    }
+
+    static Order order(int itemCount) {
+        List<Product> products = products(itemCount);
+        Order order = new Order();
+        order.setId(1L);
+        order.setOrderNumber("ORD-1700000000000");
+        order.setCurrency("USD");
+        order.setShippingFirstName("Ada");
+        order.setShippingLastName("Lovelace");
+        order.setShippingAddressLine1("12 Analytical Engine Road");
+        order.setShippingCity("London");
+        order.setShippingPostalCode("NW1 6XE");
+        order.setShippingCountry("GB");
+        order.setCreatedAt(LocalDateTime.of(2024, 6, 1, 12, 0));
+
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (Product product : products) {
+            OrderItem item = new OrderItem();
+            item.setId(product.getId());
+            // Back-reference left unset: OrderItem.order has no @JsonIgnore and would recurse
+            item.setProduct(product);
+            item.setQuantity(2);
+            item.setUnitPrice(product.getPrice());
+            item.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(2)));
+            item.setProductName(product.getName());
+            item.setProductSku(product.getSku());
+            order.getItems().add(item);
+            subtotal = subtotal.add(item.getTotalPrice());
+        }
+        order.setSubtotal(subtotal);
+        order.setTotalAmount(subtotal);
+        return order;
+    }
+
+    static Coupon coupon(DiscountType type) {
+        Coupon coupon = new Coupon();
+        coupon.setId(1L);
+        coupon.setCode("SAVE10");
+        coupon.setType(type);
+        coupon.setValue(type == DiscountType.PERCENTAGE ? BigDecimal.TEN : BigDecimal.valueOf(1500, 2));
+        coupon.setMinimumAmount(BigDecimal.valueOf(5000, 2));
+        coupon.setMaximumDiscount(BigDecimal.valueOf(10000, 2));
+        coupon.setUsageLimit(1_000_000);
+        coupon.setUsedCount(10);
+        coupon.setIsActive(true);
+        coupon.setStartsAt(LocalDateTime.now().minusDays(1));
+        coupon.setExpiresAt(LocalDateTime.now().plusDays(30));
+        return coupon;
+    }
+}
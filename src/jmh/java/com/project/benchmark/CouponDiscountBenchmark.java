@@ -0,0 +1,48 @@
+package com.project.benchmark;
+
+import com.project.entity.Coupon;
+import com.project.enums.DiscountType;
+import com.project.service.CouponService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CouponDiscountBenchmark {
+
+    @Param({"PERCENTAGE", "FIXED_AMOUNT"})
+    private DiscountType type;
+
+    private CouponService couponService;
+    private Coupon coupon;
+    private BigDecimal orderAmount;
+
+    @Setup
+    public void setUp() {
+        // calculateDiscount is pure; the repository is never touched
+        couponService = new CouponService(null, null, null, null, null);
+        coupon = BenchmarkData.coupon(type);
+        orderAmount = new BigDecimal("249.99");
+    }
+
+    @Benchmark
+    public BigDecimal calculateDiscount() {
+        return couponService.calculateDiscount(coupon, orderAmount);
+    }
+}
@@ -0,0 +1,70 @@
+package com.project.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.project.dto.ApiResponse;
+import com.project.dto.OrderDto;
+import com.project.dto.ProductDto;
+import com.project.entity.Product;
+import com.project.mapper.OrderMapper;
+import com.project.mapper.ProductMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ProductDto product;
+    private OrderDto order;
+    private ApiResponse<List<ProductDto>> productPage;
+
+    @Setup
+    public void setUp() {
+        // Same settings Spring Boot applies to the MVC ObjectMapper
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        // Responses are DTOs; entities are rejected by the MVC ObjectMapper
+        ProductMapper productMapper = Mappers.getMapper(ProductMapper.class);
+        List<Product> products = BenchmarkData.products(20);
+        product = productMapper.toDto(products.get(0));
+        order = Mappers.getMapper(OrderMapper.class).toDto(BenchmarkData.order(5));
+        productPage = ApiResponse.success(productMapper.toDtoList(products));
+    }
+
+    @Benchmark
+    public byte[] product() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] orderWithItems() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public byte[] apiResponseProductPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(productPage);
+    }
+}
@@ -0,0 +1,74 @@
+package com.project.benchmark;
+
+import com.project.security.JwtTokenService;
+import com.project.security.TokenDenylist;
+import com.project.security.UserPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenBenchmark {
+
+    private JwtTokenService jwtTokenService;
+    private UserPrincipal principal;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenService = new JwtTokenService();
+        setField(jwtTokenService, "jwtSecret", Base64.getEncoder().encodeToString(new byte[64]));
+        setField(jwtTokenService, "accessTokenExpiration", 3600L);
+        setField(jwtTokenService, "issuer", "ecommerce-app");
+        setField(jwtTokenService, "verifiedCacheSize", 10_000L);
+        setField(jwtTokenService, "tokenDenylist", new TokenDenylist(null));
+        Method init = ReflectionUtils.findMethod(JwtTokenService.class, "init");
+        ReflectionUtils.makeAccessible(init);
+        ReflectionUtils.invokeMethod(init, jwtTokenService);
+
+        principal = new UserPrincipal(1L, "user@example.com", null, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = jwtTokenService.generateToken(principal);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenService.generateToken(principal);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        // Full signature check and JSON parse
+        return jwtTokenService.validateToken(token);
+    }
+
+    @Benchmark
+    public UserPrincipal authenticateCached() {
+        // Request path after the first hit: verified-token cache plus denylist check
+        return jwtTokenService.authenticate(token);
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        var field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
@@ -0,0 +1,51 @@
+package com.project.benchmark;
+
+import com.project.entity.Product;
+import com.project.util.PaginatedResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaginatedResultBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private List<Product> all;
+
+    @Setup
+    public void setUp() {
+        all = BenchmarkData.products(1_000);
+    }
+
+    @Benchmark
+    public PaginatedResult<Product> wrapPage() {
+        return new PaginatedResult<>(all.subList(0, pageSize), all.size(), 0, pageSize);
+    }
+
+    @Benchmark
+    public PaginatedResult<Product> sliceInMemory() {
+        // What the pre-keyset controllers did: page by copying a slice of the full list
+        int page = 3;
+        int from = Math.min(page * pageSize, all.size());
+        int to = Math.min(from + pageSize, all.size());
+        return new PaginatedResult<>(List.copyOf(all.subList(from, to)), all.size(), page, pageSize);
+    }
+}
@@ -0,0 +1,52 @@
+package com.project.benchmark;
+
+import com.project.dto.ProductDto;
+import com.project.entity.Product;
+import com.project.mapper.ProductMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductMapperBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private ProductMapper mapper;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        mapper = Mappers.getMapper(ProductMapper.class);
+        products = BenchmarkData.products(size);
+    }
+
+    @Benchmark
+    public List<ProductDto> toDtoList() {
+        return mapper.toDtoList(products);
+    }
+
+    @Benchmark
+    public List<ProductDto> toDtoStream() {
+        // The shape used by controllers: page.map(productMapper::toDto)
+        return products.stream().map(mapper::toDto).toList();
+    }
+}
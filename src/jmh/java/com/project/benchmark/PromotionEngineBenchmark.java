@@ -0,0 +1,116 @@
+package com.project.benchmark;
+
+import com.project.category.CategoryTree;
+import com.project.dto.CartPricingDto;
+import com.project.entity.Category;
+import com.project.entity.Coupon;
+import com.project.entity.Product;
+import com.project.enums.DiscountType;
+import com.project.promotion.PromotionLine;
+import com.project.promotion.PromotionSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PromotionEngineBenchmark {
+
+    @Param({"10", "50"})
+    private int promotions;
+
+    @Param({"10", "100"})
+    private int lines;
+
+    private PromotionSnapshot snapshot;
+    private List<PromotionLine> cart;
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        List<Product> products = BenchmarkData.products(lines);
+        // Two levels: categories 5..20 hang below 1..4, so category scopes cover subtrees
+        Map<Long, Category> categories = new LinkedHashMap<>();
+        for (Product product : products) {
+            categories.put(product.getCategory().getId(), product.getCategory());
+        }
+        for (Category category : categories.values()) {
+            if (category.getId() > 4) {
+                category.setParent(categories.get(category.getId() % 4 + 1));
+            }
+        }
+        CategoryTree tree = CategoryTree.build(new ArrayList<>(categories.values()), Map.of());
+
+        List<Coupon> coupons = new ArrayList<>(promotions);
+        for (int i = 0; i < promotions; i++) {
+            coupons.add(promotion(i));
+        }
+        snapshot = PromotionSnapshot.of(coupons, tree);
+
+        cart = new ArrayList<>(products.size());
+        for (Product product : products) {
+            cart.add(PromotionLine.of(product.getId(), product.getCategory().getId(), product.getPrice(), 2));
+        }
+        now = LocalDateTime.of(2024, 6, 1, 12, 0);
+    }
+
+    @Benchmark
+    public CartPricingDto priceCart() {
+        return snapshot.price(cart, "PROMO-3", now);
+    }
+
+    // Cycles through the rule shapes; every fifth promotion is a plain automatic discount
+    private static Coupon promotion(int i) {
+        long category = i % 20 + 1;
+        Map<String, Object> scope = Map.of("categories", List.of(category));
+        Map<String, Object> rules = switch (i % 5) {
+            case 0 -> null;
+            case 1 -> Map.of(
+                    "when", Map.of("quantityAtLeast", 2, "scope", scope),
+                    "then", List.of(Map.of("percentOff", 10, "scope", scope)));
+            case 2 -> Map.of(
+                    "then", List.of(Map.of("buyXGetY", Map.of("buy", 2, "get", 1), "scope", scope)));
+            case 3 -> Map.of(
+                    "then", List.of(Map.of("tiers", List.of(
+                            Map.of("atLeast", 100, "amountOff", 10),
+                            Map.of("atLeast", 500, "percentOff", 5)))));
+            default -> Map.of(
+                    "when", Map.of("any", List.of(
+                            Map.of("subtotalAtLeast", 250),
+                            Map.of("not", Map.of("quantityAtLeast", 1, "scope", Map.of("products", List.of(7L, 8L)))))),
+                    "then", List.of(Map.of("amountOff", 5)));
+        };
+
+        Coupon coupon = new Coupon();
+        coupon.setId((long) i + 1);
+        coupon.setCode("PROMO-" + i);
+        coupon.setType(DiscountType.PERCENTAGE);
+        coupon.setValue(BigDecimal.ONE);
+        coupon.setRules(rules);
+        coupon.setIsAutomatic(i != 3);
+        coupon.setPriority(i % 7);
+        coupon.setIsStackable(i % 13 != 12);
+        coupon.setVersion(0L);
+        return coupon;
+    }
+}
@@ -0,0 +1,133 @@
+package com.project.loadtest;
+
+import com.project.entity.Address;
+import com.project.entity.Category;
+import com.project.entity.Product;
+import com.project.entity.User;
+import com.project.enums.UserType;
+import com.project.repository.CategoryRepository;
+import com.project.repository.ProductRepository;
+import com.project.repository.UserRepository;
+import com.project.search.ProductSearchIndexer;
+import com.project.service.UserService;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Synthetic catalog written straight through the repositories; the same seed gives the same data
+class CatalogSeeder {
+
+    static final String PASSWORD = "loadtest-password";
+    static final String[] WORDS = {
+            "wireless", "organic", "leather", "steel", "portable", "vintage", "smart", "cotton",
+            "bamboo", "ceramic", "carbon", "compact", "premium", "outdoor", "kitchen", "garden"
+    };
+    private static final String[] NOUNS = {
+            "headphones", "backpack", "kettle", "lamp", "jacket", "bottle", "speaker", "chair",
+            "watch", "knife", "blender", "tent", "mug", "keyboard", "camera", "pan"
+    };
+    private static final int BATCH = 1_000;
+
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ProductSearchIndexer searchIndexer;
+    private final UserService userService;
+
+    CatalogSeeder(ApplicationContext context) {
+        this.categoryRepository = context.getBean(CategoryRepository.class);
+        this.productRepository = context.getBean(ProductRepository.class);
+        this.userRepository = context.getBean(UserRepository.class);
+        this.passwordEncoder = context.getBean(PasswordEncoder.class);
+        this.searchIndexer = context.getBean(ProductSearchIndexer.class);
+        this.userService = context.getBean(UserService.class);
+    }
+
+    List<Long> seedUsers(int count) {
+        // One hash for everybody: seeding must not spend minutes in BCrypt
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setEmail(email(i));
+            user.setPasswordHash(passwordHash);
+            user.setFirstName("Load");
+            user.setLastName("User " + i);
+            user.setUserType(UserType.USER);
+            user.setIsActive(true);
+            users.add(user);
+        }
+        return userRepository.saveAll(users).stream().map(User::getId).toList();
+    }
+
+    // One shipping address per user, for checkouts driven over HTTP; returned in the order of userIds
+    List<Long> seedAddresses(List<Long> userIds) {
+        List<Long> addressIds = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            addressIds.add(userService.addUserAddress(userId, address(userId)).getId());
+        }
+        return addressIds;
+    }
+
+    List<Long> seedCatalog(int categoryCount, int productCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+
+        List<Category> categories = new ArrayList<>(categoryCount);
+        for (int i = 0; i < categoryCount; i++) {
+            Category category = new Category();
+            category.setName("Category " + i);
+            category.setDescription("Synthetic category " + i);
+            category.setIsActive(true);
+            categories.add(category);
+        }
+        categories = categoryRepository.saveAll(categories);
+
+        List<Long> productIds = new ArrayList<>(productCount);
+        List<Product> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < productCount; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + NOUNS[random.nextInt(NOUNS.length)];
+            Product product = new Product();
+            product.setName(name);
+            product.setDescription("A " + name + " for everyday use. Item " + i + ".");
+            product.setPrice(BigDecimal.valueOf(random.nextInt(500, 50_000), 2));
+            product.setCostPrice(BigDecimal.valueOf(random.nextInt(200, 20_000), 2));
+            product.setSku("LT-" + seed + "-" + i);
+            // Effectively unlimited, so checkout measures the write path rather than stock-outs
+            product.setStockQuantity(1_000_000);
+            product.setCategory(categories.get(random.nextInt(categories.size())));
+            product.setIsActive(true);
+            batch.add(product);
+
+            if (batch.size() == BATCH || i == productCount - 1) {
+                productRepository.saveAll(batch).forEach(p -> productIds.add(p.getId()));
+                batch.clear();
+            }
+        }
+
+        // Seeded behind the service layer, so no change events: index everything in one go
+        searchIndexer.rebuild();
+        return productIds;
+    }
+
+    static String email(int index) {
+        return "loadtest-" + index + "@example.com";
+    }
+
+    static Address address(long userId) {
+        Address address = new Address();
+        address.setFirstName("Load");
+        address.setLastName("User " + userId);
+        address.setAddressLine1(userId + " Benchmark Street");
+        address.setCity("Springfield");
+        address.setState("IL");
+        address.setPostalCode("62701");
+        address.setCountry("US");
+        return address;
+    }
+}
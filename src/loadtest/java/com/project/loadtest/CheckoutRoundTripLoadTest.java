@@ -0,0 +1,88 @@
+package com.project.loadtest;
+
+import com.project.dto.AddressDto;
+import com.project.dto.CheckoutRequest;
+import com.project.service.CartService;
+import com.project.service.OrderService;
+import com.project.service.UserService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+
+// Counts the statements one checkout sends to the database, for carts of growing size, through Hibernate
+// statistics. Order, item and inventory inserts go out as JDBC batches and the cart goes in one DELETE, so
+// a bigger cart may only add the conditional stock UPDATE each product needs. Background jobs share the
+// counters, so every size is measured several times and the lowest count is kept. Run with:
+//   mvn -Ploadtest compile exec:java -Dexec.mainClass=com.project.loadtest.CheckoutRoundTripLoadTest
+public class CheckoutRoundTripLoadTest {
+
+    private static final int[] CART_SIZES = {1, 10, 50};
+    private static final int RUNS = 5;
+    // One stock UPDATE per distinct product in the cart
+    private static final int STATEMENTS_PER_EXTRA_LINE = 1;
+
+    public static void main(String[] args) throws Exception {
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             ConfigurableApplicationContext context = LoadTestRunner.start(postgres,
+                     "spring.jpa.properties.hibernate.generate_statistics=true",
+                     "app.outbox.relay.enabled=false",
+                     "app.mail.dispatcher.enabled=false",
+                     // Cart rows are written behind; keep that write out of the measured window
+                     "app.cart.flush-interval-ms=3600000")) {
+
+            CatalogSeeder seeder = new CatalogSeeder(context);
+            // One extra account per size for the unmeasured warm-up checkout
+            List<Long> userIds = seeder.seedUsers(CART_SIZES.length * (RUNS + 1));
+            List<Long> productIds = seeder.seedCatalog(5, 200, 42);
+
+            CartService cartService = context.getBean(CartService.class);
+            OrderService orderService = context.getBean(OrderService.class);
+            UserService userService = context.getBean(UserService.class);
+            Statistics statistics = context.getBean(EntityManagerFactory.class)
+                    .unwrap(SessionFactory.class)
+                    .getStatistics();
+
+            long[] statements = new long[CART_SIZES.length];
+            long[] inserts = new long[CART_SIZES.length];
+            int nextUser = 0;
+            for (int s = 0; s < CART_SIZES.length; s++) {
+                statements[s] = Long.MAX_VALUE;
+                for (int run = 0; run <= RUNS; run++) {
+                    Long userId = userIds.get(nextUser++);
+                    AddressDto address = userService.addUserAddress(userId, CatalogSeeder.address(userId));
+                    for (int line = 0; line < CART_SIZES[s]; line++) {
+                        cartService.addToCart(userId, productIds.get(line), 1);
+                    }
+                    CheckoutRequest request = new CheckoutRequest();
+                    request.setShippingAddressId(address.getId());
+
+                    statistics.clear();
+                    orderService.checkout(userId, request);
+                    if (run > 0 && statistics.getPrepareStatementCount() < statements[s]) {
+                        statements[s] = statistics.getPrepareStatementCount();
+                        inserts[s] = statistics.getEntityInsertCount();
+                    }
+                }
+            }
+
+            System.out.println("cart lines  statements  entity inserts");
+            for (int s = 0; s < CART_SIZES.length; s++) {
+                System.out.printf("%10d  %10d  %14d%n", CART_SIZES[s], statements[s], inserts[s]);
+            }
+
+            int last = CART_SIZES.length - 1;
+            long allowed = statements[0] + (long) (CART_SIZES[last] - CART_SIZES[0]) * STATEMENTS_PER_EXTRA_LINE;
+            boolean bounded = statements[last] <= allowed;
+            System.out.println(bounded
+                    ? "PASS: inserts are batched; extra lines only add their stock UPDATE"
+                    : "FAIL: " + statements[last] + " statements for " + CART_SIZES[last] + " lines, expected at most " + allowed);
+            if (!bounded) {
+                System.exit(1);
+            }
+        }
+    }
+}
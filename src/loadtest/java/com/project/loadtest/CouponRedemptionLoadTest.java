@@ -0,0 +1,131 @@
+package com.project.loadtest;
+
+import com.project.coupon.CouponRedemptionEngine;
+import com.project.entity.Coupon;
+import com.project.entity.Order;
+import com.project.enums.DiscountType;
+import com.project.event.CouponChangedEvent;
+import com.project.exception.AppException;
+import com.project.repository.CouponRedemptionRepository;
+import com.project.repository.CouponRepository;
+import com.project.repository.UserRepository;
+import com.project.service.CouponService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Promo blast against one coupon: many more redemption attempts than units, from many threads at once.
+// Passes only if exactly usage-limit attempts succeed, used_count ends equal to that and no user went
+// past the per-user limit. Run with:
+//   mvn -Ploadtest compile exec:java -Dexec.mainClass=com.project.loadtest.CouponRedemptionLoadTest
+public class CouponRedemptionLoadTest {
+
+    private static final String CODE = "BLAST";
+    private static final BigDecimal SUBTOTAL = new BigDecimal("100.00");
+    // What cart pricing grants the 10% coupon on SUBTOTAL; only redemption is under test here
+    private static final BigDecimal DISCOUNT = new BigDecimal("10.00");
+
+    public static void main(String[] args) throws Exception {
+        int attempts = Integer.getInteger("coupon.attempts", 50_000);
+        int usageLimit = Integer.getInteger("coupon.usage-limit", 5_000);
+        int perUserLimit = Integer.getInteger("coupon.per-user-limit", 50);
+        int users = Integer.getInteger("coupon.users", 200);
+        int concurrency = Integer.getInteger("coupon.concurrency", 256);
+        boolean hot = Boolean.parseBoolean(System.getProperty("coupon.hot", "true"));
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             ConfigurableApplicationContext context = LoadTestRunner.start(postgres,
+                     "app.coupons.lease.hot-codes=" + (hot ? CODE : ""),
+                     "app.outbox.relay.enabled=false",
+                     "spring.datasource.hikari.maximum-pool-size=" + Math.min(concurrency, 50))) {
+
+            List<Long> userIds = new CatalogSeeder(context).seedUsers(users);
+            Coupon coupon = new Coupon();
+            coupon.setCode(CODE);
+            coupon.setType(DiscountType.PERCENTAGE);
+            coupon.setValue(BigDecimal.TEN);
+            coupon.setUsageLimit(usageLimit);
+            coupon.setPerUserLimit(perUserLimit);
+            Long couponId = context.getBean(CouponService.class).createCoupon(coupon).getId();
+
+            CouponService couponService = context.getBean(CouponService.class);
+            UserRepository userRepository = context.getBean(UserRepository.class);
+            TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+
+            AtomicInteger redeemed = new AtomicInteger();
+            AtomicInteger rejected = new AtomicInteger();
+            AtomicInteger failed = new AtomicInteger();
+            Semaphore inFlight = new Semaphore(concurrency);
+            System.out.printf("Coupon blast: %d attempts, limit %d, %d per user, %d users, concurrency %d, hot=%s%n",
+                    attempts, usageLimit, perUserLimit, users, concurrency, hot);
+
+            long start = System.nanoTime();
+            try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < attempts; i++) {
+                    Long userId = userIds.get(i % userIds.size());
+                    inFlight.acquire();
+                    workers.execute(() -> {
+                        try {
+                            transactionTemplate.executeWithoutResult(status -> {
+                                Order order = new Order();
+                                order.setUser(userRepository.getReferenceById(userId));
+                                order.setSubtotal(SUBTOTAL);
+                                order.setTotalAmount(SUBTOTAL);
+                                couponService.applyCoupon(CODE, order, DISCOUNT);
+                            });
+                            redeemed.incrementAndGet();
+                        } catch (AppException e) {
+                            rejected.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+            }
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            // Hand unused leased units back, then read the counters
+            context.getBean(CouponRedemptionEngine.class).onCouponChanged(new CouponChangedEvent(couponId, CODE));
+            CouponRepository couponRepository = context.getBean(CouponRepository.class);
+            int usedCount = awaitUsedCount(couponRepository, couponId, redeemed.get());
+            Integer maxPerUser = context.getBean(CouponRedemptionRepository.class).findMaxRedemptionsPerUser(couponId);
+
+            int expected = Math.min(usageLimit, perUserLimit * users);
+            System.out.printf("%d attempts in %d ms (%.0f/s): %d redeemed, %d rejected, %d errors%n",
+                    attempts, elapsed.toMillis(), attempts / (elapsed.toNanos() / 1e9),
+                    redeemed.get(), rejected.get(), failed.get());
+            System.out.printf("used_count=%d, most redemptions by one user=%d%n", usedCount, maxPerUser);
+
+            boolean exact = redeemed.get() == expected && usedCount == expected
+                    && maxPerUser != null && maxPerUser <= perUserLimit && failed.get() == 0;
+            System.out.println(exact ? "PASS: exactly " + expected + " redemptions" : "FAIL: expected " + expected);
+            if (!exact) {
+                System.exit(1);
+            }
+        }
+    }
+
+    // Lease hand-backs are asynchronous; give them a moment to land
+    private static int awaitUsedCount(CouponRepository couponRepository, Long couponId, int expected)
+            throws InterruptedException {
+        int usedCount = -1;
+        for (int i = 0; i < 50; i++) {
+            usedCount = couponRepository.findById(couponId).orElseThrow().getUsedCount();
+            if (usedCount == expected) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        return usedCount;
+    }
+}
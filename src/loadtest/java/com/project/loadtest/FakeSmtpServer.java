@@ -0,0 +1,159 @@
+package com.project.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Minimal SMTP sink for the load tests: accepts every message on localhost, keeps the last few in memory
+// and never delivers anything. LoadTestRunner starts one per application context on a free port and
+// points spring.mail.port at it.
+@Slf4j
+public class FakeSmtpServer implements AutoCloseable {
+
+    public record ReceivedMail(String from, List<String> recipients, String data) {
+    }
+
+    private static final int KEEP = 1000;
+
+    private final Deque<ReceivedMail> received = new ArrayDeque<>();
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private final ServerSocket serverSocket;
+
+    private FakeSmtpServer(ServerSocket serverSocket) {
+        this.serverSocket = serverSocket;
+    }
+
+    // Port 0 picks a free one; see port()
+    public static FakeSmtpServer start(int port) throws IOException {
+        FakeSmtpServer server = new FakeSmtpServer(new ServerSocket(port, 50, InetAddress.getLoopbackAddress()));
+        Thread.ofVirtual().name("fake-smtp-accept").start(server::acceptLoop);
+        log.info("Fake SMTP server listening on port {}", server.port());
+        return server;
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            log.debug("Fake SMTP close failed: {}", e.getMessage());
+        }
+        connections.shutdownNow();
+    }
+
+    public long receivedCount() {
+        return receivedCount.get();
+    }
+
+    public synchronized List<ReceivedMail> received() {
+        return new ArrayList<>(received);
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> session(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    log.warn("Fake SMTP accept failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    // One connection carries any number of MAIL/RCPT/DATA transactions until QUIT
+    private void session(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)) {
+            reply(out, "220 localhost fake SMTP ready");
+            String from = null;
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 localhost");
+                    case "MAIL" -> {
+                        from = argument(line);
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "RCPT" -> {
+                        recipients.add(argument(line));
+                        reply(out, "250 OK");
+                    }
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        store(new ReceivedMail(from, List.copyOf(recipients), readData(in)));
+                        recipients.clear();
+                        reply(out, "250 OK queued");
+                    }
+                    case "RSET" -> {
+                        from = null;
+                        recipients.clear();
+                        reply(out, "250 OK");
+                    }
+                    case "NOOP" -> reply(out, "250 OK");
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Fake SMTP session ended: {}", e.getMessage());
+        }
+    }
+
+    private static String readData(BufferedReader in) throws IOException {
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(".")) {
+            // Undo dot-stuffing
+            data.append(line.startsWith("..") ? line.substring(1) : line).append("\r\n");
+        }
+        return data.toString();
+    }
+
+    private synchronized void store(ReceivedMail mail) {
+        if (received.size() == KEEP) {
+            received.removeFirst();
+        }
+        received.addLast(mail);
+        receivedCount.incrementAndGet();
+    }
+
+    private static String argument(String line) {
+        int colon = line.indexOf(':');
+        return colon < 0 ? "" : line.substring(colon + 1).trim().replaceAll("^<|>$", "");
+    }
+
+    private static void reply(Writer out, String reply) throws IOException {
+        out.write(reply);
+        out.write("\r\n");
+        out.flush();
+    }
+}
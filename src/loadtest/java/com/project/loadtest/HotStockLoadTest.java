@@ -0,0 +1,151 @@
+package com.project.loadtest;
+
+import com.project.entity.Product;
+import com.project.exception.InsufficientStockException;
+import com.project.repository.ProductRepository;
+import com.project.service.HotStockLedger;
+import com.project.service.ProductService;
+import com.project.service.StockReservationService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Flash sale on one hot SKU through HotStockLedger while an admin keeps restocking it. Each restock
+// reloads the in-memory counter, racing reservations that are still committing and decrements not yet
+// written back. Some checkouts roll back after reserving. Passes only if no more units were ever sold than
+// initial + restocked so far, and the final stock_quantity is exactly initial + restocked - sold. Run with:
+//   mvn -Ploadtest compile exec:java -Dexec.mainClass=com.project.loadtest.HotStockLoadTest
+public class HotStockLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        int attempts = Integer.getInteger("stock.attempts", 100_000);
+        int concurrency = Integer.getInteger("stock.concurrency", 256);
+        int initialStock = Integer.getInteger("stock.initial", 2_000);
+        int restock = Integer.getInteger("stock.restock", 500);
+        int restockIntervalMs = Integer.getInteger("stock.restock-interval-ms", 20);
+        int rollbackPercent = Integer.getInteger("stock.rollback-percent", 10);
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            // The hot SKU's id is only known once it exists; seed it, then start the measured context with it
+            ConfigurableApplicationContext seeding = LoadTestRunner.start(postgres, "app.outbox.relay.enabled=false");
+            Long productId = new CatalogSeeder(seeding).seedCatalog(1, 1, 7).get(0);
+            seeding.getBean(ProductService.class).updateProductStock(productId, initialStock, "load test seed");
+            seeding.close();
+
+            try (ConfigurableApplicationContext context = LoadTestRunner.start(postgres,
+                    "spring.jpa.hibernate.ddl-auto=update",
+                    "app.outbox.relay.enabled=false",
+                    "app.stock.ledger.enabled=true",
+                    "app.stock.ledger.hot-product-ids=" + productId,
+                    "spring.datasource.hikari.maximum-pool-size=" + Math.min(concurrency, 50))) {
+                run(context, productId, attempts, concurrency, initialStock, restock, restockIntervalMs,
+                        rollbackPercent);
+            }
+        }
+    }
+
+    private static void run(ConfigurableApplicationContext context, Long productId, int attempts, int concurrency,
+                            int initialStock, int restock, int restockIntervalMs, int rollbackPercent)
+            throws Exception {
+        StockReservationService reservations = context.getBean(StockReservationService.class);
+        ProductService productService = context.getBean(ProductService.class);
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger rolledBack = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        // Counted before the restock commits, so a sale of the new units never sees it missing
+        AtomicInteger restocked = new AtomicInteger();
+        AtomicInteger oversold = new AtomicInteger();
+        AtomicBoolean selling = new AtomicBoolean(true);
+        Semaphore inFlight = new Semaphore(concurrency);
+        System.out.printf("Hot stock: %d attempts, concurrency %d, initial %d, +%d every %d ms, %d%% rollbacks%n",
+                attempts, concurrency, initialStock, restock, restockIntervalMs, rollbackPercent);
+
+        long start = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Admin restocks: row-locked read plus updateProductStock in one transaction, so each adds exactly
+            // `restock` to whatever the row holds; ProductChangedEvent makes the ledger reload after commit
+            workers.execute(() -> {
+                while (selling.get()) {
+                    try {
+                        restocked.addAndGet(restock);
+                        try {
+                            transactionTemplate.executeWithoutResult(status -> {
+                                Product locked = productRepository.findByIdForUpdate(productId).orElseThrow();
+                                productService.updateProductStock(productId, locked.getStockQuantity() + restock,
+                                        "load test restock");
+                            });
+                        } catch (RuntimeException e) {
+                            restocked.addAndGet(-restock);
+                            throw e;
+                        }
+                        Thread.sleep(restockIntervalMs);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                    }
+                }
+            });
+
+            try (ExecutorService buyers = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < attempts; i++) {
+                    inFlight.acquire();
+                    buyers.execute(() -> {
+                        boolean rollback = ThreadLocalRandom.current().nextInt(100) < rollbackPercent;
+                        try {
+                            transactionTemplate.executeWithoutResult(status -> {
+                                reservations.reserve(Map.of(productId, 1));
+                                if (rollback) {
+                                    status.setRollbackOnly();
+                                }
+                            });
+                            if (rollback) {
+                                rolledBack.incrementAndGet();
+                            } else if (sold.incrementAndGet() > initialStock + restocked.get()) {
+                                oversold.incrementAndGet();
+                            }
+                        } catch (InsufficientStockException e) {
+                            rejected.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+            }
+            selling.set(false);
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        context.getBean(HotStockLedger.class).flush();
+        int finalStock = productRepository.findStockQuantityById(productId).orElseThrow();
+        int expected = initialStock + restocked.get() - sold.get();
+
+        System.out.printf("%d attempts in %d ms: %d sold, %d rolled back, %d out of stock, %d errors, %d restocked%n",
+                attempts, elapsed.toMillis(), sold.get(), rolledBack.get(), rejected.get(), failed.get(),
+                restocked.get());
+        System.out.printf("stock_quantity=%d (expected %d), sales past available stock=%d%n",
+                finalStock, expected, oversold.get());
+
+        boolean exact = finalStock == expected && oversold.get() == 0 && failed.get() == 0;
+        System.out.println(exact ? "PASS: no lost decrements, no overselling" : "FAIL");
+        if (!exact) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.project.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// One HdrHistogram recorder per operation; values in nanoseconds, reported in milliseconds
+class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE = TimeUnit.MINUTES.toNanos(1);
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, long nanos, boolean success) {
+        recorders.get(operation).recordValue(Math.min(nanos, HIGHEST_TRACKABLE));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    // Drops everything recorded so far (end of warm-up)
+    void reset() {
+        recorders.values().forEach(Recorder::getIntervalHistogram);
+        errors.values().forEach(LongAdder::reset);
+    }
+
+    record OperationStats(long count, double opsPerSecond, double p50Millis, double p99Millis,
+                          double p999Millis, double maxMillis, long errors) {
+    }
+
+    // Prints and saves the measurement window; the returned figures feed side-by-side comparisons
+    Map<Operation, OperationStats> write(Duration measured, Path outputDir, PrintStream out) throws IOException {
+        Files.createDirectories(outputDir);
+        double seconds = measured.toMillis() / 1000.0;
+
+        String header = String.format("%-28s %10s %10s %9s %9s %9s %9s %8s",
+                "operation", "count", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors");
+        StringBuilder summary = new StringBuilder(header).append('\n');
+        Map<Operation, OperationStats> results = new EnumMap<>(Operation.class);
+
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = recorders.get(operation).getIntervalHistogram();
+            long count = histogram.getTotalCount();
+            if (count == 0) {
+                continue;
+            }
+            OperationStats stats = new OperationStats(count, count / seconds,
+                    histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                    histogram.getMaxValue() / NANOS_PER_MILLI,
+                    errors.get(operation).sum());
+            results.put(operation, stats);
+            summary.append(String.format("%-28s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %8d%n",
+                    operation.label(), stats.count(), stats.opsPerSecond(), stats.p50Millis(), stats.p99Millis(),
+                    stats.p999Millis(), stats.maxMillis(), stats.errors()));
+
+            // Full percentile distribution, loadable in the HdrHistogram plotter
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(outputDir.resolve(operation.key() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(hgrm, NANOS_PER_MILLI);
+            }
+        }
+
+        out.print(summary);
+        Files.writeString(outputDir.resolve("summary.txt"), summary);
+        return results;
+    }
+}
@@ -0,0 +1,41 @@
+package com.project.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Everything is a -Dloadtest.* system property so runs are reproducible from the command line
+record LoadTestConfig(int categories,
+                      int products,
+                      int users,
+                      int concurrency,
+                      Duration warmup,
+                      Duration duration,
+                      long seed,
+                      Map<Operation, Integer> mix,
+                      String outputDir) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Integer.getInteger("loadtest.categories", 50),
+                Integer.getInteger("loadtest.products", 10_000),
+                Integer.getInteger("loadtest.users", 200),
+                Integer.getInteger("loadtest.concurrency", 64),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 15)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 60)),
+                Long.getLong("loadtest.seed", 42),
+                parseMix(System.getProperty("loadtest.mix",
+                        "browse-list=20,browse-scroll=15,product-detail=25,search=10,"
+                                + "cart-add=12,cart-update=5,cart-view=8,checkout=5")),
+                System.getProperty("loadtest.output", "target/loadtest"));
+    }
+
+    private static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            mix.put(Operation.fromKey(kv[0].trim()), Integer.parseInt(kv[1].trim()));
+        }
+        return mix;
+    }
+}
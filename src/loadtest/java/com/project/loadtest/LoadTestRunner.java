@@ -0,0 +1,187 @@
+package com.project.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.EcommerceApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.core.env.MapPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Boots the whole application against an embedded PostgreSQL, seeds a catalog and drives a
+// weighted shopper workload over HTTP. Run with: mvn -Ploadtest compile exec:java
+public class LoadTestRunner {
+
+    private static final int LOGIN_PARALLELISM = 8;
+    private static final int LOGIN_ATTEMPTS = 20;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        runWorkload(config, Path.of(config.outputDir()));
+    }
+
+    // One complete run on a fresh database: boot, seed, log in, warm up, measure, report
+    static Map<Operation, LatencyReport.OperationStats> runWorkload(LoadTestConfig config, Path outputDir,
+                                                                    String... extraProperties) throws Exception {
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             ConfigurableApplicationContext context = start(postgres, extraProperties)) {
+
+            System.out.printf("Load test: %s, virtual threads=%s%n", config,
+                    context.getEnvironment().getProperty("spring.threads.virtual.enabled"));
+
+            CatalogSeeder seeder = new CatalogSeeder(context);
+            List<Long> userIds = seeder.seedUsers(config.users());
+            List<Long> productIds = seeder.seedCatalog(config.categories(), config.products(), config.seed());
+            List<Long> addressIds = seeder.seedAddresses(userIds);
+            System.out.printf("Seeded %d users, %d products%n", userIds.size(), productIds.size());
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            List<String> tokens = login(httpClient, objectMapper, baseUrl, userIds.size());
+
+            LatencyReport report = new LatencyReport();
+
+            // Shoppers cycle through the seeded accounts; several may share one cart under high concurrency
+            List<VirtualUser> shoppers = new ArrayList<>(config.concurrency());
+            for (int i = 0; i < config.concurrency(); i++) {
+                int account = i % userIds.size();
+                shoppers.add(new VirtualUser(userIds.get(account), tokens.get(account), baseUrl, httpClient,
+                        productIds, config.mix(), report, addressIds.get(account), config.seed() + i));
+            }
+
+            try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> running = shoppers.stream().<Future<?>>map(workers::submit).toList();
+
+                System.out.printf("Warming up for %ds%n", config.warmup().toSeconds());
+                Thread.sleep(config.warmup());
+                report.reset();
+
+                System.out.printf("Measuring for %ds%n", config.duration().toSeconds());
+                long start = System.nanoTime();
+                Thread.sleep(config.duration());
+                Duration measured = Duration.ofNanos(System.nanoTime() - start);
+                shoppers.forEach(VirtualUser::stop);
+
+                Map<Operation, LatencyReport.OperationStats> results = report.write(measured, outputDir, System.out);
+                for (Future<?> future : running) {
+                    future.get(1, TimeUnit.MINUTES);
+                }
+                return results;
+            }
+        }
+    }
+
+    // Each context gets its own SMTP sink, registered as a bean and closed with the context
+    static ConfigurableApplicationContext start(EmbeddedPostgres postgres, String... extraProperties)
+            throws IOException {
+        FakeSmtpServer smtp = FakeSmtpServer.start(0);
+        Map<String, Object> properties = new LinkedHashMap<>();
+        put(properties,
+                "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "spring.datasource.username=postgres",
+                "spring.datasource.password=postgres",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.jpa.show-sql=false",
+                "server.port=0",
+                "app.ids.node-id=1",
+                "app.search.engine=memory",
+                "app.cache.l2.enabled=false",
+                "app.outbox.relay.enabled=true",
+                "app.mail.dispatcher.enabled=true",
+                "spring.mail.host=localhost",
+                "spring.mail.port=" + smtp.port(),
+                "management.health.redis.enabled=false",
+                "logging.level.root=WARN");
+        // Later entries win, so a harness can override the defaults above
+        put(properties, extraProperties);
+        try {
+            return new SpringApplicationBuilder(EcommerceApplication.class)
+                    .initializers(context -> {
+                        // Ahead of application.yml; SpringApplicationBuilder.properties() would rank below it
+                        context.getEnvironment().getPropertySources()
+                                .addFirst(new MapPropertySource("loadtest", properties));
+                        context.getBeanFactory().registerSingleton("fakeSmtpServer", smtp);
+                        context.addApplicationListener(event -> {
+                            if (event instanceof ContextClosedEvent) {
+                                smtp.close();
+                            }
+                        });
+                    })
+                    .run();
+        } catch (RuntimeException e) {
+            smtp.close();
+            throw e;
+        }
+    }
+
+    private static void put(Map<String, Object> properties, String... entries) {
+        for (String entry : entries) {
+            int separator = entry.indexOf('=');
+            properties.put(entry.substring(0, separator), entry.substring(separator + 1));
+        }
+    }
+
+    // Logs every seeded account in once up front; the login executor may push back with 429s
+    private static List<String> login(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, int users)
+            throws Exception {
+        String[] tokens = new String[users];
+        try (ExecutorService executor = Executors.newFixedThreadPool(LOGIN_PARALLELISM)) {
+            List<Future<?>> logins = new ArrayList<>(users);
+            for (int i = 0; i < users; i++) {
+                int index = i;
+                logins.add(executor.submit(() -> {
+                    tokens[index] = login(httpClient, objectMapper, baseUrl, CatalogSeeder.email(index));
+                    return null;
+                }));
+            }
+            for (Future<?> login : logins) {
+                login.get();
+            }
+        }
+        return List.of(tokens);
+    }
+
+    private static String login(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, String email)
+            throws Exception {
+        String body = objectMapper.writeValueAsString(
+                objectMapper.createObjectNode().put("email", email).put("password", CatalogSeeder.PASSWORD));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        for (int attempt = 1; attempt <= LOGIN_ATTEMPTS; attempt++) {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                JsonNode json = objectMapper.readTree(response.body());
+                return json.get("token").asText();
+            }
+            if (response.statusCode() != 429) {
+                throw new IllegalStateException("Login failed for " + email + ": " + response.statusCode());
+            }
+            Thread.sleep(100L * attempt);
+        }
+        throw new IllegalStateException("Login kept being rejected for " + email);
+    }
+}
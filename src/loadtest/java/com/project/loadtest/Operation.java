@@ -0,0 +1,37 @@
+package com.project.loadtest;
+
+enum Operation {
+    BROWSE_LIST("browse-list", "GET /api/products"),
+    BROWSE_SCROLL("browse-scroll", "GET /api/products/scroll"),
+    PRODUCT_DETAIL("product-detail", "GET /api/products/{id}"),
+    SEARCH("search", "GET /api/products/search"),
+    CART_ADD("cart-add", "POST /api/cart/add"),
+    CART_UPDATE("cart-update", "PUT /api/cart/update"),
+    CART_VIEW("cart-view", "GET /api/cart"),
+    CHECKOUT("checkout", "POST /api/orders/checkout");
+
+    private final String key;
+    private final String label;
+
+    Operation(String key, String label) {
+        this.key = key;
+        this.label = label;
+    }
+
+    String key() {
+        return key;
+    }
+
+    String label() {
+        return label;
+    }
+
+    static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + key + "' in loadtest.mix");
+    }
+}
@@ -0,0 +1,55 @@
+package com.project.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+// Runs the same shopper workload twice, each on a fresh embedded database: once on Tomcat's platform
+// thread pool, once on virtual threads with the DB limiter in front of the pool. Each run writes its own
+// summary.txt and .hgrm files under <output>/platform and <output>/virtual; the side-by-side table is
+// printed and saved as <output>/comparison.txt. Raise loadtest.concurrency past Tomcat's 200 threads to see
+// the modes diverge. Run with:
+//   mvn -Ploadtest compile exec:java -Dexec.mainClass=com.project.loadtest.ThreadModeComparisonLoadTest -Dloadtest.concurrency=512
+public class ThreadModeComparisonLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        Path output = Path.of(config.outputDir());
+
+        Map<Operation, LatencyReport.OperationStats> platform = LoadTestRunner.runWorkload(config,
+                output.resolve("platform"),
+                "spring.threads.virtual.enabled=false",
+                "app.db.limiter.enabled=false");
+        Map<Operation, LatencyReport.OperationStats> virtual = LoadTestRunner.runWorkload(config,
+                output.resolve("virtual"),
+                "spring.threads.virtual.enabled=true",
+                "app.db.limiter.enabled=true");
+
+        write(platform, virtual, output);
+    }
+
+    private static void write(Map<Operation, LatencyReport.OperationStats> platform,
+                              Map<Operation, LatencyReport.OperationStats> virtual,
+                              Path output) throws IOException {
+        StringBuilder table = new StringBuilder(String.format("%-28s %12s %12s %12s %12s %10s %10s%n",
+                "operation", "platform/s", "virtual/s", "platform p99", "virtual p99", "plat err", "virt err"));
+        for (Operation operation : Operation.values()) {
+            LatencyReport.OperationStats p = platform.get(operation);
+            LatencyReport.OperationStats v = virtual.get(operation);
+            if (p == null && v == null) {
+                continue;
+            }
+            table.append(String.format("%-28s %12.1f %12.1f %12.2f %12.2f %10d %10d%n",
+                    operation.label(),
+                    p != null ? p.opsPerSecond() : 0.0, v != null ? v.opsPerSecond() : 0.0,
+                    p != null ? p.p99Millis() : 0.0, v != null ? v.p99Millis() : 0.0,
+                    p != null ? p.errors() : 0L, v != null ? v.errors() : 0L));
+        }
+
+        System.out.println();
+        System.out.print(table);
+        Files.createDirectories(output);
+        Files.writeString(output.resolve("comparison.txt"), table);
+    }
+}
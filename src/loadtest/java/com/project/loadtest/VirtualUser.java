@@ -0,0 +1,150 @@
+package com.project.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+// One simulated shopper: a closed loop of weighted operations against the running app
+class VirtualUser implements Runnable {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final long userId;
+    private final String token;
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final List<Long> productIds;
+    private final Operation[] schedule;
+    private final LatencyReport report;
+    private final long addressId;
+    private final SplittableRandom random;
+    private volatile boolean running = true;
+    private long lastCartProduct;
+
+    VirtualUser(long userId, String token, String baseUrl, HttpClient httpClient, List<Long> productIds,
+                Map<Operation, Integer> mix, LatencyReport report, long addressId, long seed) {
+        this.userId = userId;
+        this.token = token;
+        this.baseUrl = baseUrl;
+        this.httpClient = httpClient;
+        this.productIds = productIds;
+        this.schedule = expand(mix);
+        this.report = report;
+        this.addressId = addressId;
+        this.random = new SplittableRandom(seed);
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            Operation operation = schedule[random.nextInt(schedule.length)];
+            long start = System.nanoTime();
+            boolean success;
+            try {
+                success = execute(operation);
+            } catch (Exception e) {
+                success = false;
+            }
+            report.record(operation, System.nanoTime() - start, success);
+        }
+    }
+
+    private boolean execute(Operation operation) throws Exception {
+        return switch (operation) {
+            case BROWSE_LIST -> get("/api/products?page=" + random.nextInt(50) + "&size=20");
+            case BROWSE_SCROLL -> get("/api/products/scroll?size=20&sort=" + (random.nextBoolean() ? "NEWEST" : "PRICE_ASC"));
+            case PRODUCT_DETAIL -> get("/api/products/" + randomProduct());
+            case SEARCH -> get("/api/products/search?size=20&searchTerm="
+                    + CatalogSeeder.WORDS[random.nextInt(CatalogSeeder.WORDS.length)]);
+            case CART_ADD -> addToCart();
+            // Updates the line added last so the request hits an existing cart item
+            case CART_UPDATE -> lastCartProduct == 0
+                    ? addToCart()
+                    : send("PUT", "/api/cart/update", cartBody(lastCartProduct, 1 + random.nextInt(5)));
+            case CART_VIEW -> get("/api/cart?userId=" + userId);
+            case CHECKOUT -> checkout();
+        };
+    }
+
+    private boolean addToCart() throws Exception {
+        long productId = randomProduct();
+        boolean success = send("POST", "/api/cart/add", cartBody(productId, 1 + random.nextInt(3)));
+        if (success) {
+            lastCartProduct = productId;
+        }
+        return success;
+    }
+
+    // Through the real endpoint, as a client would, with a fresh Idempotency-Key per attempt. A shopper that
+    // added nothing since its last checkout adds one line first, so the order is never empty on its account.
+    private boolean checkout() throws Exception {
+        if (lastCartProduct == 0 && !addToCart()) {
+            return false;
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders/checkout"))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .POST(HttpRequest.BodyPublishers.ofString("{\"shippingAddressId\":" + addressId + "}"))
+                .build();
+        boolean success = isSuccess(httpClient.send(request, HttpResponse.BodyHandlers.discarding()));
+        if (success) {
+            lastCartProduct = 0;
+        }
+        return success;
+    }
+
+    private boolean get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        return isSuccess(httpClient.send(request, HttpResponse.BodyHandlers.discarding()));
+    }
+
+    private boolean send(String method, String path, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return isSuccess(httpClient.send(request, HttpResponse.BodyHandlers.discarding()));
+    }
+
+    private String cartBody(long productId, int quantity) {
+        return "{\"userId\":" + userId + ",\"productId\":" + productId + ",\"quantity\":" + quantity + "}";
+    }
+
+    private long randomProduct() {
+        return productIds.get(random.nextInt(productIds.size()));
+    }
+
+    private static boolean isSuccess(HttpResponse<?> response) {
+        return response.statusCode() >= 200 && response.statusCode() < 300;
+    }
+
+    private static Operation[] expand(Map<Operation, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        Operation[] schedule = new Operation[total];
+        int i = 0;
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            for (int n = 0; n < entry.getValue(); n++) {
+                schedule[i++] = entry.getKey();
+            }
+        }
+        return schedule;
+    }
+}
@@ -0,0 +1,17 @@
+package com.project.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+
+@Getter
+@AllArgsConstructor
+public class CacheInvalidationMessage implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String originNodeId;
+    private final String cacheName;
+    // null means "clear the whole cache"
+    private final Object key;
+}
@@ -0,0 +1,53 @@
+package com.project.cache;
+
+import com.project.config.CacheConfig;
+import com.project.entity.Product;
+import com.project.event.ProductChangedEvent;
+import com.project.event.ProductRatingChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class ProductCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    // After commit, so a concurrent reader cannot re-populate the cache with the old row
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Product product = event.getProduct();
+
+        Cache products = cacheManager.getCache(CacheConfig.PRODUCTS);
+        if (products != null) {
+            products.evict(product.getId());
+        }
+
+        Cache productsBySku = cacheManager.getCache(CacheConfig.PRODUCTS_BY_SKU);
+        if (productsBySku != null) {
+            if (product.getSku() != null) {
+                productsBySku.evict(product.getSku());
+            }
+            if (product.getLoadedSku() != null && !product.getLoadedSku().equals(product.getSku())) {
+                productsBySku.evict(product.getLoadedSku());
+            }
+        }
+    }
+
+    // Cached product DTOs carry their rating summary
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingChanged(ProductRatingChangedEvent event) {
+        Cache products = cacheManager.getCache(CacheConfig.PRODUCTS);
+        if (products != null) {
+            products.evict(event.getProductId());
+        }
+
+        Cache productsBySku = cacheManager.getCache(CacheConfig.PRODUCTS_BY_SKU);
+        if (productsBySku != null && event.getSku() != null) {
+            productsBySku.evict(event.getSku());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.project.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    public static final String INVALIDATION_CHANNEL = "cache:invalidation";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final CacheManager localCacheManager;
+    private final CacheManager remoteCacheManager;
+    private final RedisTemplate<String, Object> invalidationTemplate;
+    private final Collection<String> initialCacheNames;
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    // remoteCacheManager and invalidationTemplate are null when L2 is switched off
+    public TwoLevelCacheManager(CacheManager localCacheManager, CacheManager remoteCacheManager,
+                                RedisTemplate<String, Object> invalidationTemplate, Collection<String> initialCacheNames) {
+        this.localCacheManager = localCacheManager;
+        this.remoteCacheManager = remoteCacheManager;
+        this.invalidationTemplate = invalidationTemplate;
+        this.initialCacheNames = List.copyOf(initialCacheNames);
+        // Evictions issued inside a transaction are applied after commit
+        setTransactionAware(true);
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return initialCacheNames.stream().map(this::createCache).toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+
+    public void onInvalidation(CacheInvalidationMessage message) {
+        if (nodeId.equals(message.getOriginNodeId())) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(message.getCacheName());
+        if (cache != null) {
+            cache.evictLocal(message.getKey());
+        }
+    }
+
+    public boolean isRemoteEnabled() {
+        return remoteCacheManager != null;
+    }
+
+    private TwoLevelCache createCache(String name) {
+        return caches.computeIfAbsent(name, n -> new TwoLevelCache(n,
+                localCacheManager.getCache(n),
+                remoteCacheManager != null ? remoteCacheManager.getCache(n) : null,
+                this::publishInvalidation));
+    }
+
+    private void publishInvalidation(String cacheName, Object key) {
+        if (invalidationTemplate == null) {
+            return;
+        }
+        try {
+            invalidationTemplate.convertAndSend(INVALIDATION_CHANNEL, new CacheInvalidationMessage(nodeId, cacheName, key));
+        } catch (RuntimeException e) {
+            // Other nodes fall back to L1 expiry
+            log.warn("Failed to publish invalidation for cache {} key {}", cacheName, key, e);
+        }
+    }
+}
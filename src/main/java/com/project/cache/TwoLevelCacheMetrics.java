@@ -0,0 +1,65 @@
+package com.project.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+public class TwoLevelCacheMetrics extends CacheMeterBinder<TwoLevelCache> {
+
+    private final Iterable<Tag> tags;
+
+    public TwoLevelCacheMetrics(TwoLevelCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+        this.tags = tags;
+    }
+
+    @Override
+    protected Long size() {
+        Object nativeCache = getCache() != null ? getCache().getNativeCache() : null;
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            return caffeine.estimatedSize();
+        }
+        return null;
+    }
+
+    @Override
+    protected long hitCount() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? 0 : cache.getLocalHits() + cache.getRemoteHits();
+    }
+
+    @Override
+    protected Long missCount() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? null : cache.getMisses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? null : cache.getEvictions();
+    }
+
+    @Override
+    protected long putCount() {
+        TwoLevelCache cache = getCache();
+        return cache == null ? 0 : cache.getPuts();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        TwoLevelCache cache = getCache();
+        if (cache == null) {
+            return;
+        }
+        FunctionCounter.builder("cache.level.hits", cache, TwoLevelCache::getLocalHits)
+                .tags(tags).tag("cache", cache.getName()).tag("level", "l1")
+                .description("Hits served from the in-process cache")
+                .register(registry);
+        FunctionCounter.builder("cache.level.hits", cache, TwoLevelCache::getRemoteHits)
+                .tags(tags).tag("cache", cache.getName()).tag("level", "l2")
+                .description("Hits served from Redis after an in-process miss")
+                .register(registry);
+    }
+}
@@ -0,0 +1,186 @@
+package com.project.cart;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// One user's cart as held by CartEngine. All access goes through lock(), which is what serializes
+// concurrent requests for the same user.
+final class Cart {
+
+    // id is null until the line has been written to cart_items
+    record Line(Long id, Long productId, int quantity, LocalDateTime addedAt) {
+    }
+
+    private final Long userId;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition written = lock.newCondition();
+    // Insertion order is the order lines were added, matching the ORDER BY created_at of the table
+    private final Map<Long, Line> lines = new LinkedHashMap<>();
+    private boolean userVerified;
+    private boolean dirty;
+    private boolean evicted;
+    // From a flush's snapshot until its transaction completes
+    private boolean writing;
+    // Read without the lock when picking carts to evict
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+    private int flushFailures;
+    private long retryAtMillis;
+
+    Cart(Long userId, List<Line> persisted) {
+        this.userId = userId;
+        for (Line line : persisted) {
+            lines.put(line.productId(), line);
+        }
+        // Rows in cart_items mean the user row exists
+        this.userVerified = !persisted.isEmpty();
+    }
+
+    Long userId() {
+        return userId;
+    }
+
+    ReentrantLock lock() {
+        return lock;
+    }
+
+    Line line(Long productId) {
+        return lines.get(productId);
+    }
+
+    List<Line> lines() {
+        return new ArrayList<>(lines.values());
+    }
+
+    int size() {
+        return lines.size();
+    }
+
+    void put(Long productId, int quantity) {
+        Line existing = lines.get(productId);
+        lines.put(productId, existing != null
+                ? new Line(existing.id(), productId, quantity, existing.addedAt())
+                : new Line(null, productId, quantity, LocalDateTime.now()));
+        dirty = true;
+    }
+
+    void assignId(Long productId, Long id) {
+        Line line = lines.get(productId);
+        if (line != null && line.id() == null) {
+            lines.put(productId, new Line(id, productId, line.quantity(), line.addedAt()));
+        }
+    }
+
+    boolean remove(Long productId) {
+        boolean removed = lines.remove(productId) != null;
+        dirty |= removed;
+        return removed;
+    }
+
+    void clear() {
+        dirty |= !lines.isEmpty();
+        lines.clear();
+    }
+
+    // Drops the lines checkout ordered. A line whose quantity changed since keeps it but loses its row id,
+    // because checkout deleted that row; the next flush inserts it again.
+    void removeOrdered(Map<Long, Integer> ordered) {
+        ordered.forEach((productId, quantity) -> {
+            Line line = lines.get(productId);
+            if (line == null) {
+                return;
+            }
+            if (line.quantity() == quantity) {
+                lines.remove(productId);
+            } else {
+                lines.put(productId, new Line(null, productId, line.quantity(), line.addedAt()));
+            }
+            dirty = true;
+        });
+    }
+
+    // Product id -> quantity, the state a flush writes to cart_items
+    Map<Long, Integer> snapshot() {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        lines.forEach((productId, line) -> quantities.put(productId, line.quantity()));
+        return quantities;
+    }
+
+    boolean isUserVerified() {
+        return userVerified;
+    }
+
+    void markUserVerified() {
+        userVerified = true;
+    }
+
+    boolean isDirty() {
+        return dirty;
+    }
+
+    void setDirty(boolean dirty) {
+        this.dirty = dirty;
+    }
+
+    boolean isEvicted() {
+        return evicted;
+    }
+
+    void markEvicted() {
+        evicted = true;
+    }
+
+    boolean isWriting() {
+        return writing;
+    }
+
+    void startWrite() {
+        writing = true;
+    }
+
+    void finishWrite() {
+        writing = false;
+        written.signalAll();
+    }
+
+    // Caller holds the lock, which is released while waiting
+    void awaitWrite() {
+        while (writing) {
+            written.awaitUninterruptibly();
+        }
+    }
+
+    void touch() {
+        lastAccessMillis = System.currentTimeMillis();
+    }
+
+    boolean idleSince(long cutoffMillis) {
+        return lastAccessMillis < cutoffMillis;
+    }
+
+    long lastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    // Consecutive failed writes; returns the new count
+    int recordFlushFailure() {
+        return ++flushFailures;
+    }
+
+    void retryAt(long retryAtMillis) {
+        this.retryAtMillis = retryAtMillis;
+    }
+
+    void recordFlushSuccess() {
+        flushFailures = 0;
+        retryAtMillis = 0;
+    }
+
+    boolean isBackingOff(long nowMillis) {
+        return retryAtMillis > nowMillis;
+    }
+}
@@ -0,0 +1,553 @@
+package com.project.cart;
+
+import com.project.dto.CartItemDto;
+import com.project.entity.CartItem;
+import com.project.exception.ResourceNotFound;
+import com.project.repository.CartItemRepository;
+import com.project.repository.ProductRepository;
+import com.project.repository.UserRepository;
+import com.project.util.ExponentialBackoff;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Active carts live in memory, sharded by user id; each cart's lock serializes that user's requests.
+// Mutations only mark the cart dirty, and a scheduled flush writes the latest state of every dirty cart
+// to cart_items in one transaction, so a burst of changes to one cart costs a single write. A cart not in
+// memory (first access, restart, idle eviction) is rebuilt from cart_items. Only safe while each user's
+// cart requests are served by one node (sticky sessions).
+//
+// Memory is bounded by max-carts: reads of a user with no cart rows are answered without caching anything,
+// and past the limit the least recently used clean carts are evicted. A cart whose write keeps failing is
+// retried with backoff and, after flush-max-attempts, logged with its unsaved lines and dropped, so the next
+// access reloads what cart_items holds.
+//
+// Locks are ReentrantLocks rather than monitors, and no cart lock is held across JDBC, so a virtual thread
+// waiting here or inside a query never pins its carrier. A write takes its connection before it snapshots
+// the carts, and a cart stays marked as writing until that transaction completes; whoever waits for a
+// write therefore waits for a thread that already has its connection.
+@Component
+@Slf4j
+public class CartEngine {
+
+    private static final int SHARDS = 16;
+
+    // READ and WRITE leave an empty cart uncached (there is nothing to read or change); CREATE is only used
+    // once the user is known to exist. READ past max-carts does not cache either.
+    private enum Access {
+        READ, WRITE, CREATE
+    }
+
+    private final CartItemRepository cartItemRepository;
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final CartPriceCache priceCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int flushBatchSize;
+    private final long idleEvictMillis;
+    private final int maxCarts;
+    private final int flushMaxAttempts;
+    private final ExponentialBackoff flushBackoff;
+
+    @SuppressWarnings("unchecked")
+    private final Map<Long, Cart>[] shards = new Map[SHARDS];
+    private final Set<Long> dirtyUsers = ConcurrentHashMap.newKeySet();
+
+    public CartEngine(CartItemRepository cartItemRepository,
+                      UserRepository userRepository,
+                      ProductRepository productRepository,
+                      CartPriceCache priceCache,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${app.cart.flush-batch-size:500}") int flushBatchSize,
+                      @Value("${app.cart.idle-evict-ms:1800000}") long idleEvictMillis,
+                      @Value("${app.cart.max-carts:100000}") int maxCarts,
+                      @Value("${app.cart.flush-max-attempts:10}") int flushMaxAttempts,
+                      @Value("${app.cart.flush-initial-backoff:1s}") Duration flushInitialBackoff,
+                      @Value("${app.cart.flush-max-backoff:5m}") Duration flushMaxBackoff) {
+        this.cartItemRepository = cartItemRepository;
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+        this.priceCache = priceCache;
+        // Only used without a surrounding transaction; flush(Long) inside one writes in it
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushBatchSize = flushBatchSize;
+        this.idleEvictMillis = idleEvictMillis;
+        this.maxCarts = maxCarts;
+        this.flushMaxAttempts = flushMaxAttempts;
+        this.flushBackoff = new ExponentialBackoff(flushInitialBackoff, flushMaxBackoff);
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    public void add(Long userId, Long productId, int quantity) {
+        requireProduct(productId);
+        // Checked before taking the cart lock; the lookup is a query
+        if (!withCart(userId, Access.READ, Cart::isUserVerified) && !userRepository.existsById(userId)) {
+            throw new ResourceNotFound("User not found");
+        }
+        withCart(userId, Access.CREATE, cart -> {
+            cart.markUserVerified();
+            Cart.Line existing = cart.line(productId);
+            cart.put(productId, existing != null ? existing.quantity() + quantity : quantity);
+            return null;
+        });
+    }
+
+    public void setQuantity(Long userId, Long productId, int quantity) {
+        withCart(userId, Access.WRITE, cart -> {
+            if (cart.line(productId) == null) {
+                throw new ResourceNotFound("Cart item not found");
+            }
+            if (quantity <= 0) {
+                cart.remove(productId);
+            } else {
+                cart.put(productId, quantity);
+            }
+            return null;
+        });
+    }
+
+    public void remove(Long userId, Long productId) {
+        withCart(userId, Access.WRITE, cart -> cart.remove(productId));
+    }
+
+    public void clear(Long userId) {
+        withCart(userId, Access.WRITE, cart -> {
+            cart.clear();
+            return null;
+        });
+    }
+
+    public List<CartItemDto> items(Long userId) {
+        List<Cart.Line> lines = withCart(userId, Access.READ, Cart::lines);
+        Map<Long, CartProduct> products = priceCache.getAll(lines.stream().map(Cart.Line::productId).toList());
+        List<CartItemDto> items = new ArrayList<>(lines.size());
+        for (Cart.Line line : lines) {
+            CartProduct product = products.get(line.productId());
+            // Lines for products deleted since they were added are not shown
+            if (product != null) {
+                items.add(new CartItemDto(line.id(), product.id(), product.name(), product.sku(), product.categoryId(),
+                        product.price(), line.quantity(), product.price().multiply(BigDecimal.valueOf(line.quantity())),
+                        line.addedAt()));
+            }
+        }
+        return items;
+    }
+
+    public BigDecimal total(Long userId) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartItemDto item : items(userId)) {
+            total = total.add(item.getLineTotal());
+        }
+        return total;
+    }
+
+    public long count(Long userId) {
+        return withCart(userId, Access.READ, Cart::size);
+    }
+
+    // Makes cart_items current for one user, e.g. before checkout reads the rows. Also waits out a
+    // scheduled flush that is writing this cart right now, and does not wait for a retry backoff.
+    // Inside a transaction the rows are written in that transaction: asking the pool for a second
+    // connection while holding one deadlocks once every connection is held by a checkout doing the same.
+    // A failed write then fails the caller, and the cart stays dirty until a write commits.
+    public void flush(Long userId) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            writeInTransaction(List.of(userId), true);
+        } else {
+            write(List.of(userId), true);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.flush-interval-ms:500}")
+    public void flush() {
+        if (!dirtyUsers.isEmpty()) {
+            List<Long> pending = new ArrayList<>(dirtyUsers);
+            for (int from = 0; from < pending.size(); from += flushBatchSize) {
+                write(pending.subList(from, Math.min(from + flushBatchSize, pending.size())), false);
+            }
+        }
+        evictIdle();
+        trimToCapacity();
+    }
+
+    // Checkout deletes the cart rows it ordered. Once that commits, the same lines leave the in-memory cart,
+    // unless the user changed them meanwhile; lines added during checkout stay.
+    public void removeOrderedAfterCommit(Long userId, Map<Long, Integer> ordered) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeOrdered(userId, ordered);
+                }
+            });
+        } else {
+            removeOrdered(userId, ordered);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private <T> T withCart(Long userId, Access access, Function<Cart, T> action) {
+        while (true) {
+            Cart cart = cartFor(userId, access);
+            cart.lock().lock();
+            try {
+                // Lost a race with eviction: the next lookup reloads or finds the replacement
+                if (cart.isEvicted()) {
+                    continue;
+                }
+                cart.touch();
+                try {
+                    return action.apply(cart);
+                } finally {
+                    if (cart.isDirty()) {
+                        dirtyUsers.add(userId);
+                    }
+                }
+            } finally {
+                cart.lock().unlock();
+            }
+        }
+    }
+
+    private Cart cartFor(Long userId, Access access) {
+        Map<Long, Cart> shard = shard(userId);
+        Cart cart = shard.get(userId);
+        if (cart != null) {
+            return cart;
+        }
+        // Loaded outside the map so a slow query does not block other users in the shard
+        Cart loaded = new Cart(userId, loadLines(userId));
+        boolean cache = switch (access) {
+            case CREATE -> true;
+            case WRITE -> loaded.size() > 0;
+            case READ -> loaded.size() > 0 && cachedCarts() < maxCarts;
+        };
+        if (!cache) {
+            // Not in the map: nothing can dirty it, and any id, existing or not, costs no memory
+            return loaded;
+        }
+        Cart raced = shard.putIfAbsent(userId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    private List<Cart.Line> loadLines(Long userId) {
+        List<Cart.Line> lines = new ArrayList<>();
+        for (Object[] row : cartItemRepository.findLinesByUserId(userId)) {
+            lines.add(new Cart.Line((Long) row[0], (Long) row[1], (Integer) row[2], (LocalDateTime) row[3]));
+        }
+        return lines;
+    }
+
+    private void requireProduct(Long productId) {
+        if (priceCache.get(productId).isEmpty()) {
+            throw new ResourceNotFound("Product not found");
+        }
+    }
+
+    private void write(Collection<Long> userIds, boolean ignoreBackoff) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeInTransaction(userIds, ignoreBackoff));
+        } catch (RuntimeException e) {
+            // Retry one cart per transaction so a single bad cart does not hold back the rest. A batch of one
+            // has already been counted as a failure and is backing off.
+            for (Long userId : userIds) {
+                if (userIds.size() > 1 && dirtyUsers.contains(userId)) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status ->
+                                writeInTransaction(List.of(userId), ignoreBackoff));
+                    } catch (RuntimeException single) {
+                        // Logged and scheduled for retry when its transaction rolled back
+                    }
+                }
+            }
+        }
+    }
+
+    // Snapshots the dirty carts among userIds and writes them in the current transaction. Cart locks are only
+    // taken to snapshot; the carts stay marked as writing until the transaction completes (see PendingWrite).
+    private void writeInTransaction(Collection<Long> userIds, boolean ignoreBackoff) {
+        PendingWrite pending = new PendingWrite();
+        long now = System.currentTimeMillis();
+        for (Long userId : userIds) {
+            Cart cart = shard(userId).get(userId);
+            if (cart == null) {
+                dirtyUsers.remove(userId);
+                continue;
+            }
+            cart.lock().lock();
+            try {
+                if (cart.isWriting()) {
+                    // A scheduled flush leaves it dirty for the next round; flush(Long) needs it written now
+                    if (!ignoreBackoff) {
+                        continue;
+                    }
+                    cart.awaitWrite();
+                }
+                // Stays in dirtyUsers until its retry is due
+                if (cart.isEvicted() || (!ignoreBackoff && cart.isBackingOff(now))) {
+                    continue;
+                }
+                dirtyUsers.remove(userId);
+                if (cart.isDirty()) {
+                    cart.setDirty(false);
+                    cart.startWrite();
+                    pending.add(cart);
+                }
+            } finally {
+                cart.lock().unlock();
+            }
+        }
+        if (!pending.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(pending);
+            pending.persist();
+        }
+    }
+
+    // Diff against the stored rows: one select for the whole batch, then batched deletes, updates and inserts
+    private List<CartItem> persist(Map<Long, Map<Long, Integer>> snapshots) {
+        Map<Long, Map<Long, CartItem>> rows = new HashMap<>();
+        for (CartItem item : cartItemRepository.findByUserIdIn(snapshots.keySet())) {
+            rows.computeIfAbsent(item.getUser().getId(), id -> new HashMap<>()).put(item.getProduct().getId(), item);
+        }
+
+        List<CartItem> deletes = new ArrayList<>();
+        List<CartItem> inserts = new ArrayList<>();
+        snapshots.forEach((userId, quantities) -> {
+            Map<Long, CartItem> existing = rows.getOrDefault(userId, Map.of());
+            existing.forEach((productId, item) -> {
+                Integer quantity = quantities.get(productId);
+                if (quantity == null) {
+                    deletes.add(item);
+                } else if (!quantity.equals(item.getQuantity())) {
+                    item.setQuantity(quantity);
+                }
+            });
+            quantities.forEach((productId, quantity) -> {
+                if (!existing.containsKey(productId)) {
+                    CartItem item = new CartItem();
+                    item.setUser(userRepository.getReferenceById(userId));
+                    item.setProduct(productRepository.getReferenceById(productId));
+                    item.setQuantity(quantity);
+                    inserts.add(item);
+                }
+            });
+        });
+
+        if (!deletes.isEmpty()) {
+            cartItemRepository.deleteAllInBatch(deletes);
+        }
+        return cartItemRepository.saveAll(inserts);
+    }
+
+    private void assignIds(List<CartItem> inserted) {
+        for (CartItem item : inserted) {
+            Long userId = item.getUser().getId();
+            Cart cart = shard(userId).get(userId);
+            if (cart != null) {
+                cart.lock().lock();
+                try {
+                    cart.assignId(item.getProduct().getId(), item.getId());
+                } finally {
+                    cart.lock().unlock();
+                }
+            }
+        }
+    }
+
+    // Caller holds the cart lock
+    private void writeCompleted(Cart cart, boolean committed, RuntimeException failure, boolean alone) {
+        cart.finishWrite();
+        if (committed) {
+            cart.recordFlushSuccess();
+        } else if (failure != null && alone) {
+            flushFailed(cart, failure);
+        } else {
+            // Rolled back with the caller's transaction, or part of a batch that is retried cart by cart
+            cart.setDirty(true);
+            dirtyUsers.add(cart.userId());
+        }
+    }
+
+    // Caller holds the cart lock. Marks the cart dirty again for a later retry, or drops it once the attempts
+    // are used up; a write that fails that often (deleted product or user, constraint violation) will not
+    // succeed by retrying.
+    private void flushFailed(Cart cart, RuntimeException e) {
+        Long userId = cart.userId();
+        int attempts = cart.recordFlushFailure();
+        if (attempts >= flushMaxAttempts) {
+            log.error("Cart write-behind for user {} gave up after {} attempts; dropping unsaved cart {}: {}",
+                    userId, attempts, cart.snapshot(), e.getMessage());
+            cart.markEvicted();
+            shard(userId).remove(userId, cart);
+            return;
+        }
+        Duration delay = flushBackoff.delay(attempts);
+        cart.retryAt(System.currentTimeMillis() + delay.toMillis());
+        log.warn("Cart write-behind failed for user {} (attempt {}), retrying in {}: {}",
+                userId, attempts, delay, e.getMessage());
+        cart.setDirty(true);
+        dirtyUsers.add(userId);
+    }
+
+    private void removeOrdered(Long userId, Map<Long, Integer> ordered) {
+        Cart cart = shard(userId).get(userId);
+        if (cart == null) {
+            return;
+        }
+        cart.lock().lock();
+        try {
+            if (!cart.isEvicted()) {
+                cart.removeOrdered(ordered);
+                if (cart.isDirty()) {
+                    dirtyUsers.add(userId);
+                }
+            }
+        } finally {
+            cart.lock().unlock();
+        }
+    }
+
+    // Clean carts nobody touched for a while are dropped; they are rebuilt from cart_items on next access
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictMillis;
+        int evicted = 0;
+        for (Map<Long, Cart> shard : shards) {
+            int before = shard.size();
+            shard.values().removeIf(cart -> {
+                cart.lock().lock();
+                try {
+                    if (!cart.isDirty() && !cart.isWriting() && cart.idleSince(cutoff)) {
+                        cart.markEvicted();
+                        return true;
+                    }
+                    return false;
+                } finally {
+                    cart.lock().unlock();
+                }
+            });
+            evicted += before - shard.size();
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} idle carts", evicted);
+        }
+    }
+
+    // Past max-carts, the least recently used clean carts go first; dirty ones stay until they are written
+    private void trimToCapacity() {
+        int excess = cachedCarts() - maxCarts;
+        if (excess <= 0) {
+            return;
+        }
+        List<Cart> byAge = new ArrayList<>(maxCarts + excess);
+        for (Map<Long, Cart> shard : shards) {
+            byAge.addAll(shard.values());
+        }
+        byAge.sort(Comparator.comparingLong(Cart::lastAccessMillis));
+        int evicted = 0;
+        for (Cart cart : byAge) {
+            if (evicted >= excess) {
+                break;
+            }
+            cart.lock().lock();
+            try {
+                if (cart.isDirty() || cart.isWriting() || cart.isEvicted()) {
+                    continue;
+                }
+                cart.markEvicted();
+            } finally {
+                cart.lock().unlock();
+            }
+            shard(cart.userId()).remove(cart.userId(), cart);
+            evicted++;
+        }
+        log.debug("Evicted {} carts over the limit of {}", evicted, maxCarts);
+    }
+
+    private int cachedCarts() {
+        int size = 0;
+        for (Map<Long, Cart> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    private Map<Long, Cart> shard(Long userId) {
+        return shards[Math.floorMod(userId.hashCode(), SHARDS)];
+    }
+
+    // One write's carts, from their snapshot until the transaction that writes them completes
+    private final class PendingWrite implements TransactionSynchronization {
+
+        private final Map<Long, Cart> carts = new LinkedHashMap<>();
+        private final Map<Long, Map<Long, Integer>> snapshots = new LinkedHashMap<>();
+        private List<CartItem> inserted;
+        private RuntimeException failure;
+
+        // Caller holds the cart lock
+        void add(Cart cart) {
+            carts.put(cart.userId(), cart);
+            snapshots.put(cart.userId(), cart.snapshot());
+        }
+
+        boolean isEmpty() {
+            return carts.isEmpty();
+        }
+
+        void persist() {
+            try {
+                inserted = CartEngine.this.persist(snapshots);
+            } catch (RuntimeException e) {
+                failure = e;
+                throw e;
+            }
+        }
+
+        // Runs before checkout's removeOrdered, registered later in the same transaction, which clears the
+        // id of a line whose row it deleted
+        @Override
+        public void afterCommit() {
+            if (inserted != null) {
+                assignIds(inserted);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            boolean committed = status == STATUS_COMMITTED && failure == null;
+            carts.values().forEach(cart -> {
+                cart.lock().lock();
+                try {
+                    writeCompleted(cart, committed, failure, carts.size() == 1);
+                } finally {
+                    cart.lock().unlock();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.project.cart;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.event.ProductChangedEvent;
+import com.project.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Product id -> name/sku/price for cart reads and totals. Misses for a whole cart are loaded with one query;
+// local writes evict immediately, writes on other nodes are picked up when the entry expires.
+@Component
+public class CartPriceCache {
+
+    private final ProductRepository productRepository;
+    private final Cache<Long, CartProduct> products;
+
+    public CartPriceCache(ProductRepository productRepository,
+                          @Value("${app.cart.prices.max-size:50000}") long maxSize,
+                          @Value("${app.cart.prices.ttl:5m}") Duration ttl) {
+        this.productRepository = productRepository;
+        this.products = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Optional<CartProduct> get(Long productId) {
+        return Optional.ofNullable(getAll(List.of(productId)).get(productId));
+    }
+
+    // Unknown product ids are simply absent from the result
+    public Map<Long, CartProduct> getAll(Collection<Long> productIds) {
+        return products.getAll(productIds, missing -> {
+            Map<Long, CartProduct> loaded = new HashMap<>();
+            for (CartProduct product : productRepository.findCartProductsByIdIn(List.copyOf(missing))) {
+                loaded.put(product.id(), product);
+            }
+            return loaded;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        products.invalidate(event.getProduct().getId());
+    }
+}
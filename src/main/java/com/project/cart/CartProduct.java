@@ -0,0 +1,7 @@
+package com.project.cart;
+
+import java.math.BigDecimal;
+
+// The product fields a cart line needs for display, totals and promotion scopes
+public record CartProduct(Long id, String name, String sku, BigDecimal price, Long categoryId) {
+}
@@ -0,0 +1,279 @@
+package com.project.category;
+
+import com.project.dto.CategoryDto;
+import com.project.entity.Category;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable snapshot of the category hierarchy, laid out in pre-order (Euler tour) so every subtree is
+// the contiguous interval [position, end]. Built once from a single query and replaced wholesale.
+public final class CategoryTree {
+
+    private final Map<Long, Integer> positionById;
+    private final Category[] categories;
+    private final int[] parents;
+    private final int[] ends;
+    private final int[][] paths;
+    private final int[][] children;
+    private final int[] roots;
+    private final long[] productCounts;
+    private final long[] subtreeProductCounts;
+
+    // Per-node read models, computed once per snapshot
+    private final CategoryDto[] dtos;
+    private final List<CategoryDto> activeRoots;
+    private final List<List<CategoryDto>> activeChildren;
+    private final List<CategoryDto> active;
+
+    private CategoryTree(Map<Long, Integer> positionById, Category[] categories, int[] parents, int[] ends,
+                         int[][] paths, int[][] children, int[] roots, Map<Long, Long> activeProductCounts) {
+        this.positionById = positionById;
+        this.categories = categories;
+        this.parents = parents;
+        this.ends = ends;
+        this.paths = paths;
+        this.children = children;
+        this.roots = roots;
+
+        int size = categories.length;
+        productCounts = new long[size];
+        subtreeProductCounts = new long[size];
+        for (int pos = 0; pos < size; pos++) {
+            productCounts[pos] = activeProductCounts.getOrDefault(categories[pos].getId(), 0L);
+        }
+        // Children come after their parent in pre-order, so a reverse sweep sees every subtree complete
+        for (int pos = size - 1; pos >= 0; pos--) {
+            subtreeProductCounts[pos] += productCounts[pos];
+            if (parents[pos] >= 0) {
+                subtreeProductCounts[parents[pos]] += subtreeProductCounts[pos];
+            }
+        }
+
+        dtos = new CategoryDto[size];
+        List<CategoryDto> activeList = new ArrayList<>();
+        for (int pos = 0; pos < size; pos++) {
+            Category category = categories[pos];
+            dtos[pos] = new CategoryDto(category.getId(), category.getName(), category.getDescription(),
+                    parents[pos] >= 0 ? categories[parents[pos]].getId() : null, category.getIsActive(),
+                    category.getCreatedAt(), productCounts[pos], subtreeProductCounts[pos]);
+            if (Boolean.TRUE.equals(category.getIsActive())) {
+                activeList.add(dtos[pos]);
+            }
+        }
+        active = Collections.unmodifiableList(activeList);
+        activeRoots = activeOf(roots);
+        List<List<CategoryDto>> childLists = new ArrayList<>(size);
+        for (int pos = 0; pos < size; pos++) {
+            childLists.add(activeOf(children[pos]));
+        }
+        activeChildren = childLists;
+    }
+
+    public static CategoryTree build(List<Category> all, Map<Long, Long> activeProductCounts) {
+        List<Category> sorted = new ArrayList<>(all);
+        sorted.sort(Comparator.comparing(Category::getId));
+
+        Map<Long, Category> byId = new HashMap<>();
+        for (Category category : sorted) {
+            byId.put(category.getId(), category);
+        }
+        Map<Long, List<Category>> childrenById = new HashMap<>();
+        List<Category> roots = new ArrayList<>();
+        for (Category category : sorted) {
+            Long parentId = category.getParent() != null ? category.getParent().getId() : null;
+            if (parentId == null || !byId.containsKey(parentId)) {
+                roots.add(category);
+            } else {
+                childrenById.computeIfAbsent(parentId, id -> new ArrayList<>()).add(category);
+            }
+        }
+
+        int size = sorted.size();
+        Category[] categories = new Category[size];
+        int[] parents = new int[size];
+        int[] ends = new int[size];
+        int[][] paths = new int[size][];
+        int[][] children = new int[size][];
+        Map<Long, Integer> positionById = new HashMap<>(size * 2);
+
+        // Iterative DFS; a node's end is known once the traversal moves past its last descendant
+        int next = 0;
+        Deque<Integer> open = new ArrayDeque<>();
+        Deque<Category> pending = new ArrayDeque<>();
+        Deque<Integer> pendingParents = new ArrayDeque<>();
+        for (int i = roots.size() - 1; i >= 0; i--) {
+            pending.push(roots.get(i));
+            pendingParents.push(-1);
+        }
+        int[] rootPositions = new int[roots.size()];
+        int rootCount = 0;
+        while (!pending.isEmpty()) {
+            Category category = pending.pop();
+            int parent = pendingParents.pop();
+            if (positionById.containsKey(category.getId())) {
+                continue;
+            }
+            while (!open.isEmpty() && open.peek() != parent) {
+                ends[open.pop()] = next - 1;
+            }
+
+            int pos = next++;
+            categories[pos] = category;
+            parents[pos] = parent;
+            positionById.put(category.getId(), pos);
+            paths[pos] = parent < 0 ? new int[] {pos} : append(paths[parent], pos);
+            if (parent < 0) {
+                rootPositions[rootCount++] = pos;
+            }
+            open.push(pos);
+
+            List<Category> kids = childrenById.getOrDefault(category.getId(), List.of());
+            for (int i = kids.size() - 1; i >= 0; i--) {
+                pending.push(kids.get(i));
+                pendingParents.push(pos);
+            }
+        }
+        while (!open.isEmpty()) {
+            ends[open.pop()] = next - 1;
+        }
+
+        // Categories caught in a parent cycle are unreachable from any root and are left out
+        if (next < size) {
+            categories = Arrays.copyOf(categories, next);
+            parents = Arrays.copyOf(parents, next);
+            ends = Arrays.copyOf(ends, next);
+            paths = Arrays.copyOf(paths, next);
+            children = Arrays.copyOf(children, next);
+        }
+        for (int pos = 0; pos < next; pos++) {
+            List<Category> kids = childrenById.getOrDefault(categories[pos].getId(), List.of());
+            int[] childPositions = new int[kids.size()];
+            for (int i = 0; i < kids.size(); i++) {
+                childPositions[i] = positionById.get(kids.get(i).getId());
+            }
+            children[pos] = childPositions;
+        }
+
+        return new CategoryTree(Collections.unmodifiableMap(positionById), categories, parents, ends, paths,
+                children, Arrays.copyOf(rootPositions, rootCount), activeProductCounts);
+    }
+
+    // Same structure, new counts
+    public CategoryTree withProductCounts(Map<Long, Long> activeProductCounts) {
+        return new CategoryTree(positionById, categories, parents, ends, paths, children, roots, activeProductCounts);
+    }
+
+    public int size() {
+        return categories.length;
+    }
+
+    public boolean contains(Long categoryId) {
+        return positionById.containsKey(categoryId);
+    }
+
+    public CategoryDto get(Long categoryId) {
+        Integer pos = positionById.get(categoryId);
+        return pos != null ? dtos[pos] : null;
+    }
+
+    public List<CategoryDto> activeCategories() {
+        return active;
+    }
+
+    public List<CategoryDto> activeRoots() {
+        return activeRoots;
+    }
+
+    public List<CategoryDto> activeChildren(Long parentId) {
+        Integer pos = positionById.get(parentId);
+        return pos != null ? activeChildren.get(pos) : List.of();
+    }
+
+    // Root first, the category itself last
+    public List<CategoryDto> path(Long categoryId) {
+        Integer pos = positionById.get(categoryId);
+        if (pos == null) {
+            return List.of();
+        }
+        List<CategoryDto> path = new ArrayList<>(paths[pos].length);
+        for (int ancestor : paths[pos]) {
+            path.add(dtos[ancestor]);
+        }
+        return path;
+    }
+
+    // True when candidate is ancestorId itself or one of its descendants
+    public boolean isInSubtree(Long ancestorId, Long candidateId) {
+        Integer ancestor = positionById.get(ancestorId);
+        Integer candidate = positionById.get(candidateId);
+        return ancestor != null && candidate != null && candidate >= ancestor && candidate <= ends[ancestor];
+    }
+
+    // The category and all of its descendants, active or not; empty for an unknown id
+    public List<Long> subtreeIds(Long categoryId) {
+        Integer pos = positionById.get(categoryId);
+        if (pos == null) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(ends[pos] - pos + 1);
+        for (int i = pos; i <= ends[pos]; i++) {
+            ids.add(categories[i].getId());
+        }
+        return ids;
+    }
+
+    public int treeLeft(Long categoryId) {
+        return positionById.get(categoryId);
+    }
+
+    public int treeRight(Long categoryId) {
+        return ends[positionById.get(categoryId)];
+    }
+
+    public long productCount(Long categoryId) {
+        Integer pos = positionById.get(categoryId);
+        return pos != null ? productCounts[pos] : 0;
+    }
+
+    public long subtreeProductCount(Long categoryId) {
+        Integer pos = positionById.get(categoryId);
+        return pos != null ? subtreeProductCounts[pos] : 0;
+    }
+
+    // Categories whose stored nested-set interval differs from this snapshot
+    List<Category> staleIntervals() {
+        List<Category> stale = new ArrayList<>();
+        for (int pos = 0; pos < categories.length; pos++) {
+            Category category = categories[pos];
+            if (category.getTreeLeft() == null || category.getTreeLeft() != pos
+                    || category.getTreeRight() == null || category.getTreeRight() != ends[pos]) {
+                stale.add(category);
+            }
+        }
+        return stale;
+    }
+
+    private List<CategoryDto> activeOf(int[] positions) {
+        List<CategoryDto> result = new ArrayList<>(positions.length);
+        for (int pos : positions) {
+            if (Boolean.TRUE.equals(categories[pos].getIsActive())) {
+                result.add(dtos[pos]);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static int[] append(int[] path, int pos) {
+        int[] extended = Arrays.copyOf(path, path.length + 1);
+        extended[path.length] = pos;
+        return extended;
+    }
+}
@@ -0,0 +1,123 @@
+package com.project.category;
+
+import com.project.entity.Category;
+import com.project.event.CategoryChangedEvent;
+import com.project.event.ProductChangedEvent;
+import com.project.repository.CategoryRepository;
+import com.project.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Holds the current CategoryTree. Readers never lock: a rebuild constructs a new snapshot and swaps the reference.
+@Component
+@Slf4j
+public class CategoryTreeCache {
+
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile CategoryTree tree;
+    private volatile boolean countsDirty;
+    // Not synchronized: rebuilds do JDBC and must not pin a virtual thread's carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public CategoryTreeCache(CategoryRepository categoryRepository,
+                             ProductRepository productRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        // Rebuilds also run from after-commit listeners, where the finished transaction is still bound
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public CategoryTree current() {
+        CategoryTree snapshot = tree;
+        if (snapshot == null) {
+            snapshot = rebuild();
+        }
+        return snapshot;
+    }
+
+    public CategoryTree rebuild() {
+        rebuildLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            CategoryTree rebuilt = transactionTemplate.execute(status -> {
+                List<Category> categories = categoryRepository.findAll();
+                CategoryTree snapshot = CategoryTree.build(categories, activeProductCounts());
+                // Persist the intervals so subtree product queries can run as a single indexed range scan
+                List<Category> stale = snapshot.staleIntervals();
+                for (Category category : stale) {
+                    categoryRepository.updateTreeInterval(category.getId(),
+                            snapshot.treeLeft(category.getId()), snapshot.treeRight(category.getId()));
+                }
+                if (!stale.isEmpty()) {
+                    log.info("Renumbered {} category intervals", stale.size());
+                }
+                return snapshot;
+            });
+            countsDirty = false;
+            tree = rebuilt;
+            log.debug("Built category tree with {} nodes in {} ms", rebuilt.size(), System.currentTimeMillis() - start);
+            return rebuilt;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        rebuild();
+    }
+
+    // Product writes only move counts; they are folded in by the next refresh instead of per write
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        countsDirty = true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.categories.tree.count-refresh-ms:10000}")
+    public void refreshCounts() {
+        if (!countsDirty || tree == null) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            countsDirty = false;
+            Map<Long, Long> counts = transactionTemplate.execute(status -> activeProductCounts());
+            tree = tree.withProductCounts(counts);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Category changes made on other nodes reach this node's counts and cycle checks through the periodic
+    // rebuild; subtree product queries read the persisted intervals directly and do not wait for it
+    @Scheduled(fixedDelayString = "${app.categories.tree.refresh-interval-ms:300000}",
+            initialDelayString = "${app.categories.tree.refresh-interval-ms:300000}")
+    public void scheduledRebuild() {
+        if (tree != null) {
+            rebuild();
+        }
+    }
+
+    private Map<Long, Long> activeProductCounts() {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : productRepository.countActiveByCategory()) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,84 @@
+package com.project.config;
+
+import com.project.cache.CacheInvalidationMessage;
+import com.project.cache.TwoLevelCache;
+import com.project.cache.TwoLevelCacheManager;
+import com.project.cache.TwoLevelCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class CacheConfig {
+
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCTS_BY_SKU = "productsBySku";
+
+    private static final List<String> CACHE_NAMES = List.of(PRODUCTS, PRODUCTS_BY_SKU);
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(@Value("${app.cache.l1.spec}") String localSpec,
+                                             @Value("${app.cache.l2.enabled:false}") boolean remoteEnabled,
+                                             @Value("${app.cache.l2.ttl:30m}") Duration remoteTtl,
+                                             ObjectProvider<RedisConnectionFactory> connectionFactory) {
+        CaffeineCacheManager localCacheManager = new CaffeineCacheManager();
+        localCacheManager.setCacheSpecification(localSpec);
+
+        if (!remoteEnabled) {
+            return new TwoLevelCacheManager(localCacheManager, null, null, CACHE_NAMES);
+        }
+
+        RedisConnectionFactory redis = connectionFactory.getObject();
+        RedisCacheManager remoteCacheManager = RedisCacheManager.builder(redis)
+                .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig()
+                        .entryTtl(remoteTtl)
+                        .prefixCacheNameWith("ecommerce:"))
+                .build();
+        remoteCacheManager.afterPropertiesSet();
+
+        return new TwoLevelCacheManager(localCacheManager, remoteCacheManager, invalidationTemplate(redis), CACHE_NAMES);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.l2.enabled", havingValue = "true")
+    public RedisMessageListenerContainer cacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                   TwoLevelCacheManager cacheManager) {
+        RedisSerializer<Object> serializer = RedisSerializer.java();
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            if (serializer.deserialize(message.getBody()) instanceof CacheInvalidationMessage invalidation) {
+                cacheManager.onInvalidation(invalidation);
+            }
+        }, new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        return container;
+    }
+
+    @Bean
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        return TwoLevelCacheMetrics::new;
+    }
+
+    private static RedisTemplate<String, Object> invalidationTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, Object> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.java());
+        template.afterPropertiesSet();
+        return template;
+    }
+}
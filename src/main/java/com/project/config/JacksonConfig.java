@@ -0,0 +1,53 @@
+package com.project.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import jakarta.persistence.Entity;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import java.io.IOException;
+
+@Configuration
+public class JacksonConfig {
+
+    // Registered on the MVC ObjectMapper: an API response that reaches a JPA entity (directly or nested,
+    // Hibernate proxies included) fails instead of lazy-loading the object graph. Map to a DTO instead.
+    @Bean
+    public Module entitySerializationGuard() {
+        SimpleModule module = new SimpleModule("EntitySerializationGuard");
+        module.setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+                                                      JsonSerializer<?> serializer) {
+                Class<?> type = beanDesc.getBeanClass();
+                return AnnotationUtils.findAnnotation(type, Entity.class) != null
+                        ? new RejectingSerializer(type)
+                        : serializer;
+            }
+        });
+        return module;
+    }
+
+    private static class RejectingSerializer extends StdSerializer<Object> {
+
+        RejectingSerializer(Class<?> type) {
+            super(type, false);
+        }
+
+        @Override
+        public void serialize(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            throw JsonMappingException.from(gen, "Entity " + handledType().getName()
+                    + " must not be serialized; return a DTO instead");
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.project.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+// Request handling on virtual threads is Boot's own spring.threads.virtual.enabled (Tomcat, @Async
+// and @Scheduled executors). This class adds what that mode needs around it: a limiter in front of
+// the connection pool and a startup check that the pool and limiter settings fit together.
+@Configuration
+@Slf4j
+public class VirtualThreadConfig {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolSize;
+
+    @Value("${spring.datasource.hikari.minimum-idle:-1}")
+    private int minimumIdle;
+
+    @Value("${spring.datasource.hikari.connection-timeout:30000}")
+    private long connectionTimeout;
+
+    @Value("${app.db.limiter.enabled:false}")
+    private boolean limiterEnabled;
+
+    @Value("${app.db.limiter.permits:0}")
+    private int limiterPermits;
+
+    @Value("${app.db.limiter.acquire-timeout-ms:5000}")
+    private long limiterTimeout;
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(Environment environment,
+                                                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitingDataSource
+                        || !environment.getProperty("app.db.limiter.enabled", Boolean.class, false)) {
+                    return bean;
+                }
+                int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                int permits = environment.getProperty("app.db.limiter.permits", Integer.class, 0);
+                ConcurrencyLimitingDataSource limited = new ConcurrencyLimitingDataSource(dataSource,
+                        permits > 0 ? permits : poolSize,
+                        environment.getProperty("app.db.limiter.max-waiters", Integer.class, 1000),
+                        environment.getProperty("app.db.limiter.acquire-timeout-ms", Long.class, 5000L));
+
+                meterRegistry.ifAvailable(registry -> {
+                    Gauge.builder("db.limiter.permits.available", limited, ConcurrencyLimitingDataSource::getAvailablePermits)
+                            .tag("datasource", beanName)
+                            .register(registry);
+                    Gauge.builder("db.limiter.waiting", limited, ConcurrencyLimitingDataSource::getWaiters)
+                            .tag("datasource", beanName)
+                            .register(registry);
+                });
+                return limited;
+            }
+        };
+    }
+
+    @PostConstruct
+    void validatePoolSettings() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int permits = limiterPermits > 0 ? limiterPermits : poolSize;
+
+        if (limiterEnabled && permits > poolSize) {
+            throw new IllegalStateException("app.db.limiter.permits (" + permits
+                    + ") must not exceed spring.datasource.hikari.maximum-pool-size (" + poolSize + ")");
+        }
+        if (limiterEnabled && limiterTimeout > connectionTimeout) {
+            throw new IllegalStateException("app.db.limiter.acquire-timeout-ms (" + limiterTimeout
+                    + ") must not exceed spring.datasource.hikari.connection-timeout (" + connectionTimeout + ")");
+        }
+
+        if (!virtualThreads) {
+            return;
+        }
+        if (!limiterEnabled) {
+            log.warn("Virtual threads are enabled without app.db.limiter.enabled; every in-flight request "
+                    + "can queue on the {}-connection pool until its {}ms timeout", poolSize, connectionTimeout);
+        }
+        // A pool much larger than (cores * 2 + spindles) adds contention in the database, not throughput
+        if (poolSize > cores * 4) {
+            log.warn("spring.datasource.hikari.maximum-pool-size={} is large for {} cores; "
+                    + "virtual threads do not need a bigger pool, the limiter queues the excess", poolSize, cores);
+        }
+        if (minimumIdle >= 0 && minimumIdle < poolSize) {
+            log.info("Consider minimum-idle = maximum-pool-size ({}) so bursts do not wait on new connections", poolSize);
+        }
+        log.info("Virtual-thread mode: {} DB permits over a {}-connection pool", limiterEnabled ? permits : "unlimited", poolSize);
+    }
+}
@@ -0,0 +1,115 @@
+package com.project.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Reports virtual threads pinned to their carrier (blocking inside synchronized or native code, e.g.
+// in a JDBC driver) via the JFR jdk.VirtualThreadPinned event. Each distinct location is logged
+// once with its stack; counts are available at /actuator/pinning and as a metric.
+@Component
+@Endpoint(id = "pinning")
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    // Keeps metric tag cardinality bounded
+    private static final int MAX_LOCATIONS = 200;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, LongAdder> pinnedByLocation = new ConcurrentHashMap<>();
+
+    @Value("${app.threads.pinning-threshold-ms:20}")
+    private long thresholdMillis;
+
+    private RecordingStream stream;
+
+    @PostConstruct
+    void start() {
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+        stream.onEvent(EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Watching for virtual threads pinned longer than {} ms", thresholdMillis);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    @ReadOperation
+    public Map<String, Long> pinnedLocations() {
+        Map<String, Long> report = new TreeMap<>();
+        pinnedByLocation.forEach((location, count) -> report.put(location, count.sum()));
+        return report;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        String location = location(frames);
+
+        LongAdder count = pinnedByLocation.get(location);
+        if (count == null) {
+            if (pinnedByLocation.size() >= MAX_LOCATIONS) {
+                location = "other";
+            } else {
+                log.warn("Virtual thread pinned for {} ms at {}\n{}", event.getDuration().toMillis(), location, format(frames));
+            }
+            count = pinnedByLocation.computeIfAbsent(location, l -> new LongAdder());
+        }
+        count.increment();
+        meterRegistry.counter("jvm.threads.virtual.pinned", "location", location).increment();
+    }
+
+    // Prefer our own frame, so the report points at the call site rather than at JDK internals
+    private static String location(List<RecordedFrame> frames) {
+        RecordedFrame fallback = null;
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("com.project.")) {
+                return describe(frame);
+            }
+            if (fallback == null && !type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                fallback = frame;
+            }
+        }
+        if (fallback != null) {
+            return describe(fallback);
+        }
+        return frames.isEmpty() ? "unknown" : describe(frames.get(0));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static String format(List<RecordedFrame> frames) {
+        StringBuilder sb = new StringBuilder();
+        for (RecordedFrame frame : frames) {
+            sb.append("\tat ").append(describe(frame)).append('\n');
+        }
+        return sb.toString();
+    }
+}
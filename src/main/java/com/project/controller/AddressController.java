@@ -1,6 +1,8 @@
 package com.project.controller;
 
+import com.project.dto.AddressDto;
 import com.project.entity.Address;
+import com.project.mapper.AddressMapper;
 import com.project.service.AddressService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -23,42 +25,43 @@ import java.util.List;
 public class AddressController {
 
     private final AddressService addressService;
+    private final AddressMapper addressMapper;
 
     @GetMapping("/user/{userId}")
     @Operation(summary = "Get user addresses", description = "Retrieve all addresses for a specific user")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<List<Address>> getUserAddresses(@PathVariable Long userId) {
+    public ResponseEntity<List<AddressDto>> getUserAddresses(@PathVariable Long userId) {
         List<Address> addresses = addressService.getUserAddresses(userId);
-        return ResponseEntity.ok(addresses);
+        return ResponseEntity.ok(addressMapper.toDtoList(addresses));
     }
 
     @GetMapping("/{addressId}")
     @Operation(summary = "Get address by ID", description = "Retrieve a specific address by its ID")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Address> getAddressById(@PathVariable Long addressId) {
+    public ResponseEntity<AddressDto> getAddressById(@PathVariable Long addressId) {
         Address address = addressService.getAddressById(addressId);
-        return ResponseEntity.ok(address);
+        return ResponseEntity.ok(addressMapper.toDto(address));
     }
 
     @PostMapping("/user/{userId}")
     @Operation(summary = "Create new address", description = "Create a new address for a user")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Address> createAddress(
+    public ResponseEntity<AddressDto> createAddress(
             @PathVariable Long userId,
             @Valid @RequestBody Address address) {
         Address createdAddress = addressService.createAddress(userId, address);
-        return ResponseEntity.ok(createdAddress);
+        return ResponseEntity.ok(addressMapper.toDto(createdAddress));
     }
 
     @PutMapping("/{addressId}")
     @Operation(summary = "Update address", description = "Update an existing address")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Address> updateAddress(
+    public ResponseEntity<AddressDto> updateAddress(
             @RequestParam Long userId,
             @PathVariable Long addressId,
             @Valid @RequestBody Address addressDetails) {
         Address updatedAddress = addressService.updateAddress(userId, addressId, addressDetails);
-        return ResponseEntity.ok(updatedAddress);
+        return ResponseEntity.ok(addressMapper.toDto(updatedAddress));
     }
 
     @DeleteMapping("/{addressId}")
@@ -74,39 +77,39 @@ public class AddressController {
     @PatchMapping("/{addressId}/set-default")
     @Operation(summary = "Set default address", description = "Set an address as the default address")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Address> setDefaultAddress(
+    public ResponseEntity<AddressDto> setDefaultAddress(
             @RequestParam Long userId,
             @PathVariable Long addressId) {
         Address defaultAddress = addressService.setDefaultAddress(userId, addressId);
-        return ResponseEntity.ok(defaultAddress);
+        return ResponseEntity.ok(addressMapper.toDto(defaultAddress));
     }
 
     @GetMapping("/user/{userId}/default")
     @Operation(summary = "Get default address", description = "Get the default address for a user")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Address> getDefaultAddress(@PathVariable Long userId) {
+    public ResponseEntity<AddressDto> getDefaultAddress(@PathVariable Long userId) {
         Address defaultAddress = addressService.getDefaultAddress(userId);
-        return ResponseEntity.ok(defaultAddress);
+        return ResponseEntity.ok(addressMapper.toDto(defaultAddress));
     }
 
     @GetMapping("/user/{userId}/type/{type}")
     @Operation(summary = "Get addresses by type", description = "Get addresses for a user by type (shipping/billing)")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<List<Address>> getAddressesByType(
+    public ResponseEntity<List<AddressDto>> getAddressesByType(
             @PathVariable Long userId,
             @PathVariable String type) {
         List<Address> addresses = addressService.getAddressesByType(userId, type);
-        return ResponseEntity.ok(addresses);
+        return ResponseEntity.ok(addressMapper.toDtoList(addresses));
     }
 
     @GetMapping("/user/{userId}/type/{type}/default")
     @Operation(summary = "Get default address by type", description = "Get the default address for a user by type")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Address> getDefaultAddressByType(
+    public ResponseEntity<AddressDto> getDefaultAddressByType(
             @PathVariable Long userId,
             @PathVariable String type) {
         Address defaultAddress = addressService.getDefaultAddressByType(userId, type);
-        return ResponseEntity.ok(defaultAddress);
+        return ResponseEntity.ok(addressMapper.toDto(defaultAddress));
     }
 
     @PostMapping("/validate")
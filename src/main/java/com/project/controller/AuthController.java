@@ -1,16 +1,22 @@
 package com.project.controller;
 
 import com.project.dto.LoginRequest;
+import com.project.dto.RefreshTokenRequest;
 import com.project.dto.RegisterRequest;
+import com.project.dto.UserProfileDto;
 import com.project.dto.AuthenticationResponse;
+import com.project.security.SecurityConstants;
 import com.project.service.AuthenticationService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
@@ -22,12 +28,27 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthenticationResponse> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        return ResponseEntity.ok(authenticationService.authenticate(loginRequest));
+    public CompletableFuture<ResponseEntity<AuthenticationResponse>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        return authenticationService.authenticate(loginRequest).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest registerRequest) {
-        return ResponseEntity.ok(authenticationService.register(registerRequest));
+    public CompletableFuture<ResponseEntity<UserProfileDto>> registerUser(@Valid @RequestBody RegisterRequest registerRequest) {
+        return authenticationService.register(registerRequest).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthenticationResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authenticationService.refresh(request));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = SecurityConstants.TOKEN_HEADER, required = false) String authorization,
+                                       @RequestBody(required = false) RefreshTokenRequest request) {
+        String accessToken = authorization != null && authorization.startsWith(SecurityConstants.TOKEN_PREFIX)
+                ? authorization.substring(SecurityConstants.TOKEN_PREFIX.length())
+                : null;
+        authenticationService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
     }
 }
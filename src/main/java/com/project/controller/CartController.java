@@ -1,8 +1,9 @@
 package com.project.controller;
 
 import com.project.dto.AddToCartRequest;
+import com.project.dto.CartItemDto;
+import com.project.dto.CartPricingDto;
 import com.project.dto.UpdateCartRequest;
-import com.project.entity.CartItem;
 import com.project.service.CartService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -30,13 +31,13 @@ public class CartController {
 
     @GetMapping
     @Operation(summary = "Get cart items", description = "Retrieve all items in the user's cart")
-    public ResponseEntity<List<CartItem>> getCartItems(@RequestParam Long userId) {
-        return ResponseEntity.ok(cartService.getCartItems(userId));
+    public ResponseEntity<List<CartItemDto>> getCartItems(@RequestParam Long userId) {
+        return ResponseEntity.ok(cartService.getCartItemDtos(userId));
     }
 
     @PostMapping("/add")
     @Operation(summary = "Add item to cart", description = "Add a product to the shopping cart")
-    public ResponseEntity<CartItem> addToCart(@Valid @RequestBody AddToCartRequest request) {
+    public ResponseEntity<Void> addToCart(@Valid @RequestBody AddToCartRequest request) {
         cartService.addToCart(request.getUserId(), request.getProductId(), request.getQuantity());
         return ResponseEntity.ok().build();
     }
@@ -63,6 +64,14 @@ public class CartController {
         return ResponseEntity.ok(cartService.getCartTotal(userId));
     }
 
+    @GetMapping("/pricing")
+    @Operation(summary = "Preview cart pricing", description = "Price the cart against all automatic promotions and an optional coupon code")
+    public ResponseEntity<CartPricingDto> getCartPricing(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String couponCode) {
+        return ResponseEntity.ok(cartService.getCartPricing(userId, couponCode));
+    }
+
     @GetMapping("/count")
     @Operation(summary = "Get cart item count", description = "Get the total number of items in the cart")
     public ResponseEntity<Long> getCartItemCount(@RequestParam Long userId) {
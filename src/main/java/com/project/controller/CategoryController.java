@@ -1,7 +1,9 @@
 package com.project.controller;
 
+import com.project.dto.CategoryDto;
 import com.project.dto.CreateCategoryRequest;
-import com.project.entity.Category;
+import com.project.dto.ProductDto;
+import com.project.mapper.CategoryMapper;
 import com.project.service.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -23,68 +25,52 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CategoryMapper categoryMapper;
 
     @GetMapping
     @Operation(summary = "Get all active categories", description = "Retrieve a list of all active categories")
-    public ResponseEntity<List<Category>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.getActiveCategories());
+    public ResponseEntity<List<CategoryDto>> getAllCategories() {
+        return ResponseEntity.ok(categoryService.getActiveCategoryDtos());
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get category by ID", description = "Retrieve a category by its ID")
-    public ResponseEntity<Category> getCategoryById(@PathVariable Long id) {
-        return ResponseEntity.ok(categoryService.getCategoryById(id));
+    public ResponseEntity<CategoryDto> getCategoryById(@PathVariable Long id) {
+        return ResponseEntity.ok(categoryService.getCategoryDto(id));
+    }
+
+    @GetMapping("/{id}/path")
+    @Operation(summary = "Get category path", description = "Retrieve the ancestors of a category, from the root down to the category itself")
+    public ResponseEntity<List<CategoryDto>> getCategoryPath(@PathVariable Long id) {
+        return ResponseEntity.ok(categoryService.getCategoryPath(id));
     }
 
     @GetMapping("/root")
     @Operation(summary = "Get root categories", description = "Retrieve all root categories (no parent)")
-    public ResponseEntity<List<Category>> getRootCategories() {
-        // This functionality needs to be added to CategoryService
-        // For now, we'll return all categories and filter on the frontend
-        List<Category> allCategories = categoryService.getAllCategories();
-        List<Category> rootCategories = allCategories.stream()
-                .filter(category -> category.getParent() == null)
-                .toList();
-        return ResponseEntity.ok(rootCategories);
+    public ResponseEntity<List<CategoryDto>> getRootCategories() {
+        return ResponseEntity.ok(categoryService.getRootCategories());
     }
 
     @GetMapping("/{parentId}/subcategories")
     @Operation(summary = "Get subcategories", description = "Retrieve subcategories of a parent category")
-    public ResponseEntity<List<Category>> getSubCategories(@PathVariable Long parentId) {
-        // This functionality needs to be added to CategoryService
-        // For now, we'll return all categories and filter on the frontend
-        List<Category> allCategories = categoryService.getAllCategories();
-        List<Category> subCategories = allCategories.stream()
-                .filter(category -> category.getParent() != null && 
-                        category.getParent().getId().equals(parentId))
-                .toList();
-        return ResponseEntity.ok(subCategories);
+    public ResponseEntity<List<CategoryDto>> getSubCategories(@PathVariable Long parentId) {
+        return ResponseEntity.ok(categoryService.getSubCategories(parentId));
     }
 
     @PostMapping
     @Operation(summary = "Create new category", description = "Create a new product category")
     @PreAuthorize("hasRole('ADMIN')")
     @SecurityRequirement(name = "bearerAuth")
-    public ResponseEntity<Category> createCategory(@Valid @RequestBody CreateCategoryRequest request) {
-        Category category = new Category();
-        category.setName(request.getName());
-        category.setDescription(request.getDescription());
-        
-        if (request.getParentId() != null) {
-            Category parent = categoryService.getCategoryById(request.getParentId());
-            category.setParent(parent);
-        }
-        
-        category.setIsActive(true);
-        return ResponseEntity.ok(categoryService.createCategory(request));
+    public ResponseEntity<CategoryDto> createCategory(@Valid @RequestBody CreateCategoryRequest request) {
+        return ResponseEntity.ok(categoryMapper.toDto(categoryService.createCategory(request)));
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update category", description = "Update an existing category")
     @PreAuthorize("hasRole('ADMIN')")
     @SecurityRequirement(name = "bearerAuth")
-    public ResponseEntity<Category> updateCategory(@PathVariable Long id, @Valid @RequestBody CreateCategoryRequest request) {
-        return ResponseEntity.ok(categoryService.updateCategory(id, request));
+    public ResponseEntity<CategoryDto> updateCategory(@PathVariable Long id, @Valid @RequestBody CreateCategoryRequest request) {
+        return ResponseEntity.ok(categoryMapper.toDto(categoryService.updateCategory(id, request)));
     }
 
     @DeleteMapping("/{id}")
@@ -107,13 +93,14 @@ public class CategoryController {
 
     @GetMapping("/{id}/products")
     @Operation(summary = "Get products by category", description = "Retrieve all products in a specific category")
-    public ResponseEntity<List<com.project.entity.Product>> getProductsByCategory(@PathVariable Long id) {
+    public ResponseEntity<List<ProductDto>> getProductsByCategory(@PathVariable Long id) {
         return ResponseEntity.ok(categoryService.getProductsByCategory(id));
     }
 
     @GetMapping("/{id}/product-count")
-    @Operation(summary = "Get category product count", description = "Get the number of products in a category")
-    public ResponseEntity<Long> getCategoryProductCount(@PathVariable Long id) {
-        return ResponseEntity.ok(categoryService.getCategoryProductCount(id));
+    @Operation(summary = "Get category product count", description = "Get the number of active products in a category, optionally including its subcategories")
+    public ResponseEntity<Long> getCategoryProductCount(@PathVariable Long id,
+                                                        @RequestParam(defaultValue = "false") boolean includeSubcategories) {
+        return ResponseEntity.ok(categoryService.getCategoryProductCount(id, includeSubcategories));
     }
 }
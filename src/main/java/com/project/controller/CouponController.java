@@ -1,15 +1,22 @@
 package com.project.controller;
 
+import com.project.dto.CouponDto;
 import com.project.entity.Coupon;
+import com.project.export.ExportFormat;
+import com.project.export.ExportResponses;
+import com.project.mapper.CouponMapper;
 import com.project.service.CouponService;
+import com.project.service.ExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
@@ -23,57 +30,66 @@ import java.util.List;
 public class CouponController {
 
     private final CouponService couponService;
+    private final CouponMapper couponMapper;
+    private final ExportService exportService;
 
     @GetMapping
     @Operation(summary = "Get all coupons", description = "Retrieve all available coupons")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Coupon>> getAllCoupons() {
+    public ResponseEntity<List<CouponDto>> getAllCoupons() {
         List<Coupon> coupons = couponService.getAllCoupons();
-        return ResponseEntity.ok(coupons);
+        return ResponseEntity.ok(couponMapper.toDtoList(coupons));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export coupons", description = "Stream all coupons as NDJSON or CSV, gzip-encoded when accepted")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportCoupons(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return ExportResponses.attachment("coupons", format, acceptEncoding, exportService.exportCoupons(format));
     }
 
     @GetMapping("/active")
     @Operation(summary = "Get active coupons", description = "Retrieve all active coupons")
-    public ResponseEntity<List<Coupon>> getActiveCoupons() {
-        List<Coupon> coupons = couponService.getActiveCoupons();
-        return ResponseEntity.ok(coupons);
+    public ResponseEntity<List<CouponDto>> getActiveCoupons() {
+        return ResponseEntity.ok(couponService.getActiveCoupons());
     }
 
     @GetMapping("/valid")
     @Operation(summary = "Get valid coupons", description = "Retrieve all currently valid coupons")
-    public ResponseEntity<List<Coupon>> getValidCoupons() {
-        List<Coupon> coupons = couponService.getValidCoupons();
-        return ResponseEntity.ok(coupons);
+    public ResponseEntity<List<CouponDto>> getValidCoupons() {
+        return ResponseEntity.ok(couponService.getValidCoupons());
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get coupon by ID", description = "Retrieve a specific coupon by its ID")
-    public ResponseEntity<Coupon> getCouponById(@PathVariable Long id) {
+    public ResponseEntity<CouponDto> getCouponById(@PathVariable Long id) {
         Coupon coupon = couponService.getCouponById(id);
-        return ResponseEntity.ok(coupon);
+        return ResponseEntity.ok(couponMapper.toDto(coupon));
     }
 
     @GetMapping("/code/{code}")
     @Operation(summary = "Get coupon by code", description = "Retrieve a coupon by its code")
-    public ResponseEntity<Coupon> getCouponByCode(@PathVariable String code) {
+    public ResponseEntity<CouponDto> getCouponByCode(@PathVariable String code) {
         Coupon coupon = couponService.getCouponByCode(code);
-        return ResponseEntity.ok(coupon);
+        return ResponseEntity.ok(couponMapper.toDto(coupon));
     }
 
     @PostMapping
     @Operation(summary = "Create new coupon", description = "Create a new coupon (Admin only)")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Coupon> createCoupon(@Valid @RequestBody Coupon coupon) {
+    public ResponseEntity<CouponDto> createCoupon(@Valid @RequestBody Coupon coupon) {
         Coupon createdCoupon = couponService.createCoupon(coupon);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdCoupon);
+        return ResponseEntity.status(HttpStatus.CREATED).body(couponMapper.toDto(createdCoupon));
     }
 
     @PutMapping("/{id}")
     @Operation(summary = "Update coupon", description = "Update an existing coupon (Admin only)")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Coupon> updateCoupon(@PathVariable Long id, @Valid @RequestBody Coupon couponDetails) {
+    public ResponseEntity<CouponDto> updateCoupon(@PathVariable Long id, @Valid @RequestBody Coupon couponDetails) {
         Coupon updatedCoupon = couponService.updateCoupon(id, couponDetails);
-        return ResponseEntity.ok(updatedCoupon);
+        return ResponseEntity.ok(couponMapper.toDto(updatedCoupon));
     }
 
     @DeleteMapping("/{id}")
@@ -118,16 +134,14 @@ public class CouponController {
     @GetMapping("/expired")
     @Operation(summary = "Get expired coupons", description = "Retrieve all expired coupons (Admin only)")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Coupon>> getExpiredCoupons() {
-        List<Coupon> coupons = couponService.getExpiredCoupons();
-        return ResponseEntity.ok(coupons);
+    public ResponseEntity<List<CouponDto>> getExpiredCoupons() {
+        return ResponseEntity.ok(couponService.getExpiredCoupons());
     }
 
     @GetMapping("/upcoming")
     @Operation(summary = "Get upcoming coupons", description = "Retrieve all upcoming coupons (Admin only)")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Coupon>> getUpcomingCoupons() {
-        List<Coupon> coupons = couponService.getUpcomingCoupons();
-        return ResponseEntity.ok(coupons);
+    public ResponseEntity<List<CouponDto>> getUpcomingCoupons() {
+        return ResponseEntity.ok(couponService.getUpcomingCoupons());
     }
 }
@@ -1,6 +1,14 @@
 package com.project.controller;
 
-import com.project.entity.Order;
+import com.project.dto.CheckoutRequest;
+import com.project.dto.OrderDto;
+import com.project.enums.OrderStatus;
+import com.project.exception.AppException;
+import com.project.export.ExportFormat;
+import com.project.export.ExportResponses;
+import com.project.idempotency.IdempotencyService;
+import com.project.security.UserPrincipal;
+import com.project.service.ExportService;
 import com.project.service.OrderService;
 import com.project.util.PaginatedResult;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,10 +17,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.validation.Valid;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,18 +38,44 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final ExportService exportService;
+
+    // Retries with the same Idempotency-Key return the order created by the first attempt
+    @PostMapping("/checkout")
+    @Operation(summary = "Checkout", description = "Create an order from the user's cart; safe to retry with the same Idempotency-Key header")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<OrderDto> checkout(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+            @Valid @RequestBody CheckoutRequest request) {
+        Long userId = principal.getId();
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return ResponseEntity.ok(orderService.getOrderDtoById(orderService.checkout(userId, request).getId()));
+        }
+        if (idempotencyKey.length() > 200) {
+            throw new AppException("Idempotency-Key must be at most 200 characters");
+        }
+        IdempotencyService.Result result = idempotencyService.execute("checkout", userId, idempotencyKey,
+                IdempotencyService.fingerprint(request.getShippingAddressId(), request.getBillingAddressId(),
+                        request.getCouponCode()),
+                () -> orderService.checkout(userId, request).getId());
+        return ResponseEntity.ok()
+                .header("Idempotent-Replayed", String.valueOf(result.replayed()))
+                .body(orderService.getOrderDtoById(result.resourceId()));
+    }
 
     @GetMapping("/user/{userId}")
     @Operation(summary = "Get user orders", description = "Retrieve all orders for a specific user")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<Order>> getUserOrders(@PathVariable Long userId) {
+    public ResponseEntity<List<OrderDto>> getUserOrders(@PathVariable Long userId) {
         return ResponseEntity.ok(orderService.getUserOrders(userId));
     }
 
     @GetMapping("/user/{userId}/paginated")
     @Operation(summary = "Get paginated user orders", description = "Retrieve paginated orders for a specific user")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<PaginatedResult<Order>> getUserOrdersPaginated(
+    public ResponseEntity<PaginatedResult<OrderDto>> getUserOrdersPaginated(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
@@ -47,7 +85,7 @@ public class OrderController {
     @GetMapping("/user/{userId}/status/{status}")
     @Operation(summary = "Get user orders by status", description = "Retrieve orders for a user by status")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<Order>> getUserOrdersByStatus(
+    public ResponseEntity<List<OrderDto>> getUserOrdersByStatus(
             @PathVariable Long userId,
             @PathVariable String status) {
         return ResponseEntity.ok(orderService.getUserOrdersByStatus(userId, 
@@ -57,21 +95,21 @@ public class OrderController {
     @GetMapping("/{orderId}")
     @Operation(summary = "Get order by ID", description = "Retrieve a specific order by ID")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<Order> getOrderById(@PathVariable Long orderId) {
-        return ResponseEntity.ok(orderService.getOrderById(orderId));
+    public ResponseEntity<OrderDto> getOrderById(@PathVariable Long orderId) {
+        return ResponseEntity.ok(orderService.getOrderDtoById(orderId));
     }
 
     @GetMapping("/number/{orderNumber}")
     @Operation(summary = "Get order by order number", description = "Retrieve a specific order by order number")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<Order> getOrderByOrderNumber(@PathVariable String orderNumber) {
-        return ResponseEntity.ok(orderService.getOrderByOrderNumber(orderNumber));
+    public ResponseEntity<OrderDto> getOrderByOrderNumber(@PathVariable String orderNumber) {
+        return ResponseEntity.ok(orderService.getOrderDtoByOrderNumber(orderNumber));
     }
 
     @PutMapping("/{orderId}/status")
     @Operation(summary = "Update order status", description = "Update the status of an order")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Order> updateOrderStatus(
+    public ResponseEntity<OrderDto> updateOrderStatus(
             @PathVariable Long orderId,
             @RequestParam String status) {
         return ResponseEntity.ok(orderService.updateOrderStatus(orderId, 
@@ -81,7 +119,7 @@ public class OrderController {
     @PutMapping("/{orderId}/payment-status")
     @Operation(summary = "Update payment status", description = "Update the payment status of an order")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Order> updatePaymentStatus(
+    public ResponseEntity<OrderDto> updatePaymentStatus(
             @PathVariable Long orderId,
             @RequestParam String status) {
         return ResponseEntity.ok(orderService.updatePaymentStatus(orderId, 
@@ -91,12 +129,25 @@ public class OrderController {
     @GetMapping("/date-range")
     @Operation(summary = "Get orders by date range", description = "Retrieve orders within a date range")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Order>> getOrdersByDateRange(
+    public ResponseEntity<List<OrderDto>> getOrdersByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
         return ResponseEntity.ok(orderService.getOrdersByDateRange(startDate, endDate));
     }
 
+    @GetMapping("/date-range/export")
+    @Operation(summary = "Export orders by date range", description = "Stream orders within a date range as NDJSON or CSV, gzip-encoded when accepted")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportOrdersByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return ExportResponses.attachment("orders", format, acceptEncoding,
+                exportService.exportOrders(startDate, endDate, status, format));
+    }
+
     @GetMapping("/sales-amount")
     @Operation(summary = "Get total sales amount", description = "Calculate total sales amount for a date range")
     @PreAuthorize("hasRole('ADMIN')")
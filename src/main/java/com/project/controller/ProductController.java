@@ -3,9 +3,16 @@ package com.project.controller;
 import com.project.dto.ApiResponse;
 import com.project.dto.ProductDto;
 import com.project.dto.ProductRequest;
+import com.project.dto.StockReconciliationDto;
 import com.project.entity.Product;
+import com.project.enums.ProductSort;
 import com.project.mapper.ProductMapper;
+import com.project.rating.ProductRatingCache;
+import com.project.service.CategoryService;
 import com.project.service.ProductService;
+import com.project.service.StockLedgerService;
+import com.project.util.CursorPage;
+import com.project.util.PaginatedResult;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -13,9 +20,9 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -33,8 +40,15 @@ import java.util.stream.Collectors;
 @Tag(name = "Product Management", description = "APIs for managing products")
 public class ProductController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    // Offset pages need a total order, otherwise rows can repeat or go missing between pages
+    private static final Sort OFFSET_PAGE_ORDER = Sort.by("id");
+
     private final ProductService productService;
+    private final CategoryService categoryService;
     private final ProductMapper productMapper;
+    private final StockLedgerService stockLedgerService;
+    private final ProductRatingCache productRatingCache;
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -60,65 +74,58 @@ public class ProductController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         
-        Pageable pageable = PageRequest.of(page, size);
-        List<Product> products = productService.getActiveProducts();
+        Pageable pageable = PageRequest.of(page, size, OFFSET_PAGE_ORDER);
+        Page<ProductDto> pageResult = productService.getActiveProducts(pageable)
+                .map(productMapper::toDto);
+        productRatingCache.attach(pageResult.getContent());
         
-        // Manual pagination since we're not using Spring Data JPA's pagination here
-        int start = (int) pageable.getOffset();
+        return ResponseEntity.ok(ApiResponse.success(pageResult));
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll active products",
+            description = "Keyset-paginated list of active products; pass nextCursor from the previous page to continue")
+    public ResponseEntity<ApiResponse<CursorPage<ProductDto>>> scrollProducts(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "NEWEST") ProductSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         
-        List<ProductDto> productDtos = products.stream()
-                .skip(start)
-                .limit(pageable.getPageSize())
-                .map(productMapper::toDto)
-                .collect(Collectors.toList());
-                
-        Page<ProductDto> pageResult = new PageImpl<>(
-            productDtos, 
-            pageable, 
-            products.size()
-        );
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        CursorPage<ProductDto> result = productService
+                .getProductsByCursor(categoryId, sort, cursor, pageSize, includeTotal)
+                .map(productMapper::toDto);
+        productRatingCache.attach(result.getItems());
         
-        return ResponseEntity.ok(ApiResponse.success(pageResult));
+        return ResponseEntity.ok(ApiResponse.success(result));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID", description = "Retrieve a product by its ID")
     public ResponseEntity<ApiResponse<ProductDto>> getProductById(@PathVariable Long id) {
-        var product = productService.getProductById(id);
-        return ResponseEntity.ok(ApiResponse.success(productMapper.toDto(product)));
+        return ResponseEntity.ok(ApiResponse.success(productService.getProductDtoById(id)));
     }
 
     @GetMapping("/sku/{sku}")
     @Operation(summary = "Get product by SKU", description = "Retrieve a product by its SKU")
     public ResponseEntity<ApiResponse<ProductDto>> getProductBySku(@PathVariable String sku) {
-        var product = productService.getProductBySku(sku);
-        return ResponseEntity.ok(ApiResponse.success(productMapper.toDto(product)));
+        return ResponseEntity.ok(ApiResponse.success(productService.getProductDtoBySku(sku)));
     }
 
     @GetMapping("/category/{categoryId}")
-    @Operation(summary = "Get products by category", description = "Retrieve products by category ID")
+    @Operation(summary = "Get products by category", description = "Retrieve products by category ID, optionally including active products of all subcategories")
     public ResponseEntity<ApiResponse<Page<ProductDto>>> getProductsByCategory(
             @PathVariable Long categoryId,
+            @RequestParam(defaultValue = "false") boolean includeSubcategories,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
                 
-        Pageable pageable = PageRequest.of(page, size);
-        List<Product> products = productService.getProductsByCategory(categoryId);
-        
-        // Manual pagination
-        int start = (int) pageable.getOffset();
-        
-        List<ProductDto> productDtos = products.stream()
-                .skip(start)
-                .limit(pageable.getPageSize())
-                .map(productMapper::toDto)
-                .collect(Collectors.toList());
-                
-        Page<ProductDto> pageResult = new PageImpl<>(
-            productDtos, 
-            pageable, 
-            products.size()
-        );
+        Pageable pageable = PageRequest.of(page, size, OFFSET_PAGE_ORDER);
+        Page<ProductDto> pageResult = includeSubcategories
+                ? categoryService.getSubtreeProducts(categoryId, pageable)
+                : productService.getProductsByCategory(categoryId, pageable).map(productMapper::toDto);
+        productRatingCache.attach(pageResult.getContent());
         
         return ResponseEntity.ok(ApiResponse.success(pageResult));
     }
@@ -140,18 +147,24 @@ public class ProductController {
 
     @GetMapping("/search")
     @Operation(summary = "Search products", description = "Search products with filters")
-    public ResponseEntity<ApiResponse<List<ProductDto>>> searchProducts(
+    public ResponseEntity<ApiResponse<PaginatedResult<ProductDto>>> searchProducts(
             @RequestParam(required = false) String searchTerm,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) Double minPrice,
-            @RequestParam(required = false) Double maxPrice) {
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
                 
-        List<Product> products = productService.searchProducts(searchTerm, categoryId, minPrice, maxPrice);
-        List<ProductDto> productDtos = products.stream()
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        PaginatedResult<Product> result = productService.searchProducts(
+                searchTerm, categoryId, minPrice, maxPrice, Math.max(page, 0), pageSize);
+        List<ProductDto> productDtos = result.getItems().stream()
                 .map(productMapper::toDto)
                 .collect(Collectors.toList());
+        productRatingCache.attach(productDtos);
                 
-        return ResponseEntity.ok(ApiResponse.success(productDtos));
+        return ResponseEntity.ok(ApiResponse.success(new PaginatedResult<>(
+                productDtos, result.getTotalItems(), result.getCurrentPage(), result.getPageSize())));
     }
 
 
@@ -196,4 +209,22 @@ public class ProductController {
             ApiResponse.success("Stock updated successfully", productDto)
         );
     }
+
+    @GetMapping("/{id}/stock/reconciliation")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reconcile product stock",
+            description = "Compare the inventory ledger against the product's stock quantity",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<ApiResponse<StockReconciliationDto>> reconcileStock(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(stockLedgerService.reconcile(id)));
+    }
+
+    @GetMapping("/stock/reconciliation")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Find stock mismatches",
+            description = "List products whose inventory ledger disagrees with their stock quantity",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<ApiResponse<List<StockReconciliationDto>>> findStockMismatches() {
+        return ResponseEntity.ok(ApiResponse.success(stockLedgerService.findMismatches()));
+    }
 }
@@ -1,6 +1,9 @@
 package com.project.controller;
 
+import com.project.dto.ProductRatingDto;
+import com.project.dto.ProductReviewDto;
 import com.project.entity.ProductReview;
+import com.project.mapper.ProductReviewMapper;
 import com.project.service.ProductReviewService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -23,41 +26,42 @@ import java.util.List;
 public class ProductReviewController {
 
     private final ProductReviewService productReviewService;
+    private final ProductReviewMapper productReviewMapper;
 
     @GetMapping("/product/{productId}")
     @Operation(summary = "Get product reviews", description = "Retrieve all reviews for a specific product")
-    public ResponseEntity<List<ProductReview>> getProductReviews(@PathVariable Long productId) {
+    public ResponseEntity<List<ProductReviewDto>> getProductReviews(@PathVariable Long productId) {
         List<ProductReview> reviews = productReviewService.getProductReviews(productId);
-        return ResponseEntity.ok(reviews);
+        return ResponseEntity.ok(productReviewMapper.toDtoList(reviews));
     }
 
     @GetMapping("/{reviewId}")
     @Operation(summary = "Get review by ID", description = "Retrieve a specific review by its ID")
-    public ResponseEntity<ProductReview> getReviewById(@PathVariable Long reviewId) {
+    public ResponseEntity<ProductReviewDto> getReviewById(@PathVariable Long reviewId) {
         ProductReview review = productReviewService.getReviewById(reviewId);
-        return ResponseEntity.ok(review);
+        return ResponseEntity.ok(productReviewMapper.toDto(review));
     }
 
     @PostMapping("/product/{productId}")
     @Operation(summary = "Create product review", description = "Create a new review for a product")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<ProductReview> createReview(
+    public ResponseEntity<ProductReviewDto> createReview(
             @RequestParam Long userId,
             @PathVariable Long productId,
             @Valid @RequestBody ProductReview review) {
         ProductReview createdReview = productReviewService.createReview(userId, productId, review);
-        return ResponseEntity.ok(createdReview);
+        return ResponseEntity.ok(productReviewMapper.toDto(createdReview));
     }
 
     @PutMapping("/{reviewId}")
     @Operation(summary = "Update review", description = "Update an existing review")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<ProductReview> updateReview(
+    public ResponseEntity<ProductReviewDto> updateReview(
             @RequestParam Long userId,
             @PathVariable Long reviewId,
             @Valid @RequestBody ProductReview reviewDetails) {
         ProductReview updatedReview = productReviewService.updateReview(userId, reviewId, reviewDetails);
-        return ResponseEntity.ok(updatedReview);
+        return ResponseEntity.ok(productReviewMapper.toDto(updatedReview));
     }
 
     @DeleteMapping("/{reviewId}")
@@ -73,14 +77,14 @@ public class ProductReviewController {
     @GetMapping("/user/{userId}")
     @Operation(summary = "Get user reviews", description = "Retrieve all reviews by a specific user")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<List<ProductReview>> getUserReviews(@PathVariable Long userId) {
+    public ResponseEntity<List<ProductReviewDto>> getUserReviews(@PathVariable Long userId) {
         List<ProductReview> reviews = productReviewService.getUserReviews(userId);
-        return ResponseEntity.ok(reviews);
+        return ResponseEntity.ok(productReviewMapper.toDtoList(reviews));
     }
 
     @GetMapping("/product/{productId}/rating/{rating}")
     @Operation(summary = "Get reviews by rating", description = "Retrieve all reviews for a product with a specific rating")
-    public ResponseEntity<List<ProductReview>> getReviewsByRating(
+    public ResponseEntity<List<ProductReviewDto>> getReviewsByRating(
             @PathVariable Long productId,
             @PathVariable Integer rating) {
         // This functionality can be implemented by filtering the product reviews on the frontend
@@ -89,7 +93,7 @@ public class ProductReviewController {
         List<ProductReview> filteredReviews = allReviews.stream()
                 .filter(review -> review.getRating().equals(rating))
                 .toList();
-        return ResponseEntity.ok(filteredReviews);
+        return ResponseEntity.ok(productReviewMapper.toDtoList(filteredReviews));
     }
 
     @GetMapping("/product/{productId}/average-rating")
@@ -106,6 +110,22 @@ public class ProductReviewController {
         return ResponseEntity.ok(count);
     }
 
+    @GetMapping("/product/{productId}/rating")
+    @Operation(summary = "Get rating summary", description = "Get review count, average rating and per-star histogram for a product")
+    public ResponseEntity<ProductRatingDto> getProductRating(@PathVariable Long productId) {
+        return ResponseEntity.ok(productReviewService.getProductRating(productId));
+    }
+
+    @PutMapping("/{reviewId}/approval")
+    @Operation(summary = "Approve or reject review", description = "Set whether a review is published and counted in the product rating")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ProductReviewDto> setReviewApproval(
+            @PathVariable Long reviewId,
+            @RequestParam boolean approved) {
+        ProductReview review = productReviewService.setReviewApproval(reviewId, approved);
+        return ResponseEntity.ok(productReviewMapper.toDto(review));
+    }
+
     @GetMapping("/product/{productId}/check-user-review")
     @Operation(summary = "Check if user reviewed product", description = "Check if a user has reviewed a specific product")
     @PreAuthorize("hasRole('USER')")
@@ -118,8 +138,8 @@ public class ProductReviewController {
 
     @GetMapping("/recent")
     @Operation(summary = "Get recent reviews", description = "Get the most recent reviews")
-    public ResponseEntity<List<ProductReview>> getRecentReviews() {
+    public ResponseEntity<List<ProductReviewDto>> getRecentReviews() {
         List<ProductReview> reviews = productReviewService.getRecentReviews();
-        return ResponseEntity.ok(reviews);
+        return ResponseEntity.ok(productReviewMapper.toDtoList(reviews));
     }
 }
@@ -1,21 +1,33 @@
 package com.project.controller;
 
+import com.project.dto.AddressDto;
 import com.project.dto.UpdateUserProfileRequest;
+import com.project.dto.UserDirectoryStatsDto;
 import com.project.dto.UserProfileDto;
 import com.project.entity.User;
+import com.project.enums.UserType;
+import com.project.export.ExportFormat;
+import com.project.export.ExportResponses;
+import com.project.service.ExportService;
+import com.project.service.UserDirectoryService;
 import com.project.service.UserService;
+import com.project.util.CursorPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -25,10 +37,17 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class UserController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final UserService userService;
+    private final UserDirectoryService userDirectoryService;
+    private final ExportService exportService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserDirectoryService userDirectoryService,
+                          ExportService exportService) {
         this.userService = userService;
+        this.userDirectoryService = userDirectoryService;
+        this.exportService = exportService;
     }
 
     @GetMapping("/profile")
@@ -64,33 +83,50 @@ public class UserController {
         return ResponseEntity.ok(userService.getUserProfile(id));
     }
 
-    @GetMapping("/admin/all")
-    @Operation(summary = "Get all users", description = "Retrieve a list of all users (Admin only)")
+    @GetMapping("/admin")
+    @Operation(summary = "Browse users", description = "Keyset-paginated user directory, newest first, with optional filters (Admin only)")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserProfileDto>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        
-        List<UserProfileDto> profiles = users.stream()
-                .map(user -> userService.getUserProfile(user.getId()))
-                .toList();
-        
-        return ResponseEntity.ok(profiles);
+    public ResponseEntity<CursorPage<UserProfileDto>> getUserDirectory(
+            @RequestParam(required = false) UserType userType,
+            @RequestParam(required = false) Boolean isActive,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) String emailPrefix,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(userDirectoryService.listUsers(userType, isActive, createdFrom, createdTo,
+                emailPrefix, cursor, pageSize, includeTotal));
+    }
+
+    @GetMapping("/admin/export")
+    @Operation(summary = "Export users", description = "Stream the user directory, with the same filters, as NDJSON or CSV, gzip-encoded when accepted (Admin only)")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(required = false) UserType userType,
+            @RequestParam(required = false) Boolean isActive,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) String emailPrefix,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return ExportResponses.attachment("users", format, acceptEncoding,
+                exportService.exportUsers(userType, isActive, createdFrom, createdTo, emailPrefix, format));
+    }
+
+    @GetMapping("/admin/stats")
+    @Operation(summary = "Get user statistics", description = "Counts of users by status and type (Admin only)")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserDirectoryStatsDto> getUserStats() {
+        return ResponseEntity.ok(userDirectoryService.getStats());
     }
 
     @PutMapping("/admin/{id}/status")
     @Operation(summary = "Update user status", description = "Update the active status of a user (Admin only)")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> updateUserStatus(@PathVariable Long id, @RequestParam boolean isActive) {
-        // This functionality needs to be added to UserService
-        // For now, we'll use a simple approach
-        User user = userService.getAllUsers().stream()
-                .filter(u -> u.getId().equals(id))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        user.setIsActive(isActive);
-        userService.saveUser(user);
-        
+        userService.updateUserStatus(id, isActive);
         return ResponseEntity.ok().build();
     }
 
@@ -98,25 +134,20 @@ public class UserController {
     @Operation(summary = "Get user count", description = "Get the count of active users (Admin only)")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Long> getActiveUserCount() {
-        // This functionality needs to be added to UserService
-        // For now, we'll count active users from the list
-        long activeCount = userService.getAllUsers().stream()
-                .filter(User::getIsActive)
-                .count();
-        return ResponseEntity.ok(activeCount);
+        return ResponseEntity.ok(userDirectoryService.countActiveUsers());
     }
 
     @GetMapping("/{userId}/addresses")
     @Operation(summary = "Get user addresses", description = "Get all addresses for a specific user")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<com.project.entity.Address>> getUserAddresses(@PathVariable Long userId) {
+    public ResponseEntity<List<AddressDto>> getUserAddresses(@PathVariable Long userId) {
         return ResponseEntity.ok(userService.getUserAddresses(userId));
     }
 
     @PostMapping("/{userId}/addresses")
     @Operation(summary = "Add user address", description = "Add a new address for a user")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<com.project.entity.Address> addUserAddress(
+    public ResponseEntity<AddressDto> addUserAddress(
             @PathVariable Long userId,
             @Valid @RequestBody com.project.entity.Address address) {
         return ResponseEntity.ok(userService.addUserAddress(userId, address));
@@ -125,7 +156,7 @@ public class UserController {
     @PutMapping("/{userId}/addresses/{addressId}")
     @Operation(summary = "Update user address", description = "Update an existing address for a user")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<com.project.entity.Address> updateUserAddress(
+    public ResponseEntity<AddressDto> updateUserAddress(
             @PathVariable Long userId,
             @PathVariable Long addressId,
             @Valid @RequestBody com.project.entity.Address addressDetails) {
@@ -1,7 +1,7 @@
 package com.project.controller;
 
-import com.project.entity.Product;
-import com.project.entity.WishlistItem;
+import com.project.dto.ProductDto;
+import com.project.dto.WishlistItemDto;
 import com.project.service.WishlistService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -27,26 +27,26 @@ public class WishlistController {
     @GetMapping
     @Operation(summary = "Get user wishlist", description = "Retrieve all items in the user's wishlist")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<List<WishlistItem>> getUserWishlist(@RequestParam Long userId) {
-        List<WishlistItem> wishlist = wishlistService.getUserWishlist(userId);
+    public ResponseEntity<List<WishlistItemDto>> getUserWishlist(@RequestParam Long userId) {
+        List<WishlistItemDto> wishlist = wishlistService.getUserWishlist(userId);
         return ResponseEntity.ok(wishlist);
     }
 
     @GetMapping("/products")
     @Operation(summary = "Get wishlist products", description = "Retrieve all products in the user's wishlist")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<List<Product>> getWishlistProducts(@RequestParam Long userId) {
-        List<Product> products = wishlistService.getWishlistProducts(userId);
+    public ResponseEntity<List<ProductDto>> getWishlistProducts(@RequestParam Long userId) {
+        List<ProductDto> products = wishlistService.getWishlistProducts(userId);
         return ResponseEntity.ok(products);
     }
 
     @PostMapping("/add")
     @Operation(summary = "Add product to wishlist", description = "Add a product to the user's wishlist")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<WishlistItem> addToWishlist(
+    public ResponseEntity<WishlistItemDto> addToWishlist(
             @RequestParam Long userId,
             @RequestParam Long productId) {
-        WishlistItem wishlistItem = wishlistService.addToWishlist(userId, productId);
+        WishlistItemDto wishlistItem = wishlistService.addToWishlist(userId, productId);
         return ResponseEntity.ok(wishlistItem);
     }
 
@@ -109,8 +109,8 @@ public class WishlistController {
     @GetMapping("/by-product/{productId}")
     @Operation(summary = "Get wishlist items by product", description = "Get all wishlist items for a specific product")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<WishlistItem>> getWishlistItemsByProduct(@PathVariable Long productId) {
-        List<WishlistItem> items = wishlistService.getWishlistItemsByProduct(productId);
+    public ResponseEntity<List<WishlistItemDto>> getWishlistItemsByProduct(@PathVariable Long productId) {
+        List<WishlistItemDto> items = wishlistService.getWishlistItemsByProduct(productId);
         return ResponseEntity.ok(items);
     }
 }
@@ -0,0 +1,313 @@
+package com.project.coupon;
+
+import com.project.dto.CouponDto;
+import com.project.entity.Coupon;
+import com.project.event.CouponChangedEvent;
+import com.project.mapper.CouponMapper;
+import com.project.repository.CouponRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Keeps coupons sorted into upcoming / live / expired without asking the clock per request. Every future
+// starts_at and expires_at is a timer on a one-second TimingWheel; when one fires, only that coupon is
+// re-sorted and a new immutable snapshot is published, so the listings are plain reads. Local coupon
+// changes re-schedule the coupon after commit; changes made on other nodes arrive with the periodic reload.
+// Coupons that expire while active are deactivated in the database in batches.
+@Component
+@Slf4j
+public class CouponLifecycleScheduler {
+
+    public record Snapshot(List<CouponDto> active,
+                           List<CouponDto> live,
+                           List<CouponDto> upcoming,
+                           List<CouponDto> expired,
+                           Set<Long> liveIds) {
+
+        public boolean isLive(Long couponId) {
+            return liveIds.contains(couponId);
+        }
+    }
+
+    private enum Phase {
+        UPCOMING, LIVE, EXPIRED
+    }
+
+    private static final Comparator<Coupon> BY_ID = Comparator.comparing(Coupon::getId);
+
+    private final CouponRepository couponRepository;
+    private final CouponMapper couponMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    // Not synchronized, and never held across a query: coupons are fetched first, then applied under the lock
+    private final ReentrantLock lock = new ReentrantLock();
+    // Serializes the first load only, so a burst of early requests reads the coupons once
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final AtomicLong changes = new AtomicLong();
+
+    // Guarded by lock. The entities are detached copies that never leave this class.
+    private final Map<Long, Coupon> coupons = new HashMap<>();
+    private final Map<Long, List<TimingWheel.Timer<Long>>> timers = new HashMap<>();
+    private final List<Long> pendingDeactivations = new ArrayList<>();
+    // Sequence number of the last change applied per coupon since the previous reload
+    private final Map<Long, Long> changedSinceReload = new HashMap<>();
+    // Changes numbered at or below this were already visible to the last reload's findAll
+    private long reloadedAfter;
+    private TimingWheel<Long> wheel;
+
+    private volatile Snapshot snapshot;
+
+    public CouponLifecycleScheduler(CouponRepository couponRepository,
+                                    CouponMapper couponMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.coupons.lifecycle.batch-size:500}") int batchSize) {
+        this.couponRepository = couponRepository;
+        this.couponMapper = couponMapper;
+        // Reloads also run from after-commit listeners, where the finished transaction is still bound
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+    }
+
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        return current != null ? current : load();
+    }
+
+    private Snapshot load() {
+        loadLock.lock();
+        try {
+            Snapshot current = snapshot;
+            return current != null ? current : reload();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    // Moves the wheel to the current second and re-sorts the coupons whose timers fired
+    @Scheduled(fixedRate = 1000)
+    public void tick() {
+        if (snapshot == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> deactivate;
+        lock.lock();
+        try {
+            if (advance(now)) {
+                publish(now);
+            }
+            deactivate = new ArrayList<>(pendingDeactivations);
+            pendingDeactivations.clear();
+        } finally {
+            lock.unlock();
+        }
+        flushDeactivations(deactivate, now);
+    }
+
+    // Picks up coupon changes made on other nodes
+    @Scheduled(fixedDelayString = "${app.coupons.lifecycle.reload-interval-ms:300000}",
+            initialDelayString = "${app.coupons.lifecycle.reload-interval-ms:300000}")
+    public void scheduledReload() {
+        if (snapshot != null) {
+            reload();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCouponChanged(CouponChangedEvent event) {
+        if (snapshot == null) {
+            return;
+        }
+        long change = changes.incrementAndGet();
+        Coupon coupon = transactionTemplate.execute(status ->
+                couponRepository.findById(event.getCouponId()).orElse(null));
+        lock.lock();
+        try {
+            if (change <= reloadedAfter) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            advance(now);
+            track(event.getCouponId(), coupon, now);
+            changedSinceReload.put(event.getCouponId(), change);
+            publish(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Snapshot reload() {
+        long started = changes.get();
+        List<Coupon> all = transactionTemplate.execute(status -> couponRepository.findAll());
+        lock.lock();
+        try {
+            if (started < reloadedAfter) {
+                // An overlapping reload that started later has already applied newer rows
+                return snapshot;
+            }
+            // Changes applied while findAll was running are newer than its rows; carry them over
+            Map<Long, Coupon> newer = new HashMap<>();
+            changedSinceReload.forEach((couponId, change) -> {
+                if (change > started) {
+                    newer.put(couponId, coupons.get(couponId));
+                }
+            });
+            changedSinceReload.clear();
+            reloadedAfter = started;
+
+            LocalDateTime now = LocalDateTime.now();
+            coupons.clear();
+            timers.clear();
+            wheel = new TimingWheel<>(toTick(now));
+            for (Coupon coupon : all) {
+                if (!newer.containsKey(coupon.getId())) {
+                    track(coupon.getId(), coupon, now);
+                }
+            }
+            newer.forEach((couponId, coupon) -> track(couponId, coupon, now));
+            log.debug("Scheduled lifecycle of {} coupons", coupons.size());
+            return publish(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Returns whether any timer fired
+    private boolean advance(LocalDateTime now) {
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(toTick(now), fired::add);
+        for (Long couponId : fired) {
+            Coupon coupon = coupons.get(couponId);
+            if (coupon != null && phase(coupon, now) == Phase.EXPIRED && Boolean.TRUE.equals(coupon.getIsActive())) {
+                coupon.setIsActive(false);
+                pendingDeactivations.add(couponId);
+            }
+        }
+        return !fired.isEmpty();
+    }
+
+    private void track(Long couponId, Coupon coupon, LocalDateTime now) {
+        List<TimingWheel.Timer<Long>> previous = timers.remove(couponId);
+        if (previous != null) {
+            previous.forEach(TimingWheel.Timer::cancel);
+        }
+        if (coupon == null) {
+            coupons.remove(couponId);
+            return;
+        }
+        coupons.put(couponId, coupon);
+
+        List<TimingWheel.Timer<Long>> scheduled = new ArrayList<>(2);
+        if (coupon.getStartsAt() != null && now.isBefore(coupon.getStartsAt())) {
+            scheduled.add(wheel.schedule(startTick(coupon.getStartsAt()), couponId));
+        }
+        if (coupon.getExpiresAt() != null && !now.isAfter(coupon.getExpiresAt())) {
+            scheduled.add(wheel.schedule(expiryTick(coupon.getExpiresAt()), couponId));
+        } else if (coupon.getExpiresAt() != null && Boolean.TRUE.equals(coupon.getIsActive())) {
+            // Expired while nobody was watching, e.g. before a restart
+            coupon.setIsActive(false);
+            pendingDeactivations.add(couponId);
+        }
+        if (!scheduled.isEmpty()) {
+            timers.put(couponId, scheduled);
+        }
+    }
+
+    private Snapshot publish(LocalDateTime now) {
+        List<Coupon> active = new ArrayList<>();
+        List<Coupon> live = new ArrayList<>();
+        List<Coupon> upcoming = new ArrayList<>();
+        List<Coupon> expired = new ArrayList<>();
+        for (Coupon coupon : coupons.values()) {
+            boolean isActive = Boolean.TRUE.equals(coupon.getIsActive());
+            if (isActive) {
+                active.add(coupon);
+            }
+            switch (phase(coupon, now)) {
+                case UPCOMING -> upcoming.add(coupon);
+                case EXPIRED -> expired.add(coupon);
+                case LIVE -> {
+                    if (isActive) {
+                        live.add(coupon);
+                    }
+                }
+            }
+        }
+        Snapshot published = new Snapshot(dtos(active), dtos(live), dtos(upcoming), dtos(expired),
+                Set.copyOf(live.stream().map(Coupon::getId).toList()));
+        snapshot = published;
+        return published;
+    }
+
+    private List<CouponDto> dtos(List<Coupon> entities) {
+        entities.sort(BY_ID);
+        return List.copyOf(couponMapper.toDtoList(entities));
+    }
+
+    // Same rules as CouponService.validateCoupon: the window includes both ends
+    private static Phase phase(Coupon coupon, LocalDateTime now) {
+        if (coupon.getStartsAt() != null && now.isBefore(coupon.getStartsAt())) {
+            return Phase.UPCOMING;
+        }
+        if (coupon.getExpiresAt() != null && now.isAfter(coupon.getExpiresAt())) {
+            return Phase.EXPIRED;
+        }
+        return Phase.LIVE;
+    }
+
+    // The deactivation re-checks expires_at, so a coupon extended meanwhile is left alone. No
+    // CouponChangedEvent: nothing cached needs it, pricing and redemption check the window themselves.
+    private void flushDeactivations(List<Long> couponIds, LocalDateTime now) {
+        for (int from = 0; from < couponIds.size(); from += batchSize) {
+            List<Long> batch = couponIds.subList(from, Math.min(from + batchSize, couponIds.size()));
+            try {
+                Integer updated = transactionTemplate.execute(status -> couponRepository.deactivateExpired(batch, now));
+                if (updated != null && updated > 0) {
+                    log.info("Deactivated {} expired coupons", updated);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not deactivate {} expired coupons, will retry: {}", batch.size(), e.getMessage());
+                lock.lock();
+                try {
+                    pendingDeactivations.addAll(batch);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    private long toTick(LocalDateTime time) {
+        return time.atZone(zone).toEpochSecond();
+    }
+
+    // Live from the first whole second at or after starts_at
+    private long startTick(LocalDateTime startsAt) {
+        long tick = toTick(startsAt);
+        return startsAt.getNano() > 0 ? tick + 1 : tick;
+    }
+
+    // Expired from the first whole second after expires_at
+    private long expiryTick(LocalDateTime expiresAt) {
+        return toTick(expiresAt) + 1;
+    }
+}
@@ -0,0 +1,315 @@
+package com.project.coupon;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.entity.Coupon;
+import com.project.event.CouponChangedEvent;
+import com.project.repository.CouponRedemptionRepository;
+import com.project.repository.CouponRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Decides whether a coupon redemption may happen. coupons.used_count is the source of truth and only
+// moves through conditional updates, so the usage limit holds across nodes however many checkouts race:
+//  - limited coupons take a unit with "used_count < usage_limit" inside the checkout transaction;
+//  - hot codes (app.coupons.lease.hot-codes) take units from an in-memory lease instead. A lease is a
+//    block of units this node already added to used_count; it is refilled in the background before it
+//    runs dry and handed back to the row when idle, so the hot row is written once per block, not per
+//    checkout. used_count therefore includes units leased but not redeemed yet, and the units a node
+//    holds when it crashes are never handed back: the coupon then sells out that many units early;
+//  - unlimited coupons only count usage, written behind in batches;
+//  - per-user limits are a conditional upsert on coupon_redemptions.
+@Component
+@Slf4j
+public class CouponRedemptionEngine {
+
+    public enum Outcome {
+        REDEEMED, SOLD_OUT, USER_LIMIT_REACHED
+    }
+
+    private static final long SOLD_OUT_RECHECK_MILLIS = 1000;
+
+    private static final class Lease {
+        final Long couponId;
+        final AtomicInteger available = new AtomicInteger();
+        final AtomicBoolean refilling = new AtomicBoolean();
+        volatile long lastUsed = System.currentTimeMillis();
+        volatile long soldOutUntil;
+        volatile boolean closed;
+
+        Lease(Long couponId) {
+            this.couponId = couponId;
+        }
+    }
+
+    private final CouponRepository couponRepository;
+    private final CouponRedemptionRepository redemptionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, Optional<CouponRule>> rules;
+    private final Set<String> hotCodes;
+    private final int blockSize;
+    private final long idleReleaseMillis;
+    private final ThreadPoolExecutor leaseExecutor;
+
+    private final Map<Long, Lease> leases = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> pendingUsage = new ConcurrentHashMap<>();
+
+    public CouponRedemptionEngine(CouponRepository couponRepository,
+                                  CouponRedemptionRepository redemptionRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.coupons.rules.max-size:10000}") long maxRules,
+                                  @Value("${app.coupons.rules.ttl:1m}") Duration rulesTtl,
+                                  @Value("${app.coupons.lease.hot-codes:}") List<String> hotCodes,
+                                  @Value("${app.coupons.lease.block-size:50}") int blockSize,
+                                  @Value("${app.coupons.lease.idle-release-ms:10000}") long idleReleaseMillis) {
+        this.couponRepository = couponRepository;
+        this.redemptionRepository = redemptionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rules = Caffeine.newBuilder()
+                .maximumSize(maxRules)
+                .expireAfterWrite(rulesTtl)
+                .build();
+        this.hotCodes = Set.copyOf(hotCodes);
+        this.blockSize = blockSize;
+        this.idleReleaseMillis = idleReleaseMillis;
+        // Refills and hand-backs run here, never on a request thread that already holds a connection
+        this.leaseExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1024),
+                new CustomizableThreadFactory("coupon-lease-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Unknown codes are cached too, so a flood of invalid codes does not reach the database
+    public Optional<CouponRule> rule(String code) {
+        return rules.get(code, couponRepository::findRuleByCode);
+    }
+
+    // Anything but REDEEMED may leave a partial change behind (the per-user count): the caller must
+    // roll its transaction back
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Outcome redeem(CouponRule rule, Long userId) {
+        if (rule.hasPerUserLimit() && redemptionRepository.tryRedeem(rule.id(), userId, rule.perUserLimit()) == 0) {
+            return Outcome.USER_LIMIT_REACHED;
+        }
+        if (!rule.hasUsageLimit()) {
+            afterCommit(() -> pendingUsage.computeIfAbsent(rule.id(), id -> new AtomicInteger()).incrementAndGet());
+            return Outcome.REDEEMED;
+        }
+        if (hotCodes.contains(rule.code())) {
+            return takeFromLease(rule.id()) ? Outcome.REDEEMED : Outcome.SOLD_OUT;
+        }
+        return couponRepository.tryIncrementUsage(rule.id()) == 1 ? Outcome.REDEEMED : Outcome.SOLD_OUT;
+    }
+
+    @Scheduled(fixedDelayString = "${app.coupons.lease.reconcile-interval-ms:1000}")
+    public void reconcile() {
+        flushUsage();
+        long cutoff = System.currentTimeMillis() - idleReleaseMillis;
+        for (Lease lease : leases.values()) {
+            if (lease.lastUsed < cutoff && !lease.refilling.get()) {
+                close(lease);
+            }
+        }
+    }
+
+    // Terms or limits changed: drop the cached rule and give the lease back, the next redemption starts over
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCouponChanged(CouponChangedEvent event) {
+        if (event.getCode() != null) {
+            rules.invalidate(event.getCode());
+        }
+        rules.asMap().entrySet().removeIf(entry ->
+                entry.getValue().map(rule -> rule.id().equals(event.getCouponId())).orElse(false));
+        Lease lease = leases.get(event.getCouponId());
+        if (lease != null) {
+            close(lease);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        leases.values().forEach(this::close);
+        leaseExecutor.shutdown();
+        leaseExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        flushUsage();
+    }
+
+    private boolean takeFromLease(Long couponId) {
+        Lease lease = leases.computeIfAbsent(couponId, Lease::new);
+        lease.lastUsed = System.currentTimeMillis();
+        if (take(lease)) {
+            return true;
+        }
+        if (lease.soldOutUntil > System.currentTimeMillis()) {
+            return false;
+        }
+        // The lease ran dry before the refill landed: take the unit from the row like any limited coupon
+        if (couponRepository.tryIncrementUsage(couponId) == 1) {
+            return true;
+        }
+        // A refill may have landed while we were at the database
+        return take(lease);
+    }
+
+    private boolean take(Lease lease) {
+        AtomicInteger available = lease.available;
+        int current;
+        do {
+            current = available.get();
+            if (current <= 0 || lease.closed) {
+                refill(lease);
+                return false;
+            }
+        } while (!available.compareAndSet(current, current - 1));
+
+        // Refill ahead, so checkouts rarely find the lease empty
+        if (current - 1 <= blockSize / 4) {
+            refill(lease);
+        }
+        // A rolled-back checkout did not use its unit
+        afterRollback(() -> giveBack(lease, 1));
+        return true;
+    }
+
+    private void refill(Lease lease) {
+        if (lease.closed || lease.soldOutUntil > System.currentTimeMillis()
+                || !lease.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            leaseExecutor.execute(() -> {
+                try {
+                    Integer granted = transactionTemplate.execute(status -> claimBlock(lease.couponId));
+                    if (granted == null || granted == 0) {
+                        lease.soldOutUntil = System.currentTimeMillis() + SOLD_OUT_RECHECK_MILLIS;
+                    } else {
+                        giveBack(lease, granted);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Coupon lease refill failed for coupon {}: {}", lease.couponId, e.getMessage());
+                } finally {
+                    lease.refilling.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            lease.refilling.set(false);
+        }
+    }
+
+    // Adds min(block, units left) to used_count under the row lock and returns how many were added
+    private int claimBlock(Long couponId) {
+        Coupon coupon = couponRepository.findByIdForUpdate(couponId).orElse(null);
+        if (coupon == null || coupon.getUsageLimit() == null || coupon.getUsageLimit() <= 0) {
+            return 0;
+        }
+        int granted = Math.max(0, Math.min(blockSize, coupon.getUsageLimit() - coupon.getUsedCount()));
+        if (granted > 0) {
+            couponRepository.addUsage(couponId, granted);
+        }
+        return granted;
+    }
+
+    // Units added to a lease that has been closed meanwhile are drained again, so each unit is handed
+    // back to the row exactly once
+    private void giveBack(Lease lease, int units) {
+        lease.available.addAndGet(units);
+        if (lease.closed) {
+            drain(lease);
+        }
+    }
+
+    private void close(Lease lease) {
+        lease.closed = true;
+        leases.remove(lease.couponId, lease);
+        drain(lease);
+    }
+
+    private void drain(Lease lease) {
+        int units = lease.available.getAndSet(0);
+        if (units <= 0) {
+            return;
+        }
+        try {
+            leaseExecutor.execute(() -> release(lease.couponId, units));
+        } catch (RejectedExecutionException e) {
+            // Shutting down: hand back on this thread
+            release(lease.couponId, units);
+        }
+    }
+
+    private void release(Long couponId, int units) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> couponRepository.releaseUsage(couponId, units));
+        } catch (RuntimeException e) {
+            log.error("Could not hand {} leased units of coupon {} back: {}", units, couponId, e.getMessage());
+        }
+    }
+
+    private void flushUsage() {
+        if (pendingUsage.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> drained = new HashMap<>();
+        pendingUsage.forEach((couponId, count) -> {
+            int value = count.getAndSet(0);
+            if (value != 0) {
+                drained.put(couponId, value);
+            }
+        });
+        if (drained.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> drained.forEach(couponRepository::addUsage));
+        } catch (RuntimeException e) {
+            log.warn("Coupon usage write-behind failed, will retry: {}", e.getMessage());
+            drained.forEach((couponId, count) ->
+                    pendingUsage.computeIfAbsent(couponId, id -> new AtomicInteger()).addAndGet(count));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void afterRollback(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.project.coupon;
+
+import com.project.enums.DiscountType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Immutable view of a coupon's terms for redemption; usage counters are never read from here, the
+// database (or a lease) decides whether a unit is left
+public record CouponRule(Long id,
+                         String code,
+                         DiscountType type,
+                         BigDecimal value,
+                         BigDecimal minimumAmount,
+                         BigDecimal maximumDiscount,
+                         Integer usageLimit,
+                         Integer perUserLimit,
+                         Boolean active,
+                         LocalDateTime startsAt,
+                         LocalDateTime expiresAt) {
+
+    public boolean isRedeemableAt(LocalDateTime now) {
+        return Boolean.TRUE.equals(active)
+                && (startsAt == null || !now.isBefore(startsAt))
+                && (expiresAt == null || !now.isAfter(expiresAt));
+    }
+
+    public boolean hasUsageLimit() {
+        return usageLimit != null && usageLimit > 0;
+    }
+
+    public boolean hasPerUserLimit() {
+        return perUserLimit != null && perUserLimit > 0;
+    }
+
+    public BigDecimal discountFor(BigDecimal orderAmount) {
+        return discount(type, value, minimumAmount, maximumDiscount, orderAmount);
+    }
+
+    // Zero below the minimum amount; percentage or fixed, capped at the maximum discount
+    public static BigDecimal discount(DiscountType type, BigDecimal value, BigDecimal minimumAmount,
+                                      BigDecimal maximumDiscount, BigDecimal orderAmount) {
+        if (minimumAmount != null && orderAmount.compareTo(minimumAmount) < 0) {
+            return BigDecimal.ZERO;
+        }
+
+        BigDecimal discount;
+        if (type == DiscountType.PERCENTAGE) {
+            discount = orderAmount.multiply(value).divide(BigDecimal.valueOf(100));
+        } else {
+            discount = value;
+        }
+
+        if (maximumDiscount != null && discount.compareTo(maximumDiscount) > 0) {
+            discount = maximumDiscount;
+        }
+        return discount;
+    }
+}
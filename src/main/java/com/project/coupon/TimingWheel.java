@@ -0,0 +1,108 @@
+package com.project.coupon;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Hierarchical timing wheel over whole ticks. Level l has 64 slots of 64^l ticks each, so five levels
+// cover 64^5 ticks (34 years of seconds) and farther deadlines park in the top level until they come
+// round. Scheduling and cancelling are O(1); advancing costs O(1) per tick plus the timers that fire or
+// move down a level. Not thread-safe: the owner serializes access.
+final class TimingWheel<T> {
+
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 5;
+
+    static final class Timer<T> {
+        private final long deadline;
+        private final T payload;
+        private boolean cancelled;
+
+        private Timer(long deadline, T payload) {
+            this.deadline = deadline;
+            this.payload = payload;
+        }
+
+        long deadline() {
+            return deadline;
+        }
+
+        // Cancelled timers stay in their slot and are dropped when it is reached
+        void cancel() {
+            cancelled = true;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private final List<Timer<T>>[][] wheels = new List[LEVELS][SLOTS];
+    private long currentTick;
+
+    TimingWheel(long startTick) {
+        this.currentTick = startTick;
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    // A deadline that is not in the future fires on the next advance
+    Timer<T> schedule(long deadline, T payload) {
+        Timer<T> timer = new Timer<>(Math.max(deadline, currentTick + 1), payload);
+        place(timer);
+        return timer;
+    }
+
+    // Moves the wheel to tick, handing every due timer to fired in deadline order
+    void advance(long tick, Consumer<T> fired) {
+        while (currentTick < tick) {
+            currentTick++;
+            // Highest level first: a cascade may land timers in a lower slot that is due on this same tick
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+                    for (Timer<T> timer : take(level, slot(currentTick, level))) {
+                        if (!timer.cancelled) {
+                            place(timer);
+                        }
+                    }
+                }
+            }
+            for (Timer<T> timer : take(0, slot(currentTick, 0))) {
+                if (!timer.cancelled) {
+                    fired.accept(timer.payload);
+                }
+            }
+        }
+    }
+
+    // The lowest level whose current revolution contains the deadline; the slot is reached exactly when
+    // the deadline comes within reach of the level below
+    private void place(Timer<T> timer) {
+        int level = 0;
+        while (level < LEVELS - 1
+                && (timer.deadline >>> (BITS * (level + 1))) != (currentTick >>> (BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = slot(timer.deadline, level);
+        List<Timer<T>> bucket = wheels[level][slot];
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            wheels[level][slot] = bucket;
+        }
+        bucket.add(timer);
+    }
+
+    private List<Timer<T>> take(int level, int slot) {
+        List<Timer<T>> bucket = wheels[level][slot];
+        if (bucket == null) {
+            return List.of();
+        }
+        wheels[level][slot] = null;
+        return bucket;
+    }
+
+    private static int slot(long tick, int level) {
+        return (int) ((tick >>> (BITS * level)) & MASK);
+    }
+}
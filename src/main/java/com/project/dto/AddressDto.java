@@ -0,0 +1,30 @@
+package com.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AddressDto {
+    private Long id;
+    private Long userId;
+    private String type;
+    private String firstName;
+    private String lastName;
+    private String company;
+    private String addressLine1;
+    private String addressLine2;
+    private String city;
+    private String state;
+    private String postalCode;
+    private String country;
+    private String phone;
+    private Boolean isDefault;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,19 @@
+package com.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppliedPromotionDto {
+    private Long id;
+    private String code;
+    private boolean automatic;
+    // True for the code the shopper entered
+    private boolean coupon;
+    private BigDecimal discount;
+}
@@ -4,9 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.springframework.security.core.GrantedAuthority;
 
-import java.util.Collection;
+import java.util.List;
 
 @Data
 @Builder
@@ -14,9 +13,10 @@ import java.util.Collection;
 @AllArgsConstructor
 public class AuthenticationResponse {
     private String token;
+    private String refreshToken;
+    private Long userId;
+    private String email;
+    private List<String> roles;
     private String message;
     private boolean success;
-
-    public AuthenticationResponse(String accessToken,Long id, String username, Collection<? extends GrantedAuthority> authorities) {
-    }
 }
@@ -0,0 +1,23 @@
+package com.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CartPricingDto {
+    private BigDecimal subtotal;
+    private BigDecimal discount;
+    private BigDecimal total;
+    private String couponCode;
+    // False when the code is unknown, not valid right now or does not qualify for this cart
+    private boolean couponApplied;
+    private List<AppliedPromotionDto> promotions;
+}
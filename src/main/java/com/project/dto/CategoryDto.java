@@ -0,0 +1,27 @@
+package com.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CategoryDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+    private String name;
+    private String description;
+    private Long parentId;
+    private Boolean isActive;
+    private LocalDateTime createdAt;
+    // Active products directly in the category / in the category and all its descendants
+    private Long productCount;
+    private Long subtreeProductCount;
+}
@@ -0,0 +1,18 @@
+package com.project.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class CheckoutRequest {
+    // The ordering user is the authenticated principal, never a field of the request
+    @NotNull(message = "Shipping address ID is required")
+    private Long shippingAddressId;
+
+    // Defaults to the shipping address
+    private Long billingAddressId;
+
+    @Size(max = 50, message = "Coupon code must be at most 50 characters")
+    private String couponCode;
+}
@@ -0,0 +1,35 @@
+package com.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.project.enums.DiscountType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CouponDto {
+    private Long id;
+    private String code;
+    private DiscountType type;
+    private BigDecimal value;
+    private BigDecimal minimumAmount;
+    private BigDecimal maximumDiscount;
+    private Integer usageLimit;
+    private Integer usedCount;
+    private Integer perUserLimit;
+    private Boolean isActive;
+    private LocalDateTime startsAt;
+    private LocalDateTime expiresAt;
+    private Map<String, Object> rules;
+    private Boolean isAutomatic;
+    private Integer priority;
+    private Boolean isStackable;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,64 @@
+package com.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.project.enums.OrderStatus;
+import com.project.enums.PaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderDto {
+    // Time-ordered ids exceed 2^53; as JSON numbers, JavaScript clients would silently round them
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long id;
+    private String orderNumber;
+    private Long userId;
+    private OrderStatus status;
+    private PaymentStatus paymentStatus;
+    private BigDecimal subtotal;
+    private BigDecimal taxAmount;
+    private BigDecimal shippingAmount;
+    private BigDecimal discountAmount;
+    private BigDecimal totalAmount;
+    private String currency;
+
+    private String shippingFirstName;
+    private String shippingLastName;
+    private String shippingCompany;
+    private String shippingAddressLine1;
+    private String shippingAddressLine2;
+    private String shippingCity;
+    private String shippingState;
+    private String shippingPostalCode;
+    private String shippingCountry;
+    private String shippingPhone;
+
+    private String billingFirstName;
+    private String billingLastName;
+    private String billingCompany;
+    private String billingAddressLine1;
+    private String billingAddressLine2;
+    private String billingCity;
+    private String billingState;
+    private String billingPostalCode;
+    private String billingCountry;
+    private String billingPhone;
+
+    private String notes;
+    private LocalDateTime shippedAt;
+    private LocalDateTime deliveredAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private List<OrderItemDto> items = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package com.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductRatingDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private long reviewCount;
+    private double averageRating;
+    // Approved reviews per star: index 0 is one star, index 4 five stars
+    private long[] histogram;
+}
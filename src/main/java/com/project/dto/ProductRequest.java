@@ -34,6 +34,7 @@ public class ProductRequest {
     @Size(max = 100, message = "SKU must be less than 100 characters")
     private String sku;
     
+    // Initial stock on create; ignored on update, where stock changes through PATCH /{id}/stock
     @Min(value = 0, message = "Stock quantity cannot be negative")
     private Integer stockQuantity = 0;
     
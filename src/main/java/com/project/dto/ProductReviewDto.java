@@ -0,0 +1,30 @@
+package com.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductReviewDto {
+    private Long id;
+    private Long productId;
+    private Long userId;
+    @JsonSerialize(using = ToStringSerializer.class)
+    private Long orderId;
+    private Integer rating;
+    private String title;
+    private String comment;
+    private Boolean isVerifiedPurchase;
+    private Boolean isApproved;
+    private Integer helpfulVotes;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
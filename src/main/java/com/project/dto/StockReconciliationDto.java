@@ -0,0 +1,16 @@
+package com.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReconciliationDto {
+    private Long productId;
+    private String sku;
+    private Integer ledgerStock;
+    private Integer productStock;
+    private Integer difference;
+}
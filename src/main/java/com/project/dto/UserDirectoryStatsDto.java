@@ -0,0 +1,18 @@
+package com.project.dto;
+
+import com.project.enums.UserType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserDirectoryStatsDto {
+    private long totalUsers;
+    private long activeUsers;
+    private long inactiveUsers;
+    private Map<UserType, Long> usersByType;
+}
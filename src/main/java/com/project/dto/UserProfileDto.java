@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -16,4 +18,5 @@ public class UserProfileDto {
     private String phone;
     private UserType userType;
     private Boolean isActive;
+    private LocalDateTime createdAt;
 }
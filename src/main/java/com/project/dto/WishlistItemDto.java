@@ -0,0 +1,23 @@
+package com.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WishlistItemDto {
+    private Long id;
+    private Long productId;
+    private String productName;
+    private String productSku;
+    private BigDecimal price;
+    private Boolean isActive;
+    private LocalDateTime createdAt;
+}
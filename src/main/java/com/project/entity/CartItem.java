@@ -1,5 +1,6 @@
 package com.project.entity;
 
+import com.project.util.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
@@ -18,8 +19,9 @@ import java.time.LocalDateTime;
         })
 public class CartItem {
 
+    // Time-ordered id assigned before the flush, so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
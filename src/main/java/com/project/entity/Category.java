@@ -14,7 +14,8 @@ import java.util.List;
 @Entity
 @Table(name = "categories", indexes = {
         @Index(name = "idx_categories_parent", columnList = "parent_id"),
-        @Index(name = "idx_categories_active", columnList = "is_active")
+        @Index(name = "idx_categories_active", columnList = "is_active"),
+        @Index(name = "idx_categories_tree", columnList = "tree_left, tree_right")
 })
 public class Category {
 
@@ -39,6 +40,13 @@ public class Category {
     @Column(name = "is_active")
     private Boolean isActive = true;
 
+    // Nested-set interval maintained by CategoryTreeCache: descendants have tree_left within [tree_left, tree_right]
+    @Column(name = "tree_left")
+    private Integer treeLeft;
+
+    @Column(name = "tree_right")
+    private Integer treeRight;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -110,9 +118,4 @@ public class Category {
     public Long getParentId() {
         return parent != null ? parent.getId() : null;
     }
-
-    @JsonProperty("productCount")
-    public int getProductCount() {
-        return products != null ? products.size() : 0;
-    }
 }
\ No newline at end of file
@@ -4,9 +4,12 @@ import com.project.enums.DiscountType;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 @Entity
@@ -39,9 +42,15 @@ public class Coupon {
     @Column(name = "usage_limit")
     private Integer usageLimit;
 
-    @Column(name = "used_count")
+    // Includes units leased to nodes for hot codes but not redeemed yet (see CouponRedemptionEngine). Only
+    // the repository's conditional bulk updates change it; an entity save would overwrite concurrent claims.
+    @Column(name = "used_count", updatable = false)
     private Integer usedCount = 0;
 
+    // Redemptions allowed per user; null or 0 means no per-user limit
+    @Column(name = "per_user_limit")
+    private Integer perUserLimit;
+
     @Column(name = "is_active")
     private Boolean isActive = true;
 
@@ -51,6 +60,29 @@ public class Coupon {
     @Column(name = "expires_at")
     private LocalDateTime expiresAt;
 
+    // Promotion rules (see PromotionRules); null means a plain discount on the whole order
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private Map<String, Object> rules;
+
+    // Applied to every qualifying cart without a code; may not carry usage limits
+    @Column(name = "is_automatic")
+    private Boolean isAutomatic = false;
+
+    // Higher goes first when promotions are combined
+    @Column(name = "priority")
+    private Integer priority = 0;
+
+    // A non-stackable promotion is only applied on its own
+    @Column(name = "is_stackable")
+    private Boolean isStackable = true;
+
+    // Bumped by every entity update; compiled promotions are cached per version. Usage counters are
+    // bulk updates and leave it alone.
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "created_at")
     private LocalDateTime createdAt;
@@ -0,0 +1,36 @@
+package com.project.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// How often a user redeemed a coupon; only kept for coupons with a per-user limit. Deliberately just
+// two ids and a counter, so the upsert that enforces the limit touches one small index entry.
+@Data
+@Entity
+@IdClass(CouponRedemption.Key.class)
+@Table(name = "coupon_redemptions")
+public class CouponRedemption {
+
+    @Id
+    @Column(name = "coupon_id")
+    private Long couponId;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private Integer redemptions;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long couponId;
+        private Long userId;
+    }
+}
@@ -0,0 +1,44 @@
+package com.project.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// A queued mail that could not be sent within the retry budget; same columns as mail_queue so it can be requeued
+@Data
+@Entity
+@Table(name = "mail_dead_letters", indexes = {
+        @Index(name = "idx_mail_dead_letters_dedup", columnList = "dedup_key")
+})
+public class DeadLetterMail {
+
+    @Id
+    private Long id;
+
+    @Column(name = "dedup_key", nullable = false, length = 100)
+    private String dedupKey;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false, length = 100)
+    private String template;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String model;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "queued_at")
+    private LocalDateTime queuedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
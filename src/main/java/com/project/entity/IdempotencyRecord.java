@@ -0,0 +1,32 @@
+package com.project.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_created", columnList = "created_at")
+})
+public class IdempotencyRecord {
+
+    // scope:userId:client key; the primary key is what makes concurrent claims on other nodes collide
+    @Id
+    @Column(name = "idempotency_key", length = 300)
+    private String key;
+
+    // SHA-256 of the request, so a key reused for a different request is rejected instead of replayed
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    // Null while the claiming transaction is still running
+    @Column(name = "resource_id")
+    private Long resourceId;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -1,6 +1,7 @@
 package com.project.entity;
 
 import com.project.enums.InventoryTransactionType;
+import com.project.util.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
@@ -12,12 +13,14 @@ import java.time.LocalDateTime;
 @Table(name = "inventory_transactions", indexes = {
         @Index(name = "idx_inventory_product", columnList = "product_id"),
         @Index(name = "idx_inventory_type", columnList = "type"),
-        @Index(name = "idx_inventory_created", columnList = "created_at")
+        @Index(name = "idx_inventory_created", columnList = "created_at"),
+        @Index(name = "idx_inventory_product_seq", columnList = "product_id, id")
 })
 public class InventoryTransaction {
 
+    // Time-ordered id assigned before the flush, so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -2,6 +2,7 @@ package com.project.entity;
 
 import com.project.enums.OrderStatus;
 import com.project.enums.PaymentStatus;
+import com.project.util.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
@@ -22,8 +23,9 @@ import java.util.List;
 })
 public class Order {
 
+    // Time-ordered id assigned before the flush, so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,5 +1,6 @@
 package com.project.entity;
 
+import com.project.util.TimeOrderedId;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
@@ -15,8 +16,9 @@ import java.time.LocalDateTime;
 })
 public class OrderItem {
 
+    // Time-ordered id assigned before the flush, so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @TimeOrderedId
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,52 @@
+package com.project.entity;
+
+import com.project.util.TimeOrderedId;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "outbox", indexes = {
+        @Index(name = "idx_outbox_aggregate", columnList = "aggregate_type, aggregate_id, id"),
+        @Index(name = "idx_outbox_due", columnList = "dead, next_attempt_at")
+})
+public class OutboxEvent {
+
+    // Time-ordered, but assigned at persist: delivery follows the unmapped tx_id column first (see OutboxRelay)
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 50)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false, length = 100)
+    private String aggregateId;
+
+    @Column(name = "event_type", nullable = false, length = 100)
+    private String eventType;
+
+    // JSON
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    // Gave up after the maximum number of attempts; kept for inspection, no longer blocks its aggregate
+    @Column(nullable = false)
+    private Boolean dead = false;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
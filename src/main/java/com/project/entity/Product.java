@@ -20,7 +20,10 @@ import java.util.Map;
 @Table(name = "products", indexes = {
         @Index(name = "idx_products_category", columnList = "category_id"),
         @Index(name = "idx_products_sku", columnList = "sku"),
-        @Index(name = "idx_products_active", columnList = "is_active")
+        @Index(name = "idx_products_active", columnList = "is_active"),
+        @Index(name = "idx_products_active_created", columnList = "is_active, created_at, id"),
+        @Index(name = "idx_products_active_price", columnList = "is_active, price, id"),
+        @Index(name = "idx_products_category_created", columnList = "category_id, is_active, created_at, id")
 })
 public class Product {
     
@@ -42,7 +45,9 @@ public class Product {
     @Column(unique = true, nullable = false)
     private String sku;
 
-    @Column(name = "stock_quantity")
+    // Set on insert, then only moved by ProductRepository's decrementStock/adjustStock; an entity save
+    // would overwrite checkouts that committed since the product was loaded
+    @Column(name = "stock_quantity", updatable = false)
     private Integer stockQuantity = 0;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -77,6 +82,16 @@ public class Product {
     @JsonIgnore
     private List<ProductReview> reviews = new ArrayList<>();
 
+    // SKU as loaded from the database, so a rename can evict the old by-SKU cache entry
+    @Transient
+    @JsonIgnore
+    private String loadedSku;
+
+    @PostLoad
+    void rememberLoadedSku() {
+        loadedSku = sku;
+    }
+
     // Helper methods
     @JsonProperty("categoryId")
     public Long getCategoryId() {
@@ -0,0 +1,44 @@
+package com.project.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+// Running totals over the approved reviews of one product, maintained by ProductReviewService on every
+// review change so that rating reads never aggregate product_reviews.
+@Data
+@Entity
+@Table(name = "product_rating_summary")
+public class ProductRatingSummary {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "review_count", nullable = false)
+    private Long reviewCount = 0L;
+
+    @Column(name = "rating_sum", nullable = false)
+    private Long ratingSum = 0L;
+
+    @Column(name = "stars_1", nullable = false)
+    private Long stars1 = 0L;
+
+    @Column(name = "stars_2", nullable = false)
+    private Long stars2 = 0L;
+
+    @Column(name = "stars_3", nullable = false)
+    private Long stars3 = 0L;
+
+    @Column(name = "stars_4", nullable = false)
+    private Long stars4 = 0L;
+
+    @Column(name = "stars_5", nullable = false)
+    private Long stars5 = 0L;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,52 @@
+package com.project.entity;
+
+import com.project.util.TimeOrderedId;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "mail_queue", indexes = {
+        @Index(name = "idx_mail_queue_pending", columnList = "sent_at, next_attempt_at")
+})
+public class QueuedMail {
+
+    @Id
+    @TimeOrderedId
+    private Long id;
+
+    // What caused the mail (e.g. the outbox event id). Unique while the row exists, which is until it has been
+    // sent for app.mail.sent-retention or has moved to mail_dead_letters (which keeps the key)
+    @Column(name = "dedup_key", nullable = false, unique = true, length = 100)
+    private String dedupKey;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false, length = 100)
+    private String template;
+
+    // Template variables as JSON
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String model;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    // Set once the mail went out; the row then only serves deduplication
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
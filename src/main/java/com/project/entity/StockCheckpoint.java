@@ -0,0 +1,35 @@
+package com.project.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "stock_checkpoints", indexes = {
+        @Index(name = "idx_stock_checkpoints_product_latest", columnList = "product_id, id")
+})
+public class StockCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    // Sum of every inventory transaction of this product marked checkpointed when this row was written
+    @Column(nullable = false)
+    private Integer quantity;
+
+    // Highest transaction id rolled in so far; informational, ids do not follow commit order
+    @Column(name = "last_transaction_id", nullable = false)
+    private Long lastTransactionId;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
@@ -1,5 +1,6 @@
 package com.project.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.project.enums.UserType;
 import jakarta.persistence.*;
 import lombok.Data;
@@ -17,7 +18,9 @@ import java.util.List;
 @Data
 @Entity
 @Table(name = "users", indexes = {
-        @Index(name = "idx_users_email", columnList = "email", unique = true)
+        @Index(name = "idx_users_email", columnList = "email", unique = true),
+        @Index(name = "idx_users_created", columnList = "created_at, id"),
+        @Index(name = "idx_users_type_active_created", columnList = "user_type, is_active, created_at, id")
 })
 public class User implements UserDetails {
     
@@ -29,6 +32,7 @@ public class User implements UserDetails {
     private String email;
     
     @Column(name = "password_hash", nullable = false)
+    @JsonIgnore
     private String passwordHash;
     
     @Column(name = "first_name", nullable = false)
@@ -43,7 +47,7 @@ public class User implements UserDetails {
     @Column(name = "user_type", nullable = false)
     private UserType userType = UserType.USER;
     
-    @Column(name = "is_active")
+    @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
     
     @CreationTimestamp
@@ -73,6 +77,7 @@ public class User implements UserDetails {
     }
 
     @Override
+    @JsonIgnore
     public String getPassword() {
         return passwordHash;
     }
@@ -0,0 +1,5 @@
+package com.project.enums;
+
+public enum ProductSort {
+    NEWEST, PRICE_ASC, PRICE_DESC
+}
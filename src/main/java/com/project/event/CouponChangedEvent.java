@@ -0,0 +1,12 @@
+package com.project.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CouponChangedEvent {
+    private final Long couponId;
+    // Also set for a new coupon, whose code may be cached as unknown
+    private final String code;
+}
@@ -0,0 +1,11 @@
+package com.project.event;
+
+import com.project.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+    private final Product product;
+}
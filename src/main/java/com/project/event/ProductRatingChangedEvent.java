@@ -0,0 +1,11 @@
+package com.project.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ProductRatingChangedEvent {
+    private final Long productId;
+    private final String sku;
+}
@@ -0,0 +1,7 @@
+package com.project.exception;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(Long productId, int requested) {
+        super("Insufficient stock for product " + productId + " (requested " + requested + ")");
+    }
+}
@@ -0,0 +1,80 @@
+package com.project.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// RFC 4180: comma-separated, CRLF line ends, fields quoted when they contain a comma, quote or line break
+final class CsvExportWriter<D> implements ExportWriter<D> {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Writer out;
+    private final List<ExportColumn<D>> columns;
+
+    CsvExportWriter(OutputStream out, List<ExportColumn<D>> columns) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.columns = columns;
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                this.out.write(',');
+            }
+            writeText(columns.get(i).header());
+        }
+        this.out.write("\r\n");
+    }
+
+    @Override
+    public void write(D row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeValue(columns.get(i).value().apply(row));
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        out.flush();
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof BigDecimal decimal) {
+            out.write(decimal.toPlainString());
+        } else if (value instanceof Number || value instanceof Boolean || value instanceof Enum<?>) {
+            out.write(value.toString());
+        } else {
+            String text = value.toString();
+            // Spreadsheets evaluate a cell starting with one of these as a formula; user-entered text must not run
+            if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            writeText(text);
+        }
+    }
+
+    private void writeText(String text) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(text);
+            return;
+        }
+        out.write('"');
+        out.write(text.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
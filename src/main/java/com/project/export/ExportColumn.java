@@ -0,0 +1,11 @@
+package com.project.export;
+
+import java.util.function.Function;
+
+// One CSV column; NDJSON rows are the whole DTO and ignore the columns
+public record ExportColumn<D>(String header, Function<D, ?> value) {
+
+    public static <D> ExportColumn<D> of(String header, Function<D, ?> value) {
+        return new ExportColumn<>(header, value);
+    }
+}
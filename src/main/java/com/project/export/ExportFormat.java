@@ -0,0 +1,36 @@
+package com.project.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    <D> ExportWriter<D> open(OutputStream out, ObjectMapper objectMapper, List<ExportColumn<D>> columns)
+            throws IOException {
+        return switch (this) {
+            case NDJSON -> new NdjsonExportWriter<>(out, objectMapper);
+            case CSV -> new CsvExportWriter<>(out, columns);
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.project.export;
+
+import java.io.IOException;
+
+// Writes rows to the response as they come; implementations buffer a little and never hold the export
+interface ExportWriter<D> {
+
+    void write(D row) throws IOException;
+
+    // Flushes what is buffered; the response stream itself is left open
+    void finish() throws IOException;
+}
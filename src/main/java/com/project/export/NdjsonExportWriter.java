@@ -0,0 +1,39 @@
+package com.project.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// One JSON document per line, serialized with the application's ObjectMapper so rows look like the API's DTOs
+final class NdjsonExportWriter<D> implements ExportWriter<D> {
+
+    private final ObjectWriter writer;
+    private final JsonGenerator generator;
+    private boolean empty = true;
+
+    NdjsonExportWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        // Flushing per row would send one tiny chunk (and gzip block) per row; the generator buffers instead
+        this.writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+        this.generator = writer.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public void write(D row) throws IOException {
+        writer.writeValue(generator, row);
+        empty = false;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (!empty) {
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+}
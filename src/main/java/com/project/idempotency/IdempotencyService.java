@@ -0,0 +1,175 @@
+package com.project.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.entity.IdempotencyRecord;
+import com.project.exception.IdempotencyConflictException;
+import com.project.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Runs an operation at most once per idempotency key and replays its result (the id of what it created)
+// for retries. Lookups go LRU -> in-flight executions on this node -> idempotency_keys. The key row is
+// claimed in the same transaction as the operation, so it only survives if the operation commits, and a
+// concurrent claim from another node waits on the primary key and then finds the committed result.
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public record Result(Long resourceId, boolean replayed) {
+    }
+
+    private record Completed(String requestHash, Long resourceId) {
+    }
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final Duration waitTimeout;
+
+    private final Cache<String, Completed> completed;
+    private final Map<String, CompletableFuture<Completed>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.idempotency.cache-size:10000}") long cacheSize,
+                              @Value("${app.idempotency.retention:24h}") Duration retention,
+                              @Value("${app.idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.waitTimeout = waitTimeout;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    public Result execute(String scope, Long userId, String key, String requestHash, Supplier<Long> operation) {
+        String id = scope + ":" + userId + ":" + key;
+
+        Completed cached = completed.getIfPresent(id);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        CompletableFuture<Completed> mine = new CompletableFuture<>();
+        CompletableFuture<Completed> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            // A retry that arrived while the first attempt is still running waits for its outcome
+            return replay(await(running), requestHash);
+        }
+
+        try {
+            Completed stored = findCompleted(id);
+            if (stored != null) {
+                mine.complete(stored);
+                return replay(stored, requestHash);
+            }
+
+            Completed result;
+            try {
+                result = transactionTemplate.execute(status -> {
+                    idempotencyRecordRepository.claim(id, requestHash);
+                    Long resourceId = operation.get();
+                    idempotencyRecordRepository.complete(id, resourceId);
+                    return new Completed(requestHash, resourceId);
+                });
+            } catch (DataIntegrityViolationException e) {
+                // Another node committed this key between our lookup and our claim
+                stored = findCompleted(id);
+                if (stored == null) {
+                    throw e;
+                }
+                mine.complete(stored);
+                return replay(stored, requestHash);
+            }
+
+            completed.put(id, result);
+            mine.complete(result);
+            return new Result(result.resourceId(), false);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    // Fingerprint of the fields that define a request; a key may only be replayed for the same fingerprint
+    public static String fingerprint(Object... parts) {
+        StringBuilder canonical = new StringBuilder();
+        for (Object part : parts) {
+            canonical.append(Objects.toString(part, "")).append('\u001f');
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Integer removed = transactionTemplate.execute(status ->
+                idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention)));
+        if (removed != null && removed > 0) {
+            log.debug("Purged {} expired idempotency keys", removed);
+        }
+    }
+
+    private Completed findCompleted(String id) {
+        IdempotencyRecord record = idempotencyRecordRepository.findById(id).orElse(null);
+        if (record == null || record.getResourceId() == null) {
+            return null;
+        }
+        Completed stored = new Completed(record.getRequestHash(), record.getResourceId());
+        completed.put(id, stored);
+        return stored;
+    }
+
+    private Completed await(CompletableFuture<Completed> running) {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("A request with this idempotency key is still being processed");
+        } catch (ExecutionException e) {
+            // The first attempt failed and stored nothing; its caller gets the error, the retry gets it too
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for a request with the same idempotency key");
+        }
+    }
+
+    private static Result replay(Completed completed, String requestHash) {
+        if (!completed.requestHash().equals(requestHash)) {
+            throw new IdempotencyConflictException("Idempotency key was already used for a different request");
+        }
+        return new Result(completed.resourceId(), true);
+    }
+}
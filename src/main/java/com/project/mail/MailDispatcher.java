@@ -0,0 +1,225 @@
+package com.project.mail;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.entity.DeadLetterMail;
+import com.project.entity.QueuedMail;
+import com.project.repository.DeadLetterMailRepository;
+import com.project.repository.QueuedMailRepository;
+import com.project.util.ExponentialBackoff;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Sends queued mail in the background. Each poll takes a batch of due mails and splits it across the mail
+// threads; every thread sends its share as one JavaMailSender.send(MimeMessage...) call, i.e. over a single
+// SMTP connection. Failed mails back off exponentially and move to mail_dead_letters after max-attempts.
+// Sent mails stay in mail_queue, marked with sent_at, until sent-retention has passed, so MailQueue can
+// still recognise a redelivered event. Off unless app.mail.dispatcher.enabled is set; enable on one node only.
+@Component
+@ConditionalOnProperty(name = "app.mail.dispatcher.enabled", havingValue = "true")
+@Slf4j
+public class MailDispatcher {
+
+    private static final TypeReference<Map<String, String>> MODEL_TYPE = new TypeReference<>() {
+    };
+
+    private final JavaMailSender mailSender;
+    private final MailTemplateCache templates;
+    private final QueuedMailRepository queuedMailRepository;
+    private final DeadLetterMailRepository deadLetterMailRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final int connections;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final ExponentialBackoff backoff;
+    private final Duration sentRetention;
+    private final String from;
+
+    public MailDispatcher(JavaMailSender mailSender,
+                          MailTemplateCache templates,
+                          QueuedMailRepository queuedMailRepository,
+                          DeadLetterMailRepository deadLetterMailRepository,
+                          ObjectMapper objectMapper,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${app.mail.connections:2}") int connections,
+                          @Value("${app.mail.batch-size:100}") int batchSize,
+                          @Value("${app.mail.max-attempts:8}") int maxAttempts,
+                          @Value("${app.mail.initial-backoff:30s}") Duration initialBackoff,
+                          @Value("${app.mail.max-backoff:1h}") Duration maxBackoff,
+                          @Value("${app.mail.sent-retention:7d}") Duration sentRetention,
+                          @Value("${app.mail.from:no-reply@localhost}") String from) {
+        this.mailSender = mailSender;
+        this.templates = templates;
+        this.queuedMailRepository = queuedMailRepository;
+        this.deadLetterMailRepository = deadLetterMailRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.connections = connections;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoff = new ExponentialBackoff(initialBackoff, maxBackoff);
+        this.sentRetention = sentRetention;
+        this.from = from;
+        // One task per connection per poll, and the poll waits for them, so the queue never fills
+        this.executor = new ThreadPoolExecutor(connections, connections, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(connections),
+                new CustomizableThreadFactory("mail-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.poll-interval-ms:1000}")
+    public void dispatch() {
+        List<QueuedMail> due = queuedMailRepository.findDue(LocalDateTime.now(), PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return;
+        }
+
+        Map<Long, String> failed = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> sends = new ArrayList<>(connections);
+        int chunk = (due.size() + connections - 1) / connections;
+        for (int start = 0; start < due.size(); start += chunk) {
+            List<QueuedMail> share = due.subList(start, Math.min(start + chunk, due.size()));
+            sends.add(CompletableFuture.runAsync(() -> send(share, failed), executor));
+        }
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+
+        transactionTemplate.executeWithoutResult(status -> record(due, failed));
+        log.debug("Mail dispatch: {} sent, {} failed", due.size() - failed.size(), failed.size());
+    }
+
+    // Sent rows only serve deduplication; past the retention no outbox event can still be redelivered
+    @Scheduled(fixedDelayString = "${app.mail.purge-interval-ms:3600000}")
+    public void purgeSent() {
+        Integer purged = transactionTemplate.execute(status ->
+                queuedMailRepository.deleteSentBefore(LocalDateTime.now().minus(sentRetention)));
+        if (purged != null && purged > 0) {
+            log.debug("Purged {} sent mails", purged);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private void send(List<QueuedMail> mails, Map<Long, String> failed) {
+        Map<MimeMessage, Long> ids = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(mails.size());
+        for (QueuedMail mail : mails) {
+            try {
+                MimeMessage message = render(mail);
+                ids.put(message, mail.getId());
+                messages.add(message);
+            } catch (Exception e) {
+                failed.put(mail.getId(), "Cannot render: " + e.getMessage());
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        try {
+            mailSender.send(messages.toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            Map<Object, Exception> perMessage = e.getFailedMessages();
+            if (perMessage.isEmpty()) {
+                messages.forEach(message -> failed.put(ids.get(message), String.valueOf(e.getMessage())));
+            } else {
+                perMessage.forEach((message, cause) -> {
+                    Long id = ids.get(message);
+                    if (id != null) {
+                        failed.put(id, String.valueOf(cause.getMessage()));
+                    }
+                });
+            }
+        } catch (MailException e) {
+            // Could not connect or authenticate: nothing in this share went out
+            messages.forEach(message -> failed.put(ids.get(message), String.valueOf(e.getMessage())));
+        }
+    }
+
+    private MimeMessage render(QueuedMail mail) throws Exception {
+        MailTemplate template = templates.get(mail.getTemplate());
+        Map<String, String> model = objectMapper.readValue(mail.getModel(), MODEL_TYPE);
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        helper.setFrom(from);
+        helper.setTo(mail.getRecipient());
+        helper.setSubject(template.renderSubject(model));
+        helper.setText(template.renderBody(model));
+        return message;
+    }
+
+    private void record(List<QueuedMail> due, Map<Long, String> failed) {
+        List<Long> sent = new ArrayList<>(due.size());
+        List<Long> dead = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (QueuedMail mail : due) {
+            String error = failed.get(mail.getId());
+            if (error == null) {
+                sent.add(mail.getId());
+                continue;
+            }
+            int attempts = mail.getAttempts() + 1;
+            String lastError = error.length() > 1000 ? error.substring(0, 1000) : error;
+            if (attempts >= maxAttempts) {
+                // The dead letter keeps the dedup key, which MailQueue checks as well
+                deadLetterMailRepository.save(toDeadLetter(mail, attempts, lastError));
+                dead.add(mail.getId());
+                log.error("Mail {} to {} moved to dead letters after {} attempts: {}",
+                        mail.getId(), mail.getRecipient(), attempts, lastError);
+            } else {
+                mail.setAttempts(attempts);
+                mail.setLastError(lastError);
+                mail.setNextAttemptAt(now.plus(backoff.delay(attempts)));
+                queuedMailRepository.save(mail);
+            }
+        }
+        if (!sent.isEmpty()) {
+            queuedMailRepository.markSent(sent, now);
+        }
+        if (!dead.isEmpty()) {
+            queuedMailRepository.deleteByIdIn(dead);
+        }
+    }
+
+    private static DeadLetterMail toDeadLetter(QueuedMail mail, int attempts, String lastError) {
+        DeadLetterMail dead = new DeadLetterMail();
+        dead.setId(mail.getId());
+        dead.setDedupKey(mail.getDedupKey());
+        dead.setRecipient(mail.getRecipient());
+        dead.setTemplate(mail.getTemplate());
+        dead.setModel(mail.getModel());
+        dead.setAttempts(attempts);
+        dead.setLastError(lastError);
+        dead.setQueuedAt(mail.getCreatedAt());
+        return dead;
+    }
+}
@@ -0,0 +1,43 @@
+package com.project.mail;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.entity.QueuedMail;
+import com.project.repository.DeadLetterMailRepository;
+import com.project.repository.QueuedMailRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Durable hand-off to MailDispatcher: queueing is one insert, sending happens later on the mail threads
+@Component
+@RequiredArgsConstructor
+public class MailQueue {
+
+    private final QueuedMailRepository queuedMailRepository;
+    private final DeadLetterMailRepository deadLetterMailRepository;
+    private final ObjectMapper objectMapper;
+
+    // Returns false when a mail with this dedup key was already queued, sent or dead-lettered
+    @Transactional
+    public boolean enqueue(String dedupKey, String recipient, String template, Map<String, String> model) {
+        if (queuedMailRepository.existsByDedupKey(dedupKey) || deadLetterMailRepository.existsByDedupKey(dedupKey)) {
+            return false;
+        }
+        QueuedMail mail = new QueuedMail();
+        mail.setDedupKey(dedupKey);
+        mail.setRecipient(recipient);
+        mail.setTemplate(template);
+        mail.setNextAttemptAt(LocalDateTime.now());
+        try {
+            mail.setModel(objectMapper.writeValueAsString(model));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Mail model is not serializable", e);
+        }
+        queuedMailRepository.save(mail);
+        return true;
+    }
+}
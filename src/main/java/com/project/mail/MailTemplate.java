@@ -0,0 +1,74 @@
+package com.project.mail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// A template parsed once into literal text and {{variable}} slots; rendering is a single pass that
+// appends segments, with no parsing or regex per mail
+final class MailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    // Even indexes are literals, odd indexes variable names
+    private final String[] subject;
+    private final String[] body;
+
+    private MailTemplate(String[] subject, String[] body) {
+        this.subject = subject;
+        this.body = body;
+    }
+
+    // First line "Subject: ...", then a blank line, then the body
+    static MailTemplate compile(String name, String source) {
+        String normalized = source.replace("\r\n", "\n");
+        int endOfSubject = normalized.indexOf('\n');
+        if (!normalized.startsWith("Subject:") || endOfSubject < 0) {
+            throw new IllegalArgumentException("Mail template '" + name + "' must start with a 'Subject:' line");
+        }
+        String subjectLine = normalized.substring("Subject:".length(), endOfSubject).trim();
+        String bodyText = normalized.substring(endOfSubject + 1).stripLeading();
+        return new MailTemplate(segments(name, subjectLine), segments(name, bodyText));
+    }
+
+    String renderSubject(Map<String, String> model) {
+        return render(subject, model);
+    }
+
+    String renderBody(Map<String, String> model) {
+        return render(body, model);
+    }
+
+    private static String render(String[] segments, Map<String, String> model) {
+        StringBuilder out = new StringBuilder(256);
+        for (int i = 0; i < segments.length; i++) {
+            if (i % 2 == 0) {
+                out.append(segments[i]);
+            } else {
+                out.append(model.getOrDefault(segments[i], ""));
+            }
+        }
+        return out.toString();
+    }
+
+    private static String[] segments(String name, String text) {
+        List<String> segments = new ArrayList<>();
+        int from = 0;
+        while (true) {
+            int open = text.indexOf(OPEN, from);
+            if (open < 0) {
+                segments.add(text.substring(from));
+                break;
+            }
+            int close = text.indexOf(CLOSE, open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed '{{' in mail template '" + name + "'");
+            }
+            segments.add(text.substring(from, open));
+            segments.add(text.substring(open + OPEN.length(), close).trim());
+            from = close + CLOSE.length();
+        }
+        return segments.toArray(String[]::new);
+    }
+}
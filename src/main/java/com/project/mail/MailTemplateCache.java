@@ -0,0 +1,33 @@
+package com.project.mail;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Templates live in classpath:mail/<name>.txt and are compiled on first use, then kept for the life of the process
+@Component
+public class MailTemplateCache {
+
+    private final Map<String, MailTemplate> compiled = new ConcurrentHashMap<>();
+
+    MailTemplate get(String name) {
+        return compiled.computeIfAbsent(name, MailTemplateCache::load);
+    }
+
+    private static MailTemplate load(String name) {
+        ClassPathResource resource = new ClassPathResource("mail/" + name + ".txt");
+        if (!resource.exists()) {
+            throw new IllegalArgumentException("Unknown mail template: " + name);
+        }
+        try {
+            return MailTemplate.compile(name, resource.getContentAsString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read mail template " + name, e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.project.mail;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.project.entity.User;
+import com.project.enums.OrderStatus;
+import com.project.outbox.OutboxEventType;
+import com.project.outbox.OutboxMessage;
+import com.project.outbox.OutboxSubscriber;
+import com.project.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Order confirmation and shipping/delivery notifications, queued from the outbox
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderMailSubscriber implements OutboxSubscriber {
+
+    private final MailQueue mailQueue;
+    private final UserRepository userRepository;
+
+    @Override
+    public boolean supports(String eventType) {
+        return OutboxEventType.ORDER_PLACED.equals(eventType) || OutboxEventType.ORDER_STATUS_CHANGED.equals(eventType);
+    }
+
+    @Override
+    public void handle(OutboxMessage message) {
+        JsonNode payload = message.payload();
+        String template = template(message.eventType(), payload);
+        if (template == null) {
+            return;
+        }
+        User user = userRepository.findById(payload.path("userId").asLong()).orElse(null);
+        if (user == null || user.getEmail() == null) {
+            log.warn("No recipient for {} of order {}", message.eventType(), message.aggregateId());
+            return;
+        }
+        mailQueue.enqueue("outbox:" + message.id(), user.getEmail(), template, Map.of(
+                "firstName", nullToEmpty(user.getFirstName()),
+                "orderNumber", payload.path("orderNumber").asText(),
+                "totalAmount", payload.path("totalAmount").asText(),
+                "itemCount", payload.path("itemCount").asText()));
+    }
+
+    private static String template(String eventType, JsonNode payload) {
+        if (OutboxEventType.ORDER_PLACED.equals(eventType)) {
+            return "order-placed";
+        }
+        String status = payload.path("status").asText();
+        if (OrderStatus.SHIPPED.name().equals(status)) {
+            return "order-shipped";
+        }
+        if (OrderStatus.DELIVERED.name().equals(status)) {
+            return "order-delivered";
+        }
+        return null;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,28 @@
+package com.project.mapper;
+
+import com.project.dto.AddressDto;
+import com.project.entity.Address;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(componentModel = "spring",
+        unmappedTargetPolicy = ReportingPolicy.IGNORE,
+        nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+public interface AddressMapper extends BaseMapper<AddressDto, Address> {
+
+    @Override
+    @Mapping(target = "userId", source = "user.id")
+    AddressDto toDto(Address address);
+
+    @Override
+    @Mapping(target = "user", ignore = true)
+    Address toEntity(AddressDto addressDto);
+
+    @Override
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    void updateEntityFromDto(AddressDto dto, @MappingTarget Address entity);
+}
@@ -0,0 +1,32 @@
+package com.project.mapper;
+
+import com.project.dto.CategoryDto;
+import com.project.entity.Category;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(componentModel = "spring",
+        unmappedTargetPolicy = ReportingPolicy.IGNORE,
+        nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+public interface CategoryMapper extends BaseMapper<CategoryDto, Category> {
+
+    @Override
+    @Mapping(target = "parentId", source = "parent.id")
+    CategoryDto toDto(Category category);
+
+    @Override
+    @Mapping(target = "parent", ignore = true)
+    @Mapping(target = "children", ignore = true)
+    @Mapping(target = "products", ignore = true)
+    Category toEntity(CategoryDto categoryDto);
+
+    @Override
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "parent", ignore = true)
+    @Mapping(target = "children", ignore = true)
+    @Mapping(target = "products", ignore = true)
+    void updateEntityFromDto(CategoryDto dto, @MappingTarget Category entity);
+}
@@ -0,0 +1,22 @@
+package com.project.mapper;
+
+import com.project.dto.CouponDto;
+import com.project.entity.Coupon;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(componentModel = "spring",
+        unmappedTargetPolicy = ReportingPolicy.IGNORE,
+        nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+public interface CouponMapper extends BaseMapper<CouponDto, Coupon> {
+
+    @Override
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "usedCount", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void updateEntityFromDto(CouponDto dto, @MappingTarget Coupon entity);
+}
@@ -0,0 +1,37 @@
+package com.project.mapper;
+
+import com.project.dto.OrderDto;
+import com.project.dto.OrderItemDto;
+import com.project.entity.Order;
+import com.project.entity.OrderItem;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(componentModel = "spring",
+        unmappedTargetPolicy = ReportingPolicy.IGNORE,
+        nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+public interface OrderMapper extends BaseMapper<OrderDto, Order> {
+
+    @Override
+    @Mapping(target = "userId", source = "user.id")
+    OrderDto toDto(Order order);
+
+    @Mapping(target = "productId", source = "product.id")
+    OrderItemDto toItemDto(OrderItem orderItem);
+
+    @Override
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "items", ignore = true)
+    @Mapping(target = "transactions", ignore = true)
+    Order toEntity(OrderDto orderDto);
+
+    @Override
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "items", ignore = true)
+    @Mapping(target = "transactions", ignore = true)
+    void updateEntityFromDto(OrderDto dto, @MappingTarget Order entity);
+}
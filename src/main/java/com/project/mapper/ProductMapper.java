@@ -31,11 +31,13 @@ public interface ProductMapper extends BaseMapper<ProductDto, Product> {
     
     @Override
     @Mapping(target = "category", ignore = true)
+    @Mapping(target = "stockQuantity", ignore = true)
     void updateEntityFromDto(ProductDto dto, @MappingTarget Product entity);
     
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "category", ignore = true)
+    @Mapping(target = "stockQuantity", ignore = true)
     void updateEntityFromRequest(ProductRequest request, @MappingTarget Product entity);
 }
@@ -0,0 +1,34 @@
+package com.project.mapper;
+
+import com.project.dto.ProductReviewDto;
+import com.project.entity.ProductReview;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(componentModel = "spring",
+        unmappedTargetPolicy = ReportingPolicy.IGNORE,
+        nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+public interface ProductReviewMapper extends BaseMapper<ProductReviewDto, ProductReview> {
+
+    @Override
+    @Mapping(target = "productId", source = "product.id")
+    @Mapping(target = "userId", source = "user.id")
+    @Mapping(target = "orderId", source = "order.id")
+    ProductReviewDto toDto(ProductReview review);
+
+    @Override
+    @Mapping(target = "product", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "order", ignore = true)
+    ProductReview toEntity(ProductReviewDto reviewDto);
+
+    @Override
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "product", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "order", ignore = true)
+    void updateEntityFromDto(ProductReviewDto dto, @MappingTarget ProductReview entity);
+}
@@ -0,0 +1,29 @@
+package com.project.mapper;
+
+import com.project.dto.UserProfileDto;
+import com.project.entity.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(componentModel = "spring",
+        unmappedTargetPolicy = ReportingPolicy.IGNORE,
+        nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+public interface UserMapper extends BaseMapper<UserProfileDto, User> {
+
+    @Override
+    @Mapping(target = "passwordHash", ignore = true)
+    @Mapping(target = "orders", ignore = true)
+    @Mapping(target = "addresses", ignore = true)
+    User toEntity(UserProfileDto userProfileDto);
+
+    @Override
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "passwordHash", ignore = true)
+    @Mapping(target = "orders", ignore = true)
+    @Mapping(target = "addresses", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    void updateEntityFromDto(UserProfileDto dto, @MappingTarget User entity);
+}
@@ -0,0 +1,34 @@
+package com.project.mapper;
+
+import com.project.dto.WishlistItemDto;
+import com.project.entity.WishlistItem;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(componentModel = "spring",
+        unmappedTargetPolicy = ReportingPolicy.IGNORE,
+        nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+public interface WishlistItemMapper extends BaseMapper<WishlistItemDto, WishlistItem> {
+
+    @Override
+    @Mapping(target = "productId", source = "product.id")
+    @Mapping(target = "productName", source = "product.name")
+    @Mapping(target = "productSku", source = "product.sku")
+    @Mapping(target = "price", source = "product.price")
+    @Mapping(target = "isActive", source = "product.isActive")
+    WishlistItemDto toDto(WishlistItem wishlistItem);
+
+    @Override
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "product", ignore = true)
+    WishlistItem toEntity(WishlistItemDto wishlistItemDto);
+
+    @Override
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "product", ignore = true)
+    void updateEntityFromDto(WishlistItemDto dto, @MappingTarget WishlistItem entity);
+}
@@ -0,0 +1,33 @@
+package com.project.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Raises a stock alert when an adjustment leaves a product at or below the threshold
+@Component
+@Slf4j
+public class LowStockAlertSubscriber implements OutboxSubscriber {
+
+    private final int threshold;
+
+    public LowStockAlertSubscriber(@Value("${app.stock.alert-threshold:5}") int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public boolean supports(String eventType) {
+        return OutboxEventType.PRODUCT_STOCK_ADJUSTED.equals(eventType);
+    }
+
+    @Override
+    public void handle(OutboxMessage message) {
+        int newStock = message.payload().path("newStock").asInt();
+        int previousStock = message.payload().path("previousStock").asInt();
+        // Only on the crossing, so repeated adjustments below the threshold do not alert again
+        if (newStock <= threshold && previousStock > threshold) {
+            log.warn("Low stock: product {} ({}) down to {} units",
+                    message.aggregateId(), message.payload().path("sku").asText(), newStock);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.project.outbox;
+
+// Event types written to the outbox, grouped by aggregate
+public final class OutboxEventType {
+
+    public static final String ORDER = "order";
+    public static final String ORDER_PLACED = "order.placed";
+    public static final String ORDER_STATUS_CHANGED = "order.status-changed";
+
+    public static final String PRODUCT = "product";
+    public static final String PRODUCT_STOCK_ADJUSTED = "product.stock-adjusted";
+
+    public static final String COUPON = "coupon";
+    public static final String COUPON_APPLIED = "coupon.applied";
+
+    private OutboxEventType() {
+    }
+}
@@ -0,0 +1,11 @@
+package com.project.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+
+// What a subscriber receives. Delivery is at-least-once: attempt > 1 means an earlier delivery failed
+// (or its outcome was lost), so handlers must tolerate seeing the same id twice.
+public record OutboxMessage(Long id, String aggregateType, String aggregateId, String eventType,
+                            JsonNode payload, LocalDateTime createdAt, int attempt) {
+}
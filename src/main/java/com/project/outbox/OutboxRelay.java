@@ -0,0 +1,194 @@
+package com.project.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.entity.OutboxEvent;
+import com.project.repository.OutboxEventRepository;
+import com.project.util.ExponentialBackoff;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Polls the outbox and hands due events to the subscribers on a bounded pool. Events of one aggregate run
+// in delivery order on a single task and stop at the first failure; different aggregates run in parallel.
+// An event row is deleted only after every subscriber handled it (at-least-once), a failure is retried with
+// exponential backoff, and after max-attempts the event is marked dead.
+//
+// Each poll is one transaction that claims the head event of every aggregate it takes with FOR UPDATE SKIP
+// LOCKED, so relays on several nodes split the work instead of delivering the same events. Off unless
+// app.outbox.relay.enabled is set.
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true")
+@Slf4j
+public class OutboxRelay {
+
+    private record Failure(int attempts, String error) {
+    }
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSubscriber> subscribers;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ThreadPoolExecutor executor;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final ExponentialBackoff backoff;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       List<OutboxSubscriber> subscribers,
+                       ObjectMapper objectMapper,
+                       TransactionTemplate transactionTemplate,
+                       JdbcTemplate jdbcTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${app.outbox.relay.threads:4}") int threads,
+                       @Value("${app.outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${app.outbox.relay.max-attempts:10}") int maxAttempts,
+                       @Value("${app.outbox.relay.initial-backoff:1s}") Duration initialBackoff,
+                       @Value("${app.outbox.relay.max-backoff:5m}") Duration maxBackoff) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.subscribers = subscribers;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoff = new ExponentialBackoff(initialBackoff, maxBackoff);
+        // One task per aggregate in a batch, so a queue of batch-size never rejects
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(batchSize),
+                new CustomizableThreadFactory("outbox-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("outbox.pending", outboxEventRepository, OutboxEventRepository::countByDeadFalse)
+                .description("Outbox events not yet delivered")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void prepareSchema() {
+        // Not mapped on OutboxEvent: the database fills it in on insert, for every writer. Ids are assigned at
+        // persist, so only the transaction id can tell which of two concurrent writers must be relayed first.
+        jdbcTemplate.execute("ALTER TABLE outbox " +
+                "ADD COLUMN IF NOT EXISTS tx_id xid8 NOT NULL DEFAULT pg_current_xact_id()");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_outbox_delivery ON outbox (tx_id, id) WHERE NOT dead");
+    }
+
+    // The claimed heads stay locked until the outcome is recorded at the end of the poll's transaction
+    @Scheduled(fixedDelayString = "${app.outbox.relay.poll-interval-ms:200}")
+    public void relay() {
+        transactionTemplate.executeWithoutResult(status -> relayClaimed());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private void relayClaimed() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> heads = outboxEventRepository.claimDueHeads(now, batchSize);
+        if (heads.isEmpty()) {
+            return;
+        }
+        Set<String> aggregates = new LinkedHashSet<>();
+        heads.forEach(head -> aggregates.add(aggregateKey(head)));
+        List<OutboxEvent> due = outboxEventRepository.findDueInAggregates(now, aggregates, batchSize);
+
+        Map<String, List<OutboxEvent>> byAggregate = new LinkedHashMap<>();
+        for (OutboxEvent event : due) {
+            byAggregate.computeIfAbsent(aggregateKey(event), key -> new ArrayList<>()).add(event);
+        }
+
+        List<Long> delivered = Collections.synchronizedList(new ArrayList<>());
+        Map<Long, Failure> failed = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(byAggregate.size());
+        for (List<OutboxEvent> events : byAggregate.values()) {
+            try {
+                tasks.add(CompletableFuture.runAsync(() -> deliverInOrder(events, delivered, failed), executor));
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the events stay in the outbox
+                break;
+            }
+        }
+        // Everything handed out must finish before the claim is released
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+
+        record(due, delivered, failed);
+        if (!failed.isEmpty()) {
+            log.warn("Outbox relay: {} delivered, {} failed", delivered.size(), failed.size());
+        }
+    }
+
+    // Must match the aggregate_type || ':' || aggregate_id expression of findDueInAggregates
+    private static String aggregateKey(OutboxEvent event) {
+        return event.getAggregateType() + ":" + event.getAggregateId();
+    }
+
+    private void deliverInOrder(List<OutboxEvent> events, List<Long> delivered, Map<Long, Failure> failed) {
+        for (OutboxEvent event : events) {
+            try {
+                OutboxMessage message = new OutboxMessage(event.getId(), event.getAggregateType(),
+                        event.getAggregateId(), event.getEventType(), objectMapper.readTree(event.getPayload()),
+                        event.getCreatedAt(), event.getAttempts() + 1);
+                for (OutboxSubscriber subscriber : subscribers) {
+                    if (subscriber.supports(event.getEventType())) {
+                        subscriber.handle(message);
+                    }
+                }
+                delivered.add(event.getId());
+            } catch (Exception e) {
+                failed.put(event.getId(), new Failure(event.getAttempts() + 1, String.valueOf(e.getMessage())));
+                // Later events of this aggregate wait for this one
+                return;
+            }
+        }
+    }
+
+    private void record(List<OutboxEvent> due, List<Long> delivered, Map<Long, Failure> failed) {
+        if (!delivered.isEmpty()) {
+            outboxEventRepository.deleteByIdIn(delivered);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxEvent event : due) {
+            Failure failure = failed.get(event.getId());
+            if (failure == null) {
+                continue;
+            }
+            event.setAttempts(failure.attempts());
+            event.setLastError(failure.error().length() > 1000 ? failure.error().substring(0, 1000) : failure.error());
+            if (failure.attempts() >= maxAttempts) {
+                event.setDead(true);
+                log.error("Outbox event {} ({}) gave up after {} attempts: {}",
+                        event.getId(), event.getEventType(), failure.attempts(), failure.error());
+            } else {
+                event.setNextAttemptAt(now.plus(backoff.delay(failure.attempts())));
+            }
+            outboxEventRepository.save(event);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.project.outbox;
+
+// In-process consumer of outbox events. Throwing makes the relay retry the event with backoff, and holds
+// back later events of the same aggregate until it succeeds or is given up on.
+public interface OutboxSubscriber {
+
+    boolean supports(String eventType);
+
+    void handle(OutboxMessage message) throws Exception;
+}
@@ -0,0 +1,64 @@
+package com.project.promotion;
+
+import java.util.List;
+
+// Compiled "when" of a promotion; immutable and evaluated against precomputed cart totals
+sealed interface CartCondition {
+
+    CartCondition ALWAYS = new All(List.of());
+
+    boolean test(CartTotals totals);
+
+    record All(List<CartCondition> conditions) implements CartCondition {
+        public All {
+            conditions = List.copyOf(conditions);
+        }
+
+        @Override
+        public boolean test(CartTotals totals) {
+            for (CartCondition condition : conditions) {
+                if (!condition.test(totals)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    record Any(List<CartCondition> conditions) implements CartCondition {
+        public Any {
+            conditions = List.copyOf(conditions);
+        }
+
+        @Override
+        public boolean test(CartTotals totals) {
+            for (CartCondition condition : conditions) {
+                if (condition.test(totals)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    record Not(CartCondition condition) implements CartCondition {
+        @Override
+        public boolean test(CartTotals totals) {
+            return !condition.test(totals);
+        }
+    }
+
+    record SubtotalAtLeast(int scope, long cents) implements CartCondition {
+        @Override
+        public boolean test(CartTotals totals) {
+            return totals.subtotal(scope) >= cents;
+        }
+    }
+
+    record QuantityAtLeast(int scope, int quantity) implements CartCondition {
+        @Override
+        public boolean test(CartTotals totals) {
+            return totals.quantity(scope) >= quantity;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.project.promotion;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Subtotal and quantity of every scope of a cart, gathered in one pass over its lines. Conditions and
+// actions of all promotions read from here instead of walking the lines again.
+final class CartTotals {
+
+    private static final Comparator<PromotionLine> CHEAPEST_FIRST =
+            Comparator.comparingLong(PromotionLine::unitPriceCents);
+
+    private final List<PromotionLine> lines;
+    private final ScopeMatcher[] matchers;
+    private final long[] subtotals;
+    private final int[] quantities;
+
+    CartTotals(List<PromotionLine> lines, ScopeMatcher[] matchers) {
+        this.lines = lines;
+        this.matchers = matchers;
+        this.subtotals = new long[matchers.length];
+        this.quantities = new int[matchers.length];
+        for (PromotionLine line : lines) {
+            long total = line.totalCents();
+            for (int scope = 0; scope < matchers.length; scope++) {
+                if (matchers[scope].matches(line)) {
+                    subtotals[scope] += total;
+                    quantities[scope] += line.quantity();
+                }
+            }
+        }
+    }
+
+    long cartSubtotal() {
+        return subtotals[0];
+    }
+
+    long subtotal(int scope) {
+        return subtotals[scope];
+    }
+
+    int quantity(int scope) {
+        return quantities[scope];
+    }
+
+    // Only buy-X-get-Y needs the lines themselves
+    List<PromotionLine> cheapestFirst(int scope) {
+        List<PromotionLine> matching = new ArrayList<>();
+        for (PromotionLine line : lines) {
+            if (matchers[scope].matches(line)) {
+                matching.add(line);
+            }
+        }
+        matching.sort(CHEAPEST_FIRST);
+        return matching;
+    }
+}
@@ -0,0 +1,47 @@
+package com.project.promotion;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+// A coupon's terms compiled once per coupon version. Only the validity window is checked against the clock.
+record CompiledPromotion(Long id,
+                         String code,
+                         long version,
+                         boolean automatic,
+                         int priority,
+                         boolean stackable,
+                         LocalDateTime startsAt,
+                         LocalDateTime expiresAt,
+                         CartCondition condition,
+                         List<PromotionAction> actions,
+                         long maxDiscountCents) {
+
+    static final long NO_CAP = Long.MAX_VALUE;
+
+    // Higher priority first; the id keeps the order stable between equal priorities
+    static final Comparator<CompiledPromotion> APPLICATION_ORDER = Comparator
+            .comparingInt(CompiledPromotion::priority).reversed()
+            .thenComparing(CompiledPromotion::id);
+
+    CompiledPromotion {
+        actions = List.copyOf(actions);
+    }
+
+    boolean isLiveAt(LocalDateTime now) {
+        return (startsAt == null || !now.isBefore(startsAt))
+                && (expiresAt == null || !now.isAfter(expiresAt));
+    }
+
+    // Zero when the condition does not hold
+    long discount(CartTotals totals) {
+        if (!condition.test(totals)) {
+            return 0;
+        }
+        long cents = 0;
+        for (PromotionAction action : actions) {
+            cents += action.discount(totals);
+        }
+        return Math.min(cents, maxDiscountCents);
+    }
+}
@@ -0,0 +1,27 @@
+package com.project.promotion;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+final class Money {
+
+    private Money() {
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    // Percentages are held in basis points (12.5% = 1250); rounded half-up to the cent
+    static long percentOf(long cents, long basisPoints) {
+        return (cents * basisPoints + 5_000) / 10_000;
+    }
+
+    static long toBasisPoints(BigDecimal percent) {
+        return percent.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+}
@@ -0,0 +1,65 @@
+package com.project.promotion;
+
+import java.util.List;
+
+// Compiled "then" of a promotion: each action returns its discount in cents, never more than its scope is worth
+sealed interface PromotionAction {
+
+    long discount(CartTotals totals);
+
+    record PercentOff(int scope, long basisPoints) implements PromotionAction {
+        @Override
+        public long discount(CartTotals totals) {
+            return Money.percentOf(totals.subtotal(scope), basisPoints);
+        }
+    }
+
+    record AmountOff(int scope, long cents) implements PromotionAction {
+        @Override
+        public long discount(CartTotals totals) {
+            return Math.min(cents, totals.subtotal(scope));
+        }
+    }
+
+    // For every buy + get units in scope, the get cheapest units are discounted by the percentage
+    record BuyXGetY(int scope, int buy, int get, long basisPoints) implements PromotionAction {
+        @Override
+        public long discount(CartTotals totals) {
+            int discounted = totals.quantity(scope) / (buy + get) * get;
+            if (discounted == 0) {
+                return 0;
+            }
+            long cents = 0;
+            for (PromotionLine line : totals.cheapestFirst(scope)) {
+                int units = Math.min(discounted, line.quantity());
+                cents += line.unitPriceCents() * units;
+                discounted -= units;
+                if (discounted == 0) {
+                    break;
+                }
+            }
+            return Money.percentOf(cents, basisPoints);
+        }
+    }
+
+    // The highest tier the scope's subtotal reaches applies; tiers are sorted by threshold, highest first
+    record Tiered(int scope, List<Tier> tiers) implements PromotionAction {
+        public Tiered {
+            tiers = List.copyOf(tiers);
+        }
+
+        @Override
+        public long discount(CartTotals totals) {
+            long subtotal = totals.subtotal(scope);
+            for (Tier tier : tiers) {
+                if (subtotal >= tier.thresholdCents()) {
+                    return Math.min(subtotal, tier.amountOffCents() + Money.percentOf(subtotal, tier.basisPoints()));
+                }
+            }
+            return 0;
+        }
+    }
+
+    record Tier(long thresholdCents, long amountOffCents, long basisPoints) {
+    }
+}
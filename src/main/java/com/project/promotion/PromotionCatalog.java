@@ -0,0 +1,156 @@
+package com.project.promotion;
+
+import com.project.category.CategoryTree;
+import com.project.category.CategoryTreeCache;
+import com.project.dto.CartPricingDto;
+import com.project.entity.Coupon;
+import com.project.event.CouponChangedEvent;
+import com.project.exception.AppException;
+import com.project.repository.CouponRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Every active coupon, compiled. A refresh reads only [id, version] pairs and recompiles the coupons whose
+// version moved; the snapshot is swapped whole, so pricing never locks and never queries.
+@Component
+@Slf4j
+public class PromotionCatalog {
+
+    private final CouponRepository couponRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ScopeTable scopes = new ScopeTable();
+
+    // Reads and compiles happen outside any lock; this only orders the swaps. Not synchronized, so a
+    // virtual thread never holds a monitor around the JDBC work that precedes it.
+    private final ReentrantLock swapLock = new ReentrantLock();
+    // Serializes the first load only, so a burst of early requests compiles the catalog once
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final AtomicLong refreshes = new AtomicLong();
+
+    // Replaced whole under swapLock and never mutated, so a refresh diffs against it without locking
+    private volatile Map<Long, CompiledPromotion> compiled = Map.of();
+    private volatile PromotionSnapshot snapshot;
+    // Guarded by swapLock
+    private long swappedRefresh;
+
+    public PromotionCatalog(CouponRepository couponRepository,
+                            CategoryTreeCache categoryTreeCache,
+                            PlatformTransactionManager transactionManager) {
+        this.couponRepository = couponRepository;
+        this.categoryTreeCache = categoryTreeCache;
+        // Refreshes also run from after-commit listeners, where the finished transaction is still bound
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public CartPricingDto price(List<PromotionLine> lines, String couponCode) {
+        return current().price(lines, couponCode, LocalDateTime.now());
+    }
+
+    PromotionSnapshot current() {
+        PromotionSnapshot current = snapshot;
+        if (current == null) {
+            return load();
+        }
+        CategoryTree tree = categoryTreeCache.current();
+        if (current.tree() != tree) {
+            swapLock.lock();
+            try {
+                current = snapshot;
+                if (current.tree() != tree) {
+                    current = current.withTree(scopes.scopes(), tree);
+                    snapshot = current;
+                }
+            } finally {
+                swapLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    private PromotionSnapshot load() {
+        loadLock.lock();
+        try {
+            PromotionSnapshot current = snapshot;
+            return current != null ? current : refresh();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    // Coupon changes made on other nodes arrive here
+    @Scheduled(fixedDelayString = "${app.promotions.refresh-interval-ms:30000}")
+    public void scheduledRefresh() {
+        if (snapshot != null) {
+            refresh();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCouponChanged(CouponChangedEvent event) {
+        if (snapshot != null) {
+            refresh();
+        }
+    }
+
+    public PromotionSnapshot refresh() {
+        long refresh = refreshes.incrementAndGet();
+        Map<Long, CompiledPromotion> known = compiled;
+        Map<Long, CompiledPromotion> next = new HashMap<>();
+        Integer recompiled = transactionTemplate.execute(status -> {
+            List<Long> changed = new ArrayList<>();
+            for (Object[] row : couponRepository.findActiveVersions()) {
+                Long id = (Long) row[0];
+                CompiledPromotion promotion = known.get(id);
+                if (promotion != null && promotion.version() == (Long) row[1]) {
+                    next.put(id, promotion);
+                } else {
+                    changed.add(id);
+                }
+            }
+            for (Coupon coupon : couponRepository.findAllById(changed)) {
+                try {
+                    next.put(coupon.getId(), PromotionRules.compile(coupon, scopes));
+                } catch (AppException e) {
+                    // Rules are validated on write; a row edited by hand is left out rather than failing pricing
+                    log.warn("Skipping coupon {}: {}", coupon.getCode(), e.getMessage());
+                }
+            }
+            return changed.size();
+        });
+        PromotionSnapshot refreshed = PromotionSnapshot.build(next.values(), scopes.scopes(),
+                categoryTreeCache.current());
+
+        swapLock.lock();
+        try {
+            // Overlapping refreshes: one that started later has already swapped in a newer view, keep it
+            if (refresh < swappedRefresh) {
+                return snapshot;
+            }
+            swappedRefresh = refresh;
+            compiled = Map.copyOf(next);
+            snapshot = refreshed;
+        } finally {
+            swapLock.unlock();
+        }
+        if (recompiled != null && recompiled > 0) {
+            log.debug("Compiled {} promotions, {} active", recompiled, refreshed.size());
+        }
+        return refreshed;
+    }
+}
@@ -0,0 +1,15 @@
+package com.project.promotion;
+
+import java.math.BigDecimal;
+
+// One cart or order line as pricing sees it; amounts are in cents so evaluation never allocates decimals
+public record PromotionLine(Long productId, Long categoryId, long unitPriceCents, int quantity) {
+
+    public static PromotionLine of(Long productId, Long categoryId, BigDecimal unitPrice, int quantity) {
+        return new PromotionLine(productId, categoryId, Money.toCents(unitPrice), quantity);
+    }
+
+    public long totalCents() {
+        return unitPriceCents * quantity;
+    }
+}
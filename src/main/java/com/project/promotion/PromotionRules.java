@@ -0,0 +1,211 @@
+package com.project.promotion;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.entity.Coupon;
+import com.project.enums.DiscountType;
+import com.project.exception.AppException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Compiles coupons.rules into condition/action trees. A coupon without rules is a plain percentage or fixed
+// discount on the whole order. The format:
+//
+//   {"when": {"all": [{"subtotalAtLeast": 100}, {"quantityAtLeast": 2, "scope": {"categories": [7]}}]},
+//    "then": [{"percentOff": 10, "scope": {"categories": [7]}},
+//             {"buyXGetY": {"buy": 2, "get": 1, "percentOff": 100}, "scope": {"products": [42, 43]}},
+//             {"tiers": [{"atLeast": 100, "amountOff": 10}, {"atLeast": 250, "percentOff": 15}]}]}
+//
+// Conditions are all / any / not / subtotalAtLeast / quantityAtLeast, actions are percentOff / amountOff /
+// buyXGetY / tiers. A scope lists categories (subtrees included) and products; no scope means the whole cart.
+// The coupon's minimum amount and maximum discount apply on top of the rules.
+public final class PromotionRules {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private PromotionRules() {
+    }
+
+    // Rejects a coupon whose promotion would not compile, before it is saved
+    public static void validate(Coupon coupon) {
+        compile(coupon, new ScopeTable());
+    }
+
+    static CompiledPromotion compile(Coupon coupon, ScopeTable scopes) {
+        CartCondition condition = CartCondition.ALWAYS;
+        List<PromotionAction> actions;
+        Map<String, Object> rules = coupon.getRules();
+        if (rules == null || rules.isEmpty()) {
+            actions = List.of(plainDiscount(coupon));
+        } else {
+            JsonNode root = JSON.valueToTree(rules);
+            if (root.has("when")) {
+                condition = condition(root.get("when"), scopes);
+            }
+            JsonNode then = root.path("then");
+            if (!then.isArray() || then.isEmpty()) {
+                throw invalid("'then' must list at least one action");
+            }
+            actions = new ArrayList<>();
+            for (JsonNode action : then) {
+                actions.add(action(action, scopes));
+            }
+        }
+        if (coupon.getMinimumAmount() != null) {
+            condition = new CartCondition.All(List.of(
+                    new CartCondition.SubtotalAtLeast(0, Money.toCents(coupon.getMinimumAmount())), condition));
+        }
+
+        return new CompiledPromotion(
+                coupon.getId(),
+                coupon.getCode(),
+                coupon.getVersion() != null ? coupon.getVersion() : 0,
+                Boolean.TRUE.equals(coupon.getIsAutomatic()),
+                coupon.getPriority() != null ? coupon.getPriority() : 0,
+                !Boolean.FALSE.equals(coupon.getIsStackable()),
+                coupon.getStartsAt(),
+                coupon.getExpiresAt(),
+                condition,
+                actions,
+                coupon.getMaximumDiscount() != null
+                        ? Money.toCents(coupon.getMaximumDiscount())
+                        : CompiledPromotion.NO_CAP);
+    }
+
+    private static PromotionAction plainDiscount(Coupon coupon) {
+        if (coupon.getType() == null || coupon.getValue() == null) {
+            throw invalid("a coupon without rules needs a type and a value");
+        }
+        return coupon.getType() == DiscountType.PERCENTAGE
+                ? new PromotionAction.PercentOff(0, percent(coupon.getValue()))
+                : new PromotionAction.AmountOff(0, amount(coupon.getValue()));
+    }
+
+    private static CartCondition condition(JsonNode node, ScopeTable scopes) {
+        if (node.has("all")) {
+            return new CartCondition.All(conditions(node.get("all"), scopes));
+        }
+        if (node.has("any")) {
+            return new CartCondition.Any(conditions(node.get("any"), scopes));
+        }
+        if (node.has("not")) {
+            return new CartCondition.Not(condition(node.get("not"), scopes));
+        }
+        if (node.has("subtotalAtLeast")) {
+            return new CartCondition.SubtotalAtLeast(scope(node, scopes), amount(decimal(node, "subtotalAtLeast")));
+        }
+        if (node.has("quantityAtLeast")) {
+            return new CartCondition.QuantityAtLeast(scope(node, scopes), positive(node, "quantityAtLeast"));
+        }
+        throw invalid("unknown condition " + node);
+    }
+
+    private static List<CartCondition> conditions(JsonNode array, ScopeTable scopes) {
+        if (!array.isArray()) {
+            throw invalid("'all' and 'any' take a list of conditions");
+        }
+        List<CartCondition> conditions = new ArrayList<>();
+        for (JsonNode node : array) {
+            conditions.add(condition(node, scopes));
+        }
+        return conditions;
+    }
+
+    private static PromotionAction action(JsonNode node, ScopeTable scopes) {
+        int scope = scope(node, scopes);
+        if (node.has("percentOff")) {
+            return new PromotionAction.PercentOff(scope, percent(decimal(node, "percentOff")));
+        }
+        if (node.has("amountOff")) {
+            return new PromotionAction.AmountOff(scope, amount(decimal(node, "amountOff")));
+        }
+        if (node.has("buyXGetY")) {
+            JsonNode terms = node.get("buyXGetY");
+            BigDecimal percentOff = terms.has("percentOff") ? decimal(terms, "percentOff") : BigDecimal.valueOf(100);
+            return new PromotionAction.BuyXGetY(scope, positive(terms, "buy"), positive(terms, "get"),
+                    percent(percentOff));
+        }
+        if (node.has("tiers")) {
+            JsonNode array = node.get("tiers");
+            if (!array.isArray() || array.isEmpty()) {
+                throw invalid("'tiers' must list at least one tier");
+            }
+            List<PromotionAction.Tier> tiers = new ArrayList<>();
+            for (JsonNode tier : array) {
+                tiers.add(new PromotionAction.Tier(
+                        amount(decimal(tier, "atLeast")),
+                        tier.has("amountOff") ? amount(decimal(tier, "amountOff")) : 0,
+                        tier.has("percentOff") ? percent(decimal(tier, "percentOff")) : 0));
+            }
+            tiers.sort(Comparator.comparingLong(PromotionAction.Tier::thresholdCents).reversed());
+            return new PromotionAction.Tiered(scope, tiers);
+        }
+        throw invalid("unknown action " + node);
+    }
+
+    private static int scope(JsonNode node, ScopeTable scopes) {
+        JsonNode scope = node.get("scope");
+        if (scope == null || scope.isNull()) {
+            return 0;
+        }
+        return scopes.indexOf(new Scope(ids(scope, "categories"), ids(scope, "products")));
+    }
+
+    private static Set<Long> ids(JsonNode scope, String field) {
+        JsonNode array = scope.path(field);
+        if (array.isMissingNode()) {
+            return Set.of();
+        }
+        if (!array.isArray()) {
+            throw invalid("'" + field + "' must be a list of ids");
+        }
+        Set<Long> ids = new HashSet<>();
+        for (JsonNode id : array) {
+            if (!id.canConvertToLong()) {
+                throw invalid("'" + field + "' must be a list of ids");
+            }
+            ids.add(id.longValue());
+        }
+        return ids;
+    }
+
+    private static BigDecimal decimal(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || !value.isNumber()) {
+            throw invalid("'" + field + "' must be a number");
+        }
+        return value.decimalValue();
+    }
+
+    private static int positive(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || !value.canConvertToInt() || value.intValue() < 1) {
+            throw invalid("'" + field + "' must be a positive whole number");
+        }
+        return value.intValue();
+    }
+
+    private static long percent(BigDecimal value) {
+        if (value.signum() < 0 || value.compareTo(BigDecimal.valueOf(100)) > 0) {
+            throw invalid("percentages must be between 0 and 100");
+        }
+        return Money.toBasisPoints(value);
+    }
+
+    private static long amount(BigDecimal value) {
+        if (value.signum() < 0) {
+            throw invalid("amounts may not be negative");
+        }
+        return Money.toCents(value);
+    }
+
+    private static AppException invalid(String reason) {
+        return new AppException("Invalid promotion rules: " + reason);
+    }
+}
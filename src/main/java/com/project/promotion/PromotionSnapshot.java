@@ -0,0 +1,120 @@
+package com.project.promotion;
+
+import com.project.category.CategoryTree;
+import com.project.dto.AppliedPromotionDto;
+import com.project.dto.CartPricingDto;
+import com.project.entity.Coupon;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable set of compiled promotions with their scopes resolved against one category tree. Pricing a
+// cart touches no database: one pass over the lines fills the per-scope totals, then every promotion is
+// evaluated against those totals.
+//
+// Stacking: promotions are tried by priority (highest first). A stackable promotion combines with other
+// stackable ones; a non-stackable one applies only when nothing was applied before it and ends the run.
+// Each promotion is worth at most what is left of the subtotal.
+public final class PromotionSnapshot {
+
+    private final CategoryTree tree;
+    private final ScopeMatcher[] matchers;
+    private final List<CompiledPromotion> automatic;
+    private final Map<String, CompiledPromotion> byCode;
+
+    private PromotionSnapshot(CategoryTree tree, ScopeMatcher[] matchers, List<CompiledPromotion> automatic,
+                              Map<String, CompiledPromotion> byCode) {
+        this.tree = tree;
+        this.matchers = matchers;
+        this.automatic = automatic;
+        this.byCode = byCode;
+    }
+
+    static PromotionSnapshot build(Collection<CompiledPromotion> promotions, List<Scope> scopes, CategoryTree tree) {
+        ScopeMatcher[] matchers = new ScopeMatcher[scopes.size()];
+        for (int i = 0; i < matchers.length; i++) {
+            matchers[i] = ScopeMatcher.resolve(scopes.get(i), tree);
+        }
+        List<CompiledPromotion> automatic = new ArrayList<>();
+        Map<String, CompiledPromotion> byCode = new HashMap<>();
+        for (CompiledPromotion promotion : promotions) {
+            byCode.put(promotion.code(), promotion);
+            if (promotion.automatic()) {
+                automatic.add(promotion);
+            }
+        }
+        automatic.sort(CompiledPromotion.APPLICATION_ORDER);
+        return new PromotionSnapshot(tree, matchers, List.copyOf(automatic), Map.copyOf(byCode));
+    }
+
+    // Compiles the given coupons from scratch, e.g. for benchmarks; the application uses PromotionCatalog
+    public static PromotionSnapshot of(Collection<Coupon> coupons, CategoryTree tree) {
+        ScopeTable scopes = new ScopeTable();
+        List<CompiledPromotion> compiled = new ArrayList<>(coupons.size());
+        for (Coupon coupon : coupons) {
+            compiled.add(PromotionRules.compile(coupon, scopes));
+        }
+        return build(compiled, scopes.scopes(), tree);
+    }
+
+    CategoryTree tree() {
+        return tree;
+    }
+
+    // Rebinds the same promotions to a new category tree
+    PromotionSnapshot withTree(List<Scope> scopes, CategoryTree newTree) {
+        return build(byCode.values(), scopes, newTree);
+    }
+
+    public int size() {
+        return byCode.size();
+    }
+
+    public CartPricingDto price(List<PromotionLine> lines, String couponCode, LocalDateTime now) {
+        CartTotals totals = new CartTotals(lines, matchers);
+        CompiledPromotion coupon = couponCode != null ? byCode.get(couponCode) : null;
+        // An automatic promotion's code needs no merging, it is in the automatic list already
+        CompiledPromotion pendingCoupon = coupon != null && !coupon.automatic() ? coupon : null;
+
+        long subtotal = totals.cartSubtotal();
+        long remaining = subtotal;
+        boolean couponApplied = false;
+        List<AppliedPromotionDto> applied = new ArrayList<>();
+        int next = 0;
+        while (true) {
+            CompiledPromotion promotion;
+            if (pendingCoupon != null && (next == automatic.size()
+                    || CompiledPromotion.APPLICATION_ORDER.compare(pendingCoupon, automatic.get(next)) < 0)) {
+                promotion = pendingCoupon;
+                pendingCoupon = null;
+            } else if (next < automatic.size()) {
+                promotion = automatic.get(next++);
+            } else {
+                break;
+            }
+
+            if (!promotion.isLiveAt(now) || (!applied.isEmpty() && !promotion.stackable())) {
+                continue;
+            }
+            long discount = Math.min(promotion.discount(totals), remaining);
+            if (discount <= 0) {
+                continue;
+            }
+            remaining -= discount;
+            boolean isCoupon = promotion == coupon;
+            couponApplied |= isCoupon;
+            applied.add(new AppliedPromotionDto(promotion.id(), promotion.code(), promotion.automatic(), isCoupon,
+                    Money.fromCents(discount)));
+            if (!promotion.stackable()) {
+                break;
+            }
+        }
+
+        return new CartPricingDto(Money.fromCents(subtotal), Money.fromCents(subtotal - remaining),
+                Money.fromCents(remaining), couponCode, couponApplied, applied);
+    }
+}
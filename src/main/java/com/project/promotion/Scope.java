@@ -0,0 +1,19 @@
+package com.project.promotion;
+
+import java.util.Set;
+
+// The cart lines a condition or action looks at: lines in any of the categories (subtrees included) or for
+// any of the products. Both empty means the whole cart.
+public record Scope(Set<Long> categoryIds, Set<Long> productIds) {
+
+    public static final Scope ALL = new Scope(Set.of(), Set.of());
+
+    public Scope {
+        categoryIds = Set.copyOf(categoryIds);
+        productIds = Set.copyOf(productIds);
+    }
+
+    public boolean isAll() {
+        return categoryIds.isEmpty() && productIds.isEmpty();
+    }
+}
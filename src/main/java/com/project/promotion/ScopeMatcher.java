@@ -0,0 +1,28 @@
+package com.project.promotion;
+
+import com.project.category.CategoryTree;
+
+import java.util.HashSet;
+import java.util.Set;
+
+// A scope resolved against one category tree: category subtrees are expanded up front, so matching a line
+// is a set lookup
+record ScopeMatcher(boolean all, Set<Long> categoryIds, Set<Long> productIds) {
+
+    static ScopeMatcher resolve(Scope scope, CategoryTree tree) {
+        if (scope.isAll()) {
+            return new ScopeMatcher(true, Set.of(), Set.of());
+        }
+        Set<Long> categories = new HashSet<>();
+        for (Long categoryId : scope.categoryIds()) {
+            categories.addAll(tree.subtreeIds(categoryId));
+        }
+        return new ScopeMatcher(false, Set.copyOf(categories), scope.productIds());
+    }
+
+    boolean matches(PromotionLine line) {
+        return all
+                || (line.categoryId() != null && categoryIds.contains(line.categoryId()))
+                || productIds.contains(line.productId());
+    }
+}
@@ -0,0 +1,30 @@
+package com.project.promotion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Interns scopes to small integers. Compiled conditions and actions refer to scopes by index, so pricing
+// reads per-scope totals from an array, and promotions sharing a scope share its totals. Append-only:
+// an index stays valid for every promotion compiled against this table.
+public final class ScopeTable {
+
+    private final Map<Scope, Integer> indexes = new HashMap<>();
+    private final List<Scope> scopes = new ArrayList<>();
+
+    public ScopeTable() {
+        indexOf(Scope.ALL);
+    }
+
+    public synchronized int indexOf(Scope scope) {
+        return indexes.computeIfAbsent(scope, key -> {
+            scopes.add(key);
+            return scopes.size() - 1;
+        });
+    }
+
+    public synchronized List<Scope> scopes() {
+        return List.copyOf(scopes);
+    }
+}
@@ -0,0 +1,107 @@
+package com.project.rating;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.project.dto.ProductDto;
+import com.project.dto.ProductRatingDto;
+import com.project.entity.ProductRatingSummary;
+import com.project.event.ProductRatingChangedEvent;
+import com.project.repository.ProductRatingSummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Product id -> rating summary for product pages and listings. A page of products costs at most one query
+// for the ids not cached yet and none once warm; products without approved reviews are cached as NONE.
+// Local review changes evict immediately, changes on other nodes are picked up when the entry expires.
+@Component
+@Slf4j
+public class ProductRatingCache {
+
+    public static final ProductRatingDto NONE = new ProductRatingDto(0, 0.0, new long[5]);
+
+    private final ProductRatingSummaryRepository summaryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<Long, ProductRatingDto> ratings;
+
+    public ProductRatingCache(ProductRatingSummaryRepository summaryRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.ratings.cache.max-size:100000}") long maxSize,
+                              @Value("${app.ratings.cache.ttl:10m}") Duration ttl) {
+        this.summaryRepository = summaryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ratings = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public ProductRatingDto get(Long productId) {
+        return getAll(List.of(productId)).get(productId);
+    }
+
+    public Map<Long, ProductRatingDto> getAll(Collection<Long> productIds) {
+        return ratings.getAll(productIds, missing -> {
+            Map<Long, ProductRatingDto> loaded = new HashMap<>();
+            for (ProductRatingSummary summary : summaryRepository.findByProductIdIn(List.copyOf(missing))) {
+                loaded.put(summary.getProductId(), toDto(summary));
+            }
+            for (Long productId : missing) {
+                loaded.putIfAbsent(productId, NONE);
+            }
+            return loaded;
+        });
+    }
+
+    // Sets the rating on freshly mapped DTOs with one bulk lookup; returns the same list
+    public List<ProductDto> attach(List<ProductDto> products) {
+        if (products.isEmpty()) {
+            return products;
+        }
+        Map<Long, ProductRatingDto> found = getAll(products.stream().map(ProductDto::getId).toList());
+        for (ProductDto product : products) {
+            product.setRating(found.get(product.getId()));
+        }
+        return products;
+    }
+
+    // Evicted only after commit, so a concurrent reader cannot cache the summary as it was before the change
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatingChanged(ProductRatingChangedEvent event) {
+        ratings.invalidate(event.getProductId());
+    }
+
+    // Reviews written before product_rating_summary existed are folded in once, on the first start with an
+    // empty table
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (summaryRepository.count() > 0) {
+            return;
+        }
+        Integer filled = transactionTemplate.execute(status -> summaryRepository.backfill());
+        if (filled != null && filled > 0) {
+            log.info("Built rating summaries for {} products", filled);
+        }
+    }
+
+    private static ProductRatingDto toDto(ProductRatingSummary summary) {
+        long count = summary.getReviewCount();
+        if (count <= 0) {
+            return NONE;
+        }
+        long[] histogram = {summary.getStars1(), summary.getStars2(), summary.getStars3(),
+                summary.getStars4(), summary.getStars5()};
+        return new ProductRatingDto(count, (double) summary.getRatingSum() / count, histogram);
+    }
+}
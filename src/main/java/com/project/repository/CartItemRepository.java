@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,12 +17,20 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
 
     List<CartItem> findByUserId(Long userId);
     
+    List<CartItem> findByUserIdIn(Collection<Long> userIds);
+    
+    // id, product id, quantity, created at: enough to rebuild a cart without loading entities
+    @Query("SELECT ci.id, ci.product.id, ci.quantity, ci.createdAt FROM CartItem ci " +
+           "WHERE ci.user.id = :userId ORDER BY ci.createdAt, ci.id")
+    List<Object[]> findLinesByUserId(@Param("userId") Long userId);
+    
     Optional<CartItem> findByUserIdAndProductId(Long userId, Long productId);
     
     boolean existsByUserIdAndProductId(Long userId, Long productId);
     
     @Modifying
-    int deleteByUserId(Long userId);
+    @Query("DELETE FROM CartItem ci WHERE ci.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
     
     @Modifying
     int deleteByUserIdAndProductId(Long userId, Long productId);
@@ -2,6 +2,7 @@ package com.project.repository;
 
 import com.project.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -28,4 +29,8 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findSubCategories(@Param("parentId") Long parentId);
     
     boolean existsByName(String name);
+    
+    @Modifying
+    @Query("UPDATE Category c SET c.treeLeft = :treeLeft, c.treeRight = :treeRight WHERE c.id = :id")
+    int updateTreeInterval(@Param("id") Long id, @Param("treeLeft") int treeLeft, @Param("treeRight") int treeRight);
 }
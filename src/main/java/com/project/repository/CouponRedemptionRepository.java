@@ -0,0 +1,23 @@
+package com.project.repository;
+
+import com.project.entity.CouponRedemption;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CouponRedemptionRepository extends JpaRepository<CouponRedemption, CouponRedemption.Key> {
+
+    // Counts one more redemption unless the user is at the limit: returns 1 if counted, 0 if not. The row
+    // lock serializes concurrent checkouts of the same user with the same coupon.
+    @Modifying
+    @Query(value = "INSERT INTO coupon_redemptions (coupon_id, user_id, redemptions) VALUES (:couponId, :userId, 1) " +
+                   "ON CONFLICT (coupon_id, user_id) DO UPDATE SET redemptions = coupon_redemptions.redemptions + 1 " +
+                   "WHERE coupon_redemptions.redemptions < :limit", nativeQuery = true)
+    int tryRedeem(@Param("couponId") Long couponId, @Param("userId") Long userId, @Param("limit") int limit);
+
+    @Query("SELECT MAX(r.redemptions) FROM CouponRedemption r WHERE r.couponId = :couponId")
+    Integer findMaxRedemptionsPerUser(@Param("couponId") Long couponId);
+}
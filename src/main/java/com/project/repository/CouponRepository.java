@@ -1,15 +1,24 @@
 package com.project.repository;
 
+import com.project.coupon.CouponRule;
 import com.project.entity.Coupon;
+import com.project.export.EntityExporter;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CouponRepository extends JpaRepository<Coupon, Long> {
@@ -27,7 +36,45 @@ public interface CouponRepository extends JpaRepository<Coupon, Long> {
            "(c.usageLimit IS NULL OR c.usedCount < c.usageLimit)")
     Optional<Coupon> findValidCoupon(@Param("code") String code, @Param("now") LocalDateTime now);
     
+    // What redemption needs to know about a coupon, without loading the entity
+    @Query("SELECT new com.project.coupon.CouponRule(c.id, c.code, c.type, c.value, c.minimumAmount, " +
+           "c.maximumDiscount, c.usageLimit, c.perUserLimit, c.isActive, c.startsAt, c.expiresAt) " +
+           "FROM Coupon c WHERE c.code = :code")
+    Optional<CouponRule> findRuleByCode(@Param("code") String code);
+    
+    // Conditional increment: returns 0 instead of going past the usage limit (0 or null = unlimited)
+    @Modifying
+    @Query("UPDATE Coupon c SET c.usedCount = c.usedCount + 1 WHERE c.id = :couponId AND " +
+           "(c.usageLimit IS NULL OR c.usageLimit = 0 OR c.usedCount < c.usageLimit)")
+    int tryIncrementUsage(@Param("couponId") Long couponId);
+    
+    @Modifying
+    @Query("UPDATE Coupon c SET c.usedCount = c.usedCount + :count WHERE c.id = :couponId")
+    int addUsage(@Param("couponId") Long couponId, @Param("count") int count);
+    
     @Modifying
-    @Query("UPDATE Coupon c SET c.usedCount = c.usedCount + 1 WHERE c.id = :couponId")
-    void incrementUsage(@Param("couponId") Long couponId);
+    @Query("UPDATE Coupon c SET c.usedCount = CASE WHEN c.usedCount > :count THEN c.usedCount - :count ELSE 0 END " +
+           "WHERE c.id = :couponId")
+    int releaseUsage(@Param("couponId") Long couponId, @Param("count") int count);
+    
+    // [id, version] of every active coupon, so the promotion catalog only reloads what changed
+    @Query("SELECT c.id, c.version FROM Coupon c WHERE c.isActive = true")
+    List<Object[]> findActiveVersions();
+    
+    // Re-checks expires_at, so a coupon extended since it was picked is left alone
+    @Modifying
+    @Query("UPDATE Coupon c SET c.isActive = false WHERE c.id IN :ids AND c.isActive = true AND c.expiresAt < :now")
+    int deactivateExpired(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    // Forward-only cursor for exports; must be consumed and closed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityExporter.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Coupon c ORDER BY c.id")
+    Stream<Coupon> streamForExport();
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Coupon c WHERE c.id = :id")
+    Optional<Coupon> findByIdForUpdate(@Param("id") Long id);
 }
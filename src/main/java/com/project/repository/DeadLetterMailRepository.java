@@ -0,0 +1,11 @@
+package com.project.repository;
+
+import com.project.entity.DeadLetterMail;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DeadLetterMailRepository extends JpaRepository<DeadLetterMail, Long> {
+
+    boolean existsByDedupKey(String dedupKey);
+}
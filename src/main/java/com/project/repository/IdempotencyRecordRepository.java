@@ -0,0 +1,29 @@
+package com.project.repository;
+
+import com.project.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Plain INSERT rather than save(): an existing key must fail on the primary key, not be merged over.
+    // A concurrent claim of the same key blocks on the index until the first transaction ends.
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, created_at) " +
+                   "VALUES (:key, :requestHash, CURRENT_TIMESTAMP)", nativeQuery = true)
+    int claim(@Param("key") String key, @Param("requestHash") String requestHash);
+    
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.resourceId = :resourceId WHERE r.key = :key")
+    int complete(@Param("key") String key, @Param("resourceId") Long resourceId);
+    
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
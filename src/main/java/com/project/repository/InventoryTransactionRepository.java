@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -19,6 +20,24 @@ public interface InventoryTransactionRepository extends JpaRepository<InventoryT
     
     List<InventoryTransaction> findByCreatedAtBetweenOrderByCreatedAtDesc(LocalDateTime start, LocalDateTime end);
     
+    // Full-history sum; use StockLedgerService.getCurrentStock for the checkpointed lookup
     @Query("SELECT COALESCE(SUM(it.quantityChange), 0) FROM InventoryTransaction it WHERE it.product.id = :productId")
     Integer getCurrentStock(@Param("productId") Long productId);
+    
+    // "Open" rows are not yet rolled into a stock checkpoint; StockLedgerService owns the checkpointed column
+    @Query(value = "SELECT COALESCE(SUM(quantity_change), 0) FROM inventory_transactions " +
+                   "WHERE product_id = :productId AND NOT checkpointed", nativeQuery = true)
+    Integer sumOpenChanges(@Param("productId") Long productId);
+    
+    // Rows: [productId, sum(quantityChange)]
+    @Query(value = "SELECT product_id, SUM(quantity_change) FROM inventory_transactions " +
+                   "WHERE product_id IN (:productIds) AND NOT checkpointed GROUP BY product_id", nativeQuery = true)
+    List<Object[]> sumOpenChangesByProduct(@Param("productIds") Collection<Long> productIds);
+    
+    // Marks every committed open row and sums exactly the rows it marked, in one statement: a transaction
+    // that commits meanwhile stays open for the next run whatever its id. Rows: [productId, sum, max(id)]
+    @Query(value = "WITH rolled AS (UPDATE inventory_transactions SET checkpointed = true WHERE NOT checkpointed " +
+                   "RETURNING product_id, quantity_change, id) " +
+                   "SELECT product_id, SUM(quantity_change), MAX(id) FROM rolled GROUP BY product_id", nativeQuery = true)
+    List<Object[]> checkpointOpenChanges();
 }
@@ -2,10 +2,14 @@ package com.project.repository;
 
 import com.project.entity.Order;
 import com.project.enums.OrderStatus;
+import com.project.export.EntityExporter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,6 +17,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -29,6 +34,17 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     List<Order> findByCreatedAtBetweenAndStatusOrderByCreatedAtDesc(LocalDateTime startDate, LocalDateTime endDate, OrderStatus status);
     
+    // Forward-only cursor for exports; must be consumed and closed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityExporter.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o WHERE o.createdAt BETWEEN :startDate AND :endDate AND " +
+           "(:status IS NULL OR o.status = :status) ORDER BY o.createdAt DESC")
+    Stream<Order> streamForExport(@Param("startDate") LocalDateTime startDate,
+                                  @Param("endDate") LocalDateTime endDate,
+                                  @Param("status") OrderStatus status);
+    
     Optional<Order> findByOrderNumber(String orderNumber);
     
     @Query("SELECT SUM(o.totalAmount) FROM Order o WHERE o.createdAt BETWEEN :startDate AND :endDate " +
@@ -0,0 +1,48 @@
+package com.project.repository;
+
+import com.project.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Delivery order is (tx_id, id). tx_id is the inserting transaction's id (column default, see OutboxRelay),
+    // and only rows whose transaction precedes every one still running are visible here, so no row can later
+    // commit in front of one already relayed.
+    //
+    // The head of each aggregate: due, with no earlier undelivered event. Locked for the relay's transaction;
+    // rows another node holds are skipped, and while a head exists no other node can claim its successors.
+    @Query(value = "SELECT e.* FROM outbox e WHERE e.dead = false AND e.next_attempt_at <= :now " +
+                   "AND e.tx_id < pg_snapshot_xmin(pg_current_snapshot()) AND NOT EXISTS " +
+                   "(SELECT 1 FROM outbox b WHERE b.aggregate_type = e.aggregate_type " +
+                   "AND b.aggregate_id = e.aggregate_id AND b.dead = false AND (b.tx_id, b.id) < (e.tx_id, e.id)) " +
+                   "ORDER BY e.tx_id, e.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> claimDueHeads(@Param("now") LocalDateTime now, @Param("limit") int limit);
+    
+    // Due events of aggregates whose head this relay holds, in delivery order, stopping short of anything
+    // behind an event that is backing off
+    @Query(value = "SELECT e.* FROM outbox e WHERE e.dead = false AND e.next_attempt_at <= :now " +
+                   "AND e.tx_id < pg_snapshot_xmin(pg_current_snapshot()) " +
+                   "AND e.aggregate_type || ':' || e.aggregate_id IN (:aggregates) AND NOT EXISTS " +
+                   "(SELECT 1 FROM outbox b WHERE b.aggregate_type = e.aggregate_type " +
+                   "AND b.aggregate_id = e.aggregate_id AND b.dead = false AND (b.tx_id, b.id) < (e.tx_id, e.id) " +
+                   "AND b.next_attempt_at > :now) " +
+                   "ORDER BY e.tx_id, e.id LIMIT :limit", nativeQuery = true)
+    List<OutboxEvent> findDueInAggregates(@Param("now") LocalDateTime now,
+                                          @Param("aggregates") Collection<String> aggregates,
+                                          @Param("limit") int limit);
+    
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    long countByDeadFalse();
+}
@@ -0,0 +1,18 @@
+package com.project.repository;
+
+import com.project.entity.Product;
+import com.project.enums.ProductSort;
+
+import java.util.List;
+
+// Keyset (seek) pagination over active products, optionally within one category. Implemented with the
+// Criteria API so the category predicate is only present when a category is given.
+public interface ProductKeysetRepository {
+
+    // afterKey is the last row's created_at for NEWEST and its price otherwise; afterKey and afterId are
+    // both null for the first page
+    List<Product> findActiveByKeyset(Long categoryId, ProductSort sort, Comparable<?> afterKey, Long afterId,
+                                     int limit);
+
+    long countActive(Long categoryId);
+}
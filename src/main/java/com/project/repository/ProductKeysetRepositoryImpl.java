@@ -0,0 +1,74 @@
+package com.project.repository;
+
+import com.project.entity.Product;
+import com.project.enums.ProductSort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Backed by the (is_active, created_at, id) and (is_active, price, id) indexes on products. A catch-all
+// "(:categoryId IS NULL OR p.category.id = :categoryId)" would share one generic plan between the
+// all-products and the per-category page, and that plan cannot seek on either index.
+@RequiredArgsConstructor
+public class ProductKeysetRepositoryImpl implements ProductKeysetRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Product> findActiveByKeyset(Long categoryId, ProductSort sort, Comparable<?> afterKey, Long afterId,
+                                            int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = cb.createQuery(Product.class);
+        Root<Product> product = query.from(Product.class);
+        product.fetch("category", JoinType.LEFT);
+
+        String key = sort == ProductSort.NEWEST ? "createdAt" : "price";
+        boolean descending = sort != ProductSort.PRICE_ASC;
+        List<Predicate> where = active(cb, product, categoryId);
+        if (afterKey != null) {
+            where.add(after(cb, product, key, afterKey, afterId, descending));
+        }
+        query.select(product).where(where.toArray(Predicate[]::new)).orderBy(descending
+                ? List.of(cb.desc(product.get(key)), cb.desc(product.get("id")))
+                : List.of(cb.asc(product.get(key)), cb.asc(product.get("id"))));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public long countActive(Long categoryId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> product = query.from(Product.class);
+        query.select(cb.count(product)).where(active(cb, product, categoryId).toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static List<Predicate> active(CriteriaBuilder cb, Root<Product> product, Long categoryId) {
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.isTrue(product.get("isActive")));
+        if (categoryId != null) {
+            where.add(cb.equal(product.get("category").get("id"), categoryId));
+        }
+        return where;
+    }
+
+    // (key, id) past the cursor in the direction of the sort
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(CriteriaBuilder cb, Root<Product> product, String key, Comparable afterKey,
+                                   Long afterId, boolean descending) {
+        Path<Comparable> sortKey = product.get(key);
+        Path<Long> id = product.get("id");
+        Predicate sameKey = cb.equal(sortKey, afterKey);
+        return descending
+                ? cb.or(cb.lessThan(sortKey, afterKey), cb.and(sameKey, cb.lessThan(id, afterId)))
+                : cb.or(cb.greaterThan(sortKey, afterKey), cb.and(sameKey, cb.greaterThan(id, afterId)));
+    }
+}
@@ -0,0 +1,49 @@
+package com.project.repository;
+
+import com.project.entity.ProductRatingSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductRatingSummaryRepository extends JpaRepository<ProductRatingSummary, Long> {
+
+    List<ProductRatingSummary> findByProductIdIn(Collection<Long> productIds);
+
+    // Adds one review (sign = 1) or takes one away (sign = -1) in a single upsert; the row lock serializes
+    // concurrent reviews of the same product without a read-modify-write in Java
+    @Modifying
+    @Query(value = "INSERT INTO product_rating_summary " +
+                   "(product_id, review_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5, updated_at) " +
+                   "VALUES (:productId, :sign, :sign * :rating, " +
+                   "CASE WHEN :rating = 1 THEN :sign ELSE 0 END, CASE WHEN :rating = 2 THEN :sign ELSE 0 END, " +
+                   "CASE WHEN :rating = 3 THEN :sign ELSE 0 END, CASE WHEN :rating = 4 THEN :sign ELSE 0 END, " +
+                   "CASE WHEN :rating = 5 THEN :sign ELSE 0 END, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (product_id) DO UPDATE SET " +
+                   "review_count = product_rating_summary.review_count + EXCLUDED.review_count, " +
+                   "rating_sum = product_rating_summary.rating_sum + EXCLUDED.rating_sum, " +
+                   "stars_1 = product_rating_summary.stars_1 + EXCLUDED.stars_1, " +
+                   "stars_2 = product_rating_summary.stars_2 + EXCLUDED.stars_2, " +
+                   "stars_3 = product_rating_summary.stars_3 + EXCLUDED.stars_3, " +
+                   "stars_4 = product_rating_summary.stars_4 + EXCLUDED.stars_4, " +
+                   "stars_5 = product_rating_summary.stars_5 + EXCLUDED.stars_5, " +
+                   "updated_at = CURRENT_TIMESTAMP", nativeQuery = true)
+    int apply(@Param("productId") Long productId, @Param("rating") int rating, @Param("sign") int sign);
+
+    // One-off fill from product_reviews, for reviews written before the summary table existed
+    @Modifying
+    @Query(value = "INSERT INTO product_rating_summary " +
+                   "(product_id, review_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5, updated_at) " +
+                   "SELECT product_id, COUNT(*), SUM(rating), " +
+                   "COUNT(*) FILTER (WHERE rating = 1), COUNT(*) FILTER (WHERE rating = 2), " +
+                   "COUNT(*) FILTER (WHERE rating = 3), COUNT(*) FILTER (WHERE rating = 4), " +
+                   "COUNT(*) FILTER (WHERE rating = 5), CURRENT_TIMESTAMP " +
+                   "FROM product_reviews WHERE is_approved = true GROUP BY product_id " +
+                   "ON CONFLICT (product_id) DO NOTHING", nativeQuery = true)
+    int backfill();
+}
@@ -1,46 +1,125 @@
 package com.project.repository;
 
+import com.project.cart.CartProduct;
 import com.project.entity.Product;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductKeysetRepository {
 
-    @Query("SELECT p FROM Product p WHERE p.category.id = :categoryId AND p.isActive = true")
+    // Reads that end up in a ProductDto fetch the category with the product: the mapper needs its name
+    // and runs after the transaction (open-in-view is off)
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findById(Long id);
+    
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.category.id = :categoryId AND p.isActive = true")
     List<Product> findByCategoryIdAndIsActiveTrue(@Param("categoryId") Long categoryId);
     
-    @Query("SELECT p FROM Product p WHERE p.category.id = :categoryId")
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.category.id = :categoryId")
     List<Product> findByCategoryId(@Param("categoryId") Long categoryId);
     
-    @Query("SELECT p FROM Product p WHERE p.isActive = true")
+    @Query(value = "SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.category.id = :categoryId",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.category.id = :categoryId")
+    Page<Product> findByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+    
+    @Query(value = "SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.category.id = :categoryId AND p.isActive = true",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.category.id = :categoryId AND p.isActive = true")
+    Page<Product> findByCategoryIdAndIsActiveTrue(@Param("categoryId") Long categoryId, Pageable pageable);
+    
+    // Spelled out: Product.getCategoryId() makes a derived query resolve "categoryId" as a (transient) attribute
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.category.id = :categoryId")
+    long countByCategoryId(@Param("categoryId") Long categoryId);
+    
+    // Category subtree as a nested-set range (idx_categories_tree), no recursive walk. The interval is read
+    // from the root's row in the same statement, so a rebuild on another node is never seen half-applied.
+    @Query(value = "SELECT p FROM Product p JOIN FETCH p.category c, Category root WHERE root.id = :categoryId " +
+                   "AND p.isActive = true AND c.treeLeft BETWEEN root.treeLeft AND root.treeRight",
+           countQuery = "SELECT COUNT(p) FROM Product p JOIN p.category c, Category root WHERE root.id = :categoryId " +
+                   "AND p.isActive = true AND c.treeLeft BETWEEN root.treeLeft AND root.treeRight")
+    Page<Product> findActiveInSubtree(@Param("categoryId") Long categoryId, Pageable pageable);
+    
+    @Query("SELECT p.category.id, COUNT(p) FROM Product p WHERE p.isActive = true AND p.category IS NOT NULL " +
+           "GROUP BY p.category.id")
+    List<Object[]> countActiveByCategory();
+    
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.isActive = true")
     List<Product> findByIsActiveTrue();
     
-    @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.stockQuantity <= :threshold")
+    @Query(value = "SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.isActive = true",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.isActive = true")
+    Page<Product> findByIsActiveTrue(Pageable pageable);
+    
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.isActive = true AND p.stockQuantity <= :threshold")
     List<Product> findLowStockProducts(@Param("threshold") int threshold);
     
-    @Query("SELECT p FROM Product p WHERE " +
-           "(:searchTerm IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(p.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) AND " +
-           "(:categoryId IS NULL OR p.category.id = :categoryId) AND " +
-           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
-           "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
-           "p.isActive = true")
-    List<Product> searchProducts(
-        @Param("searchTerm") String searchTerm,
+    // Full-text search; the to_tsvector expression matches the idx_products_fts GIN index
+    @Query(value = "SELECT p.id FROM products p WHERE p.is_active = true AND " +
+           "(CAST(:tsQuery AS TEXT) IS NULL OR " +
+           "to_tsvector('english', coalesce(p.name, '') || ' ' || coalesce(p.description, '')) @@ to_tsquery('english', CAST(:tsQuery AS TEXT))) AND " +
+           "(CAST(:categoryId AS BIGINT) IS NULL OR p.category_id = :categoryId) AND " +
+           "(CAST(:minPrice AS NUMERIC) IS NULL OR p.price >= :minPrice) AND " +
+           "(CAST(:maxPrice AS NUMERIC) IS NULL OR p.price <= :maxPrice) " +
+           "ORDER BY ts_rank(to_tsvector('english', coalesce(p.name, '') || ' ' || coalesce(p.description, '')), " +
+           "to_tsquery('english', coalesce(CAST(:tsQuery AS TEXT), ''))) DESC, p.id DESC",
+           countQuery = "SELECT COUNT(*) FROM products p WHERE p.is_active = true AND " +
+           "(CAST(:tsQuery AS TEXT) IS NULL OR " +
+           "to_tsvector('english', coalesce(p.name, '') || ' ' || coalesce(p.description, '')) @@ to_tsquery('english', CAST(:tsQuery AS TEXT))) AND " +
+           "(CAST(:categoryId AS BIGINT) IS NULL OR p.category_id = :categoryId) AND " +
+           "(CAST(:minPrice AS NUMERIC) IS NULL OR p.price >= :minPrice) AND " +
+           "(CAST(:maxPrice AS NUMERIC) IS NULL OR p.price <= :maxPrice)",
+           nativeQuery = true)
+    Page<Long> fullTextSearchIds(
+        @Param("tsQuery") String tsQuery,
         @Param("categoryId") Long categoryId,
         @Param("minPrice") BigDecimal minPrice,
-        @Param("maxPrice") BigDecimal maxPrice
+        @Param("maxPrice") BigDecimal maxPrice,
+        Pageable pageable
     );
     
+    List<Product> findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.id IN :ids")
+    List<Product> findAllWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @EntityGraph(attributePaths = "category")
     Optional<Product> findBySku(String sku);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+    
+    // Conditional decrement: returns 0 instead of overselling
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity " +
+           "WHERE p.id = :id AND p.stockQuantity >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :delta WHERE p.id = :id")
+    int adjustStock(@Param("id") Long id, @Param("delta") int delta);
+    
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockQuantityById(@Param("id") Long id);
+    
+    @Query("SELECT new com.project.cart.CartProduct(p.id, p.name, p.sku, p.price, p.category.id) " +
+           "FROM Product p WHERE p.id IN :ids")
+    List<CartProduct> findCartProductsByIdIn(@Param("ids") Collection<Long> ids);
 }
 
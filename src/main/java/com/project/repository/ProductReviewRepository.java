@@ -1,14 +1,17 @@
 package com.project.repository;
 
 import com.project.entity.ProductReview;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductReviewRepository extends JpaRepository<ProductReview, Long> {
@@ -23,4 +26,9 @@ public interface ProductReviewRepository extends JpaRepository<ProductReview, Lo
     
     @Query("SELECT AVG(pr.rating) FROM ProductReview pr WHERE pr.product.id = :productId AND pr.isApproved = true")
     Double getAverageRating(@Param("productId") Long productId);
+    
+    // Changes that move the rating summary lock the review, so two of them cannot both start from the old rating
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT pr FROM ProductReview pr JOIN FETCH pr.product WHERE pr.id = :id")
+    Optional<ProductReview> findByIdForUpdate(@Param("id") Long id);
 }
@@ -0,0 +1,34 @@
+package com.project.repository;
+
+import com.project.entity.QueuedMail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface QueuedMailRepository extends JpaRepository<QueuedMail, Long> {
+
+    @Query("SELECT m FROM QueuedMail m WHERE m.sentAt IS NULL AND m.nextAttemptAt <= :now ORDER BY m.id")
+    List<QueuedMail> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    boolean existsByDedupKey(String dedupKey);
+
+    @Modifying
+    @Query("UPDATE QueuedMail m SET m.sentAt = :sentAt WHERE m.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("DELETE FROM QueuedMail m WHERE m.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM QueuedMail m WHERE m.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
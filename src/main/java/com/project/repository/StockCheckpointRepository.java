@@ -0,0 +1,33 @@
+package com.project.repository;
+
+import com.project.entity.StockCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockCheckpointRepository extends JpaRepository<StockCheckpoint, Long> {
+
+    // Checkpoints are only written by the compaction holding the advisory lock, so a higher id is newer
+    Optional<StockCheckpoint> findFirstByProductIdOrderByIdDesc(Long productId);
+    
+    // Exactly one row per product
+    @Query("SELECT c FROM StockCheckpoint c WHERE c.product.id IN :productIds AND NOT EXISTS " +
+           "(SELECT 1 FROM StockCheckpoint c2 WHERE c2.product.id = c.product.id AND c2.id > c.id)")
+    List<StockCheckpoint> findLatestByProductIdIn(@Param("productIds") Collection<Long> productIds);
+    
+    // Transaction-scoped, so it is released when the compaction commits or rolls back
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryLockCompaction(@Param("key") long key);
+    
+    @Modifying
+    @Query("DELETE FROM StockCheckpoint c WHERE EXISTS " +
+           "(SELECT 1 FROM StockCheckpoint c2 WHERE c2.product.id = c.product.id AND c2.id > c.id)")
+    int deleteSuperseded();
+}
@@ -0,0 +1,14 @@
+package com.project.repository;
+
+import com.project.enums.UserType;
+
+import java.time.LocalDateTime;
+
+// Admin directory filters; a null field is not filtered on. The email pattern is an escaped, lower-case
+// prefix ending in '%' (see UserDirectoryService.filter).
+public record UserDirectoryFilter(UserType userType,
+                                  Boolean isActive,
+                                  LocalDateTime createdFrom,
+                                  LocalDateTime createdTo,
+                                  String emailPattern) {
+}
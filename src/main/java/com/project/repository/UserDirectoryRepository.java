@@ -0,0 +1,20 @@
+package com.project.repository;
+
+import com.project.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Admin directory queries, newest first. Implemented with the Criteria API so the WHERE clause holds only
+// the filters that were supplied.
+public interface UserDirectoryRepository {
+
+    // Keyset pagination; afterCreatedAt and afterId are both null for the first page
+    List<User> findDirectory(UserDirectoryFilter filter, LocalDateTime afterCreatedAt, Long afterId, int limit);
+
+    // Forward-only cursor for exports; must be consumed and closed inside a transaction
+    Stream<User> streamDirectory(UserDirectoryFilter filter);
+
+    long countDirectory(UserDirectoryFilter filter);
+}
@@ -0,0 +1,88 @@
+package com.project.repository;
+
+import com.project.entity.User;
+import com.project.export.EntityExporter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Each combination of filters becomes its own statement. A catch-all "(:x IS NULL OR u.x = :x)" predicate
+// is one statement for every combination, and the generic plan Postgres settles on for it cannot use the
+// (created_at, id), (user_type, is_active, created_at, id) or lower(email) text_pattern_ops indexes.
+@RequiredArgsConstructor
+public class UserDirectoryRepositoryImpl implements UserDirectoryRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<User> findDirectory(UserDirectoryFilter filter, LocalDateTime afterCreatedAt, Long afterId,
+                                    int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<User> query = cb.createQuery(User.class);
+        Root<User> user = query.from(User.class);
+        List<Predicate> where = filters(cb, user, filter);
+        if (afterCreatedAt != null) {
+            Path<LocalDateTime> createdAt = user.get("createdAt");
+            where.add(cb.or(cb.lessThan(createdAt, afterCreatedAt),
+                    cb.and(cb.equal(createdAt, afterCreatedAt), cb.lessThan(user.get("id"), afterId))));
+        }
+        query.select(user).where(where.toArray(Predicate[]::new)).orderBy(newestFirst(cb, user));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<User> streamDirectory(UserDirectoryFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<User> query = cb.createQuery(User.class);
+        Root<User> user = query.from(User.class);
+        query.select(user).where(filters(cb, user, filter).toArray(Predicate[]::new)).orderBy(newestFirst(cb, user));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.parseInt(EntityExporter.FETCH_SIZE))
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public long countDirectory(UserDirectoryFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<User> user = query.from(User.class);
+        query.select(cb.count(user)).where(filters(cb, user, filter).toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static List<Predicate> filters(CriteriaBuilder cb, Root<User> user, UserDirectoryFilter filter) {
+        List<Predicate> where = new ArrayList<>();
+        if (filter.userType() != null) {
+            where.add(cb.equal(user.get("userType"), filter.userType()));
+        }
+        if (filter.isActive() != null) {
+            where.add(cb.equal(user.get("isActive"), filter.isActive()));
+        }
+        if (filter.createdFrom() != null) {
+            where.add(cb.greaterThanOrEqualTo(user.get("createdAt"), filter.createdFrom()));
+        }
+        if (filter.createdTo() != null) {
+            where.add(cb.lessThan(user.get("createdAt"), filter.createdTo()));
+        }
+        if (filter.emailPattern() != null) {
+            where.add(cb.like(cb.lower(user.get("email")), filter.emailPattern(), '!'));
+        }
+        return where;
+    }
+
+    private static List<Order> newestFirst(CriteriaBuilder cb, Root<User> user) {
+        return List.of(cb.desc(user.get("createdAt")), cb.desc(user.get("id")));
+    }
+}
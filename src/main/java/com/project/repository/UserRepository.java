@@ -1,22 +1,34 @@
 package com.project.repository;
 
 import com.project.entity.User;
-import com.project.enums.UserType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
-    
+public interface UserRepository extends JpaRepository<User, Long>, UserDirectoryRepository {
+
     Optional<User> findByEmail(String email);
     
     Boolean existsByEmail(String email);
-    
+
+    @Query("SELECT u.id FROM User u WHERE u.isActive = false")
+    List<Long> findInactiveUserIds();
+
+    long countByIsActiveTrue();
+
+    // [userType, isActive, count]
+    @Query("SELECT u.userType, u.isActive, COUNT(u) FROM User u GROUP BY u.userType, u.isActive")
+    List<Object[]> countByTypeAndStatus();
+
+    // Single-row UPDATE by primary key; @UpdateTimestamp does not apply to bulk updates
+    @Modifying
+    @Query("UPDATE User u SET u.isActive = :isActive, u.updatedAt = CURRENT_TIMESTAMP WHERE u.id = :id")
+    int updateActive(@Param("id") Long id, @Param("isActive") boolean isActive);
 
 }
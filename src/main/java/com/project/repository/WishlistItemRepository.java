@@ -1,8 +1,12 @@
 package com.project.repository;
 
+import com.project.dto.WishlistItemDto;
+import com.project.entity.Product;
 import com.project.entity.WishlistItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,6 +16,18 @@ import java.util.Optional;
 public interface WishlistItemRepository extends JpaRepository<WishlistItem, Long> {
 
     List<WishlistItem> findByUserId(Long userId);
+
+    @Query("SELECT new com.project.dto.WishlistItemDto(w.id, p.id, p.name, p.sku, p.price, p.isActive, w.createdAt) " +
+           "FROM WishlistItem w JOIN w.product p WHERE w.user.id = :userId ORDER BY w.createdAt DESC, w.id DESC")
+    List<WishlistItemDto> findDtosByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.project.dto.WishlistItemDto(w.id, p.id, p.name, p.sku, p.price, p.isActive, w.createdAt) " +
+           "FROM WishlistItem w JOIN w.product p WHERE p.id = :productId ORDER BY w.createdAt DESC, w.id DESC")
+    List<WishlistItemDto> findDtosByProductId(@Param("productId") Long productId);
+
+    @Query("SELECT p FROM WishlistItem w JOIN w.product p LEFT JOIN FETCH p.category " +
+           "WHERE w.user.id = :userId ORDER BY w.createdAt DESC, w.id DESC")
+    List<Product> findProductsByUserId(@Param("userId") Long userId);
     
     List<WishlistItem> findByProductId(Long productId);
     
@@ -0,0 +1,289 @@
+package com.project.search;
+
+import com.project.entity.Product;
+import com.project.util.PaginatedResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Single node only: the index lives in this JVM and is kept current by local ProductChangedEvents, so
+// product changes made on other nodes never reach it. Multi-node deployments use the postgres engine.
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "memory")
+@Slf4j
+public class InMemoryProductSearchEngine implements ProductSearchEngine {
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // A name hit counts as this many description hits
+    private static final int NAME_WEIGHT = 3;
+
+    private static final long NO_CATEGORY = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (docId -> weighted term frequency); sorted so prefixes are a sub-map
+    private final NavigableMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Integer> docIdByProductId = new HashMap<>();
+    private final Map<Long, BitSet> docsByCategory = new HashMap<>();
+    private final BitSet liveDocs = new BitSet();
+    private final Deque<Integer> freeDocIds = new ArrayDeque<>();
+
+    // Per-document columns, indexed by docId
+    private long[] productIds = new long[INITIAL_CAPACITY];
+    private long[] categoryIds = new long[INITIAL_CAPACITY];
+    private double[] prices = new double[INITIAL_CAPACITY];
+    private int[] docLengths = new int[INITIAL_CAPACITY];
+    private String[][] docTerms = new String[INITIAL_CAPACITY][];
+    private int maxDoc;
+    private long totalLength;
+
+    @Override
+    public PaginatedResult<Long> search(ProductSearchQuery query) {
+        List<String> tokens = SearchTokenizer.tokenize(query.getText());
+
+        lock.readLock().lock();
+        try {
+            BitSet candidates = (BitSet) liveDocs.clone();
+
+            if (query.getCategoryId() != null) {
+                BitSet inCategory = docsByCategory.get(query.getCategoryId());
+                if (inCategory == null) {
+                    return new PaginatedResult<>(List.of(), 0, query.getPage(), query.getSize());
+                }
+                candidates.and(inCategory);
+            }
+            if (query.getMinPrice() != null || query.getMaxPrice() != null) {
+                applyPriceFilter(candidates, query);
+            }
+
+            // Only matched documents get a score, so a query costs what it matches rather than the index size
+            Map<Integer, Float> scores = tokens.isEmpty() ? Map.of() : new HashMap<>();
+            if (!tokens.isEmpty()) {
+                int docCount = liveDocs.cardinality();
+                double avgLength = docCount == 0 ? 1.0 : (double) totalLength / docCount;
+
+                // Every query token must match (by prefix); scores add up across tokens
+                for (String token : tokens) {
+                    BitSet matched = new BitSet(maxDoc);
+                    for (Map<Integer, Integer> docs : postings.subMap(token, true, token + Character.MAX_VALUE, true).values()) {
+                        double idf = Math.log(1 + (docCount - docs.size() + 0.5) / (docs.size() + 0.5));
+                        for (Map.Entry<Integer, Integer> entry : docs.entrySet()) {
+                            int doc = entry.getKey();
+                            if (!candidates.get(doc)) {
+                                continue;
+                            }
+                            int tf = entry.getValue();
+                            double norm = tf + K1 * (1 - B + B * docLengths[doc] / avgLength);
+                            scores.merge(doc, (float) (idf * tf * (K1 + 1) / norm), Float::sum);
+                            matched.set(doc);
+                        }
+                    }
+                    candidates.and(matched);
+                    if (candidates.isEmpty()) {
+                        break;
+                    }
+                }
+            }
+
+            int total = candidates.cardinality();
+            int from = query.getPage() * query.getSize();
+            if (from >= total) {
+                return new PaginatedResult<>(List.of(), total, query.getPage(), query.getSize());
+            }
+
+            List<Long> ids = topProductIds(candidates, scores, from, from + query.getSize());
+            return new PaginatedResult<>(ids, total, query.getPage(), query.getSize());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Product product) {
+        if (!Boolean.TRUE.equals(product.getIsActive())) {
+            remove(product.getId());
+            return;
+        }
+
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        addTokens(termFrequencies, product.getName(), NAME_WEIGHT);
+        addTokens(termFrequencies, product.getDescription(), 1);
+        int length = termFrequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = docIdByProductId.get(product.getId());
+            int doc;
+            if (existing != null) {
+                unindex(existing);
+                doc = existing;
+            } else {
+                doc = freeDocIds.isEmpty() ? maxDoc++ : freeDocIds.pop();
+                ensureCapacity(doc + 1);
+                docIdByProductId.put(product.getId(), doc);
+            }
+
+            long categoryId = product.getCategoryId() != null ? product.getCategoryId() : NO_CATEGORY;
+            productIds[doc] = product.getId();
+            categoryIds[doc] = categoryId;
+            prices[doc] = product.getPrice() != null ? product.getPrice().doubleValue() : 0.0;
+            docLengths[doc] = length;
+            docTerms[doc] = termFrequencies.keySet().toArray(String[]::new);
+
+            termFrequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(doc, tf));
+            if (categoryId != NO_CATEGORY) {
+                docsByCategory.computeIfAbsent(categoryId, c -> new BitSet()).set(doc);
+            }
+            liveDocs.set(doc);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docIdByProductId.remove(productId);
+            if (doc != null) {
+                unindex(doc);
+                freeDocIds.push(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docIdByProductId.clear();
+            docsByCategory.clear();
+            liveDocs.clear();
+            freeDocIds.clear();
+            Arrays.fill(docTerms, null);
+            maxDoc = 0;
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean requiresIndexing() {
+        return true;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller must hold the write lock
+    private void unindex(int doc) {
+        String[] terms = docTerms[doc];
+        if (terms != null) {
+            for (String term : terms) {
+                Map<Integer, Integer> docs = postings.get(term);
+                if (docs != null) {
+                    docs.remove(doc);
+                    if (docs.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+        if (categoryIds[doc] != NO_CATEGORY) {
+            BitSet inCategory = docsByCategory.get(categoryIds[doc]);
+            if (inCategory != null) {
+                inCategory.clear(doc);
+            }
+        }
+        if (liveDocs.get(doc)) {
+            totalLength -= docLengths[doc];
+        }
+        liveDocs.clear(doc);
+        docTerms[doc] = null;
+    }
+
+    // Checks only the documents left after the category filter, not every live document
+    private void applyPriceFilter(BitSet candidates, ProductSearchQuery query) {
+        double min = query.getMinPrice() != null ? query.getMinPrice().doubleValue() : Double.NEGATIVE_INFINITY;
+        double max = query.getMaxPrice() != null ? query.getMaxPrice().doubleValue() : Double.POSITIVE_INFINITY;
+        for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+            if (prices[doc] < min || prices[doc] > max) {
+                candidates.clear(doc);
+            }
+        }
+    }
+
+    private List<Long> topProductIds(BitSet candidates, Map<Integer, Float> scores, int from, int to) {
+        // Best score first, newest product id breaks ties
+        Comparator<Integer> ranking = (a, b) -> {
+            int byScore = Float.compare(scores.getOrDefault(b, 0f), scores.getOrDefault(a, 0f));
+            return byScore != 0 ? byScore : Long.compare(productIds[b], productIds[a]);
+        };
+
+        // Bounded heap with the worst of the current top-k at its head
+        PriorityQueue<Integer> heap = new PriorityQueue<>(to, ranking.reversed());
+        for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+            if (heap.size() < to) {
+                heap.offer(doc);
+            } else if (ranking.compare(doc, heap.peek()) < 0) {
+                heap.poll();
+                heap.offer(doc);
+            }
+        }
+
+        List<Integer> top = new ArrayList<>(heap);
+        top.sort(ranking);
+        List<Long> ids = new ArrayList<>(Math.max(0, top.size() - from));
+        for (int i = from; i < top.size(); i++) {
+            ids.add(productIds[top.get(i)]);
+        }
+        return ids;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= productIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, productIds.length * 2);
+        productIds = Arrays.copyOf(productIds, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        docLengths = Arrays.copyOf(docLengths, capacity);
+        docTerms = Arrays.copyOf(docTerms, capacity);
+    }
+
+    private static void addTokens(Map<String, Integer> termFrequencies, String text, int weight) {
+        for (String token : SearchTokenizer.tokenize(text)) {
+            termFrequencies.merge(token, weight, Integer::sum);
+        }
+    }
+}
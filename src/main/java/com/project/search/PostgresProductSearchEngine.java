@@ -0,0 +1,80 @@
+package com.project.search;
+
+import com.project.entity.Product;
+import com.project.repository.ProductRepository;
+import com.project.util.PaginatedResult;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "postgres", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class PostgresProductSearchEngine implements ProductSearchEngine {
+
+    // Must stay identical to the expression used in ProductRepository.fullTextSearchIds
+    private static final String DOCUMENT =
+            "to_tsvector('english', coalesce(name, '') || ' ' || coalesce(description, ''))";
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void createIndex() {
+        // ddl-auto cannot express a GIN index on an expression
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_products_fts ON products USING GIN (" + DOCUMENT + ")");
+        log.info("Full-text search backed by PostgreSQL GIN index idx_products_fts");
+    }
+
+    @Override
+    public PaginatedResult<Long> search(ProductSearchQuery query) {
+        Page<Long> ids = productRepository.fullTextSearchIds(
+                toTsQuery(query.getText()),
+                query.getCategoryId(),
+                query.getMinPrice(),
+                query.getMaxPrice(),
+                PageRequest.of(query.getPage(), query.getSize())
+        );
+        return new PaginatedResult<>(ids.getContent(), ids.getTotalElements(), query.getPage(), query.getSize());
+    }
+
+    @Override
+    public void index(Product product) {
+        // Maintained by PostgreSQL
+    }
+
+    @Override
+    public void remove(Long productId) {
+        // Maintained by PostgreSQL
+    }
+
+    @Override
+    public void clear() {
+        // Maintained by PostgreSQL
+    }
+
+    @Override
+    public boolean requiresIndexing() {
+        return false;
+    }
+
+    // "red run" -> "red:* & run:*" (prefix match on every term)
+    private static String toTsQuery(String text) {
+        List<String> tokens = SearchTokenizer.tokenize(text);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        return tokens.stream()
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
@@ -0,0 +1,20 @@
+package com.project.search;
+
+import com.project.entity.Product;
+import com.project.util.PaginatedResult;
+
+public interface ProductSearchEngine {
+
+    // Returns matching product ids, best match first
+    PaginatedResult<Long> search(ProductSearchQuery query);
+
+    // Adds or replaces a product; inactive products are dropped from the index
+    void index(Product product);
+
+    void remove(Long productId);
+
+    void clear();
+
+    // False when the backend keeps itself in sync (e.g. a database index)
+    boolean requiresIndexing();
+}
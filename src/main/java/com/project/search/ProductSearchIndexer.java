@@ -0,0 +1,55 @@
+package com.project.search;
+
+import com.project.entity.Product;
+import com.project.event.ProductChangedEvent;
+import com.project.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchIndexer {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final ProductSearchEngine productSearchEngine;
+    private final ProductRepository productRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!productSearchEngine.requiresIndexing()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        productSearchEngine.clear();
+
+        long lastId = 0;
+        int indexed = 0;
+        List<Product> batch;
+        do {
+            batch = productRepository.findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, BATCH_SIZE));
+            for (Product product : batch) {
+                productSearchEngine.index(product);
+                lastId = product.getId();
+            }
+            indexed += batch.size();
+        } while (batch.size() == BATCH_SIZE);
+
+        log.info("Indexed {} products for search in {} ms", indexed, System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (productSearchEngine.requiresIndexing()) {
+            productSearchEngine.index(event.getProduct());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.project.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+@Getter
+@AllArgsConstructor
+public class ProductSearchQuery {
+    private final String text;
+    private final Long categoryId;
+    private final BigDecimal minPrice;
+    private final BigDecimal maxPrice;
+    private final int page;
+    private final int size;
+}
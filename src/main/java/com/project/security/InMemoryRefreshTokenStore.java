@@ -0,0 +1,86 @@
+package com.project.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Single-node store for development; state is lost on restart, which just forces a new login
+@Component
+@ConditionalOnProperty(name = "app.auth.refresh-store", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private static final int SHARDS = 16;
+
+    private record Entry(RefreshTokenRecord record, AtomicBoolean used) {
+    }
+
+    @SuppressWarnings("unchecked")
+    private final Map<String, Entry>[] shards = new Map[SHARDS];
+
+    // family id -> when the revocation can be forgotten (all its tokens have expired by then)
+    private final Map<String, Instant> revokedFamilies = new ConcurrentHashMap<>();
+
+    @Value("${jwt.expiration.refresh:86400}")
+    private long refreshTokenExpiration;
+
+    public InMemoryRefreshTokenStore() {
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    @Override
+    public void save(RefreshTokenRecord record) {
+        shard(record.getTokenHash()).put(record.getTokenHash(), new Entry(record, new AtomicBoolean()));
+    }
+
+    @Override
+    public Optional<RefreshTokenRecord> find(String tokenHash) {
+        Entry entry = shard(tokenHash).get(tokenHash);
+        return entry != null ? Optional.of(entry.record()) : Optional.empty();
+    }
+
+    @Override
+    public boolean markUsed(String tokenHash) {
+        Entry entry = shard(tokenHash).get(tokenHash);
+        return entry != null && entry.used().compareAndSet(false, true);
+    }
+
+    @Override
+    public void revokeFamily(String familyId) {
+        revokedFamilies.put(familyId, Instant.now().plusSeconds(refreshTokenExpiration));
+    }
+
+    @Override
+    public boolean isFamilyRevoked(String familyId) {
+        return revokedFamilies.containsKey(familyId);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int removed = 0;
+        for (Map<String, Entry> shard : shards) {
+            int before = shard.size();
+            shard.values().removeIf(entry -> entry.record().isExpired(now));
+            removed += before - shard.size();
+        }
+        revokedFamilies.values().removeIf(forgetAt -> forgetAt.isBefore(now));
+        if (removed > 0) {
+            log.debug("Purged {} expired refresh tokens", removed);
+        }
+    }
+
+    private Map<String, Entry> shard(String tokenHash) {
+        return shards[Math.floorMod(tokenHash.hashCode(), SHARDS)];
+    }
+}
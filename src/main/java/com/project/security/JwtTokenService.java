@@ -1,18 +1,26 @@
 package com.project.security;
 
-import com.project.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import javax.crypto.SecretKey;
 import io.jsonwebtoken.io.Decoders;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -28,9 +36,33 @@ public class JwtTokenService {
     @Value("${jwt.issuer}")
     private String issuer;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @Value("${jwt.verified-cache.size:10000}")
+    private long verifiedCacheSize;
+
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    // Built once; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Signature -> already verified token, so repeat requests skip the HMAC and JSON parse
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    private record VerifiedToken(String token, UserPrincipal principal, String tokenId,
+                                 Date issuedAt, Date expiresAt) {
+    }
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfterWrite(Duration.ofSeconds(accessTokenExpiration))
+                .build();
     }
 
     public String generateToken(UserPrincipal userPrincipal) {
@@ -43,8 +75,43 @@ public class JwtTokenService {
         return createToken(claims, userPrincipal.getUsername(), accessTokenExpiration);
     }
 
+    // Verifies the token once and builds the principal from its claims, without touching the database.
+    // Returns null when the token is invalid, expired or revoked.
+    public UserPrincipal authenticate(String token) {
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        VerifiedToken verified = verifiedTokens.getIfPresent(signature);
+
+        // The signature alone does not pin the payload, so a hit must be the exact same token
+        if (verified == null || !verified.token().equals(token)) {
+            Claims claims;
+            try {
+                claims = parser.parseSignedClaims(token).getPayload();
+            } catch (JwtException | IllegalArgumentException e) {
+                return null;
+            }
+            verified = new VerifiedToken(token, principalFromClaims(claims), claims.getId(),
+                    claims.getIssuedAt(), claims.getExpiration());
+            verifiedTokens.put(signature, verified);
+        }
 
+        if (verified.expiresAt() == null || verified.expiresAt().before(new Date())) {
+            verifiedTokens.invalidate(signature);
+            return null;
+        }
+        if (tokenDenylist.isRevoked(verified.tokenId(), verified.principal().getId(), verified.issuedAt())) {
+            return null;
+        }
+        return verified.principal();
+    }
 
+    public void revokeToken(String token) {
+        try {
+            Claims claims = getClaimsFromToken(token);
+            tokenDenylist.revokeToken(claims.getId(), claims.getExpiration());
+        } catch (JwtException | IllegalArgumentException e) {
+            // Invalid or expired tokens are already unusable
+        }
+    }
 
     public String getUsernameFromToken(String token) {
         return getClaimFromToken(token, Claims::getSubject);
@@ -55,34 +122,18 @@ public class JwtTokenService {
     }
 
     public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = getAllClaimsFromToken(token);
+        final Claims claims = getClaimsFromToken(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith((SecretKey) getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
-    }
-
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = getClaimsFromToken(token);
+        return claims.getSubject().equals(userDetails.getUsername()) && claims.getExpiration().after(new Date());
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith((SecretKey) getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
+            parser.parseSignedClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
@@ -90,11 +141,7 @@ public class JwtTokenService {
     }
 
     public Claims getClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith((SecretKey) getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public String getEmailFromToken(String token) {
@@ -106,23 +153,28 @@ public class JwtTokenService {
         return claims.get("id", Long.class);
     }
 
- /*   public boolean isTokenExpired(String token) {
-        Date expiration = getClaimsFromToken(token).getExpiration();
-        return expiration.before(new Date());
-    }
-*/
     public String getTokenTypeFromToken(String token) {
         return getClaimsFromToken(token).get("type", String.class);
     }
 
+    private UserPrincipal principalFromClaims(Claims claims) {
+        Number id = claims.get("id", Number.class);
+        Collection<?> roles = claims.get("roles", Collection.class);
+        List<SimpleGrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+                .map(role -> new SimpleGrantedAuthority(role.toString()))
+                .toList();
+        return new UserPrincipal(id != null ? id.longValue() : null, claims.getSubject(), null, authorities);
+    }
+
     private String createToken(Map<String, Object> claims, String subject, long expirationTime) {
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
                 .setIssuer(issuer)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expirationTime * 1000))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
-}
\ No newline at end of file
+}
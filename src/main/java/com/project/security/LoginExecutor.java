@@ -0,0 +1,60 @@
+package com.project.security;
+
+import com.project.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Runs password hashing (login, registration) off the servlet threads. The pool and its queue are
+// bounded, so a login storm is turned away with 429 instead of tying up Tomcat workers that the
+// catalog needs.
+@Component
+public class LoginExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public LoginExecutor(@Value("${app.security.login-executor.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int threads,
+                         @Value("${app.security.login-executor.queue-capacity:100}") int queueCapacity,
+                         MeterRegistry meterRegistry) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("login-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.executor.queue.depth", executor, e -> e.getQueue().size())
+                .description("Login/registration tasks waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.executor.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashing threads currently busy")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.executor.rejected")
+                .description("Login/registration attempts rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many login attempts in progress, please retry shortly");
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
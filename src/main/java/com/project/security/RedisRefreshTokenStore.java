@@ -0,0 +1,76 @@
+package com.project.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Shared store for multi-node deployments; Redis key expiry does the purging
+@Component
+@ConditionalOnProperty(name = "app.auth.refresh-store", havingValue = "redis")
+@RequiredArgsConstructor
+public class RedisRefreshTokenStore implements RefreshTokenStore {
+
+    private static final String TOKEN_PREFIX = "auth:refresh:";
+    private static final String FAMILY_PREFIX = "auth:refresh-family:";
+
+    // HSETNX is atomic, so only one of two concurrent refreshes wins; the EXISTS guard keeps it
+    // from recreating a key that expired in the meantime (without a TTL)
+    private static final RedisScript<Long> MARK_USED = RedisScript.of(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return redis.call('HSETNX', KEYS[1], 'used', '1') end return 0",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${jwt.expiration.refresh:86400}")
+    private long refreshTokenExpiration;
+
+    @Override
+    public void save(RefreshTokenRecord record) {
+        String key = TOKEN_PREFIX + record.getTokenHash();
+        redisTemplate.opsForHash().putAll(key, Map.of(
+                "familyId", record.getFamilyId(),
+                "userId", record.getUserId().toString(),
+                "expiresAt", Long.toString(record.getExpiresAt().getEpochSecond())
+        ));
+        redisTemplate.expireAt(key, record.getExpiresAt());
+    }
+
+    @Override
+    public Optional<RefreshTokenRecord> find(String tokenHash) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(TOKEN_PREFIX + tokenHash);
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new RefreshTokenRecord(
+                tokenHash,
+                (String) fields.get("familyId"),
+                Long.valueOf((String) fields.get("userId")),
+                Instant.ofEpochSecond(Long.parseLong((String) fields.get("expiresAt")))
+        ));
+    }
+
+    @Override
+    public boolean markUsed(String tokenHash) {
+        Long result = redisTemplate.execute(MARK_USED, List.of(TOKEN_PREFIX + tokenHash));
+        return result != null && result == 1L;
+    }
+
+    @Override
+    public void revokeFamily(String familyId) {
+        redisTemplate.opsForValue().set(FAMILY_PREFIX + familyId, "1", Duration.ofSeconds(refreshTokenExpiration));
+    }
+
+    @Override
+    public boolean isFamilyRevoked(String familyId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(FAMILY_PREFIX + familyId));
+    }
+}
@@ -0,0 +1,21 @@
+package com.project.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class RefreshTokenRecord {
+    // SHA-256 of the opaque token; the raw value is never stored
+    private final String tokenHash;
+    // All tokens rotated from the same login share a family
+    private final String familyId;
+    private final Long userId;
+    private final Instant expiresAt;
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,18 @@
+package com.project.security;
+
+import java.util.Optional;
+
+public interface RefreshTokenStore {
+
+    void save(RefreshTokenRecord record);
+
+    Optional<RefreshTokenRecord> find(String tokenHash);
+
+    // Atomically flags the token as used. Returns false if it had already been used,
+    // which means a rotated-out token was presented again.
+    boolean markUsed(String tokenHash);
+
+    void revokeFamily(String familyId);
+
+    boolean isFamilyRevoked(String familyId);
+}
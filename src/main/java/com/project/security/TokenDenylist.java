@@ -0,0 +1,68 @@
+package com.project.security;
+
+import com.project.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Access tokens that must stop working before they expire: single tokens (logout) and every
+// token of a user issued up to a point in time (deactivation). Entries only need to live as long
+// as the tokens they cover, so the list stays small.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenDenylist {
+
+    private final UserRepository userRepository;
+
+    @Value("${jwt.expiration.access:3600}")
+    private long accessTokenExpiration;
+
+    // token id (jti) -> token expiry, epoch seconds
+    private final ConcurrentHashMap<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    // user id -> tokens issued at or before this instant are rejected, epoch seconds
+    private final ConcurrentHashMap<Long, Long> revokedUsers = new ConcurrentHashMap<>();
+
+    public void revokeToken(String tokenId, Date expiresAt) {
+        if (tokenId != null && expiresAt != null) {
+            revokedTokens.put(tokenId, expiresAt.getTime() / 1000);
+        }
+    }
+
+    public void revokeUser(Long userId) {
+        revokedUsers.put(userId, Instant.now().getEpochSecond());
+    }
+
+    public boolean isRevoked(String tokenId, Long userId, Date issuedAt) {
+        if (tokenId != null && revokedTokens.containsKey(tokenId)) {
+            return true;
+        }
+        Long revokedAt = userId != null ? revokedUsers.get(userId) : null;
+        // iat has second precision, so a token issued in the same second is rejected too
+        return revokedAt != null && (issuedAt == null || issuedAt.getTime() / 1000 <= revokedAt);
+    }
+
+    // Tokens issued before a restart are still valid, so re-deny users deactivated meanwhile
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInactiveUsers() {
+        long now = Instant.now().getEpochSecond();
+        userRepository.findInactiveUserIds().forEach(id -> revokedUsers.put(id, now));
+        log.info("Token denylist seeded with {} inactive users", revokedUsers.size());
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeExpired() {
+        long now = Instant.now().getEpochSecond();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < now);
+        revokedUsers.values().removeIf(revokedAt -> revokedAt + accessTokenExpiration < now);
+    }
+}
@@ -18,6 +18,7 @@ public class UserPrincipal implements UserDetails {
     @JsonIgnore
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
+    private boolean enabled = true;
 
     public UserPrincipal(Long id, String email, String password,
                         Collection<? extends GrantedAuthority> authorities) {
@@ -27,12 +28,19 @@ public class UserPrincipal implements UserDetails {
         this.authorities = authorities;
     }
 
+    public UserPrincipal(Long id, String email, String password,
+                        Collection<? extends GrantedAuthority> authorities, boolean enabled) {
+        this(id, email, password, authorities);
+        this.enabled = enabled;
+    }
+
     public static UserPrincipal create(User user) {
         return new UserPrincipal(
                 user.getId(),
                 user.getEmail(),
                 user.getPasswordHash(),
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getUserType()))
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getUserType())),
+                !Boolean.FALSE.equals(user.getIsActive())
         );
     }
 
@@ -72,7 +80,7 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return true;
+        return enabled;
     }
 
     @Override
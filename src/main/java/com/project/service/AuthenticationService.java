@@ -2,21 +2,30 @@ package com.project.service;
 
 import com.project.dto.AuthenticationResponse;
 import com.project.dto.LoginRequest;
+import com.project.dto.RefreshTokenRequest;
 import com.project.dto.RegisterRequest;
+import com.project.dto.UserProfileDto;
 import com.project.entity.User;
 import com.project.enums.UserType;
 import com.project.exception.AppException;
+import com.project.exception.TokenRefreshException;
+import com.project.mapper.UserMapper;
 import com.project.repository.UserRepository;
 import com.project.security.JwtTokenService;
+import com.project.security.LoginExecutor;
+import com.project.security.RefreshTokenRecord;
 import com.project.security.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class AuthenticationService {
@@ -33,42 +42,101 @@ public class AuthenticationService {
     @Autowired
     private AuthenticationManager authenticationManager;
 
-    @Transactional
-    public User register(RegisterRequest registerRequest) {
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private LoginExecutor loginExecutor;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    // Hashing runs on the login executor; the servlet thread is released until it completes
+    public CompletableFuture<UserProfileDto> register(RegisterRequest registerRequest) {
+        // Cheap check first, so duplicates never cost a hash
         if (userRepository.existsByEmail(registerRequest.getEmail())) {
             throw new AppException("Email is already taken!");
         }
 
-        User user = new User();
-        user.setFirstName(registerRequest.getFirstName());
-        user.setLastName(registerRequest.getLastName());
-        user.setEmail(registerRequest.getEmail());
-        user.setPasswordHash(passwordEncoder.encode(registerRequest.getPassword()));
-        user.setPhone(registerRequest.getPhone());
-        user.setUserType(UserType.USER);
-        user.setIsActive(true);
-        
-        return userRepository.save(user);
+        return loginExecutor.submit(() -> {
+            User user = new User();
+            user.setFirstName(registerRequest.getFirstName());
+            user.setLastName(registerRequest.getLastName());
+            user.setEmail(registerRequest.getEmail());
+            user.setPasswordHash(passwordEncoder.encode(registerRequest.getPassword()));
+            user.setPhone(registerRequest.getPhone());
+            user.setUserType(UserType.USER);
+            user.setIsActive(true);
+
+            return userMapper.toDto(userRepository.save(user));
+        });
     }
 
-    @Transactional
-    public AuthenticationResponse authenticate(LoginRequest loginRequest) {
+    public CompletableFuture<AuthenticationResponse> authenticate(LoginRequest loginRequest) {
+        return loginExecutor.submit(() -> login(loginRequest));
+    }
+
+    private AuthenticationResponse login(LoginRequest loginRequest) {
+        // Password check, plus a re-hash when the stored hash is outdated
         Authentication authentication = authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(
                 loginRequest.getEmail(),
                 loginRequest.getPassword())
         );
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         String accessToken = jwtTokenService.generateToken(userPrincipal);
+        String refreshToken = refreshTokenService.issue(userPrincipal.getId());
 
-        return new AuthenticationResponse(
-            accessToken,
-            userPrincipal.getId(),
-            userPrincipal.getUsername(),
-            userPrincipal.getAuthorities()
-        );
+        return buildResponse(userPrincipal, accessToken, refreshToken, "Login successful");
+    }
+
+    // Rotates the refresh token; no password check, so BCrypt only runs on an actual login
+    public AuthenticationResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenRecord consumed = refreshTokenService.consume(request.getRefreshToken());
+
+        UserPrincipal userPrincipal;
+        try {
+            // Reload so role changes and deactivation apply from the next refresh on
+            userPrincipal = (UserPrincipal) userDetailsService.loadUserById(consumed.getUserId());
+        } catch (UsernameNotFoundException e) {
+            refreshTokenService.revokeFamily(consumed.getFamilyId());
+            throw new TokenRefreshException("user " + consumed.getUserId(), "User no longer exists");
+        }
+        if (!userPrincipal.isEnabled()) {
+            refreshTokenService.revokeFamily(consumed.getFamilyId());
+            throw new TokenRefreshException("user " + consumed.getUserId(), "User account is disabled");
+        }
+
+        String accessToken = jwtTokenService.generateToken(userPrincipal);
+        String refreshToken = refreshTokenService.issue(userPrincipal.getId(), consumed.getFamilyId());
+
+        return buildResponse(userPrincipal, accessToken, refreshToken, "Token refreshed");
+    }
+
+    public void logout(String token, String refreshToken) {
+        if (token != null) {
+            jwtTokenService.revokeToken(token);
+        }
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    private AuthenticationResponse buildResponse(UserPrincipal userPrincipal, String accessToken,
+                                                 String refreshToken, String message) {
+        return AuthenticationResponse.builder()
+                .token(accessToken)
+                .refreshToken(refreshToken)
+                .userId(userPrincipal.getId())
+                .email(userPrincipal.getUsername())
+                .roles(userPrincipal.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())
+                .message(message)
+                .success(true)
+                .build();
     }
 }
@@ -1,83 +1,78 @@
 package com.project.service;
 
+import com.project.cart.CartEngine;
+import com.project.dto.CartItemDto;
+import com.project.dto.CartPricingDto;
 import com.project.entity.CartItem;
-import com.project.entity.Product;
-import com.project.entity.User;
-import com.project.exception.ResourceNotFound;
+import com.project.promotion.PromotionCatalog;
+import com.project.promotion.PromotionLine;
 import com.project.repository.CartItemRepository;
-import com.project.repository.ProductRepository;
-import com.project.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 
+// Cart reads and writes go to the in-memory CartEngine, which persists to cart_items behind the request
 @Service
-@Transactional
 public class CartService {
 
     @Autowired
-    private CartItemRepository cartItemRepository;
+    private CartEngine cartEngine;
 
     @Autowired
-    private UserRepository userRepository;
+    private CartItemRepository cartItemRepository;
 
     @Autowired
-    private ProductRepository productRepository;
+    private PromotionCatalog promotionCatalog;
 
     public void addToCart(Long userId, Long productId, Integer quantity) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFound("User not found"));
-        
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFound("Product not found"));
-
-        CartItem existingItem = cartItemRepository.findByUserIdAndProductId(userId, productId).orElse(null);
-
-        if (existingItem != null) {
-            existingItem.setQuantity(existingItem.getQuantity() + quantity);
-            cartItemRepository.save(existingItem);
-        } else {
-            CartItem cartItem = new CartItem();
-            cartItem.setUser(user);
-            cartItem.setProduct(product);
-            cartItem.setQuantity(quantity);
-            cartItemRepository.save(cartItem);
-        }
+        cartEngine.add(userId, productId, quantity);
     }
 
     public void updateCartItemQuantity(Long userId, Long productId, Integer quantity) {
-        CartItem cartItem = cartItemRepository.findByUserIdAndProductId(userId, productId)
-                .orElseThrow(() -> new ResourceNotFound("Cart item not found"));
-        
-        if (quantity <= 0) {
-            cartItemRepository.delete(cartItem);
-        } else {
-            cartItem.setQuantity(quantity);
-            cartItemRepository.save(cartItem);
-        }
+        cartEngine.setQuantity(userId, productId, quantity);
     }
 
     public void removeFromCart(Long userId, Long productId) {
-        cartItemRepository.deleteByUserIdAndProductId(userId, productId);
+        cartEngine.remove(userId, productId);
     }
 
+    // Checkout works on the persisted rows, so the user's pending changes are written first
+    @Transactional
     public List<CartItem> getCartItems(Long userId) {
+        cartEngine.flush(userId);
         return cartItemRepository.findByUserId(userId);
     }
 
+    public List<CartItemDto> getCartItemDtos(Long userId) {
+        return cartEngine.items(userId);
+    }
+
     public BigDecimal getCartTotal(Long userId) {
-        BigDecimal total = cartItemRepository.calculateCartTotal(userId);
-        return total != null ? total : BigDecimal.ZERO;
+        return cartEngine.total(userId);
+    }
+
+    // What checkout would charge: automatic promotions plus the optional code, with no coupon lookups.
+    // Usage limits are only checked when the coupon is redeemed at checkout.
+    public CartPricingDto getCartPricing(Long userId, String couponCode) {
+        List<CartItemDto> items = cartEngine.items(userId);
+        List<PromotionLine> lines = new ArrayList<>(items.size());
+        for (CartItemDto item : items) {
+            lines.add(PromotionLine.of(item.getProductId(), item.getCategoryId(), item.getUnitPrice(),
+                    item.getQuantity()));
+        }
+        String code = couponCode != null && !couponCode.isBlank() ? couponCode.trim() : null;
+        return promotionCatalog.price(lines, code);
     }
 
     public void clearCart(Long userId) {
-        cartItemRepository.deleteByUserId(userId);
+        cartEngine.clear(userId);
     }
 
     public long getCartItemCount(Long userId) {
-        return cartItemRepository.countByUserId(userId);
+        return cartEngine.count(userId);
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,27 @@
 package com.project.service;
 
+import com.project.category.CategoryTree;
+import com.project.category.CategoryTreeCache;
+import com.project.dto.CategoryDto;
 import com.project.dto.CreateCategoryRequest;
+import com.project.dto.ProductDto;
 import com.project.entity.Category;
-import com.project.entity.Product;
+import com.project.event.CategoryChangedEvent;
+import com.project.exception.AppException;
 import com.project.exception.ResourceAlreadyExists;
 import com.project.exception.ResourceNotFoundException;
+import com.project.mapper.CategoryMapper;
+import com.project.mapper.ProductMapper;
+import com.project.rating.ProductRatingCache;
 import com.project.repository.CategoryRepository;
 import com.project.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -22,6 +34,11 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
+    private final CategoryMapper categoryMapper;
+    private final ProductMapper productMapper;
+    private final CategoryTreeCache categoryTreeCache;
+    private final ProductRatingCache productRatingCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<Category> getAllCategories() {
         return categoryRepository.findAll();
@@ -46,9 +63,14 @@ public class CategoryService {
         Category category = new Category();
         category.setName(request.getName());
         category.setDescription(request.getDescription());
+        if (request.getParentId() != null) {
+            category.setParent(getCategoryById(request.getParentId()));
+        }
         category.setIsActive(true);
 
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(saved.getId()));
+        return saved;
     }
 
     public Category updateCategory(Long id, CreateCategoryRequest request) {
@@ -64,51 +86,108 @@ public class CategoryService {
         if (request.getDescription() != null) {
             category.setDescription(request.getDescription());
         }
+        if (request.getParentId() != null) {
+            // Moving a category under itself or one of its descendants would detach the whole subtree
+            if (categoryTreeCache.current().isInSubtree(id, request.getParentId())) {
+                throw new AppException("Category cannot be moved under itself or one of its subcategories");
+            }
+            category.setParent(getCategoryById(request.getParentId()));
+        }
 
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
+        return saved;
     }
 
     public void deleteCategory(Long id) {
         Category category = getCategoryById(id);
         
         // Check if category has products
-        List<Product> productsInCategory = productRepository.findByCategoryId(id);
-        if (!productsInCategory.isEmpty()) {
+        if (productRepository.countByCategoryId(id) > 0) {
             throw new IllegalStateException("Cannot delete category with existing products. Move or delete products first.");
         }
 
         categoryRepository.delete(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
     }
 
     public void deactivateCategory(Long id) {
         Category category = getCategoryById(id);
         category.setIsActive(false);
         categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
     }
 
     public void activateCategory(Long id) {
         Category category = getCategoryById(id);
         category.setIsActive(true);
         categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
     }
 
     public List<Category> getActiveCategories() {
         return categoryRepository.findByIsActiveTrue();
     }
 
-    public List<Product> getProductsByCategory(Long categoryId) {
+    // Read paths below are served from the in-memory tree snapshot, rebuilt after every category change,
+    // so they do not need a database connection of their own
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<CategoryDto> getActiveCategoryDtos() {
+        return categoryTreeCache.current().activeCategories();
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<CategoryDto> getRootCategories() {
+        return categoryTreeCache.current().activeRoots();
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<CategoryDto> getSubCategories(Long parentId) {
+        return requireNode(parentId).activeChildren(parentId);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public CategoryDto getCategoryDto(Long id) {
+        return requireNode(id).get(id);
+    }
+
+    // Breadcrumb from the root down to the category itself
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<CategoryDto> getCategoryPath(Long id) {
+        return requireNode(id).path(id);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductDto> getProductsByCategory(Long categoryId) {
         if (!categoryRepository.existsById(categoryId)) {
             throw new ResourceNotFoundException("Category", "id", categoryId);
         }
-        return productRepository.findByCategoryId(categoryId);
+        return productRatingCache.attach(productMapper.toDtoList(productRepository.findByCategoryId(categoryId)));
     }
 
-    public long getCategoryProductCount(Long categoryId) {
+    // Active products in the category subtree as a single range scan over the nested-set interval. Both the
+    // existence check and the interval come from the database: this node's tree may lag a rebuild elsewhere.
+    @Transactional(readOnly = true)
+    public Page<ProductDto> getSubtreeProducts(Long categoryId, Pageable pageable) {
         if (!categoryRepository.existsById(categoryId)) {
             throw new ResourceNotFoundException("Category", "id", categoryId);
         }
-        List<Product> products = productRepository.findByCategoryId(categoryId);
-        return products.size();
+        return productRepository.findActiveInSubtree(categoryId, pageable)
+                .map(productMapper::toDto);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public long getCategoryProductCount(Long categoryId, boolean includeSubcategories) {
+        CategoryTree tree = requireNode(categoryId);
+        return includeSubcategories ? tree.subtreeProductCount(categoryId) : tree.productCount(categoryId);
+    }
+
+    private CategoryTree requireNode(Long id) {
+        CategoryTree tree = categoryTreeCache.current();
+        if (!tree.contains(id)) {
+            throw new ResourceNotFoundException("Category", "id", id);
+        }
+        return tree;
     }
 
     public boolean existsById(Long id) {
@@ -1,19 +1,30 @@
 package com.project.service;
 
+import com.project.coupon.CouponLifecycleScheduler;
+import com.project.coupon.CouponRedemptionEngine;
+import com.project.coupon.CouponRule;
+import com.project.dto.CouponDto;
 import com.project.entity.Coupon;
 import com.project.entity.Order;
-import com.project.enums.DiscountType;
+import com.project.event.CouponChangedEvent;
+import com.project.exception.AppException;
 import com.project.exception.ResourceNotFoundException;
 import com.project.exception.ResourceAlreadyExists;
+import com.project.outbox.OutboxEventType;
+import com.project.outbox.OutboxPublisher;
+import com.project.promotion.PromotionRules;
 import com.project.repository.CouponRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +33,10 @@ import java.util.List;
 public class CouponService {
 
     private final CouponRepository couponRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final CouponRedemptionEngine redemptionEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CouponLifecycleScheduler lifecycleScheduler;
 
     public List<Coupon> getAllCoupons() {
         return couponRepository.findAll();
@@ -50,11 +65,13 @@ public class CouponService {
         if (coupon.getUsageLimit() == null) {
             coupon.setUsageLimit(0); // Unlimited usage
         }
-        if (coupon.getUsedCount() == null) {
-            coupon.setUsedCount(0);
-        }
+        // Usage is counted by redemptions only, never taken from the request
+        coupon.setUsedCount(0);
+        validatePromotion(coupon);
 
-        return couponRepository.save(coupon);
+        Coupon savedCoupon = couponRepository.save(coupon);
+        eventPublisher.publishEvent(new CouponChangedEvent(savedCoupon.getId(), savedCoupon.getCode()));
+        return savedCoupon;
     }
 
     public Coupon updateCoupon(Long id, Coupon couponDetails) {
@@ -93,36 +110,55 @@ public class CouponService {
         if (couponDetails.getIsActive() != null) {
             coupon.setIsActive(couponDetails.getIsActive());
         }
+        if (couponDetails.getPerUserLimit() != null) {
+            coupon.setPerUserLimit(couponDetails.getPerUserLimit());
+        }
+        if (couponDetails.getRules() != null) {
+            coupon.setRules(couponDetails.getRules());
+        }
+        if (couponDetails.getIsAutomatic() != null) {
+            coupon.setIsAutomatic(couponDetails.getIsAutomatic());
+        }
+        if (couponDetails.getPriority() != null) {
+            coupon.setPriority(couponDetails.getPriority());
+        }
+        if (couponDetails.getIsStackable() != null) {
+            coupon.setIsStackable(couponDetails.getIsStackable());
+        }
+        validatePromotion(coupon);
 
-        return couponRepository.save(coupon);
+        Coupon savedCoupon = couponRepository.save(coupon);
+        eventPublisher.publishEvent(new CouponChangedEvent(savedCoupon.getId(), savedCoupon.getCode()));
+        return savedCoupon;
     }
 
     public void deleteCoupon(Long id) {
         Coupon coupon = getCouponById(id);
         couponRepository.delete(coupon);
+        eventPublisher.publishEvent(new CouponChangedEvent(coupon.getId(), coupon.getCode()));
     }
 
     public void deactivateCoupon(Long id) {
         Coupon coupon = getCouponById(id);
         coupon.setIsActive(false);
         couponRepository.save(coupon);
+        eventPublisher.publishEvent(new CouponChangedEvent(coupon.getId(), coupon.getCode()));
     }
 
     public void activateCoupon(Long id) {
         Coupon coupon = getCouponById(id);
         coupon.setIsActive(true);
         couponRepository.save(coupon);
+        eventPublisher.publishEvent(new CouponChangedEvent(coupon.getId(), coupon.getCode()));
     }
 
-    public List<Coupon> getActiveCoupons() {
-        return couponRepository.findAll().stream()
-                .filter(Coupon::getIsActive)
-                .toList();
+    // Lifecycle listings are read from the scheduler's snapshot, not from the table
+    public List<CouponDto> getActiveCoupons() {
+        return lifecycleScheduler.current().active();
     }
 
-    public List<Coupon> getValidCoupons() {
-        LocalDateTime now = LocalDateTime.now();
-        return couponRepository.findActiveCoupons(now);
+    public List<CouponDto> getValidCoupons() {
+        return lifecycleScheduler.current().live();
     }
 
     public boolean isCouponValid(String code) {
@@ -163,52 +199,53 @@ public class CouponService {
             return BigDecimal.ZERO;
         }
         
-        // Check minimum order amount
-        if (coupon.getMinimumAmount() != null && orderAmount.compareTo(coupon.getMinimumAmount()) < 0) {
-            return BigDecimal.ZERO;
+        return CouponRule.discount(coupon.getType(), coupon.getValue(), coupon.getMinimumAmount(),
+                coupon.getMaximumDiscount(), orderAmount);
+    }
+
+    // Redeems the coupon for the order's user inside the checkout transaction. The discount is what cart
+    // pricing granted the coupon, null when it did not qualify. The usage and per-user limits are enforced
+    // by CouponRedemptionEngine; on any rejection this throws, rolling the checkout back.
+    public void applyCoupon(String code, Order order, BigDecimal discount) {
+        CouponRule rule = redemptionEngine.rule(code)
+                .orElseThrow(() -> new ResourceNotFoundException("Coupon", "code", code));
+        if (!rule.isRedeemableAt(LocalDateTime.now())) {
+            throw new AppException("Coupon is not valid");
         }
-        
-        BigDecimal discount = BigDecimal.ZERO;
-        
-        if (coupon.getType() == DiscountType.PERCENTAGE) {
-            discount = orderAmount.multiply(coupon.getValue()).divide(BigDecimal.valueOf(100));
-        } else {
-            discount = coupon.getValue();
+        if (discount == null) {
+            throw new AppException("Coupon does not apply to this order");
         }
-        
-        // Apply maximum discount limit
-        if (coupon.getMaximumDiscount() != null && discount.compareTo(coupon.getMaximumDiscount()) > 0) {
-            discount = coupon.getMaximumDiscount();
+
+        switch (redemptionEngine.redeem(rule, order.getUser().getId())) {
+            case SOLD_OUT -> throw new AppException("Coupon usage limit reached");
+            case USER_LIMIT_REACHED -> throw new AppException("Coupon was already used the maximum number of times");
+            case REDEEMED -> {
+            }
         }
-        
-        return discount;
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("couponId", rule.id());
+        payload.put("code", rule.code());
+        payload.put("orderId", order.getId());
+        payload.put("discount", discount);
+        outboxPublisher.publish(OutboxEventType.COUPON, rule.id(), OutboxEventType.COUPON_APPLIED, payload);
     }
 
-    public void applyCoupon(String code, Order order) {
-        Coupon coupon = getCouponByCode(code);
-        
-        if (!validateCoupon(coupon)) {
-            throw new IllegalStateException("Coupon is not valid");
+    // Automatic promotions apply to every cart without a redemption, so they cannot be limited
+    private void validatePromotion(Coupon coupon) {
+        if (Boolean.TRUE.equals(coupon.getIsAutomatic())
+                && ((coupon.getUsageLimit() != null && coupon.getUsageLimit() > 0)
+                || (coupon.getPerUserLimit() != null && coupon.getPerUserLimit() > 0))) {
+            throw new AppException("Automatic promotions cannot have usage limits");
         }
-        
-        BigDecimal discount = calculateDiscount(coupon, order.getTotalAmount());
-        order.setDiscountAmount(discount);
-        
-        // Increment usage count
-        couponRepository.incrementUsage(coupon.getId());
+        PromotionRules.validate(coupon);
     }
 
-    public List<Coupon> getExpiredCoupons() {
-        LocalDateTime now = LocalDateTime.now();
-        return couponRepository.findAll().stream()
-                .filter(coupon -> coupon.getExpiresAt() != null && now.isAfter(coupon.getExpiresAt()))
-                .toList();
+    public List<CouponDto> getExpiredCoupons() {
+        return lifecycleScheduler.current().expired();
     }
 
-    public List<Coupon> getUpcomingCoupons() {
-        LocalDateTime now = LocalDateTime.now();
-        return couponRepository.findAll().stream()
-                .filter(coupon -> coupon.getStartsAt() != null && now.isBefore(coupon.getStartsAt()))
-                .toList();
+    public List<CouponDto> getUpcomingCoupons() {
+        return lifecycleScheduler.current().upcoming();
     }
 }
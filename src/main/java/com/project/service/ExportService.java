@@ -0,0 +1,107 @@
+package com.project.service;
+
+import com.project.dto.CouponDto;
+import com.project.dto.OrderDto;
+import com.project.dto.UserProfileDto;
+import com.project.enums.OrderStatus;
+import com.project.enums.UserType;
+import com.project.export.EntityExporter;
+import com.project.export.ExportColumn;
+import com.project.export.ExportFormat;
+import com.project.mapper.CouponMapper;
+import com.project.mapper.OrderMapper;
+import com.project.mapper.UserMapper;
+import com.project.repository.CouponRepository;
+import com.project.repository.OrderRepository;
+import com.project.repository.UserDirectoryFilter;
+import com.project.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Admin exports. Nothing is read here: each method returns a body that runs the query while the response is
+// written (see EntityExporter). NDJSON rows are the API's DTOs; CSV rows are the columns below.
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private static final List<ExportColumn<OrderDto>> ORDER_COLUMNS = List.of(
+            ExportColumn.of("id", OrderDto::getId),
+            ExportColumn.of("order_number", OrderDto::getOrderNumber),
+            ExportColumn.of("user_id", OrderDto::getUserId),
+            ExportColumn.of("status", OrderDto::getStatus),
+            ExportColumn.of("payment_status", OrderDto::getPaymentStatus),
+            ExportColumn.of("item_count", order -> order.getItems().size()),
+            ExportColumn.of("subtotal", OrderDto::getSubtotal),
+            ExportColumn.of("tax_amount", OrderDto::getTaxAmount),
+            ExportColumn.of("shipping_amount", OrderDto::getShippingAmount),
+            ExportColumn.of("discount_amount", OrderDto::getDiscountAmount),
+            ExportColumn.of("total_amount", OrderDto::getTotalAmount),
+            ExportColumn.of("currency", OrderDto::getCurrency),
+            ExportColumn.of("shipping_city", OrderDto::getShippingCity),
+            ExportColumn.of("shipping_country", OrderDto::getShippingCountry),
+            ExportColumn.of("created_at", OrderDto::getCreatedAt),
+            ExportColumn.of("shipped_at", OrderDto::getShippedAt),
+            ExportColumn.of("delivered_at", OrderDto::getDeliveredAt));
+
+    // The rules document only goes to NDJSON
+    private static final List<ExportColumn<CouponDto>> COUPON_COLUMNS = List.of(
+            ExportColumn.of("id", CouponDto::getId),
+            ExportColumn.of("code", CouponDto::getCode),
+            ExportColumn.of("type", CouponDto::getType),
+            ExportColumn.of("value", CouponDto::getValue),
+            ExportColumn.of("minimum_amount", CouponDto::getMinimumAmount),
+            ExportColumn.of("maximum_discount", CouponDto::getMaximumDiscount),
+            ExportColumn.of("usage_limit", CouponDto::getUsageLimit),
+            ExportColumn.of("used_count", CouponDto::getUsedCount),
+            ExportColumn.of("per_user_limit", CouponDto::getPerUserLimit),
+            ExportColumn.of("is_active", CouponDto::getIsActive),
+            ExportColumn.of("is_automatic", CouponDto::getIsAutomatic),
+            ExportColumn.of("priority", CouponDto::getPriority),
+            ExportColumn.of("is_stackable", CouponDto::getIsStackable),
+            ExportColumn.of("starts_at", CouponDto::getStartsAt),
+            ExportColumn.of("expires_at", CouponDto::getExpiresAt),
+            ExportColumn.of("created_at", CouponDto::getCreatedAt));
+
+    private static final List<ExportColumn<UserProfileDto>> USER_COLUMNS = List.of(
+            ExportColumn.of("id", UserProfileDto::getId),
+            ExportColumn.of("email", UserProfileDto::getEmail),
+            ExportColumn.of("first_name", UserProfileDto::getFirstName),
+            ExportColumn.of("last_name", UserProfileDto::getLastName),
+            ExportColumn.of("phone", UserProfileDto::getPhone),
+            ExportColumn.of("user_type", UserProfileDto::getUserType),
+            ExportColumn.of("is_active", UserProfileDto::getIsActive),
+            ExportColumn.of("created_at", UserProfileDto::getCreatedAt));
+
+    private final EntityExporter entityExporter;
+    private final OrderRepository orderRepository;
+    private final CouponRepository couponRepository;
+    private final UserRepository userRepository;
+    private final OrderMapper orderMapper;
+    private final CouponMapper couponMapper;
+    private final UserMapper userMapper;
+
+    public StreamingResponseBody exportOrders(LocalDateTime startDate, LocalDateTime endDate, OrderStatus status,
+                                              ExportFormat format) {
+        return entityExporter.export("orders", format,
+                () -> orderRepository.streamForExport(startDate, endDate, status),
+                orderMapper::toDtoList, ORDER_COLUMNS);
+    }
+
+    public StreamingResponseBody exportCoupons(ExportFormat format) {
+        return entityExporter.export("coupons", format,
+                couponRepository::streamForExport,
+                couponMapper::toDtoList, COUPON_COLUMNS);
+    }
+
+    public StreamingResponseBody exportUsers(UserType userType, Boolean isActive, LocalDateTime createdFrom,
+                                             LocalDateTime createdTo, String emailPrefix, ExportFormat format) {
+        UserDirectoryFilter filter = UserDirectoryService.filter(userType, isActive, createdFrom, createdTo, emailPrefix);
+        return entityExporter.export("users", format,
+                () -> userRepository.streamDirectory(filter),
+                userMapper::toDtoList, USER_COLUMNS);
+    }
+}
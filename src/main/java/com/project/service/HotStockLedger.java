@@ -0,0 +1,208 @@
+package com.project.service;
+
+import com.project.event.ProductChangedEvent;
+import com.project.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// In-memory stock counters for flash-sale SKUs. A reservation is a CAS on the product's
+// counter; committed reservations are written back to products.stock_quantity as coalesced
+// deltas. Only safe while a single node serves checkout for the configured SKUs.
+//
+// When a product changes underneath us (admin stock adjustment) its counter is reloaded, but only
+// once every committed decrement is in the database and no reservation is still waiting for its
+// transaction to finish; otherwise the reloaded counter would hand out those units a second time.
+@Component
+@Slf4j
+public class HotStockLedger {
+
+    private static final int RETIRED = -1;
+
+    // inFlight counts reservations whose transaction has not completed; RETIRED means the slot is
+    // being dropped and reservations must wait for a fresh one
+    private static final class Slot {
+        private final AtomicInteger available;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        private Slot(int stock) {
+            this.available = new AtomicInteger(stock);
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Set<Long> hotProductIds;
+
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> pendingDecrements = new ConcurrentHashMap<>();
+    // Products whose slot is dropped at the end of the next flush that can do so safely
+    private final Set<Long> staleProductIds = ConcurrentHashMap.newKeySet();
+    // Not synchronized: a flush does JDBC and must not pin a virtual thread's carrier
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public HotStockLedger(ProductRepository productRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${app.stock.ledger.enabled:false}") boolean enabled,
+                          @Value("${app.stock.ledger.hot-product-ids:}") List<Long> hotProductIds) {
+        this.productRepository = productRepository;
+        // Flushes also run from after-commit listeners, where the finished transaction is still bound
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.hotProductIds = Set.copyOf(hotProductIds);
+    }
+
+    public boolean tracks(Long productId) {
+        return enabled && hotProductIds.contains(productId);
+    }
+
+    public boolean tryReserve(Long productId, int quantity) {
+        Slot slot = enter(productId);
+        AtomicInteger counter = slot.available;
+        int current;
+        do {
+            current = counter.get();
+            if (current < quantity) {
+                slot.inFlight.decrementAndGet();
+                return false;
+            }
+        } while (!counter.compareAndSet(current, current - quantity));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Only committed orders reach the database; a rolled-back checkout gives the units back
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    try {
+                        if (status == STATUS_COMMITTED) {
+                            recordDecrement(productId, quantity);
+                        } else {
+                            counter.addAndGet(quantity);
+                        }
+                    } finally {
+                        slot.inFlight.decrementAndGet();
+                    }
+                }
+            });
+        } else {
+            recordDecrement(productId, quantity);
+            slot.inFlight.decrementAndGet();
+        }
+        return true;
+    }
+
+    public void release(Long productId, int quantity) {
+        Slot slot = slots.get(productId);
+        if (slot != null) {
+            slot.available.addAndGet(quantity);
+        }
+        // Written back even without a loaded counter, so the units are not lost
+        recordDecrement(productId, -quantity);
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.ledger.flush-interval-ms:200}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<Long, Integer> drained = new HashMap<>();
+            pendingDecrements.forEach((productId, delta) -> {
+                int value = delta.getAndSet(0);
+                if (value != 0) {
+                    drained.put(productId, value);
+                }
+            });
+            if (!drained.isEmpty()) {
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            drained.forEach((productId, delta) -> productRepository.adjustStock(productId, -delta)));
+                } catch (RuntimeException e) {
+                    log.warn("Stock write-behind failed, will retry: {}", e.getMessage());
+                    drained.forEach(this::recordDecrement);
+                    return;
+                }
+            }
+            retireStaleSlots();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // An admin stock adjustment changed the row underneath us: write back, then reload once it is safe
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long productId = event.getProduct().getId();
+        if (tracks(productId)) {
+            staleProductIds.add(productId);
+            flush();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Caller holds flushLock and every decrement drained so far has committed. A slot still in use is
+    // left for a later flush.
+    private void retireStaleSlots() {
+        for (Long productId : staleProductIds) {
+            Slot slot = slots.get(productId);
+            if (slot == null) {
+                staleProductIds.remove(productId);
+                continue;
+            }
+            if (!slot.inFlight.compareAndSet(0, RETIRED)) {
+                continue;
+            }
+            // Checked after retiring: no reservation can complete against this slot any more
+            AtomicInteger pending = pendingDecrements.get(productId);
+            if (pending != null && pending.get() != 0) {
+                slot.inFlight.set(0);
+                continue;
+            }
+            // Unmarked first, so a change that lands meanwhile marks the next slot
+            staleProductIds.remove(productId);
+            slots.remove(productId, slot);
+        }
+    }
+
+    // Counts the caller as in flight on the product's current slot, loading one if needed
+    private Slot enter(Long productId) {
+        while (true) {
+            Slot slot = slots.get(productId);
+            if (slot == null) {
+                // Read outside the map's bin lock: no I/O while holding a monitor
+                Slot loaded = new Slot(productRepository.findStockQuantityById(productId).orElse(0));
+                Slot raced = slots.putIfAbsent(productId, loaded);
+                slot = raced != null ? raced : loaded;
+            }
+            if (slot.inFlight.getAndUpdate(n -> n == RETIRED ? n : n + 1) != RETIRED) {
+                return slot;
+            }
+            // flush() removes a retired slot right after retiring it
+            Thread.onSpinWait();
+        }
+    }
+
+    private void recordDecrement(Long productId, int quantity) {
+        pendingDecrements.computeIfAbsent(productId, id -> new AtomicInteger()).addAndGet(quantity);
+    }
+}
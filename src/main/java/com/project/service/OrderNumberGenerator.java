@@ -0,0 +1,20 @@
+package com.project.service;
+
+import com.project.util.TimeOrderedIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Order numbers from the time-ordered id generator: unique across nodes without a database round trip
+@Component
+public class OrderNumberGenerator {
+
+    private final TimeOrderedIdGenerator generator;
+
+    public OrderNumberGenerator(@Value("${app.ids.node-id:}") String nodeId) {
+        this.generator = new TimeOrderedIdGenerator(TimeOrderedIdGenerator.requireNodeId(nodeId));
+    }
+
+    public String next() {
+        return "ORD-" + generator.nextId();
+    }
+}
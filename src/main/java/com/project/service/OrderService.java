@@ -1,10 +1,21 @@
 package com.project.service;
 
+import com.project.cart.CartEngine;
+import com.project.dto.AppliedPromotionDto;
+import com.project.dto.CartPricingDto;
+import com.project.dto.CheckoutRequest;
+import com.project.dto.OrderDto;
 import com.project.entity.*;
 import com.project.enums.InventoryTransactionType;
 import com.project.enums.OrderStatus;
 import com.project.enums.PaymentStatus;
+import com.project.exception.AppException;
 import com.project.exception.ResourceNotFound;
+import com.project.mapper.OrderMapper;
+import com.project.outbox.OutboxEventType;
+import com.project.outbox.OutboxPublisher;
+import com.project.promotion.PromotionCatalog;
+import com.project.promotion.PromotionLine;
 import com.project.repository.*;
 import com.project.util.PaginatedResult;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,7 +26,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 @Transactional
@@ -31,25 +46,53 @@ public class OrderService {
     private CartItemRepository cartItemRepository;
 
     @Autowired
-    private OrderItemRepository orderItemRepository;
+    private CartEngine cartEngine;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @Autowired
+    private OutboxPublisher outboxPublisher;
 
     @Autowired
     private InventoryTransactionRepository inventoryTransactionRepository;
 
-    public List<Order> getUserOrders(Long userId) {
-        return orderRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private PromotionCatalog promotionCatalog;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    // Read models are mapped inside the transaction; items load in batches (default_batch_fetch_size)
+    @Transactional(readOnly = true)
+    public List<OrderDto> getUserOrders(Long userId) {
+        return orderMapper.toDtoList(orderRepository.findByUserIdOrderByCreatedAtDesc(userId));
     }
 
-    public List<Order> getUserOrdersByStatus(Long userId, OrderStatus status) {
-        return orderRepository.findByUserIdAndStatusOrderByCreatedAtDesc(userId, status);
+    @Transactional(readOnly = true)
+    public List<OrderDto> getUserOrdersByStatus(Long userId, OrderStatus status) {
+        return orderMapper.toDtoList(orderRepository.findByUserIdAndStatusOrderByCreatedAtDesc(userId, status));
     }
 
-    public PaginatedResult<Order> getUserOrdersPaginated(Long userId, int page, int size) {
+    @Transactional(readOnly = true)
+    public PaginatedResult<OrderDto> getUserOrdersPaginated(Long userId, int page, int size) {
         PageRequest pageRequest = PageRequest.of(page, size);
         Page<Order> orderPage = orderRepository.findByUserId(userId, pageRequest);
         
         return new PaginatedResult<>(
-                orderPage.getContent(),
+                orderMapper.toDtoList(orderPage.getContent()),
                 orderPage.getTotalElements(),
                 page,
                 size
@@ -61,19 +104,49 @@ public class OrderService {
                 .orElseThrow(() -> new ResourceNotFound("Order not found"));
     }
 
-    public Order getOrderByOrderNumber(String orderNumber) {
-        return orderRepository.findByOrderNumber(orderNumber)
-                .orElseThrow(() -> new ResourceNotFound("Order not found"));
+    @Transactional(readOnly = true)
+    public OrderDto getOrderDtoById(Long orderId) {
+        return orderMapper.toDto(getOrderById(orderId));
+    }
+
+    @Transactional(readOnly = true)
+    public OrderDto getOrderDtoByOrderNumber(String orderNumber) {
+        return orderMapper.toDto(orderRepository.findByOrderNumber(orderNumber)
+                .orElseThrow(() -> new ResourceNotFound("Order not found")));
+    }
+
+    // Orders the user's current cart; the order is created from the persisted cart rows
+    @Transactional
+    public Order checkout(Long userId, CheckoutRequest request) {
+        List<CartItem> cartItems = cartService.getCartItems(userId);
+        if (cartItems.isEmpty()) {
+            throw new AppException("Cart is empty");
+        }
+        Address shippingAddress = getUserAddress(userId, request.getShippingAddressId());
+        Address billingAddress = request.getBillingAddressId() != null
+                ? getUserAddress(userId, request.getBillingAddressId())
+                : shippingAddress;
+        return createOrder(userId, cartItems, shippingAddress, billingAddress, request.getCouponCode());
     }
 
     @Transactional
     public Order createOrder(Long userId, List<CartItem> cartItems, Address shippingAddress, Address billingAddress) {
+        return createOrder(userId, cartItems, shippingAddress, billingAddress, null);
+    }
+
+    @Transactional
+    public Order createOrder(Long userId, List<CartItem> cartItems, Address shippingAddress, Address billingAddress,
+                             String couponCode) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFound("User not found"));
 
+        // Take the stock first; throws InsufficientStockException (and rolls back) if any line is short
+        Map<Long, Integer> orderedQuantities = quantitiesByProduct(cartItems);
+        stockReservationService.reserve(orderedQuantities);
+
         Order order = new Order();
         order.setUser(user);
-        order.setOrderNumber(generateOrderNumber());
+        order.setOrderNumber(orderNumberGenerator.next());
         order.setStatus(OrderStatus.PENDING);
         order.setPaymentStatus(PaymentStatus.PENDING);
 
@@ -93,25 +166,35 @@ public class OrderService {
         order.setTotalAmount(subtotal); // Simplified - add tax, shipping, etc. as needed
         order = orderRepository.save(order);
 
-        // Create order items
+        // Nothing below hits the database until flush: ids are time-ordered and assigned in memory,
+        // so order, items and inventory rows go out as JDBC batches
+        List<InventoryTransaction> inventoryTransactions = new ArrayList<>(cartItems.size());
+        List<PromotionLine> promotionLines = new ArrayList<>(cartItems.size());
         for (CartItem cartItem : cartItems) {
+            Product product = cartItem.getProduct();
+            // getId() on the lazy category reference does not load it
+            promotionLines.add(PromotionLine.of(product.getId(),
+                    product.getCategory() != null ? product.getCategory().getId() : null,
+                    product.getPrice(), cartItem.getQuantity()));
+
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
-            orderItem.setProduct(cartItem.getProduct());
+            orderItem.setProduct(product);
             orderItem.setQuantity(cartItem.getQuantity());
-            orderItem.setUnitPrice(cartItem.getProduct().getPrice());
-            orderItem.setTotalPrice(cartItem.getProduct().getPrice().multiply(BigDecimal.valueOf(cartItem.getQuantity())));
+            orderItem.setUnitPrice(product.getPrice());
+            orderItem.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(cartItem.getQuantity())));
 
             // Product snapshot
-            orderItem.setProductName(cartItem.getProduct().getName());
-            orderItem.setProductSku(cartItem.getProduct().getSku());
-            orderItem.setProductDescription(cartItem.getProduct().getDescription());
+            orderItem.setProductName(product.getName());
+            orderItem.setProductSku(product.getSku());
+            orderItem.setProductDescription(product.getDescription());
 
-            orderItemRepository.save(orderItem);
+            // Persisted through the Order.items cascade
+            order.getItems().add(orderItem);
 
             // Update inventory
             InventoryTransaction transaction = new InventoryTransaction();
-            transaction.setProduct(cartItem.getProduct());
+            transaction.setProduct(product);
             transaction.setType(InventoryTransactionType.SALE);
             transaction.setQuantityChange(-cartItem.getQuantity());
             transaction.setReferenceId(order.getId());
@@ -119,17 +202,65 @@ public class OrderService {
             transaction.setNotes("Order: " + order.getOrderNumber());
             transaction.setCreatedBy(user);
             
-            inventoryTransactionRepository.save(transaction);
+            inventoryTransactions.add(transaction);
+        }
+        inventoryTransactionRepository.saveAll(inventoryTransactions);
+
+        // Automatic promotions and the coupon are priced from the in-memory catalog, as in the cart preview.
+        // Rejects (and rolls back) an unknown, invalid, non-qualifying or used-up coupon.
+        String code = couponCode != null && !couponCode.isBlank() ? couponCode.trim() : null;
+        CartPricingDto pricing = promotionCatalog.price(promotionLines, code);
+        if (code != null) {
+            BigDecimal couponDiscount = pricing.getPromotions().stream()
+                    .filter(AppliedPromotionDto::isCoupon)
+                    .map(AppliedPromotionDto::getDiscount)
+                    .findFirst()
+                    .orElse(null);
+            couponService.applyCoupon(code, order, couponDiscount);
         }
+        order.setDiscountAmount(pricing.getDiscount());
+        order.setTotalAmount(pricing.getTotal());
+
+        // Remove only the ordered cart rows (single bulk DELETE); lines added while this checkout ran stay in
+        // the cart, and the in-memory copy drops the ordered lines once this commits
+        List<Long> orderedRowIds = cartItems.stream().map(CartItem::getId).filter(Objects::nonNull).toList();
+        if (!orderedRowIds.isEmpty()) {
+            cartItemRepository.deleteAllByIdInBatch(orderedRowIds);
+        }
+        cartEngine.removeOrderedAfterCommit(userId, orderedQuantities);
 
-        // Clear cart
-        cartItemRepository.deleteByUserId(userId);
+        // Side effects (confirmation email, analytics, ...) run from the outbox after commit
+        outboxPublisher.publish(OutboxEventType.ORDER, order.getId(), OutboxEventType.ORDER_PLACED, Map.of(
+                "orderId", order.getId(),
+                "orderNumber", order.getOrderNumber(),
+                "userId", userId,
+                "totalAmount", order.getTotalAmount(),
+                "itemCount", order.getItems().size()));
 
         return order;
     }
 
-    public Order updateOrderStatus(Long orderId, OrderStatus status) {
+    public OrderDto updateOrderStatus(Long orderId, OrderStatus status) {
         Order order = getOrderById(orderId);
+        if (status == OrderStatus.CANCELLED && order.getStatus() != OrderStatus.CANCELLED) {
+            Map<Long, Integer> quantities = new HashMap<>();
+            List<InventoryTransaction> returns = new ArrayList<>();
+            for (OrderItem item : order.getItems()) {
+                quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+
+                InventoryTransaction transaction = new InventoryTransaction();
+                transaction.setProduct(item.getProduct());
+                transaction.setType(InventoryTransactionType.RETURN);
+                transaction.setQuantityChange(item.getQuantity());
+                transaction.setReferenceId(order.getId());
+                transaction.setReferenceType("order");
+                transaction.setNotes("Cancelled: " + order.getOrderNumber());
+                returns.add(transaction);
+            }
+            stockReservationService.release(quantities);
+            inventoryTransactionRepository.saveAll(returns);
+        }
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(status);
         
         if (status == OrderStatus.SHIPPED) {
@@ -137,30 +268,54 @@ public class OrderService {
         } else if (status == OrderStatus.DELIVERED) {
             order.setDeliveredAt(LocalDateTime.now());
         }
+
+        if (previousStatus != status) {
+            outboxPublisher.publish(OutboxEventType.ORDER, orderId, OutboxEventType.ORDER_STATUS_CHANGED, Map.of(
+                    "orderId", orderId,
+                    "orderNumber", order.getOrderNumber(),
+                    "userId", order.getUser().getId(),
+                    "previousStatus", String.valueOf(previousStatus),
+                    "status", status));
+        }
         
-        return orderRepository.save(order);
+        return orderMapper.toDto(orderRepository.save(order));
     }
 
-    public Order updatePaymentStatus(Long orderId, PaymentStatus status) {
+    public OrderDto updatePaymentStatus(Long orderId, PaymentStatus status) {
         Order order = getOrderById(orderId);
         order.setPaymentStatus(status);
-        return orderRepository.save(order);
+        return orderMapper.toDto(orderRepository.save(order));
     }
 
-    public List<Order> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return orderRepository.findByCreatedAtBetweenOrderByCreatedAtDesc(startDate, endDate);
+    @Transactional(readOnly = true)
+    public List<OrderDto> getOrdersByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
+        return orderMapper.toDtoList(orderRepository.findByCreatedAtBetweenOrderByCreatedAtDesc(startDate, endDate));
     }
 
-    public List<Order> getOrdersByDateRangeAndStatus(LocalDateTime startDate, LocalDateTime endDate, OrderStatus status) {
-        return orderRepository.findByCreatedAtBetweenAndStatusOrderByCreatedAtDesc(startDate, endDate, status);
+    @Transactional(readOnly = true)
+    public List<OrderDto> getOrdersByDateRangeAndStatus(LocalDateTime startDate, LocalDateTime endDate, OrderStatus status) {
+        return orderMapper.toDtoList(orderRepository.findByCreatedAtBetweenAndStatusOrderByCreatedAtDesc(startDate, endDate, status));
     }
 
     public BigDecimal getTotalSalesAmount(LocalDateTime startDate, LocalDateTime endDate) {
         return orderRepository.getTotalSalesAmount(startDate, endDate, OrderStatus.CANCELLED, OrderStatus.RETURNED);
     }
 
-    private String generateOrderNumber() {
-        return "ORD-" + System.currentTimeMillis();
+    private Map<Long, Integer> quantitiesByProduct(List<CartItem> cartItems) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (CartItem cartItem : cartItems) {
+            quantities.merge(cartItem.getProduct().getId(), cartItem.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private Address getUserAddress(Long userId, Long addressId) {
+        Address address = addressRepository.findById(addressId)
+                .orElseThrow(() -> new ResourceNotFound("Address not found"));
+        if (!address.getUser().getId().equals(userId)) {
+            throw new ResourceNotFound("Address not found");
+        }
+        return address;
     }
 
     private void copyAddressToOrder(Address address, Order order, String type) {
@@ -1,15 +1,21 @@
 package com.project.service;
 
+import com.project.dto.ProductRatingDto;
 import com.project.entity.Product;
 import com.project.entity.ProductReview;
 import com.project.entity.User;
+import com.project.event.ProductRatingChangedEvent;
+import com.project.exception.AppException;
 import com.project.exception.ResourceNotFoundException;
 import com.project.exception.ResourceAlreadyExists;
+import com.project.rating.ProductRatingCache;
+import com.project.repository.ProductRatingSummaryRepository;
 import com.project.repository.ProductRepository;
 import com.project.repository.ProductReviewRepository;
 import com.project.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +30,9 @@ public class ProductReviewService {
     private final ProductReviewRepository productReviewRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final ProductRatingSummaryRepository ratingSummaryRepository;
+    private final ProductRatingCache productRatingCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<ProductReview> getProductReviews(Long productId) {
         if (!productRepository.existsById(productId)) {
@@ -53,24 +62,33 @@ public class ProductReviewService {
             throw new ResourceAlreadyExists("User has already reviewed this product");
         }
 
+        requireValidRating(review.getRating());
         review.setUser(user);
         review.setProduct(product);
         // createdAt is automatically set by @CreationTimestamp
 
         ProductReview savedReview = productReviewRepository.save(review);
+        if (Boolean.TRUE.equals(savedReview.getIsApproved())) {
+            addToSummary(product, savedReview.getRating(), 1);
+        }
         
         return savedReview;
     }
 
     public ProductReview updateReview(Long userId, Long reviewId, ProductReview reviewDetails) {
-        ProductReview review = getReviewById(reviewId);
+        ProductReview review = getReviewForUpdate(reviewId);
         
         // Check if user owns this review
         if (!review.getUser().getId().equals(userId)) {
             throw new ResourceNotFoundException("Product review", "id", reviewId);
         }
 
-        if (reviewDetails.getRating() != null) {
+        if (reviewDetails.getRating() != null && !reviewDetails.getRating().equals(review.getRating())) {
+            requireValidRating(reviewDetails.getRating());
+            if (Boolean.TRUE.equals(review.getIsApproved())) {
+                addToSummary(review.getProduct(), review.getRating(), -1);
+                addToSummary(review.getProduct(), reviewDetails.getRating(), 1);
+            }
             review.setRating(reviewDetails.getRating());
         }
         if (reviewDetails.getTitle() != null) {
@@ -84,16 +102,29 @@ public class ProductReviewService {
     }
 
     public void deleteReview(Long userId, Long reviewId) {
-        ProductReview review = getReviewById(reviewId);
+        ProductReview review = getReviewForUpdate(reviewId);
         
         // Check if user owns this review
         if (!review.getUser().getId().equals(userId)) {
             throw new ResourceNotFoundException("Product review", "id", reviewId);
         }
 
+        if (Boolean.TRUE.equals(review.getIsApproved())) {
+            addToSummary(review.getProduct(), review.getRating(), -1);
+        }
         productReviewRepository.delete(review);
     }
 
+    // Moderation: only approved reviews are listed and counted in the rating summary
+    public ProductReview setReviewApproval(Long reviewId, boolean approved) {
+        ProductReview review = getReviewForUpdate(reviewId);
+        if (Boolean.TRUE.equals(review.getIsApproved()) != approved) {
+            addToSummary(review.getProduct(), review.getRating(), approved ? 1 : -1);
+            review.setIsApproved(approved);
+        }
+        return productReviewRepository.save(review);
+    }
+
     public List<ProductReview> getUserReviews(Long userId) {
         if (!userRepository.existsById(userId)) {
             throw new ResourceNotFoundException("User", "id", userId);
@@ -101,20 +132,24 @@ public class ProductReviewService {
         return productReviewRepository.findByUserId(userId);
     }
 
+    @Transactional(readOnly = true)
     public double getAverageProductRating(Long productId) {
-        if (!productRepository.existsById(productId)) {
-            throw new ResourceNotFoundException("Product", "id", productId);
-        }
-        
-        Double avgRating = productReviewRepository.getAverageRating(productId);
-        return avgRating != null ? avgRating : 0.0;
+        return getProductRating(productId).getAverageRating();
     }
 
+    @Transactional(readOnly = true)
     public long getProductReviewCount(Long productId) {
-        if (!productRepository.existsById(productId)) {
+        return getProductRating(productId).getReviewCount();
+    }
+
+    // Served from the precomputed summary; the product lookup is only needed to tell "no reviews" from "no product"
+    @Transactional(readOnly = true)
+    public ProductRatingDto getProductRating(Long productId) {
+        ProductRatingDto rating = productRatingCache.get(productId);
+        if (rating.getReviewCount() == 0 && !productRepository.existsById(productId)) {
             throw new ResourceNotFoundException("Product", "id", productId);
         }
-        return productReviewRepository.countByProductIdAndIsApprovedTrue(productId);
+        return rating;
     }
 
     public boolean hasUserReviewedProduct(Long userId, Long productId) {
@@ -128,4 +163,20 @@ public class ProductReviewService {
                 .limit(10)
                 .toList();
     }
+
+    private ProductReview getReviewForUpdate(Long reviewId) {
+        return productReviewRepository.findByIdForUpdate(reviewId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product review", "id", reviewId));
+    }
+
+    private void addToSummary(Product product, int rating, int sign) {
+        ratingSummaryRepository.apply(product.getId(), rating, sign);
+        eventPublisher.publishEvent(new ProductRatingChangedEvent(product.getId(), product.getSku()));
+    }
+
+    private static void requireValidRating(Integer rating) {
+        if (rating == null || rating < 1 || rating > 5) {
+            throw new AppException("Rating must be between 1 and 5");
+        }
+    }
 }
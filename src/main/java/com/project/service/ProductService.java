@@ -1,20 +1,48 @@
 package com.project.service;
 
+import com.project.config.CacheConfig;
+import com.project.dto.ProductDto;
 import com.project.entity.Category;
 import com.project.entity.InventoryTransaction;
 import com.project.entity.Product;
 import com.project.enums.InventoryTransactionType;
+import com.project.enums.ProductSort;
+import com.project.event.ProductChangedEvent;
+import com.project.exception.AppException;
 import com.project.exception.ResourceAlreadyExists;
 import com.project.exception.ResourceNotFound;
+import com.project.mapper.ProductMapper;
+import com.project.outbox.OutboxEventType;
+import com.project.outbox.OutboxPublisher;
+import com.project.rating.ProductRatingCache;
 import com.project.repository.CategoryRepository;
 import com.project.repository.InventoryTransactionRepository;
 import com.project.repository.ProductRepository;
+import com.project.search.ProductSearchEngine;
+import com.project.search.ProductSearchQuery;
+import com.project.util.CursorPage;
+import com.project.util.KeysetCursor;
 import com.project.util.PaginatedResult;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Objects;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -29,6 +57,21 @@ public class ProductService {
     @Autowired
     private InventoryTransactionRepository inventoryTransactionRepository;
 
+    @Autowired
+    private ProductSearchEngine productSearchEngine;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private ProductRatingCache productRatingCache;
+
     public Product createProduct(Product product) {
         if (productRepository.findBySku(product.getSku()).isPresent()) {
             throw new ResourceAlreadyExists("Product with SKU " + product.getSku() + " already exists");
@@ -38,7 +81,21 @@ public class ProductService {
                 .orElseThrow(() -> new ResourceNotFound("Category not found"));
         
         product.setCategory(category);
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+
+        // Opening balance, so the inventory ledger reconciles with stock_quantity from day one
+        if (savedProduct.getStockQuantity() != null && savedProduct.getStockQuantity() != 0) {
+            InventoryTransaction transaction = new InventoryTransaction();
+            transaction.setProduct(savedProduct);
+            transaction.setQuantityChange(savedProduct.getStockQuantity());
+            transaction.setType(InventoryTransactionType.ADJUSTMENT);
+            transaction.setReferenceType("adjustment");
+            transaction.setNotes("Initial stock");
+            inventoryTransactionRepository.save(transaction);
+        }
+
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct));
+        return savedProduct;
     }
 
     public Product getProductBySku(String sku) {
@@ -51,20 +108,34 @@ public class ProductService {
                 .orElseThrow(() -> new ResourceNotFound("Product not found with ID: " + id));
     }
 
+    // Cached read models for the public catalog, rating included; evicted by ProductCacheInvalidator on
+    // ProductChangedEvent and ProductRatingChangedEvent
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id")
+    @Transactional(readOnly = true)
+    public ProductDto getProductDtoById(Long id) {
+        ProductDto product = productMapper.toDto(getProductById(id));
+        product.setRating(productRatingCache.get(id));
+        return product;
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_BY_SKU, key = "#sku")
+    @Transactional(readOnly = true)
+    public ProductDto getProductDtoBySku(String sku) {
+        ProductDto product = productMapper.toDto(getProductBySku(sku));
+        product.setRating(productRatingCache.get(product.getId()));
+        return product;
+    }
+
     public PaginatedResult<Product> getProductsPaginated(Long categoryId, int page, int size) {
-        List<Product> allProducts = categoryId != null ? 
-            productRepository.findByCategoryIdAndIsActiveTrue(categoryId) : 
-            productRepository.findByIsActiveTrue();
-            
-        // Manual pagination
-        int start = page * size;
-        int end = Math.min((start + size), allProducts.size());
-        
-        List<Product> pageContent = allProducts.subList(start, end);
+        // Ordered by id so offset pages neither repeat nor skip rows
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by("id"));
+        Page<Product> productPage = categoryId != null ?
+            productRepository.findByCategoryIdAndIsActiveTrue(categoryId, pageRequest) :
+            productRepository.findByIsActiveTrue(pageRequest);
         
         return new PaginatedResult<>(
-            pageContent,
-            allProducts.size(),
+            productPage.getContent(),
+            productPage.getTotalElements(),
             page,
             size
         );
@@ -74,22 +145,85 @@ public class ProductService {
         return productRepository.findByIsActiveTrue();
     }
 
+    public Page<Product> getActiveProducts(Pageable pageable) {
+        return productRepository.findByIsActiveTrue(pageable);
+    }
+
     public List<Product> getProductsByCategory(Long categoryId) {
         return productRepository.findByCategoryId(categoryId);
     }
 
-    public List<Product> searchProducts(String searchTerm, Long categoryId, Double minPrice, Double maxPrice) {
-        return productRepository.searchProducts(
+    public Page<Product> getProductsByCategory(Long categoryId, Pageable pageable) {
+        return productRepository.findByCategoryId(categoryId, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Product> getProductsByCursor(Long categoryId, ProductSort sort, String cursor,
+                                                   int size, boolean includeTotal) {
+        KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : null;
+        Comparable<?> afterKey = null;
+        Long afterId = null;
+        if (after != null) {
+            try {
+                afterKey = sort == ProductSort.NEWEST
+                        ? LocalDateTime.parse(after.getSortKey())
+                        : new BigDecimal(after.getSortKey());
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new AppException("Cursor does not match sort order " + sort, e);
+            }
+            afterId = after.getId();
+        }
+
+        // Fetch one extra row to know whether another page exists without counting
+        List<Product> rows = productRepository.findActiveByKeyset(categoryId, sort, afterKey, afterId, size + 1);
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            Product last = rows.get(size - 1);
+            String sortKey = sort == ProductSort.NEWEST
+                    ? last.getCreatedAt().toString()
+                    : last.getPrice().toPlainString();
+            nextCursor = new KeysetCursor(sortKey, last.getId()).encode();
+        }
+
+        Long total = includeTotal ? productRepository.countActive(categoryId) : null;
+        return new CursorPage<>(rows, nextCursor, size, total);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginatedResult<Product> searchProducts(String searchTerm, Long categoryId, Double minPrice, Double maxPrice,
+                                                   int page, int size) {
+        PaginatedResult<Long> hits = productSearchEngine.search(new ProductSearchQuery(
                 searchTerm,
                 categoryId,
-                minPrice != null ? java.math.BigDecimal.valueOf(minPrice) : null,
-                maxPrice != null ? java.math.BigDecimal.valueOf(maxPrice) : null
-        );
+                minPrice != null ? BigDecimal.valueOf(minPrice) : null,
+                maxPrice != null ? BigDecimal.valueOf(maxPrice) : null,
+                page,
+                size
+        ));
+        if (hits.getItems().isEmpty()) {
+            return new PaginatedResult<>(List.of(), hits.getTotalItems(), page, size);
+        }
+
+        // Load the page in one query, then restore the engine's ranking order
+        Map<Long, Product> byId = productRepository.findAllWithCategoryByIdIn(hits.getItems()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> products = hits.getItems().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        return new PaginatedResult<>(products, hits.getTotalItems(), page, size);
     }
 
     @Transactional
     public Product updateProductStock(Long productId, Integer newStock, String reason) {
-        Product product = getProductById(productId);
+        // Row lock so the recorded delta matches what concurrent checkouts left behind
+        Product product = productRepository.findByIdForUpdate(productId)
+                .orElseThrow(() -> new ResourceNotFound("Product not found with ID: " + productId));
+        // Not fetched by the locking query (FOR UPDATE and an outer join don't mix); the caller maps it to a DTO
+        Hibernate.initialize(product.getCategory());
         int quantityChange = newStock - product.getStockQuantity();
         
         InventoryTransaction transaction = new InventoryTransaction();
@@ -99,12 +233,22 @@ public class ProductService {
         transaction.setReferenceType("adjustment");
         transaction.setNotes(reason);
         
+        // stock_quantity is not updatable through the entity; the row lock makes the delta land exactly
+        productRepository.adjustStock(productId, quantityChange);
         product.setStockQuantity(newStock);
-        Product updatedProduct = productRepository.save(product);
         
         inventoryTransactionRepository.save(transaction);
+        eventPublisher.publishEvent(new ProductChangedEvent(product));
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("productId", productId);
+        payload.put("sku", product.getSku());
+        payload.put("previousStock", newStock - quantityChange);
+        payload.put("newStock", newStock);
+        payload.put("reason", reason);
+        outboxPublisher.publish(OutboxEventType.PRODUCT, productId, OutboxEventType.PRODUCT_STOCK_ADJUSTED, payload);
         
-        return updatedProduct;
+        return product;
     }
 
     public List<Product> getLowStockProducts(int threshold) {
@@ -126,9 +270,6 @@ public class ProductService {
         if (productDetails.getCostPrice() != null) {
             product.setCostPrice(productDetails.getCostPrice());
         }
-        if (productDetails.getStockQuantity() != null) {
-            product.setStockQuantity(productDetails.getStockQuantity());
-        }
         if (productDetails.getWeight() != null) {
             product.setWeight(productDetails.getWeight());
         }
@@ -136,12 +277,15 @@ public class ProductService {
             product.setDimensions(productDetails.getDimensions());
         }
         
-        return productRepository.save(product);
+        Product updatedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(updatedProduct));
+        return updatedProduct;
     }
 
     public void deleteProduct(Long id) {
         Product product = getProductById(id);
         product.setIsActive(false);
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(product));
     }
 }
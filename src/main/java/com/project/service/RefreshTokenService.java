@@ -0,0 +1,89 @@
+package com.project.service;
+
+import com.project.exception.TokenRefreshException;
+import com.project.security.RefreshTokenRecord;
+import com.project.security.RefreshTokenStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenStore refreshTokenStore;
+
+    @Value("${jwt.expiration.refresh:86400}")
+    private long refreshTokenExpiration;
+
+    // Starts a new family, i.e. a new login
+    public String issue(Long userId) {
+        return issue(userId, UUID.randomUUID().toString());
+    }
+
+    public String issue(Long userId, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenStore.save(new RefreshTokenRecord(
+                hash(token), familyId, userId, Instant.now().plusSeconds(refreshTokenExpiration)));
+        return token;
+    }
+
+    // Single use: the token is spent here and the caller issues its successor in the same family
+    public RefreshTokenRecord consume(String token) {
+        String tokenHash = hash(token);
+        RefreshTokenRecord record = refreshTokenStore.find(tokenHash)
+                .filter(r -> !r.isExpired(Instant.now()))
+                .orElseThrow(() -> new TokenRefreshException(mask(token), "Refresh token is invalid or expired"));
+
+        if (refreshTokenStore.isFamilyRevoked(record.getFamilyId())) {
+            throw new TokenRefreshException(mask(token), "Refresh token has been revoked");
+        }
+
+        if (!refreshTokenStore.markUsed(tokenHash)) {
+            // A rotated-out token came back, so one of the two holders is not the user: end the whole session
+            refreshTokenStore.revokeFamily(record.getFamilyId());
+            log.warn("Refresh token reuse for user {}; revoked token family {}", record.getUserId(), record.getFamilyId());
+            throw new TokenRefreshException(mask(token), "Refresh token has already been used");
+        }
+        return record;
+    }
+
+    public void revokeFamily(String familyId) {
+        refreshTokenStore.revokeFamily(familyId);
+    }
+
+    public void revoke(String token) {
+        refreshTokenStore.find(hash(token)).ifPresent(record -> refreshTokenStore.revokeFamily(record.getFamilyId()));
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Enough to correlate in logs without leaking a usable token
+    private static String mask(String token) {
+        return token.length() <= 6 ? "***" : token.substring(0, 6) + "...";
+    }
+}
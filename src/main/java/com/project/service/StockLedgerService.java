@@ -0,0 +1,180 @@
+package com.project.service;
+
+import com.project.dto.StockReconciliationDto;
+import com.project.entity.Product;
+import com.project.entity.StockCheckpoint;
+import com.project.exception.ResourceNotFound;
+import com.project.repository.InventoryTransactionRepository;
+import com.project.repository.ProductRepository;
+import com.project.repository.StockCheckpointRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Stock as "latest checkpoint + open transactions". Compaction marks the rows it rolls up instead of
+// cutting at an id watermark: time-ordered ids are assigned at persist, not at commit, so a slow
+// transaction can commit with an id below one that is already checkpointed. Its row simply stays open
+// until the next run. Only one node compacts at a time, guarded by a Postgres advisory lock.
+@Service
+@Slf4j
+@Transactional
+public class StockLedgerService {
+
+    private static final int RECONCILE_BATCH_SIZE = 500;
+    // Arbitrary, but must not be reused for another pg_advisory lock
+    private static final long COMPACTION_LOCK_KEY = 5_005_001L;
+
+    private final StockCheckpointRepository stockCheckpointRepository;
+    private final InventoryTransactionRepository inventoryTransactionRepository;
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockLedgerService(StockCheckpointRepository stockCheckpointRepository,
+                              InventoryTransactionRepository inventoryTransactionRepository,
+                              ProductRepository productRepository,
+                              JdbcTemplate jdbcTemplate) {
+        this.stockCheckpointRepository = stockCheckpointRepository;
+        this.inventoryTransactionRepository = inventoryTransactionRepository;
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void prepareSchema() {
+        // Not mapped on InventoryTransaction: only compaction sets it, and inserts take the column default
+        Integer present = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns " +
+                "WHERE table_name = 'inventory_transactions' AND column_name = 'checkpointed'", Integer.class);
+        if (present == null || present == 0) {
+            jdbcTemplate.execute("ALTER TABLE inventory_transactions " +
+                    "ADD COLUMN IF NOT EXISTS checkpointed boolean NOT NULL DEFAULT false");
+            // Checkpoints written before the flag existed cover every id up to their last_transaction_id
+            int marked = jdbcTemplate.update("UPDATE inventory_transactions t SET checkpointed = true " +
+                    "FROM (SELECT product_id, MAX(last_transaction_id) AS last_id FROM stock_checkpoints " +
+                    "GROUP BY product_id) c WHERE t.product_id = c.product_id AND t.id <= c.last_id");
+            log.info("Added inventory_transactions.checkpointed; {} rows already covered by checkpoints", marked);
+        }
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_inventory_open " +
+                "ON inventory_transactions (product_id) WHERE NOT checkpointed");
+    }
+
+    // One snapshot for both reads, so a compaction committing in between is seen entirely or not at all
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public int getCurrentStock(Long productId) {
+        int base = stockCheckpointRepository.findFirstByProductIdOrderByIdDesc(productId)
+                .map(StockCheckpoint::getQuantity)
+                .orElse(0);
+        return base + inventoryTransactionRepository.sumOpenChanges(productId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.stock.checkpoint.interval-ms:600000}",
+               initialDelayString = "${app.stock.checkpoint.interval-ms:600000}")
+    public void compact() {
+        if (!stockCheckpointRepository.tryLockCompaction(COMPACTION_LOCK_KEY)) {
+            log.debug("Stock ledger compaction already running on another node");
+            return;
+        }
+
+        // Products without open rows keep their older checkpoint, which is still exact
+        List<Object[]> rolled = inventoryTransactionRepository.checkpointOpenChanges();
+        if (rolled.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> deltas = toMap(rolled);
+        Map<Long, Long> lastIds = new HashMap<>();
+        for (Object[] row : rolled) {
+            lastIds.put((Long) row[0], ((Number) row[2]).longValue());
+        }
+        Map<Long, StockCheckpoint> latest = new HashMap<>();
+        for (StockCheckpoint checkpoint : stockCheckpointRepository.findLatestByProductIdIn(deltas.keySet())) {
+            latest.put(checkpoint.getProduct().getId(), checkpoint);
+        }
+
+        List<StockCheckpoint> checkpoints = new ArrayList<>(deltas.size());
+        deltas.forEach((productId, delta) -> {
+            StockCheckpoint previous = latest.get(productId);
+            StockCheckpoint checkpoint = new StockCheckpoint();
+            checkpoint.setProduct(productRepository.getReferenceById(productId));
+            checkpoint.setQuantity((previous != null ? previous.getQuantity() : 0) + delta);
+            checkpoint.setLastTransactionId(previous != null
+                    ? Math.max(previous.getLastTransactionId(), lastIds.get(productId))
+                    : lastIds.get(productId));
+            checkpoints.add(checkpoint);
+        });
+        stockCheckpointRepository.saveAll(checkpoints);
+        stockCheckpointRepository.flush();
+
+        int pruned = stockCheckpointRepository.deleteSuperseded();
+        log.info("Stock ledger compacted: {} checkpoints written, {} pruned", checkpoints.size(), pruned);
+    }
+
+    // The product row and both ledger reads share one snapshot; getCurrentStock is a self-call, so its
+    // own isolation setting does not apply here
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public StockReconciliationDto reconcile(Long productId) {
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResourceNotFound("Product not found with ID: " + productId));
+        return toReconciliation(product, getCurrentStock(productId));
+    }
+
+    // Scans the catalog in id order and returns only products whose ledger disagrees with products.stock_quantity.
+    // Every batch reads from the transaction's single snapshot, so a concurrent compaction cannot show up half-done.
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public List<StockReconciliationDto> findMismatches() {
+        List<StockReconciliationDto> mismatches = new ArrayList<>();
+        long lastId = 0;
+        List<Product> batch;
+        do {
+            batch = productRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, RECONCILE_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<Long> ids = batch.stream().map(Product::getId).toList();
+
+            Map<Long, Integer> bases = new HashMap<>();
+            for (StockCheckpoint checkpoint : stockCheckpointRepository.findLatestByProductIdIn(ids)) {
+                bases.put(checkpoint.getProduct().getId(), checkpoint.getQuantity());
+            }
+            Map<Long, Integer> open = toMap(inventoryTransactionRepository.sumOpenChangesByProduct(ids));
+
+            for (Product product : batch) {
+                int ledgerStock = bases.getOrDefault(product.getId(), 0) + open.getOrDefault(product.getId(), 0);
+                StockReconciliationDto result = toReconciliation(product, ledgerStock);
+                if (result.getDifference() != 0) {
+                    mismatches.add(result);
+                }
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == RECONCILE_BATCH_SIZE);
+        return mismatches;
+    }
+
+    private StockReconciliationDto toReconciliation(Product product, int ledgerStock) {
+        int productStock = product.getStockQuantity() != null ? product.getStockQuantity() : 0;
+        return new StockReconciliationDto(
+                product.getId(),
+                product.getSku(),
+                ledgerStock,
+                productStock,
+                productStock - ledgerStock
+        );
+    }
+
+    private static Map<Long, Integer> toMap(List<Object[]> rows) {
+        Map<Long, Integer> sums = new HashMap<>();
+        for (Object[] row : rows) {
+            sums.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return sums;
+    }
+}
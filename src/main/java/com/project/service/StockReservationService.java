@@ -0,0 +1,50 @@
+package com.project.service;
+
+import com.project.exception.InsufficientStockException;
+import com.project.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(propagation = Propagation.MANDATORY)
+public class StockReservationService {
+
+    private final ProductRepository productRepository;
+    private final HotStockLedger hotStockLedger;
+
+    // All-or-nothing: a failing line throws and the caller's transaction undoes the earlier lines
+    public void reserve(Map<Long, Integer> quantitiesByProductId) {
+        // Ascending product id = the same row-lock order for every checkout, so no deadlocks
+        for (Map.Entry<Long, Integer> line : new TreeMap<>(quantitiesByProductId).entrySet()) {
+            Long productId = line.getKey();
+            int quantity = line.getValue();
+
+            boolean reserved = hotStockLedger.tracks(productId)
+                    ? hotStockLedger.tryReserve(productId, quantity)
+                    : productRepository.decrementStock(productId, quantity) == 1;
+
+            if (!reserved) {
+                log.debug("Stock reservation failed for product {} x{}", productId, quantity);
+                throw new InsufficientStockException(productId, quantity);
+            }
+        }
+    }
+
+    public void release(Map<Long, Integer> quantitiesByProductId) {
+        for (Map.Entry<Long, Integer> line : new TreeMap<>(quantitiesByProductId).entrySet()) {
+            if (hotStockLedger.tracks(line.getKey())) {
+                hotStockLedger.release(line.getKey(), line.getValue());
+            } else {
+                productRepository.adjustStock(line.getKey(), line.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.project.service;
+
+import com.project.dto.UserDirectoryStatsDto;
+import com.project.dto.UserProfileDto;
+import com.project.entity.User;
+import com.project.enums.UserType;
+import com.project.exception.AppException;
+import com.project.mapper.UserMapper;
+import com.project.repository.UserDirectoryFilter;
+import com.project.repository.UserRepository;
+import com.project.util.CursorPage;
+import com.project.util.KeysetCursor;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Admin view of the users table. Every read is a bounded page or an aggregate computed by the database,
+// so memory and latency do not grow with the number of customers.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class UserDirectoryService {
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void createIndexes() {
+        // ddl-auto cannot express an expression index or an operator class. Emails keep the case they were
+        // registered with, so the prefix search matches lower(email); text_pattern_ops serves LIKE 'prefix%'
+        // in any collation.
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_users_email_prefix");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_users_email_lower_prefix ON users (lower(email) text_pattern_ops)");
+
+        // Rows from before is_active was NOT NULL: login treated a null as active, so store it as such and
+        // every count and filter agrees. Only done once; SET NOT NULL scans the table under an exclusive lock.
+        Boolean nullable = jdbcTemplate.queryForObject(
+                "SELECT is_nullable = 'YES' FROM information_schema.columns " +
+                "WHERE table_schema = current_schema() AND table_name = 'users' AND column_name = 'is_active'",
+                Boolean.class);
+        if (Boolean.TRUE.equals(nullable)) {
+            int backfilled = jdbcTemplate.update("UPDATE users SET is_active = true WHERE is_active IS NULL");
+            jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN is_active SET DEFAULT true, " +
+                    "ALTER COLUMN is_active SET NOT NULL");
+            log.info("users.is_active is now NOT NULL; {} null rows set to active", backfilled);
+        }
+    }
+
+    public CursorPage<UserProfileDto> listUsers(UserType userType, Boolean isActive, LocalDateTime createdFrom,
+                                                LocalDateTime createdTo, String emailPrefix, String cursor,
+                                                int size, boolean includeTotal) {
+        UserDirectoryFilter filter = filter(userType, isActive, createdFrom, createdTo, emailPrefix);
+        KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : null;
+
+        // Fetch one extra row to know whether another page exists without counting
+        List<User> rows;
+        if (after == null) {
+            rows = userRepository.findDirectory(filter, null, null, size + 1);
+        } else {
+            LocalDateTime afterCreatedAt;
+            try {
+                afterCreatedAt = LocalDateTime.parse(after.getSortKey());
+            } catch (DateTimeParseException e) {
+                throw new AppException("Invalid cursor", e);
+            }
+            rows = userRepository.findDirectory(filter, afterCreatedAt, after.getId(), size + 1);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            User last = rows.get(size - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt().toString(), last.getId()).encode();
+        }
+
+        Long total = includeTotal
+                ? userRepository.countDirectory(filter)
+                : null;
+        return new CursorPage<>(userMapper.toDtoList(rows), nextCursor, size, total);
+    }
+
+    public long countActiveUsers() {
+        return userRepository.countByIsActiveTrue();
+    }
+
+    public UserDirectoryStatsDto getStats() {
+        long active = 0;
+        long inactive = 0;
+        Map<UserType, Long> byType = new EnumMap<>(UserType.class);
+        for (Object[] row : userRepository.countByTypeAndStatus()) {
+            long count = (Long) row[2];
+            byType.merge((UserType) row[0], count, Long::sum);
+            // Same rule as countActiveUsers; is_active is NOT NULL (see createIndexes)
+            if (Boolean.TRUE.equals(row[1])) {
+                active += count;
+            } else {
+                inactive += count;
+            }
+        }
+        return new UserDirectoryStatsDto(active + inactive, active, inactive, byType);
+    }
+
+    static UserDirectoryFilter filter(UserType userType, Boolean isActive, LocalDateTime createdFrom,
+                                      LocalDateTime createdTo, String emailPrefix) {
+        return new UserDirectoryFilter(userType, isActive, createdFrom, createdTo, emailPattern(emailPrefix));
+    }
+
+    // Matched against lower(email); LIKE wildcards typed by the admin are matched literally
+    private static String emailPattern(String emailPrefix) {
+        if (emailPrefix == null || emailPrefix.isBlank()) {
+            return null;
+        }
+        String escaped = emailPrefix.trim().toLowerCase(Locale.ROOT)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return escaped + "%";
+    }
+}
@@ -1,5 +1,6 @@
 package com.project.service;
 
+import com.project.dto.AddressDto;
 import com.project.dto.RegisterRequest;
 import com.project.dto.UpdateUserProfileRequest;
 import com.project.dto.UserProfileDto;
@@ -8,8 +9,11 @@ import com.project.entity.User;
 import com.project.enums.UserType;
 import com.project.exception.ResourceAlreadyExists;
 import com.project.exception.ResourceNotFoundException;
+import com.project.mapper.AddressMapper;
+import com.project.mapper.UserMapper;
 import com.project.repository.AddressRepository;
 import com.project.repository.UserRepository;
+import com.project.security.TokenDenylist;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -28,17 +32,17 @@ public class UserService {
     private final UserRepository userRepository;
     private final AddressRepository addressRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenDenylist tokenDenylist;
+    private final UserMapper userMapper;
+    private final AddressMapper addressMapper;
     
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
-    }
-
+    @Transactional(readOnly = true)
     public UserProfileDto getUserProfile(Long userId) {
         log.debug("Fetching user profile for user ID: {}", userId);
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
         
-        return mapToUserProfileDto(user);
+        return userMapper.toDto(user);
     }
 
     public UserProfileDto updateUserProfile(Long userId, UpdateUserProfileRequest request) {
@@ -59,18 +63,19 @@ public class UserService {
         User savedUser = userRepository.save(user);
         log.info("Updated profile for user: {}", savedUser.getEmail());
         
-        return mapToUserProfileDto(savedUser);
+        return userMapper.toDto(savedUser);
     }
 
-    public List<Address> getUserAddresses(Long userId) {
+    @Transactional(readOnly = true)
+    public List<AddressDto> getUserAddresses(Long userId) {
         log.debug("Fetching addresses for user ID: {}", userId);
         if (!userRepository.existsById(userId)) {
             throw new ResourceNotFoundException("User", "id", userId);
         }
-        return addressRepository.findByUserId(userId);
+        return addressMapper.toDtoList(addressRepository.findByUserId(userId));
     }
 
-    public Address addUserAddress(Long userId, Address address) {
+    public AddressDto addUserAddress(Long userId, Address address) {
         log.debug("Adding address for user ID: {}", userId);
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
@@ -79,7 +84,7 @@ public class UserService {
         Address savedAddress = addressRepository.save(address);
         log.info("Added new address ID: {} for user ID: {}", savedAddress.getId(), userId);
         
-        return savedAddress;
+        return addressMapper.toDto(savedAddress);
     }
     
     public void deleteUserAddress(Long userId, Long addressId) {
@@ -102,7 +107,7 @@ public class UserService {
         log.info("Deleted address ID: {} for user ID: {}", addressId, userId);
     }
     
-    public Address updateUserAddress(Long userId, Long addressId, Address addressDetails) {
+    public AddressDto updateUserAddress(Long userId, Long addressId, Address addressDetails) {
         log.debug("Updating address ID: {} for user ID: {}", addressId, userId);
         
         if (!userRepository.existsById(userId)) {
@@ -136,7 +141,7 @@ public class UserService {
         Address updatedAddress = addressRepository.save(address);
         log.info("Updated address ID: {} for user ID: {}", addressId, userId);
         
-        return updatedAddress;
+        return addressMapper.toDto(updatedAddress);
     }
 
     @Transactional
@@ -167,15 +172,16 @@ public class UserService {
         userRepository.save(user);
     }
 
-    private UserProfileDto mapToUserProfileDto(User user) {
-        return new UserProfileDto(
-                user.getId(),
-                user.getEmail(),
-                user.getFirstName(),
-                user.getLastName(),
-                user.getPhone(),
-                user.getUserType(),
-                user.getIsActive()
-        );
+    public void updateUserStatus(Long userId, boolean isActive) {
+        // One UPDATE by primary key instead of loading the user and its lazy associations
+        if (userRepository.updateActive(userId, isActive) == 0) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+
+        if (!isActive) {
+            // Access tokens are verified without a user lookup, so cut off the ones already issued
+            tokenDenylist.revokeUser(userId);
+        }
+        log.info("Set active={} for user {}", isActive, userId);
     }
 }
@@ -1,10 +1,14 @@
 package com.project.service;
 
+import com.project.dto.ProductDto;
+import com.project.dto.WishlistItemDto;
 import com.project.entity.Product;
 import com.project.entity.User;
 import com.project.entity.WishlistItem;
 import com.project.exception.ResourceNotFoundException;
 import com.project.exception.ResourceAlreadyExists;
+import com.project.mapper.ProductMapper;
+import com.project.mapper.WishlistItemMapper;
 import com.project.repository.ProductRepository;
 import com.project.repository.UserRepository;
 import com.project.repository.WishlistItemRepository;
@@ -25,15 +29,18 @@ public class WishlistService {
     private final WishlistItemRepository wishlistItemRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
+    private final WishlistItemMapper wishlistItemMapper;
+    private final ProductMapper productMapper;
 
-    public List<WishlistItem> getUserWishlist(Long userId) {
+    @Transactional(readOnly = true)
+    public List<WishlistItemDto> getUserWishlist(Long userId) {
         if (!userRepository.existsById(userId)) {
             throw new ResourceNotFoundException("User", "id", userId);
         }
-        return wishlistItemRepository.findByUserId(userId);
+        return wishlistItemRepository.findDtosByUserId(userId);
     }
 
-    public WishlistItem addToWishlist(Long userId, Long productId) {
+    public WishlistItemDto addToWishlist(Long userId, Long productId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
         
@@ -51,7 +58,7 @@ public class WishlistService {
         wishlistItem.setProduct(product);
         // createdAt is automatically set by @CreationTimestamp
 
-        return wishlistItemRepository.save(wishlistItem);
+        return wishlistItemMapper.toDto(wishlistItemRepository.save(wishlistItem));
     }
 
     public void removeFromWishlist(Long userId, Long productId) {
@@ -80,11 +87,12 @@ public class WishlistService {
         return wishlistItemRepository.countByUserId(userId);
     }
 
-    public List<Product> getWishlistProducts(Long userId) {
-        List<WishlistItem> wishlistItems = getUserWishlist(userId);
-        return wishlistItems.stream()
-                .map(WishlistItem::getProduct)
-                .toList();
+    @Transactional(readOnly = true)
+    public List<ProductDto> getWishlistProducts(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId);
+        }
+        return productMapper.toDtoList(wishlistItemRepository.findProductsByUserId(userId));
     }
 
     public void moveToCart(Long userId, Long productId) {
@@ -96,11 +104,12 @@ public class WishlistService {
         wishlistItemRepository.delete(wishlistItem);
     }
 
-    public List<WishlistItem> getWishlistItemsByProduct(Long productId) {
+    @Transactional(readOnly = true)
+    public List<WishlistItemDto> getWishlistItemsByProduct(Long productId) {
         if (!productRepository.existsById(productId)) {
             throw new ResourceNotFoundException("Product", "id", productId);
         }
-        return wishlistItemRepository.findByProductId(productId);
+        return wishlistItemRepository.findDtosByProductId(productId);
     }
 
     public void removeWishlistItemById(Long userId, Long wishlistItemId) {
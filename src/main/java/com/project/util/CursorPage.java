@@ -0,0 +1,30 @@
+package com.project.util;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPage<T> {
+    private final List<T> items;
+    private final String nextCursor;
+    private final boolean hasNext;
+    private final int pageSize;
+    private final Long totalItems;
+
+    public CursorPage(List<T> items, String nextCursor, int pageSize, Long totalItems) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+        this.pageSize = pageSize;
+        this.totalItems = totalItems;
+    }
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = items.stream().<R>map(mapper).toList();
+        return new CursorPage<>(mapped, nextCursor, pageSize, totalItems);
+    }
+}
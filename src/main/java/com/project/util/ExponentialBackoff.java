@@ -0,0 +1,12 @@
+package com.project.util;
+
+import java.time.Duration;
+
+// Retry delay after a failed attempt: initial, 2x, 4x ... capped at max
+public record ExponentialBackoff(Duration initial, Duration max) {
+
+    public Duration delay(int attempts) {
+        Duration delay = initial.multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), 20));
+        return delay.compareTo(max) > 0 ? max : delay;
+    }
+}
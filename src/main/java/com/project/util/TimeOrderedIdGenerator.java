@@ -0,0 +1,69 @@
+package com.project.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// 64-bit ids that sort by creation time: 41 bits of milliseconds since EPOCH (about 69 years), 10 bits of
+// node id and a 12-bit per-millisecond counter. Unique as long as every node runs with its own node id.
+// Lock-free (one CAS per id) and allocation-free.
+public final class TimeOrderedIdGenerator {
+
+    public static final long EPOCH = 1704067200000L; // 2024-01-01T00:00:00Z
+
+    private static final int NODE_BITS = 10;
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+
+    // (milliseconds since EPOCH << COUNTER_BITS) | counter, of the last id handed out
+    private final AtomicLong last = new AtomicLong();
+
+    public TimeOrderedIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    TimeOrderedIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << COUNTER_BITS;
+        this.clock = clock;
+    }
+
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH) << COUNTER_BITS;
+        long previous;
+        long next;
+        do {
+            previous = last.get();
+            // Same millisecond, more than 4096 ids in it, or the clock stepped back: continue after the last
+            // id. The counter carries into the timestamp bits rather than waiting for the clock to catch up.
+            next = now > previous ? now : previous + 1;
+        } while (!last.compareAndSet(previous, next));
+        return ((next >>> COUNTER_BITS) << (NODE_BITS + COUNTER_BITS)) | nodeBits | (next & COUNTER_MASK);
+    }
+
+    // The configured app.ids.node-id. There is deliberately no default: two nodes both falling back to 0
+    // would hand out the same ids in the same millisecond.
+    public static int requireNodeId(Object configured) {
+        String value = configured != null ? configured.toString().trim() : "";
+        if (value.isEmpty()) {
+            throw new IllegalStateException("app.ids.node-id is not set; give every node its own NODE_ID (0-"
+                    + MAX_NODE_ID + ")");
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("app.ids.node-id must be a number between 0 and " + MAX_NODE_ID
+                    + ": " + value);
+        }
+    }
+
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + COUNTER_BITS)) + EPOCH;
+    }
+}
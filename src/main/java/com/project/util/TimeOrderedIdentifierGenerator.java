@@ -0,0 +1,28 @@
+package com.project.util;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+
+// Hibernate side of @TimeOrderedId. The node id comes from the Hibernate settings
+// (spring.jpa.properties.app.ids.node-id), since generators are created by Hibernate, not Spring.
+public class TimeOrderedIdentifierGenerator implements IdentifierGenerator {
+
+    public static final String NODE_ID_SETTING = "app.ids.node-id";
+
+    private final TimeOrderedIdGenerator generator;
+
+    public TimeOrderedIdentifierGenerator(TimeOrderedId config, Member member, CustomIdGeneratorCreationContext context) {
+        Object nodeId = context.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSettings().get(NODE_ID_SETTING);
+        this.generator = new TimeOrderedIdGenerator(TimeOrderedIdGenerator.requireNodeId(nodeId));
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return generator.nextId();
+    }
+}
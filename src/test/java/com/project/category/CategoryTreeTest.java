@@ -0,0 +1,117 @@
+package com.project.category;
+
+import com.project.dto.CategoryDto;
+import com.project.entity.Category;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CategoryTreeTest {
+
+    // 1 Electronics       5 Books          7 Toys (parent 99 is missing, so it is a root)
+    // ├─ 2 Phones         └─ 6 Fiction     8 <-> 9 parent cycle, unreachable
+    // │  └─ 4 Cases (inactive)
+    // └─ 3 Laptops
+    private final CategoryTree tree;
+
+    CategoryTreeTest() {
+        Category electronics = category(1L, "Electronics", null);
+        Category phones = category(2L, "Phones", electronics);
+        Category laptops = category(3L, "Laptops", electronics);
+        Category cases = category(4L, "Cases", phones);
+        cases.setIsActive(false);
+        Category books = category(5L, "Books", null);
+        Category fiction = category(6L, "Fiction", books);
+        Category toys = category(7L, "Toys", category(99L, "Deleted", null));
+        Category first = category(8L, "First", null);
+        Category second = category(9L, "Second", first);
+        first.setParent(second);
+
+        // Load order does not matter
+        tree = CategoryTree.build(List.of(fiction, second, cases, toys, laptops, books, first, phones, electronics),
+                Map.of(2L, 3L, 3L, 1L, 4L, 2L, 6L, 5L));
+    }
+
+    @Test
+    void subtreeContainsTheCategoryAndAllDescendants() {
+        assertThat(tree.subtreeIds(1L)).containsExactly(1L, 2L, 4L, 3L);
+        assertThat(tree.subtreeIds(2L)).containsExactly(2L, 4L);
+        assertThat(tree.subtreeIds(3L)).containsExactly(3L);
+        assertThat(tree.subtreeIds(5L)).containsExactly(5L, 6L);
+        assertThat(tree.subtreeIds(42L)).isEmpty();
+    }
+
+    @Test
+    void subtreeMembershipFollowsTheHierarchy() {
+        assertThat(tree.isInSubtree(1L, 1L)).isTrue();
+        assertThat(tree.isInSubtree(1L, 4L)).isTrue();
+        assertThat(tree.isInSubtree(2L, 4L)).isTrue();
+        assertThat(tree.isInSubtree(4L, 2L)).isFalse();
+        assertThat(tree.isInSubtree(2L, 3L)).isFalse();
+        assertThat(tree.isInSubtree(3L, 2L)).isFalse();
+        assertThat(tree.isInSubtree(1L, 6L)).isFalse();
+        assertThat(tree.isInSubtree(5L, 6L)).isTrue();
+        assertThat(tree.isInSubtree(1L, 42L)).isFalse();
+        assertThat(tree.isInSubtree(42L, 1L)).isFalse();
+    }
+
+    @Test
+    void intervalsNestLikeTheSubtrees() {
+        for (Long ancestor : List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L)) {
+            for (Long candidate : List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L)) {
+                boolean inInterval = tree.treeLeft(candidate) >= tree.treeLeft(ancestor)
+                        && tree.treeLeft(candidate) <= tree.treeRight(ancestor);
+                assertThat(inInterval).as("%d in %d", candidate, ancestor)
+                        .isEqualTo(tree.isInSubtree(ancestor, candidate));
+            }
+        }
+    }
+
+    @Test
+    void categoriesInAParentCycleAreLeftOut() {
+        assertThat(tree.size()).isEqualTo(7);
+        assertThat(tree.contains(8L)).isFalse();
+        assertThat(tree.contains(9L)).isFalse();
+        assertThat(tree.contains(7L)).isTrue();
+        assertThat(tree.path(7L)).extracting(CategoryDto::getId).containsExactly(7L);
+    }
+
+    @Test
+    void pathRunsFromTheRootToTheCategory() {
+        assertThat(tree.path(4L)).extracting(CategoryDto::getId).containsExactly(1L, 2L, 4L);
+        assertThat(tree.path(42L)).isEmpty();
+    }
+
+    @Test
+    void onlyActiveCategoriesAreListed() {
+        assertThat(tree.activeRoots()).extracting(CategoryDto::getId).containsExactly(1L, 5L, 7L);
+        assertThat(tree.activeChildren(1L)).extracting(CategoryDto::getId).containsExactly(2L, 3L);
+        assertThat(tree.activeChildren(2L)).isEmpty();
+        assertThat(tree.activeCategories()).extracting(CategoryDto::getId).doesNotContain(4L);
+    }
+
+    @Test
+    void subtreeCountsIncludeDescendantsActiveOrNot() {
+        assertThat(tree.productCount(1L)).isZero();
+        assertThat(tree.subtreeProductCount(1L)).isEqualTo(6);
+        assertThat(tree.subtreeProductCount(2L)).isEqualTo(5);
+        assertThat(tree.get(5L).getSubtreeProductCount()).isEqualTo(5);
+
+        CategoryTree recounted = tree.withProductCounts(Map.of(3L, 10L));
+
+        assertThat(recounted.subtreeProductCount(1L)).isEqualTo(10);
+        assertThat(recounted.subtreeProductCount(2L)).isZero();
+        assertThat(recounted.subtreeIds(1L)).isEqualTo(tree.subtreeIds(1L));
+    }
+
+    private static Category category(Long id, String name, Category parent) {
+        Category category = new Category();
+        category.setId(id);
+        category.setName(name);
+        category.setParent(parent);
+        return category;
+    }
+}
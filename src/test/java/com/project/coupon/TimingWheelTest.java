@@ -0,0 +1,93 @@
+package com.project.coupon;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long START = 1_000_003L;
+
+    private final TimingWheel<Long> wheel = new TimingWheel<>(START);
+    // payload (its deadline) -> tick it fired on
+    private final Map<Long, Long> fired = new LinkedHashMap<>();
+
+    @Test
+    void timersCascadeDownAndFireOnTheirDeadline() {
+        // One deadline per level, plus some that sit exactly on a revolution boundary
+        List<Long> deadlines = List.of(START + 1, START + 63, START + 64, START + 65, START + 4_095, START + 4_096,
+                START + 4_097, START + 262_144, START + 300_001, START + 16_777_216, START + 20_000_000);
+        deadlines.forEach(deadline -> wheel.schedule(deadline, deadline));
+
+        advance(START + 20_000_000);
+
+        assertThat(fired.keySet()).containsExactlyElementsOf(deadlines);
+        fired.forEach((deadline, tick) -> assertThat(tick).isEqualTo(deadline));
+    }
+
+    @Test
+    void randomDeadlinesFireInDeadlineOrder() {
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            long deadline = START + 1 + random.nextInt(300_000);
+            if (!deadlines.contains(deadline)) {
+                deadlines.add(deadline);
+                wheel.schedule(deadline, deadline);
+            }
+        }
+
+        // Uneven steps, so cascades happen both inside one advance and at its edges
+        long tick = START;
+        while (tick < START + 300_000) {
+            tick = Math.min(tick + 1 + random.nextInt(5_000), START + 300_000);
+            advance(tick);
+        }
+
+        assertThat(fired.keySet()).containsExactlyElementsOf(deadlines.stream().sorted().toList());
+        fired.forEach((deadline, firedAt) -> assertThat(firedAt).isEqualTo(deadline));
+    }
+
+    @Test
+    void timersScheduledAfterAdvancingLandRelativeToTheCurrentTick() {
+        advance(START + 5_000);
+        wheel.schedule(START + 5_070, START + 5_070L);
+        wheel.schedule(START + 9_000, START + 9_000L);
+
+        advance(START + 10_000);
+
+        assertThat(fired).containsEntry(START + 5_070, START + 5_070).containsEntry(START + 9_000, START + 9_000);
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextTick() {
+        advance(START + 100);
+        wheel.schedule(START + 10, START + 10L);
+
+        advance(START + 101);
+
+        assertThat(fired).containsExactly(Map.entry(START + 10, START + 101));
+    }
+
+    @Test
+    void cancelledTimersDoNotFireAfterCascading() {
+        TimingWheel.Timer<Long> cancelled = wheel.schedule(START + 5_000, START + 5_000L);
+        wheel.schedule(START + 5_001, START + 5_001L);
+        cancelled.cancel();
+
+        advance(START + 6_000);
+
+        assertThat(fired.keySet()).containsExactly(START + 5_001);
+    }
+
+    private void advance(long tick) {
+        wheel.advance(tick, deadline -> fired.put(deadline, wheel.currentTick()));
+        assertThat(wheel.currentTick()).isEqualTo(tick);
+    }
+}
@@ -0,0 +1,180 @@
+package com.project.mail;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.entity.DeadLetterMail;
+import com.project.entity.QueuedMail;
+import com.project.repository.DeadLetterMailRepository;
+import com.project.repository.QueuedMailRepository;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MailDispatcherTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(30);
+
+    private final QueuedMailRepository queuedMailRepository = mock(QueuedMailRepository.class);
+    private final DeadLetterMailRepository deadLetterMailRepository = mock(DeadLetterMailRepository.class);
+    private final RecordingMailSender mailSender = new RecordingMailSender();
+    private MailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        dispatcher = new MailDispatcher(mailSender, new MailTemplateCache(), queuedMailRepository,
+                deadLetterMailRepository, new ObjectMapper(), transactionTemplate, 2, 100, MAX_ATTEMPTS,
+                INITIAL_BACKOFF, Duration.ofHours(1), Duration.ofDays(7), "shop@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void sentMailsAreMarkedSentAndKeptForDeduplication() {
+        givenDue(mail(1L, "a@example.com", 0), mail(2L, "b@example.com", 0));
+
+        dispatcher.dispatch();
+
+        assertThat(mailSender.recipients).containsExactlyInAnyOrder("a@example.com", "b@example.com");
+        assertThat(markedSent()).containsExactlyInAnyOrder(1L, 2L);
+        verify(queuedMailRepository, never()).deleteByIdIn(anyCollection());
+    }
+
+    @Test
+    void failedMailBacksOffAndIsRetriedLater() {
+        QueuedMail bounced = mail(1L, "bounce@example.com", 0);
+        givenDue(bounced, mail(2L, "ok@example.com", 0));
+        mailSender.rejected.add("bounce@example.com");
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+
+        assertThat(markedSent()).containsExactly(2L);
+        verify(queuedMailRepository).save(bounced);
+        assertThat(bounced.getAttempts()).isEqualTo(1);
+        assertThat(bounced.getLastError()).contains("rejected");
+        assertThat(bounced.getNextAttemptAt()).isAfterOrEqualTo(before.plus(INITIAL_BACKOFF));
+        assertThat(bounced.getSentAt()).isNull();
+        verify(deadLetterMailRepository, never()).save(any());
+    }
+
+    @Test
+    void mailMovesToDeadLettersWhenAttemptsRunOut() {
+        givenDue(mail(1L, "bounce@example.com", MAX_ATTEMPTS - 1));
+        mailSender.rejected.add("bounce@example.com");
+
+        dispatcher.dispatch();
+
+        ArgumentCaptor<DeadLetterMail> dead = ArgumentCaptor.forClass(DeadLetterMail.class);
+        verify(deadLetterMailRepository).save(dead.capture());
+        assertThat(dead.getValue().getDedupKey()).isEqualTo("outbox:1");
+        assertThat(dead.getValue().getAttempts()).isEqualTo(MAX_ATTEMPTS);
+        verify(queuedMailRepository).deleteByIdIn(List.of(1L));
+        verify(queuedMailRepository, never()).markSent(anyCollection(), any());
+    }
+
+    @Test
+    void connectionFailureRetriesTheWholeShare() {
+        QueuedMail first = mail(1L, "a@example.com", 0);
+        QueuedMail second = mail(2L, "b@example.com", 0);
+        givenDue(first, second);
+        mailSender.unreachable = true;
+
+        dispatcher.dispatch();
+
+        verify(queuedMailRepository, never()).markSent(anyCollection(), any());
+        assertThat(first.getAttempts()).isEqualTo(1);
+        assertThat(second.getAttempts()).isEqualTo(1);
+    }
+
+    private void givenDue(QueuedMail... mails) {
+        when(queuedMailRepository.findDue(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(mails));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<Long> markedSent() {
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(queuedMailRepository).markSent(ids.capture(), any(LocalDateTime.class));
+        return ids.getValue();
+    }
+
+    private static QueuedMail mail(Long id, String recipient, int attempts) {
+        QueuedMail mail = new QueuedMail();
+        mail.setId(id);
+        mail.setDedupKey("outbox:" + id);
+        mail.setRecipient(recipient);
+        mail.setTemplate("order-placed");
+        mail.setModel("{\"firstName\":\"Ada\",\"orderNumber\":\"ORD-" + id + "\",\"totalAmount\":\"10.00\",\"itemCount\":\"1\"}");
+        mail.setAttempts(attempts);
+        mail.setNextAttemptAt(LocalDateTime.now());
+        return mail;
+    }
+
+    // Goes through JavaMailSenderImpl's real send(MimeMessage...) path, but records instead of talking SMTP.
+    // Recipients in `rejected` fail individually, as a 550 would; `unreachable` fails the whole connection.
+    private static class RecordingMailSender extends JavaMailSenderImpl {
+
+        final List<String> recipients = new ArrayList<>();
+        final Set<String> rejected = new HashSet<>();
+        volatile boolean unreachable;
+
+        @Override
+        protected synchronized void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+            if (unreachable) {
+                throw new MailSendException("Connection refused");
+            }
+            Map<Object, Exception> failed = new LinkedHashMap<>();
+            for (MimeMessage message : mimeMessages) {
+                String recipient = recipient(message);
+                if (rejected.contains(recipient)) {
+                    failed.put(message, new MessagingException("550 " + recipient + " rejected"));
+                } else {
+                    recipients.add(recipient);
+                }
+            }
+            if (!failed.isEmpty()) {
+                throw new MailSendException(failed);
+            }
+        }
+
+        private static String recipient(MimeMessage message) {
+            try {
+                Address[] to = message.getAllRecipients();
+                return to[0].toString();
+            } catch (MessagingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
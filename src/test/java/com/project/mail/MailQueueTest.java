@@ -0,0 +1,53 @@
+package com.project.mail;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.entity.QueuedMail;
+import com.project.repository.DeadLetterMailRepository;
+import com.project.repository.QueuedMailRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MailQueueTest {
+
+    private final QueuedMailRepository queuedMailRepository = mock(QueuedMailRepository.class);
+    private final DeadLetterMailRepository deadLetterMailRepository = mock(DeadLetterMailRepository.class);
+    private final MailQueue mailQueue = new MailQueue(queuedMailRepository, deadLetterMailRepository, new ObjectMapper());
+
+    @Test
+    void queuesNewMail() {
+        assertThat(mailQueue.enqueue("outbox:1", "a@example.com", "order-placed", Map.of("orderNumber", "ORD-1")))
+                .isTrue();
+
+        ArgumentCaptor<QueuedMail> saved = ArgumentCaptor.forClass(QueuedMail.class);
+        verify(queuedMailRepository).save(saved.capture());
+        assertThat(saved.getValue().getDedupKey()).isEqualTo("outbox:1");
+        assertThat(saved.getValue().getModel()).contains("ORD-1");
+        assertThat(saved.getValue().getNextAttemptAt()).isNotNull();
+    }
+
+    // Sent mails stay in mail_queue, so this also covers an event redelivered after its mail went out
+    @Test
+    void redeliveredEventIsNotQueuedTwice() {
+        when(queuedMailRepository.existsByDedupKey("outbox:1")).thenReturn(true);
+
+        assertThat(mailQueue.enqueue("outbox:1", "a@example.com", "order-placed", Map.of())).isFalse();
+        verify(queuedMailRepository, never()).save(any());
+    }
+
+    @Test
+    void deadLetteredMailIsNotQueuedAgain() {
+        when(deadLetterMailRepository.existsByDedupKey("outbox:1")).thenReturn(true);
+
+        assertThat(mailQueue.enqueue("outbox:1", "a@example.com", "order-placed", Map.of())).isFalse();
+        verify(queuedMailRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,251 @@
+package com.project.promotion;
+
+import com.project.category.CategoryTree;
+import com.project.dto.AppliedPromotionDto;
+import com.project.dto.CartPricingDto;
+import com.project.entity.Category;
+import com.project.entity.Coupon;
+import com.project.enums.DiscountType;
+import com.project.exception.AppException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PromotionSnapshotTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    // 1 Kitchen > 2 Knives, 3 Garden
+    private static final CategoryTree TREE = tree();
+
+    // 120.00: two knives at 50.00 and a garden hose at 20.00
+    private static final List<PromotionLine> CART = List.of(
+            PromotionLine.of(10L, 2L, new BigDecimal("50.00"), 2),
+            PromotionLine.of(11L, 3L, new BigDecimal("20.00"), 1));
+
+    @Test
+    void plainCouponDiscountsTheWholeCart() {
+        Coupon coupon = coupon(1L, "TEN");
+        coupon.setType(DiscountType.PERCENTAGE);
+        coupon.setValue(new BigDecimal("10"));
+
+        CartPricingDto pricing = price(List.of(coupon), "TEN");
+
+        assertThat(pricing.getSubtotal()).isEqualByComparingTo("120.00");
+        assertThat(pricing.getDiscount()).isEqualByComparingTo("12.00");
+        assertThat(pricing.getTotal()).isEqualByComparingTo("108.00");
+        assertThat(pricing.isCouponApplied()).isTrue();
+        assertThat(pricing.getPromotions()).singleElement().satisfies(applied -> {
+            assertThat(applied.isCoupon()).isTrue();
+            assertThat(applied.isAutomatic()).isFalse();
+        });
+    }
+
+    @Test
+    void categoryScopeCoversTheSubtree() {
+        Coupon kitchen = automatic(1L, "KITCHEN", 0, true,
+                rules(Map.of("percentOff", 50, "scope", Map.of("categories", List.of(1)))));
+
+        CartPricingDto pricing = price(List.of(kitchen), null);
+
+        assertThat(pricing.getDiscount()).isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    void productScopeOnlyCountsItsProducts() {
+        Coupon hose = automatic(1L, "HOSE", 0, true,
+                rules(Map.of("amountOff", 100, "scope", Map.of("products", List.of(11)))));
+
+        CartPricingDto pricing = price(List.of(hose), null);
+
+        // Never more than the scope is worth
+        assertThat(pricing.getDiscount()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void conditionsGateTheActions() {
+        Coupon twoKnives = automatic(1L, "TWO-KNIVES", 0, true, Map.of(
+                "when", Map.of("all", List.of(
+                        Map.of("subtotalAtLeast", 100),
+                        Map.of("quantityAtLeast", 2, "scope", Map.of("categories", List.of(2))))),
+                "then", List.of(Map.of("amountOff", 15))));
+        Coupon threeKnives = automatic(2L, "THREE-KNIVES", 0, true, Map.of(
+                "when", Map.of("quantityAtLeast", 3, "scope", Map.of("categories", List.of(2))),
+                "then", List.of(Map.of("amountOff", 40))));
+
+        CartPricingDto pricing = price(List.of(twoKnives, threeKnives), null);
+
+        assertThat(codes(pricing)).containsExactly("TWO-KNIVES");
+        assertThat(pricing.getDiscount()).isEqualByComparingTo("15.00");
+    }
+
+    @Test
+    void buyXGetYDiscountsTheCheapestUnits() {
+        Coupon threeForTwo = automatic(1L, "3FOR2", 0, true, rules(Map.of("buyXGetY", Map.of("buy", 2, "get", 1))));
+
+        CartPricingDto pricing = price(List.of(threeForTwo), null);
+
+        assertThat(pricing.getDiscount()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void highestReachedTierApplies() {
+        Coupon tiers = automatic(1L, "TIERS", 0, true, rules(Map.of("tiers", List.of(
+                Map.of("atLeast", 50, "amountOff", 5),
+                Map.of("atLeast", 100, "percentOff", 10),
+                Map.of("atLeast", 250, "percentOff", 25)))));
+
+        CartPricingDto pricing = price(List.of(tiers), null);
+
+        assertThat(pricing.getDiscount()).isEqualByComparingTo("12.00");
+    }
+
+    @Test
+    void stackablePromotionsCombineInPriorityOrder() {
+        Coupon first = automatic(1L, "FIRST", 10, true, rules(Map.of("amountOff", 5)));
+        Coupon exclusive = automatic(2L, "EXCLUSIVE", 5, false, rules(Map.of("percentOff", 50)));
+        Coupon entered = coupon(3L, "ENTERED");
+        entered.setPriority(1);
+        entered.setRules(rules(Map.of("amountOff", 3)));
+
+        CartPricingDto pricing = price(List.of(entered, exclusive, first), "ENTERED");
+
+        assertThat(codes(pricing)).containsExactly("FIRST", "ENTERED");
+        assertThat(pricing.getDiscount()).isEqualByComparingTo("8.00");
+        assertThat(pricing.isCouponApplied()).isTrue();
+    }
+
+    @Test
+    void nonStackablePromotionEndsTheRun() {
+        Coupon exclusive = automatic(1L, "EXCLUSIVE", 20, false, rules(Map.of("percentOff", 50)));
+        Coupon later = automatic(2L, "LATER", 10, true, rules(Map.of("amountOff", 5)));
+        Coupon entered = coupon(3L, "ENTERED");
+        entered.setRules(rules(Map.of("amountOff", 3)));
+
+        CartPricingDto pricing = price(List.of(exclusive, later, entered), "ENTERED");
+
+        assertThat(codes(pricing)).containsExactly("EXCLUSIVE");
+        assertThat(pricing.getDiscount()).isEqualByComparingTo("60.00");
+        assertThat(pricing.isCouponApplied()).isFalse();
+    }
+
+    @Test
+    void discountsNeverExceedTheSubtotal() {
+        Coupon big = automatic(1L, "BIG", 10, true, rules(Map.of("amountOff", 100)));
+        Coupon bigger = automatic(2L, "BIGGER", 5, true, rules(Map.of("amountOff", 100)));
+
+        CartPricingDto pricing = price(List.of(big, bigger), null);
+
+        assertThat(pricing.getPromotions()).extracting(AppliedPromotionDto::getDiscount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("100.00"), new BigDecimal("20.00"));
+        assertThat(pricing.getTotal()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void couponLimitsApplyOnTopOfTheRules() {
+        Coupon capped = automatic(1L, "CAPPED", 0, true, rules(Map.of("percentOff", 50)));
+        capped.setMaximumDiscount(new BigDecimal("25.00"));
+        Coupon bigSpender = automatic(2L, "BIG-SPENDER", 0, true, rules(Map.of("amountOff", 10)));
+        bigSpender.setMinimumAmount(new BigDecimal("500.00"));
+
+        CartPricingDto pricing = price(List.of(capped, bigSpender), null);
+
+        assertThat(codes(pricing)).containsExactly("CAPPED");
+        assertThat(pricing.getDiscount()).isEqualByComparingTo("25.00");
+    }
+
+    @Test
+    void promotionsOutsideTheirWindowAreSkipped() {
+        Coupon expired = automatic(1L, "EXPIRED", 0, true, rules(Map.of("amountOff", 5)));
+        expired.setExpiresAt(NOW.minusSeconds(1));
+        Coupon upcoming = automatic(2L, "UPCOMING", 0, true, rules(Map.of("amountOff", 5)));
+        upcoming.setStartsAt(NOW.plusDays(1));
+
+        CartPricingDto pricing = price(List.of(expired, upcoming), null);
+
+        assertThat(pricing.getPromotions()).isEmpty();
+        assertThat(pricing.getTotal()).isEqualByComparingTo("120.00");
+    }
+
+    @Test
+    void unknownCouponCodeIsNotApplied() {
+        CartPricingDto pricing = price(List.of(), "NOPE");
+
+        assertThat(pricing.isCouponApplied()).isFalse();
+        assertThat(pricing.getCouponCode()).isEqualTo("NOPE");
+        assertThat(pricing.getDiscount()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void invalidRulesAreRejected() {
+        assertInvalid(Map.of("then", List.of()), "'then' must list at least one action");
+        assertInvalid(rules(Map.of("percentOff", 150)), "percentages must be between 0 and 100");
+        assertInvalid(rules(Map.of("amountOff", -1)), "amounts may not be negative");
+        assertInvalid(rules(Map.of("buyXGetY", Map.of("buy", 0, "get", 1))), "'buy' must be a positive whole number");
+        assertInvalid(rules(Map.of("freeShipping", true)), "unknown action");
+        assertInvalid(Map.of("when", Map.of("weekday", 1), "then", List.of(Map.of("amountOff", 1))),
+                "unknown condition");
+
+        Coupon plain = coupon(1L, "PLAIN");
+        assertThatThrownBy(() -> PromotionRules.validate(plain))
+                .isInstanceOf(AppException.class)
+                .hasMessage("Invalid promotion rules: a coupon without rules needs a type and a value");
+    }
+
+    private static void assertInvalid(Map<String, Object> rules, String reason) {
+        Coupon coupon = coupon(1L, "INVALID");
+        coupon.setRules(rules);
+        assertThatThrownBy(() -> PromotionRules.validate(coupon))
+                .isInstanceOf(AppException.class)
+                .hasMessageStartingWith("Invalid promotion rules: " + reason);
+    }
+
+    private static CartPricingDto price(List<Coupon> coupons, String couponCode) {
+        return PromotionSnapshot.of(coupons, TREE).price(CART, couponCode, NOW);
+    }
+
+    private static List<String> codes(CartPricingDto pricing) {
+        return pricing.getPromotions().stream().map(AppliedPromotionDto::getCode).toList();
+    }
+
+    private static Map<String, Object> rules(Map<String, Object> action) {
+        return Map.of("then", List.of(action));
+    }
+
+    private static Coupon automatic(Long id, String code, int priority, boolean stackable, Map<String, Object> rules) {
+        Coupon coupon = coupon(id, code);
+        coupon.setIsAutomatic(true);
+        coupon.setPriority(priority);
+        coupon.setIsStackable(stackable);
+        coupon.setRules(rules);
+        return coupon;
+    }
+
+    private static Coupon coupon(Long id, String code) {
+        Coupon coupon = new Coupon();
+        coupon.setId(id);
+        coupon.setCode(code);
+        coupon.setVersion(0L);
+        return coupon;
+    }
+
+    private static CategoryTree tree() {
+        Category kitchen = category(1L, null);
+        return CategoryTree.build(List.of(kitchen, category(2L, kitchen), category(3L, null)), Map.of());
+    }
+
+    private static Category category(Long id, Category parent) {
+        Category category = new Category();
+        category.setId(id);
+        category.setName("Category " + id);
+        category.setParent(parent);
+        return category;
+    }
+}
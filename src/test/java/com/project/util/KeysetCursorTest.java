@@ -0,0 +1,51 @@
+package com.project.util;
+
+import com.project.exception.AppException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2026-03-01T12:00:00.123456", "19.99", "a|b", "über"})
+    void decodesWhatItEncodes(String sortKey) {
+        String token = new KeysetCursor(sortKey, 42L).encode();
+
+        KeysetCursor decoded = KeysetCursor.decode(token);
+
+        assertThat(decoded.getSortKey()).isEqualTo(sortKey);
+        assertThat(decoded.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void tokensAreUrlSafe() {
+        String token = new KeysetCursor("??>>??", Long.MAX_VALUE).encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"19.99", "|42", "19.99|", "19.99|abc", "19.99|4.2"})
+    void malformedPayloadIsRejected(String raw) {
+        String token = Base64.getUrlEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> KeysetCursor.decode(token))
+                .isInstanceOf(AppException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "not base64!", "abc$def"})
+    void malformedTokenIsRejected(String token) {
+        assertThatThrownBy(() -> KeysetCursor.decode(token))
+                .isInstanceOf(AppException.class)
+                .hasMessage("Invalid cursor");
+    }
+}
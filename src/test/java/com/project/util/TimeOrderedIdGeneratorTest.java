@@ -0,0 +1,99 @@
+package com.project.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimeOrderedIdGeneratorTest {
+
+    private static final long NOW = TimeOrderedIdGenerator.EPOCH + 86_400_000L;
+
+    private final AtomicLong clock = new AtomicLong(NOW);
+
+    @Test
+    void idsIncreaseWithinTheSameMillisecond() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(7, clock::get);
+
+        long first = generator.nextId();
+        long second = generator.nextId();
+
+        assertThat(second).isGreaterThan(first);
+        assertThat(TimeOrderedIdGenerator.timestampOf(first)).isEqualTo(NOW);
+        assertThat(TimeOrderedIdGenerator.timestampOf(second)).isEqualTo(NOW);
+    }
+
+    @Test
+    void idsCarryTheClockAndNodeId() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(TimeOrderedIdGenerator.MAX_NODE_ID, clock::get);
+
+        clock.set(NOW + 1234);
+        long id = generator.nextId();
+
+        assertThat(TimeOrderedIdGenerator.timestampOf(id)).isEqualTo(NOW + 1234);
+        assertThat((id >>> 12) & TimeOrderedIdGenerator.MAX_NODE_ID).isEqualTo(TimeOrderedIdGenerator.MAX_NODE_ID);
+    }
+
+    @Test
+    void idsKeepIncreasingWhenTheClockStepsBack() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(1, clock::get);
+
+        long beforeRollback = generator.nextId();
+        clock.set(NOW - 5_000);
+        long afterRollback = generator.nextId();
+        clock.set(NOW + 1);
+        long caughtUp = generator.nextId();
+
+        assertThat(afterRollback).isGreaterThan(beforeRollback);
+        assertThat(TimeOrderedIdGenerator.timestampOf(afterRollback)).isEqualTo(NOW);
+        assertThat(caughtUp).isGreaterThan(afterRollback);
+        assertThat(TimeOrderedIdGenerator.timestampOf(caughtUp)).isEqualTo(NOW + 1);
+    }
+
+    @Test
+    void counterOverflowCarriesIntoTheNextMillisecond() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(3, clock::get);
+        Set<Long> ids = new HashSet<>();
+
+        long previous = Long.MIN_VALUE;
+        for (int i = 0; i < 4096 + 10; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            ids.add(id);
+            previous = id;
+        }
+
+        assertThat(ids).hasSize(4096 + 10);
+        assertThat(TimeOrderedIdGenerator.timestampOf(previous)).isEqualTo(NOW + 1);
+    }
+
+    @Test
+    void nodesNeverHandOutTheSameId() {
+        TimeOrderedIdGenerator first = new TimeOrderedIdGenerator(1, clock::get);
+        TimeOrderedIdGenerator second = new TimeOrderedIdGenerator(2, clock::get);
+
+        assertThat(first.nextId()).isNotEqualTo(second.nextId());
+    }
+
+    @Test
+    void nodeIdMustFitInItsBits() {
+        assertThatThrownBy(() -> new TimeOrderedIdGenerator(-1, clock::get))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TimeOrderedIdGenerator(TimeOrderedIdGenerator.MAX_NODE_ID + 1, clock::get))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void nodeIdHasNoDefault() {
+        assertThat(TimeOrderedIdGenerator.requireNodeId(" 12 ")).isEqualTo(12);
+        assertThatThrownBy(() -> TimeOrderedIdGenerator.requireNodeId(null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("app.ids.node-id is not set");
+        assertThatThrownBy(() -> TimeOrderedIdGenerator.requireNodeId("node-a"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}